@@ -4,6 +4,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+
 /**
  * Base class for algorithm classes.
  *
@@ -11,12 +13,28 @@ import java.util.ArrayList;
  */
 public abstract class AbstractAlgorithm<Observer> {
 
+    /**
+     * Number of calls to {@link #checkInterruption()} between two actual checks of
+     * the cancellation token and of the clock (a power of 2).
+     */
+    public static final int CHECK_INTERVAL = 1 << 10;
+
     // Input data for the algorithm
     protected final AbstractInputData data;
 
     // List of observers for the algorithm
     protected final ArrayList<Observer> observers;
 
+    // Token that may cancel the algorithm (null if none), and maximum solving
+    // time of each run (null if none).
+    private CancellationToken cancellationToken;
+    private Duration timeout;
+
+    // Deadline of the current run (System.nanoTime), and number of calls to
+    // checkInterruption() during the current run.
+    private long deadline;
+    private int nbChecks;
+
     /**
      * Create a new algorithm with an empty list of observers.
      * 
@@ -61,24 +79,106 @@ public abstract class AbstractAlgorithm<Observer> {
         return data;
     }
 
+    /**
+     * @return Token that may cancel this algorithm, or null if none.
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Set the token that may cancel this algorithm. Once the token is cancelled, a
+     * running algorithm stops and returns a solution with status
+     * {@link Status#CANCELLED}.
+     * 
+     * @param cancellationToken Token that may cancel this algorithm, or null.
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * @return Maximum solving time of each run, or null if none.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Set the maximum solving time of each run. Once it has elapsed, a running
+     * algorithm stops and returns a solution with status {@link Status#TIMEOUT}.
+     * 
+     * @param timeout Maximum solving time of each run, or null for no limit.
+     * 
+     * @throws IllegalArgumentException if the timeout is negative.
+     */
+    public void setTimeout(Duration timeout) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Check whether the current run should stop, because the cancellation token
+     * has been cancelled, the running thread has been interrupted (see
+     * {@link Thread#interrupt()}), or the timeout has elapsed. This method is
+     * cheap enough to be called for every settled node: the token, the thread and
+     * the clock are only checked on the first call and then once every
+     * {@link #CHECK_INTERVAL} calls.
+     * 
+     * @return {@link Status#CANCELLED} or {@link Status#TIMEOUT} if the algorithm
+     *         should stop and return a solution with this status, null otherwise.
+     */
+    protected final Status checkInterruption() {
+        if ((this.nbChecks++ & (CHECK_INTERVAL - 1)) != 0) {
+            return null;
+        }
+        if ((this.cancellationToken != null && this.cancellationToken.isCancelled())
+                || Thread.currentThread().isInterrupted()) {
+            return Status.CANCELLED;
+        }
+        if (this.timeout != null && System.nanoTime() - this.deadline >= 0) {
+            return Status.TIMEOUT;
+        }
+        return null;
+    }
+
     /**
      * Run the algorithm and return the solution.
      * 
      * This methods internally time the call to doRun() and update the result of the
      * call with the computed solving time.
      * 
-     * @return The solution found by the algorithm (may not be a feasible solution).
+     * @return The solution found by the algorithm (may not be a feasible solution,
+     *         see {@link AbstractSolution#isInterrupted()}).
      */
     public AbstractSolution run() {
         Instant start = Instant.now();
+        this.nbChecks = 0;
+        if (this.timeout != null) {
+            this.deadline = System.nanoTime() + saturatedNanos(this.timeout);
+        }
         AbstractSolution solution = this.doRun();
         solution.setSolvingTime(Duration.between(start, Instant.now()));
         return solution;
     }
 
+    /**
+     * @return The given duration in nanoseconds, or {@link Long#MAX_VALUE} / 2 if it
+     *         does not fit (so that it can be added to {@link System#nanoTime()}).
+     */
+    private static long saturatedNanos(Duration duration) {
+        return duration.compareTo(Duration.ofNanos(Long.MAX_VALUE / 2)) > 0
+                ? Long.MAX_VALUE / 2 : duration.toNanos();
+    }
+
     /**
      * Abstract method that should be implemented by child class.
      * 
+     * Long-running implementations should call {@link #checkInterruption()}
+     * regularly and stop as soon as it returns a status.
+     * 
      * @return The solution found, must not be null (use an infeasible or unknown
      * status if necessary).
      */
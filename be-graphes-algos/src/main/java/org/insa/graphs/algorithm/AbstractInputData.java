@@ -27,6 +27,9 @@ public abstract class AbstractInputData {
     // Arc filter.
     protected final ArcInspector arcInspector;
 
+    // Costs and permissions of the arcs (computed on first access).
+    private WeightProfile weightProfile;
+
     /**
      * Create a new AbstractInputData instance for the given graph, mode and filter.
      * 
@@ -45,6 +48,26 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input.
+     */
+    public ArcInspector getArcInspector() {
+        return arcInspector;
+    }
+
+    /**
+     * @return Costs and permissions of the arcs of the graph for the underlying arc
+     *         inspector.
+     * 
+     * @see WeightProfile#of(Graph, ArcInspector)
+     */
+    public WeightProfile getWeightProfile() {
+        if (this.weightProfile == null) {
+            this.weightProfile = WeightProfile.of(this.graph, this.arcInspector);
+        }
+        return this.weightProfile;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying
      * arc inspector.
@@ -59,6 +82,21 @@ public abstract class AbstractInputData {
         return this.arcInspector.getCost(arc);
     }
 
+    /**
+     * Retrieve the cost associated with the arc with the given ID in the compact
+     * representation of the graph, according to the underlying arc inspector.
+     * 
+     * @param arcId ID of the arc for which cost should be retrieved.
+     * 
+     * @return Cost for the given arc.
+     * 
+     * @see Graph#getCompactGraph()
+     * @see #getWeightProfile()
+     */
+    public double getCost(int arcId) {
+        return getWeightProfile().getCost(arcId);
+    }
+
     /**
      * @return Mode associated with this input data.
      * 
@@ -94,4 +132,19 @@ public abstract class AbstractInputData {
         return this.arcInspector.isAllowed(arc);
     }
 
+    /**
+     * Check if the arc with the given ID in the compact representation of the
+     * graph is allowed for the filter corresponding to this input.
+     * 
+     * @param arcId ID of the arc to check.
+     * 
+     * @return true if the given arc is allowed.
+     * 
+     * @see Graph#getCompactGraph()
+     * @see #getWeightProfile()
+     */
+    public boolean isAllowed(int arcId) {
+        return getWeightProfile().isAllowed(arcId);
+    }
+
 }
@@ -11,11 +11,13 @@ import java.time.Duration;
 public abstract class AbstractSolution {
 
     /**
-     * Possible status for a solution.
+     * Possible status for a solution. {@link #TIMEOUT} and {@link #CANCELLED} are
+     * given to solutions of algorithms that stopped before the end (see
+     * {@link AbstractAlgorithm#checkInterruption()}).
      *
      */
     public enum Status {
-        UNKNOWN, INFEASIBLE, FEASIBLE, OPTIMAL,
+        UNKNOWN, INFEASIBLE, FEASIBLE, OPTIMAL, TIMEOUT, CANCELLED,
     };
 
     // Status of the solution.
@@ -78,6 +80,14 @@ public abstract class AbstractSolution {
         this.solvingTime = solvingTime;
     }
 
+    /**
+     * @return true if the algorithm stopped before the end, because it was
+     *         cancelled or its timeout expired.
+     */
+    public boolean isInterrupted() {
+        return status == Status.TIMEOUT || status == Status.CANCELLED;
+    }
+
     /**
      * @return true if the solution is feasible or optimal.
      */
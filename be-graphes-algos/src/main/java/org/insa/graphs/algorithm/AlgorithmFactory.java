@@ -1,15 +1,23 @@
 package org.insa.graphs.algorithm;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Function;
 
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalAStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CustomizableContractionHierarchyAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.EquirectangularAStarAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
@@ -32,6 +40,17 @@ public class AlgorithmFactory {
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (equirectangular)",
+                EquirectangularAStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional A*",
+                BidirectionalAStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "ALT", ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction Hierarchies",
+                ContractionHierarchyAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Customizable Contraction Hierarchies",
+                CustomizableContractionHierarchyAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
@@ -56,6 +75,27 @@ public class AlgorithmFactory {
         ALGORITHMS.get(baseAlgorithm).put(name, algoClass);
     }
 
+    /**
+     * Find the constructor of the given algorithm class that can be called with
+     * input data of the given class (only).
+     * 
+     * @param algorithm Class of the algorithm.
+     * @param dataClass Class of the input data.
+     * 
+     * @return The constructor, or null if there is none.
+     */
+    private static Constructor<?> findConstructor(
+            Class<? extends AbstractAlgorithm<?>> algorithm, Class<?> dataClass) {
+        for (Constructor<?> c: algorithm.getDeclaredConstructors()) {
+            Class<?>[] params = c.getParameterTypes();
+            if (params.length == 1 && params[0].isAssignableFrom(dataClass)) {
+                c.setAccessible(true);
+                return c;
+            }
+        }
+        return null;
+    }
+
     /**
      * Create an instance of the given algorithm class using the given input data.
      * Assuming algorithm correspond to a class "Algorithm", this function returns
@@ -74,20 +114,51 @@ public class AlgorithmFactory {
     public static AbstractAlgorithm<?> createAlgorithm(
             Class<? extends AbstractAlgorithm<?>> algorithm, AbstractInputData data)
             throws Exception {
-        // Retrieve the set of constructors for the given algorithm class.
-        Constructor<?>[] constructors = algorithm.getDeclaredConstructors();
+        // Within the constructors of the algorithm, find the one that can be called
+        // with "data" (only).
+        Constructor<?> constructor = findConstructor(algorithm, data.getClass());
+        if (constructor == null) {
+            return null;
+        }
+        return (AbstractAlgorithm<?>) constructor.newInstance(new Object[] { data });
+    }
 
-        // Within this set, find the constructor that can be called with "data" (only).
-        AbstractAlgorithm<?> constructed = null;
-        for (Constructor<?> c: constructors) {
-            Class<?>[] params = c.getParameterTypes();
-            if (params.length == 1 && params[0].isAssignableFrom(data.getClass())) {
-                c.setAccessible(true);
-                constructed = (AbstractAlgorithm<?>) c.newInstance(new Object[] { data });
-                break;
-            }
+    /**
+     * Retrieve a function creating instances of the given algorithm class from
+     * input data of the given class. Contrary to
+     * {@link #createAlgorithm(Class, AbstractInputData)}, the constructor is only
+     * looked up once, so the function can be used to create many algorithms.
+     * 
+     * @param algorithm Class of the algorithm to create.
+     * @param dataClass Class of the input data that will be given to the function.
+     * 
+     * @return A function equivalent to `data -> new Algorithm(data)`.
+     * 
+     * @throws IllegalArgumentException if no constructor of the given algorithm
+     *                                  class takes a single parameter of the given
+     *                                  class.
+     */
+    public static <D extends AbstractInputData> Function<D, AbstractAlgorithm<?>> getAlgorithmConstructor(
+            Class<? extends AbstractAlgorithm<?>> algorithm, Class<D> dataClass) {
+        final Constructor<?> constructor = findConstructor(algorithm, dataClass);
+        if (constructor == null) {
+            throw new IllegalArgumentException(
+                    "No constructor of " + algorithm.getName() + " takes " + dataClass.getName());
         }
-        return constructed;
+        return data -> {
+            try {
+                return (AbstractAlgorithm<?>) constructor.newInstance(data);
+            }
+            catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+            catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        };
     }
 
     /**
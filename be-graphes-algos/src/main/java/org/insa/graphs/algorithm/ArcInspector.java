@@ -2,6 +2,8 @@ package org.insa.graphs.algorithm;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
 
 /**
@@ -29,6 +31,44 @@ public interface ArcInspector {
      */
     public double getCost(Arc arc);
 
+    /**
+     * Check if the arc with the given ID in the compact representation of the
+     * given graph can be used (is allowed).
+     * 
+     * The default implementation retrieves the corresponding {@link Arc} and
+     * calls {@link #isAllowed(Arc)}, implementations should override this method
+     * to only use the {@link CompactGraph}.
+     * 
+     * @param graph Graph containing the arc.
+     * @param arcId ID of the arc to check.
+     * 
+     * @return true if the given arc is allowed.
+     * 
+     * @see Graph#getCompactGraph()
+     */
+    public default boolean isAllowed(Graph graph, int arcId) {
+        return isAllowed(graph.getArc(arcId));
+    }
+
+    /**
+     * Find the cost of the arc with the given ID in the compact representation of
+     * the given graph.
+     * 
+     * The default implementation retrieves the corresponding {@link Arc} and
+     * calls {@link #getCost(Arc)}, implementations should override this method to
+     * only use the {@link CompactGraph}.
+     * 
+     * @param graph Graph containing the arc.
+     * @param arcId ID of the arc for which the cost should be returned.
+     * 
+     * @return Cost of the arc.
+     * 
+     * @see Graph#getCompactGraph()
+     */
+    public default double getCost(Graph graph, int arcId) {
+        return getCost(graph.getArc(arcId));
+    }
+
     /**
      * @return The maximum speed for this inspector, or
      *         {@link GraphStatistics#NO_MAXIMUM_SPEED} if none is set.
@@ -40,4 +80,20 @@ public interface ArcInspector {
      */
     public Mode getMode();
 
+    /**
+     * Retrieve the key identifying this inspector in the caches of preprocessed
+     * data (see {@link InspectorCache}). Inspectors with equal keys share their
+     * cached data, so they must return the same permission and cost for every arc.
+     * 
+     * The default implementation returns this inspector, so inspectors are
+     * identified by their {@link Object#equals(Object)} method, i.e. by instance
+     * unless it is overridden.
+     * 
+     * @return Key of this inspector, compared using {@link Object#equals(Object)}
+     *         and {@link Object#hashCode()}.
+     */
+    public default Object cacheKey() {
+        return this;
+    }
+
 }
\ No newline at end of file
@@ -6,167 +6,233 @@ import java.util.List;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.AccessRestrictions.AccessMask;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
 import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
 
 public class ArcInspectorFactory {
 
+    // Roads open for cars (neither forbidden nor private).
+    private static final AccessMask CAR_ACCESS = AccessMask.of(AccessMode.MOTORCAR,
+            EnumSet.complementOf(
+                    EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+
+    // Roads open for pedestrians (neither forbidden nor private).
+    private static final AccessMask FOOT_ACCESS = AccessMask.of(AccessMode.FOOT,
+            EnumSet.complementOf(
+                    EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+
+    // No filter (all arcs allowed):
+    private static final ArcInspector ALL_ROADS_LENGTH = new ArcInspector() {
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return true;
+        }
+
+        @Override
+        public boolean isAllowed(Graph graph, int arcId) {
+            return true;
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getLength();
+        }
+
+        @Override
+        public double getCost(Graph graph, int arcId) {
+            return graph.getCompactGraph().getLength(arcId);
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.LENGTH;
+        }
+
+        @Override
+        public String toString() {
+            return "Shortest path, all roads allowed";
+        }
+    };
+
+    // Only road allowed for cars and length:
+    private static final ArcInspector CAR_ROADS_LENGTH = new ArcInspector() {
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return CAR_ACCESS.test(arc.getRoadInformation().getAccessRestrictions());
+        }
+
+        @Override
+        public boolean isAllowed(Graph graph, int arcId) {
+            return CAR_ACCESS.test(
+                    graph.getCompactGraph().getRoadInformation(arcId).getAccessRestrictions());
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getLength();
+        }
+
+        @Override
+        public double getCost(Graph graph, int arcId) {
+            return graph.getCompactGraph().getLength(arcId);
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.LENGTH;
+        }
+
+        @Override
+        public String toString() {
+            return "Shortest path, only roads open for cars";
+        }
+    };
+
+    // Only road allowed for cars and time:
+    private static final ArcInspector ALL_ROADS_TIME = new ArcInspector() {
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return true;
+        }
+
+        @Override
+        public boolean isAllowed(Graph graph, int arcId) {
+            return true;
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getMinimumTravelTime();
+        }
+
+        @Override
+        public double getCost(Graph graph, int arcId) {
+            return graph.getCompactGraph().getMinimumTravelTime(arcId);
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.TIME;
+        }
+
+        @Override
+        public String toString() {
+            return "Fastest path, all roads allowed";
+        }
+    };
+
+    private static final ArcInspector CAR_ROADS_TIME = new ArcInspector() {
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return CAR_ACCESS.test(arc.getRoadInformation().getAccessRestrictions());
+        }
+
+        @Override
+        public boolean isAllowed(Graph graph, int arcId) {
+            return CAR_ACCESS.test(
+                    graph.getCompactGraph().getRoadInformation(arcId).getAccessRestrictions());
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getMinimumTravelTime();
+        }
+
+        @Override
+        public double getCost(Graph graph, int arcId) {
+            return graph.getCompactGraph().getMinimumTravelTime(arcId);
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.TIME;
+        }
+
+        @Override
+        public String toString() {
+            return "Fastest path, only roads open for cars";
+        }
+    };
+
+    // Non-private roads for pedestrian and bicycle:
+    private static final ArcInspector FOOT_ROADS_TIME = new ArcInspector() {
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return FOOT_ACCESS.test(arc.getRoadInformation().getAccessRestrictions());
+        }
+
+        @Override
+        public boolean isAllowed(Graph graph, int arcId) {
+            return FOOT_ACCESS.test(
+                    graph.getCompactGraph().getRoadInformation(arcId).getAccessRestrictions());
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getTravelTime(
+                    Math.min(getMaximumSpeed(), arc.getRoadInformation().getMaximumSpeed()));
+        }
+
+        @Override
+        public double getCost(Graph graph, int arcId) {
+            return graph.getCompactGraph().getTravelTime(arcId, Math.min(getMaximumSpeed(),
+                    graph.getCompactGraph().getRoadInformation(arcId).getMaximumSpeed()));
+        }
+
+        @Override
+        public String toString() {
+            return "Fastest path for pedestrian";
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return 5;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.TIME;
+        }
+    };
+
     /**
-     * @return List of all arc filters in this factory.
+     * @return List of all arc filters in this factory. The filters are always the
+     *         same instances, so that data cached for a filter (see
+     *         {@link WeightProfile#of(Graph, ArcInspector)}) is shared by all the
+     *         users of the filter.
      */
     public static List<ArcInspector> getAllFilters() {
         List<ArcInspector> filters = new ArrayList<>();
 
         // Common filters:
-
-        // No filter (all arcs allowed):
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return true;
-            }
-
-            @Override
-            public double getCost(Arc arc) {
-                return arc.getLength();
-            }
-
-            @Override
-            public int getMaximumSpeed() {
-                return GraphStatistics.NO_MAXIMUM_SPEED;
-            }
-
-            @Override
-            public Mode getMode() {
-                return Mode.LENGTH;
-            }
-
-            @Override
-            public String toString() {
-                return "Shortest path, all roads allowed";
-            }
-        });
-
-        // Only road allowed for cars and length:
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
-
-            @Override
-            public double getCost(Arc arc) {
-                return arc.getLength();
-            }
-
-            @Override
-            public int getMaximumSpeed() {
-                return GraphStatistics.NO_MAXIMUM_SPEED;
-            }
-
-            @Override
-            public Mode getMode() {
-                return Mode.LENGTH;
-            }
-
-            @Override
-            public String toString() {
-                return "Shortest path, only roads open for cars";
-            }
-        });
-
-        // Only road allowed for cars and time:
-
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return true;
-            }
-
-            @Override
-            public double getCost(Arc arc) {
-                return arc.getMinimumTravelTime();
-            }
-
-            @Override
-            public int getMaximumSpeed() {
-                return GraphStatistics.NO_MAXIMUM_SPEED;
-            }
-
-            @Override
-            public Mode getMode() {
-                return Mode.TIME;
-            }
-
-            @Override
-            public String toString() {
-                return "Fastest path, all roads allowed";
-            }
-        });
-
-        filters.add(new ArcInspector() {
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
-
-            @Override
-            public double getCost(Arc arc) {
-                return arc.getMinimumTravelTime();
-            }
-
-            @Override
-            public int getMaximumSpeed() {
-                return GraphStatistics.NO_MAXIMUM_SPEED;
-            }
-
-            @Override
-            public Mode getMode() {
-                return Mode.TIME;
-            }
-
-            @Override
-            public String toString() {
-                return "Fastest path, only roads open for cars";
-            }
-        });
-
-        // Non-private roads for pedestrian and bicycle:
-        filters.add(new ArcInspector() {
-
-            @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.FOOT, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
-            }
-
-            @Override
-            public double getCost(Arc arc) {
-                return arc.getTravelTime(
-                        Math.min(getMaximumSpeed(), arc.getRoadInformation().getMaximumSpeed()));
-            }
-
-            @Override
-            public String toString() {
-                return "Fastest path for pedestrian";
-            }
-
-            @Override
-            public int getMaximumSpeed() {
-                return 5;
-            }
-
-            @Override
-            public Mode getMode() {
-                return Mode.TIME;
-            }
-        });
+        filters.add(ALL_ROADS_LENGTH);
+        filters.add(CAR_ROADS_LENGTH);
+        filters.add(ALL_ROADS_TIME);
+        filters.add(CAR_ROADS_TIME);
+        filters.add(FOOT_ROADS_TIME);
 
         // Add your own filters here (do not forget to implement toString()
         // to get an understandable output!):
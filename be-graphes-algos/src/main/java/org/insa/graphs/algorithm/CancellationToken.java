@@ -0,0 +1,36 @@
+package org.insa.graphs.algorithm;
+
+/**
+ * <p>
+ * Token used to ask running algorithms to stop.
+ * </p>
+ *
+ * <p>
+ * A token can be shared by several algorithms (e.g., all the queries of a
+ * request) and cancelled from any thread. Algorithms check their token
+ * periodically (see {@link AbstractAlgorithm#checkInterruption()}), and return
+ * a solution with status {@link AbstractSolution.Status#CANCELLED} once it has
+ * been cancelled. A cancelled token cannot be reset.
+ * </p>
+ *
+ */
+public final class CancellationToken {
+
+    // true once the token has been cancelled.
+    private volatile boolean cancelled = false;
+
+    /**
+     * Cancel this token, asking the algorithms that use it to stop.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return true if this token has been cancelled.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+}
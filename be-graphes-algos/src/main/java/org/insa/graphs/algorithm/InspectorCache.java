@@ -0,0 +1,146 @@
+package org.insa.graphs.algorithm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Cache of values computed for a pair (graph, inspector), such as weight
+ * profiles or preprocessed hierarchies.
+ * </p>
+ *
+ * <p>
+ * Inspectors are identified by their {@link ArcInspector#cacheKey()}, so by
+ * instance unless they opt in to share their cached values with equivalent
+ * inspectors. The description of an inspector ({@link Object#toString()}) is
+ * not used, since different inspectors may have the same description.
+ * </p>
+ *
+ * <p>
+ * At most a given number of values are kept for each graph (the least recently
+ * used values are evicted first), and values of a graph are released when the
+ * graph is garbage collected. Each value is computed once while it is cached,
+ * even if it is requested concurrently.
+ * </p>
+ *
+ * @param <V> Type of the cached values.
+ */
+public final class InspectorCache<V> {
+
+    /**
+     * Value of the cache, computed on first access.
+     */
+    private static final class Entry<V> {
+
+        private volatile V value;
+
+        private V get(Graph graph, ArcInspector arcInspector,
+                BiFunction<Graph, ArcInspector, ? extends V> function) {
+            V value = this.value;
+            if (value == null) {
+                synchronized (this) {
+                    value = this.value;
+                    if (value == null) {
+                        value = function.apply(graph, arcInspector);
+                        this.value = value;
+                    }
+                }
+            }
+            return value;
+        }
+
+    }
+
+    /**
+     * Entries of a graph, in access order and bounded by the capacity of the
+     * cache.
+     */
+    private static final class GraphEntries<V> extends LinkedHashMap<Object, Entry<V>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private GraphEntries(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry<V>> eldest) {
+            return size() > this.capacity;
+        }
+
+    }
+
+    // Maximum number of values per graph.
+    private final int capacity;
+
+    // Function computing the values.
+    private final BiFunction<Graph, ArcInspector, ? extends V> function;
+
+    // Cached entries, by graph and inspector key.
+    private final Map<Graph, GraphEntries<V>> entries = new WeakHashMap<>();
+
+    /**
+     * Create a new cache.
+     *
+     * @param capacity Maximum number of values kept for each graph.
+     * @param function Function computing the value for a graph and an inspector.
+     *
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public InspectorCache(int capacity, BiFunction<Graph, ArcInspector, ? extends V> function) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.function = function;
+    }
+
+    /**
+     * @return Maximum number of values kept for each graph.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Retrieve the value for the given graph and inspector, computing it if it is
+     * not in the cache.
+     *
+     * @param graph Graph for which the value should be retrieved.
+     * @param arcInspector Inspector for which the value should be retrieved.
+     *
+     * @return Value for the given graph and inspector.
+     */
+    public V get(Graph graph, ArcInspector arcInspector) {
+        Entry<V> entry;
+        synchronized (this.entries) {
+            entry = this.entries.computeIfAbsent(graph, g -> new GraphEntries<>(this.capacity))
+                    .computeIfAbsent(arcInspector.cacheKey(), key -> new Entry<>());
+        }
+        return entry.get(graph, arcInspector, this.function);
+    }
+
+    /**
+     * @param graph Graph of the value.
+     * @param arcInspector Inspector of the value.
+     *
+     * @return Value for the given graph and inspector if it is in the cache, or
+     *         null.
+     */
+    public V getIfPresent(Graph graph, ArcInspector arcInspector) {
+        Entry<V> entry;
+        synchronized (this.entries) {
+            GraphEntries<V> graphEntries = this.entries.get(graph);
+            entry = graphEntries == null ? null : graphEntries.get(arcInspector.cacheKey());
+        }
+        return entry == null ? null : entry.value;
+    }
+
+}
@@ -0,0 +1,202 @@
+package org.insa.graphs.algorithm;
+
+import java.util.BitSet;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Costs and permissions of all the arcs of a graph for a given
+ * {@link ArcInspector}, indexed by arc ID in the compact representation of the
+ * graph (see {@link Graph#getCompactGraph()}).
+ * </p>
+ *
+ * <p>
+ * Profiles are computed once per pair (graph, inspector) and cached (see
+ * {@link #of(Graph, ArcInspector)} and {@link InspectorCache}), so inspectors
+ * must always return the same cost and permission for a given arc, and
+ * inspectors with equal {@link ArcInspector#cacheKey()} must be equivalent.
+ * </p>
+ *
+ * <p>
+ * Costs can also be retrieved as integers (see {@link #getQuantizedCost(int)})
+ * for priority queues working on integer keys, such as
+ * {@link org.insa.graphs.algorithm.utils.MonotonePriorityQueue}.
+ * </p>
+ *
+ */
+public final class WeightProfile {
+
+    /**
+     * Integer units of the quantized costs, depending on the mode of the
+     * inspector.
+     */
+    public enum Quantization {
+
+        /**
+         * Lengths (in meters) quantized in millimeters.
+         */
+        MILLIMETERS(1000),
+
+        /**
+         * Times (in seconds) quantized in milliseconds.
+         */
+        MILLISECONDS(1000);
+
+        private final double factor;
+
+        Quantization(double factor) {
+            this.factor = factor;
+        }
+
+        /**
+         * @return Number of quantized units in a unit of cost.
+         */
+        public double getFactor() {
+            return this.factor;
+        }
+
+        /**
+         * @param cost A cost.
+         *
+         * @return The cost in quantized units, rounded up (and bounded by
+         *         {@link WeightProfile#MAX_QUANTIZED_COST}).
+         */
+        public long quantizeUp(double cost) {
+            return (long) Math.min(Math.ceil(cost * this.factor), MAX_QUANTIZED_COST);
+        }
+
+        /**
+         * @param cost A cost.
+         *
+         * @return The cost in quantized units, rounded down (and bounded by
+         *         {@link WeightProfile#MAX_QUANTIZED_COST}).
+         */
+        public long quantizeDown(double cost) {
+            return (long) Math.min(Math.floor(cost * this.factor), MAX_QUANTIZED_COST);
+        }
+
+    }
+
+    /**
+     * Maximum quantized cost of an arc, so that sums of quantized costs along
+     * paths cannot overflow.
+     */
+    public static final long MAX_QUANTIZED_COST = 1L << 40;
+
+    /**
+     * Maximum number of profiles cached for a graph.
+     */
+    public static final int MAX_CACHED_PROFILES = 16;
+
+    // Cached profiles, by graph and inspector.
+    private static final InspectorCache<WeightProfile> PROFILES = new InspectorCache<>(
+            MAX_CACHED_PROFILES, WeightProfile::new);
+
+    /**
+     * Retrieve the profile for the given graph and inspector, computing it if it
+     * has not been computed yet.
+     *
+     * @param graph Graph for which the profile should be retrieved.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return Profile for the given graph and inspector.
+     */
+    public static WeightProfile of(Graph graph, ArcInspector arcInspector) {
+        return PROFILES.get(graph, arcInspector);
+    }
+
+    // Cost of each arc.
+    private final double[] costs;
+
+    // Allowed arcs.
+    private final BitSet allowed;
+
+    // Quantization of the costs, and quantized cost of each arc (computed on
+    // first use).
+    private final Quantization quantization;
+    private volatile long[] quantizedCosts;
+
+    /**
+     * Compute the profile of the given graph for the given inspector.
+     *
+     * @param graph Graph for which the profile should be computed.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     */
+    private WeightProfile(Graph graph, ArcInspector arcInspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        final int nbArcs = compact.getArcCount();
+        this.costs = new double[nbArcs];
+        this.allowed = new BitSet(nbArcs);
+        for (int arcId = 0; arcId < nbArcs; ++arcId) {
+            if (arcInspector.isAllowed(graph, arcId)) {
+                this.allowed.set(arcId);
+            }
+            this.costs[arcId] = arcInspector.getCost(graph, arcId);
+        }
+        this.quantization = arcInspector.getMode() == Mode.LENGTH ? Quantization.MILLIMETERS
+                : Quantization.MILLISECONDS;
+    }
+
+    /**
+     * @return Number of arcs in this profile.
+     */
+    public int getArcCount() {
+        return this.costs.length;
+    }
+
+    /**
+     * @param arcId ID of an arc.
+     *
+     * @return Cost of the arc with the given ID.
+     */
+    public double getCost(int arcId) {
+        return this.costs[arcId];
+    }
+
+    /**
+     * @return Quantization of the costs of this profile.
+     */
+    public Quantization getQuantization() {
+        return this.quantization;
+    }
+
+    /**
+     * Retrieve the cost of an arc in integer units (see {@link #getQuantization()}),
+     * rounded up. Quantized costs are computed for all the arcs on first call.
+     *
+     * @param arcId ID of an arc.
+     *
+     * @return Quantized cost of the arc with the given ID.
+     */
+    public long getQuantizedCost(int arcId) {
+        long[] quantizedCosts = this.quantizedCosts;
+        if (quantizedCosts == null) {
+            quantizedCosts = new long[this.costs.length];
+            for (int i = 0; i < this.costs.length; ++i) {
+                quantizedCosts[i] = this.quantization.quantizeUp(this.costs[i]);
+            }
+            this.quantizedCosts = quantizedCosts;
+        }
+        return quantizedCosts[arcId];
+    }
+
+    /**
+     * @param arcId ID of an arc.
+     *
+     * @return true if the arc with the given ID is allowed.
+     */
+    public boolean isAllowed(int arcId) {
+        return this.allowed.get(arcId);
+    }
+
+    /**
+     * @return Number of allowed arcs.
+     */
+    public int getAllowedArcCount() {
+        return this.allowed.cardinality();
+    }
+
+}
@@ -0,0 +1,528 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.Label;
+import org.insa.graphs.algorithm.shortestpath.SearchWorkspace;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Computes the costs, and optionally the paths, of the shortest paths from a
+ * set of sources to a set of targets, using one of two methods (see
+ * {@link #getMethod()}):
+ * </p>
+ * <ul>
+ * <li>{@link Method#ONE_TO_MANY_DIJKSTRA}: a Dijkstra search from each source,
+ * stopped when all the targets are settled;</li>
+ * <li>{@link Method#CH_BUCKETS}: a backward search from each target in the
+ * downward graph of a {@link ContractionHierarchy} stores its cost in a bucket of
+ * each node it settles, then a forward search from each source in the upward
+ * graph scans the buckets of the nodes it settles.</li>
+ * </ul>
+ * <p>
+ * Rows of the matrix, and backward searches, are computed concurrently by
+ * {@link #getParallelism()} threads. Observers are notified from the thread
+ * running the algorithm, as rows complete.
+ * </p>
+ *
+ */
+public class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    /**
+     * Methods used to compute the matrix.
+     */
+    public enum Method {
+        ONE_TO_MANY_DIJKSTRA, CH_BUCKETS
+    }
+
+    /**
+     * Minimum number of pairs (sources times targets) for which buckets are used
+     * when a hierarchy is available.
+     */
+    public static final int MIN_BUCKET_PAIRS = 64;
+
+    /**
+     * Label of a node in a search of the hierarchy, with the label of its
+     * predecessor and its index in the search space once settled.
+     */
+    private static final class SpaceLabel extends Label {
+
+        SpaceLabel parent = null;
+        int index = -1;
+
+        SpaceLabel(Node node) {
+            super(node);
+        }
+
+    }
+
+    /**
+     * Nodes settled by a search of the hierarchy, in settling order, with their
+     * cost, the edge to (forward) or from (backward) their parent and the index
+     * of their parent.
+     */
+    private static final class SearchSpace {
+
+        int size = 0;
+        int[] nodes = new int[16], edges = new int[16], parents = new int[16];
+        double[] costs = new double[16];
+
+        void add(int node, double cost, int edge, int parent) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+                this.edges = Arrays.copyOf(this.edges, 2 * this.size);
+                this.parents = Arrays.copyOf(this.parents, 2 * this.size);
+                this.costs = Arrays.copyOf(this.costs, 2 * this.size);
+            }
+            this.nodes[this.size] = node;
+            this.costs[this.size] = cost;
+            this.edges[this.size] = edge;
+            this.parents[this.size] = parent;
+            this.size += 1;
+        }
+
+    }
+
+    // Hierarchy used for buckets, or null.
+    private final ContractionHierarchy hierarchy;
+
+    // Number of threads computing rows and backward searches.
+    private int parallelism;
+
+    /**
+     * Create a new algorithm using the hierarchy of the graph and inspector if it
+     * has already been computed (see
+     * {@link ContractionHierarchy#getIfPresent(Graph, org.insa.graphs.algorithm.ArcInspector)}).
+     *
+     * @param data Input data for this algorithm.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, ContractionHierarchy.getIfPresent(data.getGraph(), data.getArcInspector()));
+    }
+
+    /**
+     * Create a new algorithm using the given hierarchy.
+     *
+     * @param data Input data for this algorithm.
+     * @param hierarchy Hierarchy of the graph and inspector of the data, or null.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data, ContractionHierarchy hierarchy) {
+        super(data);
+        this.hierarchy = hierarchy;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return Method used to compute the matrix: buckets if a hierarchy is
+     *         available and there are at least {@link #MIN_BUCKET_PAIRS} pairs,
+     *         one-to-many Dijkstra otherwise.
+     */
+    public Method getMethod() {
+        final DistanceMatrixData data = getInputData();
+        if (this.hierarchy != null && (long) data.getSources().size()
+                * data.getTargets().size() >= MIN_BUCKET_PAIRS) {
+            return Method.CH_BUCKETS;
+        }
+        return Method.ONE_TO_MANY_DIJKSTRA;
+    }
+
+    /**
+     * @return Number of threads computing rows and backward searches.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the number of threads computing rows and backward searches (1 to
+     * compute them on the calling thread).
+     *
+     * @param parallelism Number of threads.
+     *
+     * @throws IllegalArgumentException if parallelism is lower than 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Notify all observers that the row of a source has been computed.
+     *
+     * @param index Index of the source.
+     * @param source Source of the row.
+     */
+    protected void notifyRowComputed(int index, Node source) {
+        for (DistanceMatrixObserver obs: getObservers()) {
+            obs.notifyRowComputed(index, source);
+        }
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final DistanceMatrixData data = getInputData();
+        final int nbSources = data.getSources().size(), nbTargets = data.getTargets().size();
+        double[][] distances = new double[nbSources][nbTargets];
+        Path[][] paths = data.isPathRetrievalEnabled() ? new Path[nbSources][nbTargets] : null;
+        ExecutorService pool = this.parallelism > 1
+                ? Executors.newFixedThreadPool(this.parallelism) : null;
+        Status status;
+        try {
+            if (getMethod() == Method.CH_BUCKETS) {
+                status = computeWithBuckets(distances, paths, pool);
+            }
+            else {
+                status = computeWithDijkstra(distances, paths, pool);
+            }
+        }
+        catch (CancellationException e) {
+            status = Status.CANCELLED;
+        }
+        finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+        return new DistanceMatrixSolution(data, status, distances, paths);
+    }
+
+    /**
+     * Run the given task for each index in {@code [0, count)}, on the given pool
+     * or on the calling thread if the pool is null, and give the index of each
+     * completed task to the given consumer on the calling thread.
+     *
+     * @throws CancellationException if the calling thread is interrupted while
+     *         waiting for the tasks.
+     */
+    private static void forEachIndex(ExecutorService pool, int count, IntConsumer task,
+            IntConsumer completed) {
+        if (pool == null) {
+            for (int index = 0; index < count; ++index) {
+                task.accept(index);
+                completed.accept(index);
+            }
+            return;
+        }
+        CompletionService<Integer> completions = new ExecutorCompletionService<>(pool);
+        for (int index = 0; index < count; ++index) {
+            final int i = index;
+            completions.submit(() -> {
+                task.accept(i);
+                return i;
+            });
+        }
+        try {
+            for (int n = 0; n < count; ++n) {
+                completed.accept(completions.take().get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("matrix interrupted");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Compute the matrix with a Dijkstra search from each source.
+     */
+    private Status computeWithDijkstra(double[][] distances, Path[][] paths,
+            ExecutorService pool) {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+
+        final boolean[] isTarget = new boolean[graph.size()];
+        int nbTargetNodes = 0;
+        for (Node target: targets) {
+            if (!isTarget[target.getId()]) {
+                isTarget[target.getId()] = true;
+                nbTargetNodes += 1;
+            }
+        }
+        final int nbDistinctTargets = nbTargetNodes;
+
+        forEachIndex(pool, sources.size(), row -> {
+            final Node source = sources.get(row);
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+                searchTargets(source, isTarget, nbDistinctTargets, workspace);
+                for (int column = 0; column < targets.size(); ++column) {
+                    Label label = workspace.getLabel(targets.get(column).getId());
+                    distances[row][column] = label != null && label.isMarked()
+                            ? label.getCost()
+                            : Double.POSITIVE_INFINITY;
+                    if (paths != null && label != null && label.isMarked()) {
+                        paths[row][column] = createPath(source, targets.get(column),
+                                workspace);
+                    }
+                }
+            }
+        }, row -> notifyRowComputed(row, sources.get(row)));
+        return Status.OPTIMAL;
+    }
+
+    /**
+     * Run a Dijkstra search from the given source until all the targets are
+     * settled.
+     */
+    private void searchTargets(Node source, boolean[] isTarget, int nbTargets,
+            SearchWorkspace workspace) {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = data.getWeightProfile();
+
+        Label sourceLabel = new Label(source);
+        sourceLabel.setCost(0);
+        workspace.setLabel(source.getId(), sourceLabel);
+        IndexedBinaryHeap<Label> heap = workspace.getLabelHeap();
+        heap.insert(sourceLabel);
+
+        int nbRemaining = nbTargets;
+        while (!heap.isEmpty() && nbRemaining > 0) {
+            Label current = heap.deleteMin();
+            current.mark();
+            final int node = current.getNode().getId();
+            if (isTarget[node]) {
+                nbRemaining -= 1;
+            }
+
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                if (!weights.isAllowed(arc)) {
+                    continue;
+                }
+                final int successor = compact.getDestination(arc);
+                final double cost = current.getCost() + weights.getCost(arc);
+                Label successorLabel = workspace.getLabel(successor);
+                if (successorLabel == null) {
+                    successorLabel = new Label(graph.get(successor));
+                    workspace.setLabel(successor, successorLabel);
+                }
+                if (!successorLabel.isMarked() && cost < successorLabel.getCost()) {
+                    successorLabel.setCost(cost);
+                    successorLabel.setPredecessorArc(arc);
+                    if (heap.contains(successorLabel)) {
+                        heap.decreaseKey(successorLabel);
+                    }
+                    else {
+                        heap.insert(successorLabel);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the path from the source to the target from the predecessor arcs of
+     * the labels of the given workspace.
+     */
+    private Path createPath(Node source, Node target, SearchWorkspace workspace) {
+        final Graph graph = getInputData().getGraph();
+        if (source.equals(target)) {
+            return new Path(graph, source);
+        }
+        final CompactGraph compact = graph.getCompactGraph();
+        List<Arc> arcs = new ArrayList<>();
+        for (int node = target.getId(); node != source.getId();) {
+            final int arc = workspace.getLabel(node).getPredecessorArc();
+            arcs.add(graph.getArc(arc));
+            node = compact.getOrigin(arc);
+        }
+        Collections.reverse(arcs);
+        return new Path(graph, arcs);
+    }
+
+    /**
+     * Compute the matrix with buckets on the hierarchy.
+     */
+    private Status computeWithBuckets(double[][] distances, Path[][] paths,
+            ExecutorService pool) {
+        final DistanceMatrixData data = getInputData();
+        final int nbNodes = data.getGraph().size();
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+
+        // Backward searches from the targets.
+        final SearchSpace[] targetSpaces = new SearchSpace[targets.size()];
+        forEachIndex(pool, targets.size(),
+                column -> targetSpaces[column] = search(targets.get(column), false),
+                column -> {
+                });
+
+        // Buckets: targets whose search settled each node, with the index of the
+        // node in the search space of the target.
+        final int[] bucketFirst = new int[nbNodes + 1];
+        for (SearchSpace space: targetSpaces) {
+            for (int i = 0; i < space.size; ++i) {
+                bucketFirst[space.nodes[i] + 1] += 1;
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            bucketFirst[node + 1] += bucketFirst[node];
+        }
+        final int[] bucketTargets = new int[bucketFirst[nbNodes]],
+                bucketIndices = new int[bucketFirst[nbNodes]];
+        int[] positions = Arrays.copyOf(bucketFirst, nbNodes);
+        for (int column = 0; column < targetSpaces.length; ++column) {
+            SearchSpace space = targetSpaces[column];
+            for (int i = 0; i < space.size; ++i) {
+                final int position = positions[space.nodes[i]]++;
+                bucketTargets[position] = column;
+                bucketIndices[position] = i;
+            }
+        }
+
+        // Forward searches from the sources, scanning buckets.
+        forEachIndex(pool, sources.size(), row -> {
+            final SearchSpace space = search(sources.get(row), true);
+            final double[] costs = distances[row];
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+            final int[] forwardMeetings = new int[targets.size()],
+                    backwardMeetings = new int[targets.size()];
+            for (int i = 0; i < space.size; ++i) {
+                final int node = space.nodes[i];
+                for (int bucket = bucketFirst[node]; bucket < bucketFirst[node + 1]; ++bucket) {
+                    final int column = bucketTargets[bucket];
+                    final double cost = space.costs[i]
+                            + targetSpaces[column].costs[bucketIndices[bucket]];
+                    if (cost < costs[column]) {
+                        costs[column] = cost;
+                        forwardMeetings[column] = i;
+                        backwardMeetings[column] = bucketIndices[bucket];
+                    }
+                }
+            }
+            if (paths != null) {
+                for (int column = 0; column < targets.size(); ++column) {
+                    if (costs[column] < Double.POSITIVE_INFINITY) {
+                        paths[row][column] = createPath(space, forwardMeetings[column],
+                                targetSpaces[column], backwardMeetings[column]);
+                    }
+                }
+            }
+        }, row -> notifyRowComputed(row, sources.get(row)));
+        return Status.OPTIMAL;
+    }
+
+    /**
+     * Run a complete search from the given node in the upward (forward) or
+     * downward (backward) graph of the hierarchy.
+     *
+     * @return Nodes settled by the search.
+     */
+    private SearchSpace search(Node root, boolean forward) {
+        final Graph graph = getInputData().getGraph();
+        final ContractionHierarchy hierarchy = this.hierarchy;
+        SearchSpace space = new SearchSpace();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+            SpaceLabel rootLabel = new SpaceLabel(root);
+            rootLabel.setCost(0);
+            workspace.setLabel(root.getId(), rootLabel);
+            IndexedBinaryHeap<Label> heap = workspace.getLabelHeap();
+            heap.insert(rootLabel);
+
+            while (!heap.isEmpty()) {
+                SpaceLabel label = (SpaceLabel) heap.deleteMin();
+                label.mark();
+                label.index = space.size;
+                final int node = label.getNode().getId();
+                space.add(node, label.getCost(), label.getPredecessorArc(),
+                        label.parent == null ? -1 : label.parent.index);
+
+                final int first = forward ? hierarchy.getFirstUpwardEdge(node)
+                        : hierarchy.getFirstDownwardEdge(node);
+                final int last = forward ? hierarchy.getFirstUpwardEdge(node + 1)
+                        : hierarchy.getFirstDownwardEdge(node + 1);
+                for (int index = first; index < last; ++index) {
+                    final int next = forward ? hierarchy.getUpwardHead(index)
+                            : hierarchy.getDownwardTail(index);
+                    final double cost = label.getCost() + (forward
+                            ? hierarchy.getUpwardCost(index)
+                            : hierarchy.getDownwardCost(index));
+                    SpaceLabel nextLabel = (SpaceLabel) workspace.getLabel(next);
+                    if (nextLabel == null) {
+                        nextLabel = new SpaceLabel(graph.get(next));
+                        workspace.setLabel(next, nextLabel);
+                    }
+                    if (!nextLabel.isMarked() && cost < nextLabel.getCost()) {
+                        nextLabel.setCost(cost);
+                        nextLabel.setPredecessorArc(forward ? hierarchy.getUpwardEdgeId(index)
+                                : hierarchy.getDownwardEdgeId(index));
+                        nextLabel.parent = label;
+                        if (heap.contains(nextLabel)) {
+                            heap.decreaseKey(nextLabel);
+                        }
+                        else {
+                            heap.insert(nextLabel);
+                        }
+                    }
+                }
+            }
+        }
+        return space;
+    }
+
+    /**
+     * Create the path going up the forward search space of a source to the given
+     * meeting node, then down the backward search space of a target.
+     */
+    private Path createPath(SearchSpace forward, int forwardMeeting, SearchSpace backward,
+            int backwardMeeting) {
+        final Graph graph = getInputData().getGraph();
+        if (forwardMeeting == 0 && backwardMeeting == 0) {
+            return new Path(graph, graph.get(forward.nodes[0]));
+        }
+
+        List<Integer> edges = new ArrayList<>();
+        for (int i = forwardMeeting; i != 0; i = forward.parents[i]) {
+            edges.add(forward.edges[i]);
+        }
+        Collections.reverse(edges);
+        for (int i = backwardMeeting; i != 0; i = backward.parents[i]) {
+            edges.add(backward.edges[i]);
+        }
+
+        List<Arc> arcs = new ArrayList<>();
+        for (int edge: edges) {
+            this.hierarchy.unpack(edge, arc -> arcs.add(graph.getArc(arc)));
+        }
+        return new Path(graph, arcs);
+    }
+
+}
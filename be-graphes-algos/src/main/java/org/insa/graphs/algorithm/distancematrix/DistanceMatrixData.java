@@ -0,0 +1,79 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Sources and targets of the matrix.
+    private final List<Node> sources, targets;
+
+    // True if paths should be retrieved in addition to costs.
+    private final boolean pathRetrieval;
+
+    /**
+     * Construct a new instance of DistanceMatrixData, without path retrieval.
+     *
+     * @param graph Graph in which paths should be looked for.
+     * @param sources Sources of the paths (rows of the matrix).
+     * @param targets Targets of the paths (columns of the matrix).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector) {
+        this(graph, sources, targets, arcInspector, false);
+    }
+
+    /**
+     * Construct a new instance of DistanceMatrixData.
+     *
+     * @param graph Graph in which paths should be looked for.
+     * @param sources Sources of the paths (rows of the matrix).
+     * @param targets Targets of the paths (columns of the matrix).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * @param pathRetrieval true if the paths should be retrieved in addition to
+     *        their costs.
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector, boolean pathRetrieval) {
+        super(graph, arcInspector);
+        this.sources = Collections.unmodifiableList(sources);
+        this.targets = Collections.unmodifiableList(targets);
+        this.pathRetrieval = pathRetrieval;
+    }
+
+    /**
+     * @return Sources of the paths (rows of the matrix).
+     */
+    public List<Node> getSources() {
+        return sources;
+    }
+
+    /**
+     * @return Targets of the paths (columns of the matrix).
+     */
+    public List<Node> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return true if the paths should be retrieved in addition to their costs.
+     */
+    public boolean isPathRetrievalEnabled() {
+        return pathRetrieval;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + sources.size() + " sources to " + targets.size()
+                + " targets [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+
+}
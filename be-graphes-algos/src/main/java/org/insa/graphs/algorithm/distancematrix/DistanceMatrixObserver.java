@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify that the row of a source has been computed. This method is called
+     * from the thread running the algorithm, in the order in which rows complete
+     * (which may differ from the order of the sources).
+     *
+     * @param index Index of the source in the input data.
+     * @param source Source of the row.
+     */
+    public void notifyRowComputed(int index, Node source);
+
+}
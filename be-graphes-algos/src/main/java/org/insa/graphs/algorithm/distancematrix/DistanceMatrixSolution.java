@@ -0,0 +1,82 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Path;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Costs of the paths, by source and target.
+    private final double[][] distances;
+
+    // Paths, by source and target, or null if paths were not requested.
+    private final Path[][] paths;
+
+    /**
+     * Create a new solution for the given input and status.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param distances Costs of the paths, by source and target (infinite if the
+     *        target cannot be reached).
+     * @param paths Paths, by source and target, or null if paths were not
+     *        requested.
+     */
+    public DistanceMatrixSolution(DistanceMatrixData data, Status status, double[][] distances,
+            Path[][] paths) {
+        super(data, status);
+        this.distances = distances;
+        this.paths = paths;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return Costs of the paths: element {@code [i][j]} is the cost of the path
+     *         from the i-th source to the j-th target, or infinity if the target
+     *         cannot be reached from the source.
+     */
+    public double[][] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @param source Index of the source.
+     * @param target Index of the target.
+     *
+     * @return Cost of the path from the source to the target, or infinity if the
+     *         target cannot be reached.
+     */
+    public double getDistance(int source, int target) {
+        return distances[source][target];
+    }
+
+    /**
+     * @param source Index of the source.
+     * @param target Index of the target.
+     *
+     * @return Path from the source to the target, or null if the target cannot be
+     *         reached or if paths were not requested.
+     */
+    public Path getPath(int source, int target) {
+        return paths == null ? null : paths[source][target];
+    }
+
+    @Override
+    public String toString() {
+        int nbUnreachable = 0;
+        for (double[] row: distances) {
+            for (double distance: row) {
+                if (Double.isInfinite(distance)) {
+                    nbUnreachable += 1;
+                }
+            }
+        }
+        return "Computed " + getInputData().getSources().size() + "x"
+                + getInputData().getTargets().size() + " distances (" + nbUnreachable
+                + " unreachable) in " + getSolvingTime().toMillis() + " ms.";
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.concurrent.CancellationException;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * A* with landmarks and triangle inequality (ALT): the estimated cost from a
+ * node to the destination is the lower bound given by a {@link LandmarkTable}.
+ * </p>
+ *
+ * <p>
+ * Unlike the geometric bound of {@link AStarAlgorithm}, landmark bounds are
+ * computed with the costs of the inspector, so they remain tight in
+ * {@link org.insa.graphs.algorithm.AbstractInputData.Mode#TIME} mode. If no table
+ * is given, the table of the graph and inspector is retrieved with
+ * {@link LandmarkTable#of(org.insa.graphs.model.Graph, org.insa.graphs.algorithm.ArcInspector)},
+ * and thus computed during the first run if it has not been computed yet. If the
+ * running thread is interrupted during this computation, the run returns a
+ * cancelled solution.
+ * </p>
+ *
+ */
+public class ALTAlgorithm extends DijkstraAlgorithm {
+
+    // Table of landmarks, retrieved on first run if not given.
+    private LandmarkTable landmarks;
+
+    public ALTAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    public ALTAlgorithm(ShortestPathData data, LandmarkTable landmarks) {
+        super(data);
+        this.landmarks = landmarks;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        if (this.landmarks == null) {
+            ShortestPathData data = getInputData();
+            try {
+                this.landmarks = LandmarkTable.of(data.getGraph(), data.getArcInspector());
+            }
+            catch (CancellationException e) {
+                // The thread has been interrupted while computing the table.
+                return new ShortestPathSolution(data, Status.CANCELLED);
+            }
+        }
+        return super.doRun();
+    }
+
+    @Override
+    protected Label createLabel(Node node, SearchWorkspace workspace) {
+        return new LabelStar(node, estimateCost(node, workspace));
+    }
+
+    @Override
+    protected double estimateCost(Node node, SearchWorkspace workspace) {
+        // Bounds are computed when nodes are first reached, and memoized in the
+        // workspace.
+        double estimatedCost = workspace.getHeuristic(node.getId());
+        if (Double.isNaN(estimatedCost)) {
+            estimatedCost = this.landmarks.lowerBound(node.getId(),
+                    getInputData().getDestination().getId());
+            workspace.setHeuristic(node.getId(), estimatedCost);
+        }
+        return estimatedCost;
+    }
+
+    @Override
+    protected boolean usesEstimatedCosts() {
+        return true;
+    }
+
+}
@@ -1,63 +1,71 @@
 package org.insa.graphs.algorithm.shortestpath;
 
-import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.model.Node;
-
-import static org.insa.graphs.model.GraphStatistics.NO_MAXIMUM_SPEED;
+import org.insa.graphs.model.Point;
 
 public class AStarAlgorithm extends DijkstraAlgorithm {
 	
+	/**
+	 * Lower bounds of the distance to the destination that can be used by A*.
+	 */
+	public enum Heuristic
+	{
+		/**
+		 * Great-circle distance, see {@link Point#distance(Point, Point)}.
+		 */
+		GREAT_CIRCLE,
+		
+		/**
+		 * Cheaper equirectangular bound, see {@link EquirectangularBound}.
+		 */
+		EQUIRECTANGULAR
+	}
+	
 	private Node destination;
+	private final Heuristic heuristic;
+	private final CostEstimator estimator;
 
 	@Override
-	protected Label createLabel(Node node)
+	protected Label createLabel(Node node, SearchWorkspace workspace)
 	{
-		double distanceToDestination = node.getPoint().distanceTo(this.destination.getPoint());
-		if (this.data.getMode().equals(Mode.LENGTH))
-		{
-			return new LabelStar(node, distanceToDestination);
-		}
-		else if (this.data.getMode().equals(Mode.TIME))
-		{
-			return new LabelStar(node, distanceToDestination / getMaxSpeed());
-		}
-		else
-		{
-			throw new IllegalArgumentException();
-		}
+		return new LabelStar(node, estimateCost(node, workspace));
 	}
 	
-	private double getMaxSpeed()
+	@Override
+	protected double estimateCost(Node node, SearchWorkspace workspace)
 	{
-		int dataMaxSpeed = this.data.getMaximumSpeed();
-		int graphMaxSpeed = this.data.getGraph().getGraphInformation().getMaximumSpeed();
-		
-		int maxSpeedKmph;
-		
-		if (dataMaxSpeed == NO_MAXIMUM_SPEED && graphMaxSpeed == NO_MAXIMUM_SPEED)
+		// Heuristics are computed when nodes are first reached, and memoized in the workspace.
+		double estimatedCost = workspace.getHeuristic(node.getId());
+		if (Double.isNaN(estimatedCost))
 		{
-			maxSpeedKmph = 130;
+			estimatedCost = this.estimator.estimate(node, this.destination);
+			workspace.setHeuristic(node.getId(), estimatedCost);
 		}
-		else if (dataMaxSpeed == NO_MAXIMUM_SPEED ^ graphMaxSpeed == NO_MAXIMUM_SPEED)
-		{
-			maxSpeedKmph = Math.max(dataMaxSpeed, graphMaxSpeed);
-		}
-		else
-		{
-			maxSpeedKmph = Math.min(dataMaxSpeed, graphMaxSpeed);
-		}
-		
-		return kmphToMps(maxSpeedKmph);
+		return estimatedCost;
 	}
 	
-	private double kmphToMps(int speedKmph)
+	@Override
+	protected boolean usesEstimatedCosts()
 	{
-		return speedKmph / 3.6;
+		return true;
 	}
 	
     public AStarAlgorithm(ShortestPathData data) {
+        this(data, Heuristic.GREAT_CIRCLE);
+    }
+    
+    public AStarAlgorithm(ShortestPathData data, Heuristic heuristic) {
         super(data);
         this.destination = data.getDestination();
+        this.heuristic = heuristic;
+        this.estimator = new CostEstimator(data, heuristic);
+    }
+    
+    /**
+     * @return Heuristic used by this algorithm.
+     */
+    public Heuristic getHeuristic() {
+        return this.heuristic;
     }
 
 }
@@ -0,0 +1,388 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AlgorithmFactory;
+
+/**
+ * <p>
+ * Runs batches of independent shortest-path queries in parallel.
+ * </p>
+ *
+ * <p>
+ * Each query is solved by a new algorithm created by the factory of the router
+ * (the constructor of a registered algorithm is looked up once, see
+ * {@link AlgorithmFactory#getAlgorithmConstructor(Class, Class)}). Queries run
+ * on the executor of the router, or on a pool of {@link #getParallelism()}
+ * threads created for each batch. Since {@link SearchWorkspace workspaces} are
+ * pooled per thread, each worker thread reuses its own workspace from one query
+ * to the next.
+ * </p>
+ *
+ * <p>
+ * Results are given back in the order of the queries by
+ * {@link #route(List)}, or as they complete by {@link #route(Stream, Consumer)},
+ * along with the throughput and latencies of the batch (see {@link Statistics}).
+ * Each query can be bounded by a timeout (see {@link #setTimeout(Duration)}),
+ * and the queries still running when a batch fails are cancelled.
+ * </p>
+ *
+ */
+public final class BatchRouter {
+
+    /**
+     * Throughput and latencies of a batch.
+     */
+    public static final class Statistics {
+
+        // Latencies of the queries, and duration of the batch (in nanoseconds).
+        private final LatencyHistogram latencies;
+        private final long elapsedTime;
+
+        private Statistics(LatencyHistogram latencies, long elapsedTime) {
+            this.latencies = latencies;
+            this.elapsedTime = elapsedTime;
+        }
+
+        /**
+         * @return Number of queries in the batch.
+         */
+        public int getQueryCount() {
+            return (int) this.latencies.getCount();
+        }
+
+        /**
+         * @return Wall-clock duration of the batch.
+         */
+        public Duration getElapsedTime() {
+            return Duration.ofNanos(this.elapsedTime);
+        }
+
+        /**
+         * @return Number of queries solved per second.
+         */
+        public double getThroughput() {
+            return this.elapsedTime == 0 ? 0 : this.latencies.getCount() * 1e9 / this.elapsedTime;
+        }
+
+        /**
+         * @return Mean time spent solving a query.
+         */
+        public Duration getMeanLatency() {
+            return Duration.ofNanos(this.latencies.getMean());
+        }
+
+        /**
+         * Latencies are kept in a histogram of bounded size, so percentiles other
+         * than 100 are approximated within a few percent.
+         *
+         * @param percentile Percentile, between 0 and 100.
+         *
+         * @return Time spent solving a query, such that the given percentage of the
+         *         queries were solved in this time or less (0 for an empty batch).
+         *
+         * @throws IllegalArgumentException if the percentile is not between 0 and
+         *         100.
+         */
+        public Duration getLatencyPercentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile);
+            }
+            return Duration.ofNanos(this.latencies.getPercentile(percentile));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d queries in %.1f ms (%.1f queries/s), latency p50 %.2f ms, "
+                            + "p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                    getQueryCount(), this.elapsedTime / 1e6, getThroughput(),
+                    getLatencyPercentile(50).toNanos() / 1e6,
+                    getLatencyPercentile(90).toNanos() / 1e6,
+                    getLatencyPercentile(99).toNanos() / 1e6,
+                    getLatencyPercentile(100).toNanos() / 1e6);
+        }
+
+    }
+
+    /**
+     * Solutions of a batch, in the order of the queries, with the statistics of the
+     * batch.
+     */
+    public static final class Result {
+
+        private final List<ShortestPathSolution> solutions;
+        private final Statistics statistics;
+
+        private Result(List<ShortestPathSolution> solutions, Statistics statistics) {
+            this.solutions = Collections.unmodifiableList(solutions);
+            this.statistics = statistics;
+        }
+
+        /**
+         * @return Solutions of the queries, in the order of the queries.
+         */
+        public List<ShortestPathSolution> getSolutions() {
+            return this.solutions;
+        }
+
+        /**
+         * @return Throughput and latencies of the batch.
+         */
+        public Statistics getStatistics() {
+            return this.statistics;
+        }
+
+    }
+
+    /**
+     * Solution of a query, computed by a worker.
+     */
+    private static final class Completion {
+
+        private final int index;
+        private final ShortestPathSolution solution;
+        private final long latency;
+
+        private Completion(int index, ShortestPathSolution solution, long latency) {
+            this.index = index;
+            this.solution = solution;
+            this.latency = latency;
+        }
+
+    }
+
+    // Function creating the algorithm of each query.
+    private final Function<? super ShortestPathData, ? extends ShortestPathAlgorithm> factory;
+
+    // Executor of the queries (null to create a pool for each batch), and number
+    // of queries solved in parallel.
+    private Executor executor;
+    private int parallelism;
+
+    // Maximum solving time of each query (null if none).
+    private Duration timeout;
+
+    /**
+     * Create a router solving queries with the registered shortest-path algorithm
+     * with the given name (see {@link AlgorithmFactory}).
+     *
+     * @param algorithmName Name of the algorithm.
+     *
+     * @throws IllegalArgumentException if no shortest-path algorithm is registered
+     *         with the given name.
+     */
+    public BatchRouter(String algorithmName) {
+        this(createFactory(algorithmName));
+    }
+
+    /**
+     * Create a router solving queries with algorithms created by the given
+     * function (e.g., to configure them).
+     *
+     * @param factory Function creating the algorithm of a query.
+     */
+    public BatchRouter(Function<? super ShortestPathData, ? extends ShortestPathAlgorithm> factory) {
+        this.factory = factory;
+        this.executor = null;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.timeout = null;
+    }
+
+    /**
+     * @return Function creating the registered algorithm with the given name.
+     */
+    private static Function<ShortestPathData, ShortestPathAlgorithm> createFactory(
+            String algorithmName) {
+        Class<? extends AbstractAlgorithm<?>> algorithm = AlgorithmFactory
+                .getAlgorithmClass(ShortestPathAlgorithm.class, algorithmName);
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithmName);
+        }
+        Function<ShortestPathData, AbstractAlgorithm<?>> constructor = AlgorithmFactory
+                .getAlgorithmConstructor(algorithm, ShortestPathData.class);
+        return data -> (ShortestPathAlgorithm) constructor.apply(data);
+    }
+
+    /**
+     * @return Executor of the queries, or null if a pool is created for each batch.
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Set the executor of the queries. The executor is not shut down by this
+     * router.
+     *
+     * @param executor Executor of the queries, or null to create a pool of
+     *        {@link #getParallelism()} threads for each batch.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return Number of queries solved in parallel.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the number of queries solved in parallel, i.e., the number of threads of
+     * the pools created for each batch. With an executor, this also bounds the
+     * number of queries submitted and not yet consumed to four times this value.
+     *
+     * @param parallelism Number of queries solved in parallel.
+     *
+     * @throws IllegalArgumentException if parallelism is lower than 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return Maximum solving time of each query, or null if none.
+     */
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Set the maximum solving time of each query. Queries that exceed it get a
+     * solution with status {@link org.insa.graphs.algorithm.AbstractSolution.Status#TIMEOUT}
+     * (see {@link AbstractAlgorithm#setTimeout(Duration)}).
+     *
+     * @param timeout Maximum solving time of each query, or null for no limit.
+     *
+     * @throws IllegalArgumentException if the timeout is negative.
+     */
+    public void setTimeout(Duration timeout) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Solve the given queries.
+     *
+     * @param queries Queries to solve.
+     *
+     * @return Solutions in the order of the queries, and statistics of the batch.
+     */
+    public Result route(List<ShortestPathData> queries) {
+        final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+        Statistics statistics = route(queries.iterator(),
+                (solution, index) -> solutions[index] = solution);
+        return new Result(Arrays.asList(solutions), statistics);
+    }
+
+    /**
+     * Solve the given queries, giving the solutions to the given consumer as they
+     * complete. The consumer is called on the calling thread, and the stream is
+     * consumed lazily, so it can be longer than what fits in memory (latencies are
+     * summarized in a histogram of bounded size, see {@link Statistics}).
+     *
+     * @param queries Queries to solve.
+     * @param consumer Consumer of the solutions (each solution holds its query,
+     *        see {@link ShortestPathSolution#getInputData()}).
+     *
+     * @return Statistics of the batch.
+     */
+    public Statistics route(Stream<ShortestPathData> queries,
+            Consumer<? super ShortestPathSolution> consumer) {
+        return route(queries.iterator(), (solution, index) -> consumer.accept(solution));
+    }
+
+    /**
+     * Solve the given queries, giving the solutions and indices of the queries to
+     * the given consumer as they complete.
+     */
+    private Statistics route(Iterator<ShortestPathData> queries,
+            ObjIntConsumer<ShortestPathSolution> consumer) {
+        ExecutorService pool = this.executor == null
+                ? Executors.newFixedThreadPool(this.parallelism) : null;
+        CompletionService<Completion> completions = new ExecutorCompletionService<>(
+                pool == null ? this.executor : pool);
+        final int maxPending = 4 * this.parallelism;
+        Set<Future<Completion>> pending = new HashSet<>();
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        int nbQueries = 0;
+        final long start = System.nanoTime();
+        try {
+            while (queries.hasNext() || !pending.isEmpty()) {
+                if (queries.hasNext() && pending.size() < maxPending) {
+                    final ShortestPathData data = queries.next();
+                    final int index = nbQueries++;
+                    pending.add(completions.submit(() -> solve(index, data)));
+                }
+                else {
+                    Future<Completion> future = completions.take();
+                    pending.remove(future);
+                    Completion completion = future.get();
+                    latencies.record(completion.latency);
+                    consumer.accept(completion.solution, completion.index);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("batch interrupted");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        finally {
+            // Running algorithms stop when their thread is interrupted.
+            for (Future<Completion> future: pending) {
+                future.cancel(true);
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        return new Statistics(latencies, System.nanoTime() - start);
+    }
+
+    /**
+     * Solve the given query.
+     */
+    private Completion solve(int index, ShortestPathData data) {
+        final long start = System.nanoTime();
+        ShortestPathAlgorithm algorithm = this.factory.apply(data);
+        if (this.timeout != null) {
+            algorithm.setTimeout(this.timeout);
+        }
+        ShortestPathSolution solution = algorithm.run();
+        return new Completion(index, solution, System.nanoTime() - start);
+    }
+
+}
@@ -1,19 +1,108 @@
 package org.insa.graphs.algorithm.shortestpath;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
-import org.insa.graphs.model.Arc;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
-import org.insa.graphs.model.Node;
-import org.insa.graphs.model.Path;
 
 public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
+    /**
+     * Ways of relaxing the arcs until distances do not change anymore. All the
+     * strategies support negative costs, and stop with an
+     * {@link Status#INFEASIBLE infeasible} solution if a negative cycle is
+     * reachable from the origin (see {@link BellmanFordAlgorithm#hasNegativeCycle()}).
+     * All of them check for interruptions once per scanned node.
+     */
+    public enum RelaxationStrategy {
+
+        /**
+         * Relax all the arcs of all the reached nodes, in order of node IDs, until
+         * a sweep changes nothing (at most |V| sweeps). This is the reference
+         * implementation (default).
+         */
+        SWEEP,
+
+        /**
+         * Relax the arcs of the nodes whose distance changed since they were last
+         * scanned, in FIFO order (a.k.a. SPFA). A negative cycle is detected when
+         * the path to a node has |V| arcs.
+         */
+        QUEUE,
+
+        /**
+         * Relax arcs by synchronous rounds: in each round, the distance of every
+         * successor of a node that changed in the previous round is recomputed in
+         * parallel from the distances of the previous round, over the incoming arcs
+         * of the compact graph. Results do not depend on the number of threads
+         * (see {@link BellmanFordAlgorithm#setParallelism(int)}). A negative cycle
+         * is detected when distances still change after |V| rounds.
+         */
+        PARALLEL_ROUNDS
+    }
+
+    // Minimum number of nodes in a round for it to be processed in parallel.
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // Relaxation strategy, and number of threads of parallel rounds.
+    private RelaxationStrategy relaxationStrategy;
+    private int parallelism;
+
+    // true if the last run found a negative cycle.
+    private boolean negativeCycle;
+
     public BellmanFordAlgorithm(ShortestPathData data) {
         super(data);
+        this.relaxationStrategy = RelaxationStrategy.SWEEP;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.negativeCycle = false;
+    }
+
+    /**
+     * @return Relaxation strategy of the algorithm.
+     */
+    public RelaxationStrategy getRelaxationStrategy() {
+        return this.relaxationStrategy;
+    }
+
+    /**
+     * @param relaxationStrategy Relaxation strategy of the algorithm.
+     */
+    public void setRelaxationStrategy(RelaxationStrategy relaxationStrategy) {
+        this.relaxationStrategy = relaxationStrategy;
+    }
+
+    /**
+     * @return Number of threads used by {@link RelaxationStrategy#PARALLEL_ROUNDS}.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the number of threads used by {@link RelaxationStrategy#PARALLEL_ROUNDS}
+     * (1 to process rounds on the calling thread).
+     *
+     * @param parallelism Number of threads.
+     *
+     * @throws IllegalArgumentException if parallelism is lower than 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return true if the last run found a negative cycle reachable from the
+     *         origin (its solution is then infeasible).
+     */
+    public boolean hasNegativeCycle() {
+        return this.negativeCycle;
     }
 
     @Override
@@ -25,76 +114,357 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
         final int nbNodes = graph.size();
 
-        // Initialize array of distances.
-        double[] distances = new double[nbNodes];
-        Arrays.fill(distances, Double.POSITIVE_INFINITY);
-        distances[data.getOrigin().getId()] = 0;
+        // Borrow arrays of distances and predecessors.
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+            workspace.setDistance(data.getOrigin().getId(), 0);
+
+            // Notify observers about the first event (origin processed).
+            notifyOriginProcessed(data.getOrigin());
 
-        // Notify observers about the first event (origin processed).
-        notifyOriginProcessed(data.getOrigin());
+            Status status;
+            switch (this.relaxationStrategy) {
+            case QUEUE:
+                status = relaxQueue(workspace);
+                break;
+            case PARALLEL_ROUNDS:
+                status = relaxRounds(workspace);
+                break;
+            default:
+                status = relaxSweeps(workspace);
+                break;
+            }
+            this.negativeCycle = status == Status.INFEASIBLE;
+
+            ShortestPathSolution solution = null;
+
+            // The relaxation stopped before the end (negative cycle or
+            // interruption).
+            if (status != Status.OPTIMAL) {
+                solution = new ShortestPathSolution(data, status);
+            }
+
+            // Destination has no predecessor, the solution is infeasible...
+            else if (workspace.getPredecessorArc(
+                    data.getDestination().getId()) == Label.NO_PREDECESSOR) {
+                solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+            else {
+
+                // The destination has been found, notify the observers.
+                notifyDestinationReached(data.getDestination());
+
+                // Create the final solution, building the path from the array of
+                // predecessors...
+                solution = new ShortestPathSolution(data, Status.OPTIMAL,
+                        createPath(workspace::getPredecessorArc));
+            }
+
+            return solution;
+        }
+    }
 
-        // Initialize array of predecessors.
-        Arc[] predecessorArcs = new Arc[nbNodes];
+    /**
+     * Relax the arcs with {@link RelaxationStrategy#SWEEP}.
+     *
+     * @param workspace Workspace holding the distance of the origin.
+     *
+     * @return {@link Status#OPTIMAL} if distances converged,
+     *         {@link Status#INFEASIBLE} if a negative cycle has been found, or the
+     *         status returned by {@link #checkInterruption()}.
+     */
+    private Status relaxSweeps(SearchWorkspace workspace) {
+        final Graph graph = getInputData().getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = getInputData().getWeightProfile();
+        final int nbNodes = graph.size();
+        final SearchStatistics counters = getCounters();
 
-        // Actual algorithm, we will assume the graph does not contain negative
-        // cycle...
         boolean found = false;
         for (int i = 0; !found && i < nbNodes; ++i) {
             found = true;
-            for (Node node: graph.getNodes()) {
-                for (Arc arc: node.getSuccessors()) {
+            for (int node = 0; node < nbNodes; ++node) {
+                Status interruption = checkInterruption();
+                if (interruption != null) {
+                    return interruption;
+                }
+
+                // Nodes that have not been reached cannot improve anything.
+                final double distance = workspace.getDistance(node);
+                if (Double.isInfinite(distance)) {
+                    continue;
+                }
+                if (counters != null) {
+                    counters.nodeSettled();
+                }
+
+                final int lastArc = compact.getFirstArc(node + 1);
+                for (int arc = compact.getFirstArc(node); arc < lastArc; ++arc) {
 
                     // Small test to check allowed roads...
-                    if (!data.isAllowed(arc)) {
+                    if (!weights.isAllowed(arc)) {
+                        if (counters != null) {
+                            counters.arcFiltered();
+                        }
                         continue;
                     }
-
-                    // Retrieve weight of the arc.
-                    double w = data.getCost(arc);
-                    double oldDistance = distances[arc.getDestination().getId()];
-                    double newDistance = distances[node.getId()] + w;
-
-                    if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
-                        notifyNodeReached(arc.getDestination());
+                    if (counters != null) {
+                        counters.arcRelaxed();
                     }
 
                     // Check if new distances would be better, if so update...
+                    final int destination = compact.getDestination(arc);
+                    final double oldDistance = workspace.getDistance(destination);
+                    final double newDistance = distance + weights.getCost(arc);
                     if (newDistance < oldDistance) {
+                        if (Double.isInfinite(oldDistance)) {
+                            if (counters != null) {
+                                counters.nodeReached();
+                            }
+                            notifyNodeReached(graph.get(destination));
+                        }
                         found = false;
-                        distances[arc.getDestination().getId()] = distances[node.getId()] + w;
-                        predecessorArcs[arc.getDestination().getId()] = arc;
+                        workspace.setDistance(destination, newDistance);
+                        workspace.setPredecessorArc(destination, arc);
                     }
                 }
             }
         }
 
-        ShortestPathSolution solution = null;
+        // Without negative cycle, the last of the |V| sweeps changes nothing.
+        return found ? Status.OPTIMAL : Status.INFEASIBLE;
+    }
+
+    /**
+     * Relax the arcs with {@link RelaxationStrategy#QUEUE}.
+     *
+     * @param workspace Workspace holding the distance of the origin.
+     *
+     * @return {@link Status#OPTIMAL} if distances converged,
+     *         {@link Status#INFEASIBLE} if a negative cycle has been found, or the
+     *         status returned by {@link #checkInterruption()}.
+     */
+    private Status relaxQueue(SearchWorkspace workspace) {
+        final Graph graph = getInputData().getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = getInputData().getWeightProfile();
+        final int nbNodes = graph.size();
+        final SearchStatistics counters = getCounters();
 
-        // Destination has no predecessor, the solution is infeasible...
-        if (predecessorArcs[data.getDestination().getId()] == null) {
-            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        // Circular FIFO of nodes to scan (each node is at most once in the queue),
+        // and number of arcs of the current path to each node.
+        final int[] queue = new int[nbNodes];
+        final boolean[] queued = new boolean[nbNodes];
+        final int[] nbArcs = new int[nbNodes];
+        int head = 0, size = 0;
+
+        final int origin = getInputData().getOrigin().getId();
+        queue[0] = origin;
+        queued[origin] = true;
+        size = 1;
+        if (counters != null) {
+            counters.queueInsert(size);
         }
-        else {
 
-            // The destination has been found, notify the observers.
-            notifyDestinationReached(data.getDestination());
+        while (size > 0) {
+            Status interruption = checkInterruption();
+            if (interruption != null) {
+                return interruption;
+            }
+
+            final int node = queue[head];
+            head = head + 1 == nbNodes ? 0 : head + 1;
+            size -= 1;
+            queued[node] = false;
+            if (counters != null) {
+                counters.queueDelete();
+                counters.nodeSettled();
+            }
+
+            final double distance = workspace.getDistance(node);
+            final int lastArc = compact.getFirstArc(node + 1);
+            for (int arc = compact.getFirstArc(node); arc < lastArc; ++arc) {
+                if (!weights.isAllowed(arc)) {
+                    if (counters != null) {
+                        counters.arcFiltered();
+                    }
+                    continue;
+                }
+                if (counters != null) {
+                    counters.arcRelaxed();
+                }
+                final int destination = compact.getDestination(arc);
+                final double oldDistance = workspace.getDistance(destination);
+                final double newDistance = distance + weights.getCost(arc);
+                if (newDistance < oldDistance) {
+                    if (Double.isInfinite(oldDistance)) {
+                        if (counters != null) {
+                            counters.nodeReached();
+                        }
+                        notifyNodeReached(graph.get(destination));
+                    }
+                    workspace.setDistance(destination, newDistance);
+                    workspace.setPredecessorArc(destination, arc);
 
-            // Create the path from the array of predecessors...
-            ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = predecessorArcs[data.getDestination().getId()];
-            while (arc != null) {
-                arcs.add(arc);
-                arc = predecessorArcs[arc.getOrigin().getId()];
+                    // A simple path has at most |V| - 1 arcs.
+                    nbArcs[destination] = nbArcs[node] + 1;
+                    if (nbArcs[destination] >= nbNodes) {
+                        return Status.INFEASIBLE;
+                    }
+                    if (!queued[destination]) {
+                        int tail = head + size;
+                        queue[tail >= nbNodes ? tail - nbNodes : tail] = destination;
+                        queued[destination] = true;
+                        size += 1;
+                        if (counters != null) {
+                            counters.queueInsert(size);
+                        }
+                    }
+                }
             }
+        }
+        return Status.OPTIMAL;
+    }
+
+    /**
+     * Relax the arcs with {@link RelaxationStrategy#PARALLEL_ROUNDS}.
+     *
+     * @param workspace Workspace holding the distance of the origin.
+     *
+     * @return {@link Status#OPTIMAL} if distances converged,
+     *         {@link Status#INFEASIBLE} if a negative cycle has been found, or the
+     *         status returned by {@link #checkInterruption()}.
+     */
+    private Status relaxRounds(SearchWorkspace workspace) {
+        final Graph graph = getInputData().getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = getInputData().getWeightProfile();
+        final int nbNodes = graph.size();
+        final SearchStatistics counters = getCounters();
+
+        // Nodes whose distance changed in the previous round, and successors of
+        // these nodes (stamped with the round where they were last added) whose
+        // new distance and predecessor are computed in the current round.
+        int[] changed = new int[nbNodes];
+        int nbChanged = 0;
+        final int[] candidates = new int[nbNodes];
+        final int[] stamps = new int[nbNodes];
+        final double[] newDistances = new double[nbNodes];
+        final int[] newPredecessorArcs = new int[nbNodes];
 
-            // Reverse the path...
-            Collections.reverse(arcs);
+        changed[nbChanged++] = getInputData().getOrigin().getId();
 
-            // Create the final solution.
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        // Compute the incoming arcs before the workers read them.
+        compact.getFirstIncomingArc(0);
+
+        ForkJoinPool pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        try {
+            for (int round = 1; nbChanged > 0; ++round) {
+                int nbCandidates = 0;
+                for (int i = 0; i < nbChanged; ++i) {
+                    Status interruption = checkInterruption();
+                    if (interruption != null) {
+                        return interruption;
+                    }
+                    final int node = changed[i];
+                    if (counters != null) {
+                        counters.nodeSettled();
+                    }
+                    final int lastArc = compact.getFirstArc(node + 1);
+                    for (int arc = compact.getFirstArc(node); arc < lastArc; ++arc) {
+                        if (!weights.isAllowed(arc)) {
+                            if (counters != null) {
+                                counters.arcFiltered();
+                            }
+                            continue;
+                        }
+                        if (counters != null) {
+                            counters.arcRelaxed();
+                        }
+                        final int destination = compact.getDestination(arc);
+                        if (stamps[destination] != round) {
+                            stamps[destination] = round;
+                            candidates[nbCandidates++] = destination;
+                        }
+                    }
+                }
+
+                // Workers only read the distances of the previous round, and
+                // write the results of their own candidates.
+                IntStream indices = IntStream.range(0, nbCandidates);
+                if (pool == null || nbCandidates < PARALLEL_THRESHOLD) {
+                    indices.forEach(i -> relaxIncomingArcs(workspace, candidates[i], i,
+                            newDistances, newPredecessorArcs));
+                }
+                else {
+                    pool.submit(() -> indices.parallel()
+                            .forEach(i -> relaxIncomingArcs(workspace, candidates[i], i,
+                                    newDistances, newPredecessorArcs)))
+                            .join();
+                }
+
+                nbChanged = 0;
+                for (int i = 0; i < nbCandidates; ++i) {
+                    if (newPredecessorArcs[i] != Label.NO_PREDECESSOR) {
+                        final int node = candidates[i];
+                        if (Double.isInfinite(workspace.getDistance(node))) {
+                            if (counters != null) {
+                                counters.nodeReached();
+                            }
+                            notifyNodeReached(graph.get(node));
+                        }
+                        workspace.setDistance(node, newDistances[i]);
+                        workspace.setPredecessorArc(node, newPredecessorArcs[i]);
+                        changed[nbChanged++] = node;
+                    }
+                }
+
+                // Round k finds the shortest paths with at most k arcs, and a simple
+                // path has at most |V| - 1 arcs.
+                if (nbChanged > 0 && round >= nbNodes) {
+                    return Status.INFEASIBLE;
+                }
+            }
+        }
+        finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
+        return Status.OPTIMAL;
+    }
 
-        return solution;
+    /**
+     * Compute the best distance to the given node through its allowed incoming
+     * arcs, from the current distances of the workspace.
+     *
+     * @param workspace Workspace holding the distances of the previous round.
+     * @param node Node to relax.
+     * @param index Index where the results should be stored.
+     * @param newDistances Array receiving the new distance of the node.
+     * @param newPredecessorArcs Array receiving the new predecessor arc of the
+     *        node, or {@link Label#NO_PREDECESSOR} if its distance does not change.
+     */
+    private void relaxIncomingArcs(SearchWorkspace workspace, int node, int index,
+            double[] newDistances, int[] newPredecessorArcs) {
+        final CompactGraph compact = getInputData().getGraph().getCompactGraph();
+        final WeightProfile weights = getInputData().getWeightProfile();
+        double best = workspace.getDistance(node);
+        int bestArc = Label.NO_PREDECESSOR;
+        final int last = compact.getFirstIncomingArc(node + 1);
+        for (int i = compact.getFirstIncomingArc(node); i < last; ++i) {
+            final int arc = compact.getIncomingArc(i);
+            if (!weights.isAllowed(arc)) {
+                continue;
+            }
+            final double distance = workspace.getDistance(compact.getIncomingOrigin(i))
+                    + weights.getCost(arc);
+            if (distance < best) {
+                best = distance;
+                bestArc = arc;
+            }
+        }
+        newDistances[index] = best;
+        newPredecessorArcs[index] = bestArc;
     }
 
 }
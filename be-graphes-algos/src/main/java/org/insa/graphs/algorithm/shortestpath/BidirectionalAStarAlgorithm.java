@@ -0,0 +1,51 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Bidirectional A*, using the average of the forward and backward potentials.
+ * </p>
+ *
+ * <p>
+ * The forward potential of a node {@code v} is
+ * {@code (h(v, destination) - h(origin, v)) / 2}, where {@code h} is the lower
+ * bound of the {@link AStarAlgorithm.Heuristic}, and the backward potential is
+ * its opposite. Both searches thus work on the same reduced costs, which keeps
+ * the stopping criterion of {@link BidirectionalDijkstraAlgorithm} valid.
+ * </p>
+ *
+ */
+public class BidirectionalAStarAlgorithm extends BidirectionalDijkstraAlgorithm {
+
+    // Lower bound of the costs.
+    private final CostEstimator estimator;
+
+    public BidirectionalAStarAlgorithm(ShortestPathData data) {
+        this(data, AStarAlgorithm.Heuristic.GREAT_CIRCLE);
+    }
+
+    public BidirectionalAStarAlgorithm(ShortestPathData data,
+            AStarAlgorithm.Heuristic heuristic) {
+        super(data);
+        this.estimator = new CostEstimator(data, heuristic);
+    }
+
+    @Override
+    protected Label createLabel(Node node, SearchWorkspace workspace, boolean forward) {
+        // Potentials are computed when nodes are first reached, and memoized in the
+        // workspace of each search.
+        double potential = workspace.getHeuristic(node.getId());
+        if (Double.isNaN(potential)) {
+            final ShortestPathData data = getInputData();
+            potential = (this.estimator.estimate(node, data.getDestination())
+                    - this.estimator.estimate(data.getOrigin(), node)) / 2;
+            if (!forward) {
+                potential = -potential;
+            }
+            workspace.setHeuristic(node.getId(), potential);
+        }
+        return new LabelStar(node, potential);
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Bidirectional Dijkstra: a forward search from the origin and a backward search
+ * from the destination are run alternately, until no path through unsettled
+ * nodes can be shorter than the best path found so far.
+ * </p>
+ *
+ * <p>
+ * The backward search follows incoming arcs (see
+ * {@link CompactGraph#getFirstIncomingArc(int)}). In the backward search, the
+ * cost of a label is the cost from its node to the destination and its
+ * "predecessor" arc is the arc leaving the node toward the destination.
+ * </p>
+ *
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Best path found so far: cost, and node where the two searches met.
+    private double bestCost;
+    private int meetingNode;
+
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    /**
+     * Create the label of a node, called once per search when the node is first
+     * reached by this search.
+     *
+     * @param node Node for which the label should be created.
+     * @param workspace Workspace of the search.
+     * @param forward true for the forward search, false for the backward search.
+     *
+     * @return A new label for the node.
+     */
+    protected Label createLabel(Node node, SearchWorkspace workspace, boolean forward) {
+        return new Label(node);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // The path from a node to itself is empty, consistently with Dijkstra.
+        if (origin == destination) {
+            notifyOriginProcessed(data.getOrigin());
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        try (SearchWorkspace forward = SearchWorkspace.acquire(graph.size());
+                SearchWorkspace backward = SearchWorkspace.acquire(graph.size())) {
+
+            Label originLabel = createLabel(data.getOrigin(), forward, true);
+            originLabel.setCost(0);
+            forward.setLabel(origin, originLabel);
+            forward.getLabelHeap().insert(originLabel);
+
+            Label destinationLabel = createLabel(data.getDestination(), backward, false);
+            destinationLabel.setCost(0);
+            backward.setLabel(destination, destinationLabel);
+            backward.getLabelHeap().insert(destinationLabel);
+
+            notifyOriginProcessed(data.getOrigin());
+
+            this.bestCost = Double.POSITIVE_INFINITY;
+            this.meetingNode = -1;
+
+            IndexedBinaryHeap<Label> forwardHeap = forward.getLabelHeap(),
+                    backwardHeap = backward.getLabelHeap();
+
+            // Keys of the labels are consistent (see BidirectionalAStarAlgorithm), so
+            // the search can stop as soon as the sum of the minimum keys is not lower
+            // than the best cost.
+            boolean forwardTurn = true;
+            while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()
+                    && forwardHeap.findMin().getTotalCost()
+                            + backwardHeap.findMin().getTotalCost() < this.bestCost) {
+                Status interruption = checkInterruption();
+                if (interruption != null) {
+                    return new ShortestPathSolution(data, interruption);
+                }
+                if (forwardTurn) {
+                    step(forward, backward, true);
+                }
+                else {
+                    step(backward, forward, false);
+                }
+                forwardTurn = !forwardTurn;
+            }
+
+            if (this.meetingNode == -1) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    createPath(forward, backward, this.meetingNode));
+        }
+    }
+
+    /**
+     * Settle the minimum label of one of the searches and relax its arcs.
+     *
+     * @param current Workspace of the search to advance.
+     * @param other Workspace of the opposite search.
+     * @param forward true if the forward search should be advanced.
+     */
+    private void step(SearchWorkspace current, SearchWorkspace other, boolean forward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = data.getWeightProfile();
+
+        Label label = current.getLabelHeap().deleteMin();
+        label.mark();
+        notifyNodeMarked(label.getNode());
+
+        final int node = label.getNode().getId();
+        final int first = forward ? compact.getFirstArc(node) : compact.getFirstIncomingArc(node);
+        final int last = forward ? compact.getFirstArc(node + 1)
+                : compact.getFirstIncomingArc(node + 1);
+        for (int index = first; index < last; ++index) {
+            final int arc = forward ? index : compact.getIncomingArc(index);
+            if (!weights.isAllowed(arc)) {
+                continue;
+            }
+
+            final int next = forward ? compact.getDestination(arc)
+                    : compact.getIncomingOrigin(index);
+            final double cost = label.getCost() + weights.getCost(arc);
+
+            Label nextLabel = current.getLabel(next);
+            if (nextLabel == null) {
+                nextLabel = createLabel(graph.get(next), current, forward);
+                current.setLabel(next, nextLabel);
+                if (other.getLabel(next) == null) {
+                    notifyNodeReached(nextLabel.getNode());
+                }
+            }
+
+            if (!nextLabel.isMarked() && cost < nextLabel.getCost()) {
+                nextLabel.setCost(cost);
+                nextLabel.setPredecessorArc(arc);
+                if (current.getLabelHeap().contains(nextLabel)) {
+                    current.getLabelHeap().decreaseKey(nextLabel);
+                }
+                else {
+                    current.getLabelHeap().insert(nextLabel);
+                }
+            }
+
+            // Check if the arc connects the two searches with a better path.
+            Label otherLabel = other.getLabel(next);
+            if (otherLabel != null && cost + otherLabel.getCost() < this.bestCost) {
+                if (this.meetingNode == -1) {
+                    notifyDestinationReached(data.getDestination());
+                }
+                this.bestCost = cost + otherLabel.getCost();
+                this.meetingNode = next;
+            }
+        }
+    }
+
+    /**
+     * Create the path from the origin to the destination going through the given
+     * node.
+     *
+     * @param forward Workspace of the forward search.
+     * @param backward Workspace of the backward search.
+     * @param meetingNode Node where the two searches met.
+     *
+     * @return The path from the origin to the destination.
+     */
+    private Path createPath(SearchWorkspace forward, SearchWorkspace backward, int meetingNode) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+
+        ArrayList<Arc> arcs = new ArrayList<Arc>();
+        for (int node = meetingNode; node != data.getOrigin().getId();) {
+            int arc = forward.getLabel(node).getPredecessorArc();
+            arcs.add(graph.getArc(arc));
+            node = compact.getOrigin(arc);
+        }
+        Collections.reverse(arcs);
+        for (int node = meetingNode; node != data.getDestination().getId();) {
+            int arc = backward.getLabel(node).getPredecessorArc();
+            arcs.add(graph.getArc(arc));
+            node = compact.getDestination(arc);
+        }
+
+        return new Path(graph, arcs);
+    }
+
+}
@@ -0,0 +1,513 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.InspectorCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given {@link ArcInspector}, computed by
+ * {@link ContractionHierarchyBuilder} or by customizing a
+ * {@link CustomizableContractionHierarchy}, and used by
+ * {@link ContractionHierarchyAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * Nodes are contracted one after the other, and the rank of a node is its
+ * position in the contraction order. Edges of the hierarchy are either allowed
+ * arcs of the graph (edge ID is the arc ID in the compact graph) or shortcuts
+ * (edge ID greater or equal to the number of arcs), which replace a path
+ * {@code u -> v -> w} through a contracted node {@code v} and can be unpacked
+ * into arcs of the graph (see {@link #unpack(int, IntConsumer)}).
+ * </p>
+ *
+ * <p>
+ * The hierarchy is stored as two graphs: the upward graph contains, for each
+ * node, the edges to nodes with higher rank; the downward graph contains, for
+ * each node, the edges from nodes with higher rank (i.e. the reverse of the
+ * edges going down to the node). Hierarchies are computed once per pair (graph,
+ * inspector) and cached (see {@link #of(Graph, ArcInspector)}), and can be
+ * persisted in a directory (see {@link #setDirectory(File)}).
+ * </p>
+ *
+ */
+public final class ContractionHierarchy {
+
+    /**
+     * Extension of the hierarchy files.
+     */
+    public static final String HIERARCHY_EXTENSION = ".ch";
+
+    // Magic number and version of the hierarchy files.
+    private static final int MAGIC_NUMBER = 0x43484945;
+    private static final int VERSION = 1;
+
+    /**
+     * Maximum number of hierarchies cached for a graph.
+     */
+    public static final int MAX_CACHED_HIERARCHIES = 8;
+
+    // Cached hierarchies, by graph and inspector.
+    private static final InspectorCache<ContractionHierarchy> HIERARCHIES = new InspectorCache<>(
+            MAX_CACHED_HIERARCHIES, ContractionHierarchy::load);
+
+    // Directory where hierarchies are persisted, or null.
+    private static volatile File directory = null;
+
+    /**
+     * Set the directory where hierarchies computed by
+     * {@link #of(Graph, ArcInspector)} are stored, and looked for before computing
+     * them.
+     *
+     * @param directory Directory of the hierarchy files, or null to disable
+     *        persistence.
+     */
+    public static void setDirectory(File directory) {
+        ContractionHierarchy.directory = directory;
+    }
+
+    /**
+     * @return Directory where hierarchies are persisted, or null if persistence is
+     *         disabled.
+     */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Retrieve the hierarchy for the given graph and inspector, reading it from
+     * the directory set with {@link #setDirectory(File)} or computing it (and
+     * writing it to the directory) if needed.
+     *
+     * @param graph Graph for which the hierarchy should be retrieved.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return Hierarchy for the given graph and inspector.
+     *
+     * @throws UncheckedIOException if the hierarchy cannot be written.
+     */
+    public static ContractionHierarchy of(Graph graph, ArcInspector arcInspector) {
+        return HIERARCHIES.get(graph, arcInspector);
+    }
+
+    /**
+     * Read the hierarchy for the given graph and inspector from the directory set
+     * with {@link #setDirectory(File)}, or compute it.
+     */
+    private static ContractionHierarchy load(Graph graph, ArcInspector arcInspector) {
+        File dir = directory;
+        if (dir == null) {
+            return new ContractionHierarchyBuilder(graph, arcInspector).build();
+        }
+        try {
+            return readOrCompute(getFile(dir, graph, arcInspector), graph, arcInspector);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param graph Graph of the hierarchy.
+     * @param arcInspector Inspector of the hierarchy.
+     *
+     * @return Hierarchy for the given graph and inspector if it has already been
+     *         retrieved with {@link #of(Graph, ArcInspector)}, or null.
+     */
+    public static ContractionHierarchy getIfPresent(Graph graph, ArcInspector arcInspector) {
+        return HIERARCHIES.getIfPresent(graph, arcInspector);
+    }
+
+    /**
+     * @param directory Directory of the hierarchy files.
+     * @param graph Graph of the hierarchy.
+     * @param arcInspector Inspector of the hierarchy.
+     *
+     * @return File containing the hierarchy for the given graph and inspector.
+     */
+    public static File getFile(File directory, Graph graph, ArcInspector arcInspector) {
+        return new File(directory,
+                graph.getMapId().replaceAll("[^A-Za-z0-9_-]", "_") + "-"
+                        + Integer.toHexString(arcInspector.toString().hashCode())
+                        + HIERARCHY_EXTENSION);
+    }
+
+    /**
+     * Read the hierarchy for the given graph and inspector from the given file, or
+     * compute it and write it to the file if the file does not exist or does not
+     * correspond to the graph and inspector.
+     *
+     * @param file File containing the hierarchy.
+     * @param graph Graph of the hierarchy.
+     * @param arcInspector Inspector of the hierarchy.
+     *
+     * @return Hierarchy for the given graph and inspector.
+     *
+     * @throws IOException if the hierarchy cannot be written.
+     */
+    public static ContractionHierarchy readOrCompute(File file, Graph graph,
+            ArcInspector arcInspector) throws IOException {
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                return read(input, graph, arcInspector);
+            }
+            catch (IOException e) {
+                // Outdated or corrupted file, compute the hierarchy again.
+            }
+        }
+
+        ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(graph, arcInspector)
+                .build();
+        File temporaryFile = File.createTempFile(file.getName(), HIERARCHY_EXTENSION,
+                file.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                hierarchy.write(output);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Read a hierarchy written with {@link #write(DataOutputStream)}.
+     *
+     * @param input Stream to read the hierarchy from.
+     * @param graph Graph of the hierarchy.
+     * @param arcInspector Inspector of the hierarchy.
+     *
+     * @return The hierarchy read.
+     *
+     * @throws IOException if the hierarchy cannot be read or does not correspond
+     *         to the given graph and inspector.
+     */
+    public static ContractionHierarchy read(DataInputStream input, Graph graph,
+            ArcInspector arcInspector) throws IOException {
+        int magicNumber = input.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        String mapId = input.readUTF();
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        CompactGraph compact = graph.getCompactGraph();
+        int nbNodes = input.readInt(), nbArcs = input.readInt();
+        if (nbNodes != compact.size() || nbArcs != compact.getArcCount()) {
+            throw new BadFormatException("hierarchy computed for another graph");
+        }
+        String inspector = input.readUTF();
+        if (!inspector.equals(arcInspector.toString())) {
+            throw new BadFormatException("hierarchy computed for another inspector: " + inspector);
+        }
+
+        int[] ranks = readInts(input, nbNodes);
+        int nbShortcuts = input.readInt();
+        int[] shortcutFirst = readInts(input, nbShortcuts),
+                shortcutSecond = readInts(input, nbShortcuts);
+        int[] upFirst = readInts(input, nbNodes + 1);
+        int[] upHeads = readInts(input, upFirst[nbNodes]);
+        double[] upCosts = readDoubles(input, upFirst[nbNodes]);
+        int[] upEdges = readInts(input, upFirst[nbNodes]);
+        int[] downFirst = readInts(input, nbNodes + 1);
+        int[] downTails = readInts(input, downFirst[nbNodes]);
+        double[] downCosts = readDoubles(input, downFirst[nbNodes]);
+        int[] downEdges = readInts(input, downFirst[nbNodes]);
+        return new ContractionHierarchy(mapId, inspector, nbArcs, ranks, shortcutFirst,
+                shortcutSecond, upFirst, upHeads, upCosts, upEdges, downFirst, downTails,
+                downCosts, downEdges);
+    }
+
+    private static int[] readInts(DataInputStream input, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; ++i) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream input, int length) throws IOException {
+        double[] values = new double[length];
+        for (int i = 0; i < length; ++i) {
+            values[i] = input.readDouble();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values, int length)
+            throws IOException {
+        for (int i = 0; i < length; ++i) {
+            output.writeInt(values[i]);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream output, double[] values, int length)
+            throws IOException {
+        for (int i = 0; i < length; ++i) {
+            output.writeDouble(values[i]);
+        }
+    }
+
+    // ID of the map and description of the inspector.
+    private final String mapId, inspector;
+
+    // Number of arcs of the graph (edges with higher IDs are shortcuts).
+    private final int nbArcs;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Edges replaced by each shortcut (indexed by edge ID - nbArcs).
+    private final int[] shortcutFirst, shortcutSecond;
+
+    // Upward graph: for each node, head, cost and ID of the edges to nodes with
+    // higher rank.
+    private final int[] upFirst, upHeads, upEdges;
+    private final double[] upCosts;
+
+    // Downward graph: for each node, tail, cost and ID of the edges from nodes
+    // with higher rank.
+    private final int[] downFirst, downTails, downEdges;
+    private final double[] downCosts;
+
+    ContractionHierarchy(String mapId, String inspector, int nbArcs, int[] ranks,
+            int[] shortcutFirst, int[] shortcutSecond, int[] upFirst, int[] upHeads,
+            double[] upCosts, int[] upEdges, int[] downFirst, int[] downTails,
+            double[] downCosts, int[] downEdges) {
+        this.mapId = mapId;
+        this.inspector = inspector;
+        this.nbArcs = nbArcs;
+        this.ranks = ranks;
+        this.shortcutFirst = shortcutFirst;
+        this.shortcutSecond = shortcutSecond;
+        this.upFirst = upFirst;
+        this.upHeads = upHeads;
+        this.upCosts = upCosts;
+        this.upEdges = upEdges;
+        this.downFirst = downFirst;
+        this.downTails = downTails;
+        this.downCosts = downCosts;
+        this.downEdges = downEdges;
+    }
+
+    /**
+     * Write this hierarchy to the given stream.
+     *
+     * @param output Stream to write the hierarchy to.
+     *
+     * @throws IOException if the hierarchy cannot be written.
+     */
+    public void write(DataOutputStream output) throws IOException {
+        final int nbNodes = size();
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        output.writeUTF(this.mapId);
+        output.writeInt(nbNodes);
+        output.writeInt(this.nbArcs);
+        output.writeUTF(this.inspector);
+        writeInts(output, this.ranks, nbNodes);
+        output.writeInt(getShortcutCount());
+        writeInts(output, this.shortcutFirst, getShortcutCount());
+        writeInts(output, this.shortcutSecond, getShortcutCount());
+        writeInts(output, this.upFirst, nbNodes + 1);
+        writeInts(output, this.upHeads, this.upFirst[nbNodes]);
+        writeDoubles(output, this.upCosts, this.upFirst[nbNodes]);
+        writeInts(output, this.upEdges, this.upFirst[nbNodes]);
+        writeInts(output, this.downFirst, nbNodes + 1);
+        writeInts(output, this.downTails, this.downFirst[nbNodes]);
+        writeDoubles(output, this.downCosts, this.downFirst[nbNodes]);
+        writeInts(output, this.downEdges, this.downFirst[nbNodes]);
+    }
+
+    /**
+     * @return Number of nodes of the hierarchy.
+     */
+    public int size() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @return Number of shortcuts of the hierarchy.
+     */
+    public int getShortcutCount() {
+        return this.shortcutFirst.length;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Rank of the node (position in the contraction order).
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * Retrieve the index of the first upward edge of the given node. The upward
+     * edges of {@code node} are the indices in
+     * {@code [getFirstUpwardEdge(node), getFirstUpwardEdge(node + 1))}.
+     *
+     * @param node ID of a node.
+     *
+     * @return Index of the first upward edge of the node.
+     */
+    public int getFirstUpwardEdge(int node) {
+        return this.upFirst[node];
+    }
+
+    /**
+     * @param index Index of an upward edge.
+     *
+     * @return Head of the edge (node with higher rank).
+     */
+    public int getUpwardHead(int index) {
+        return this.upHeads[index];
+    }
+
+    /**
+     * @param index Index of an upward edge.
+     *
+     * @return Cost of the edge.
+     */
+    public double getUpwardCost(int index) {
+        return this.upCosts[index];
+    }
+
+    /**
+     * @param index Index of an upward edge.
+     *
+     * @return ID of the edge (arc or shortcut).
+     */
+    public int getUpwardEdgeId(int index) {
+        return this.upEdges[index];
+    }
+
+    /**
+     * Retrieve the index of the first downward edge of the given node. The
+     * downward edges of {@code node} are the indices in
+     * {@code [getFirstDownwardEdge(node), getFirstDownwardEdge(node + 1))}.
+     *
+     * @param node ID of a node.
+     *
+     * @return Index of the first downward edge of the node.
+     */
+    public int getFirstDownwardEdge(int node) {
+        return this.downFirst[node];
+    }
+
+    /**
+     * @param index Index of a downward edge.
+     *
+     * @return Tail of the edge (node with higher rank).
+     */
+    public int getDownwardTail(int index) {
+        return this.downTails[index];
+    }
+
+    /**
+     * @param index Index of a downward edge.
+     *
+     * @return Cost of the edge.
+     */
+    public double getDownwardCost(int index) {
+        return this.downCosts[index];
+    }
+
+    /**
+     * @param index Index of a downward edge.
+     *
+     * @return ID of the edge (arc or shortcut).
+     */
+    public int getDownwardEdgeId(int index) {
+        return this.downEdges[index];
+    }
+
+    /**
+     * @param edge ID of an edge.
+     *
+     * @return true if the edge is a shortcut, false if it is an arc of the graph.
+     */
+    public boolean isShortcut(int edge) {
+        return edge >= this.nbArcs;
+    }
+
+    /**
+     * Retrieve the last arc of the given edge, without unpacking the whole edge.
+     *
+     * @param edge ID of an edge (arc or shortcut).
+     *
+     * @return ID (in the compact graph) of the last arc of the edge.
+     */
+    public int getLastArc(int edge) {
+        while (edge >= this.nbArcs) {
+            edge = this.shortcutSecond[edge - this.nbArcs];
+        }
+        return edge;
+    }
+
+    /**
+     * @param graph A graph.
+     *
+     * @return true if this hierarchy has been computed for the given graph.
+     */
+    public boolean isHierarchyOf(Graph graph) {
+        return this.mapId.equals(graph.getMapId()) && this.ranks.length == graph.size()
+                && this.nbArcs == graph.getCompactGraph().getArcCount();
+    }
+
+    /**
+     * Unpack the given edge into arcs of the graph.
+     *
+     * @param edge ID of an edge (arc or shortcut).
+     * @param arcs Consumer receiving the IDs (in the compact graph) of the arcs
+     *        of the edge, in order.
+     */
+    public void unpack(int edge, IntConsumer arcs) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = edge;
+        while (size > 0) {
+            int current = stack[--size];
+            if (current < this.nbArcs) {
+                arcs.accept(current);
+            }
+            else {
+                if (size + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[size++] = this.shortcutSecond[current - this.nbArcs];
+                stack[size++] = this.shortcutFirst[current - this.nbArcs];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,258 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Shortest-path query on a {@link ContractionHierarchy}: a forward search from
+ * the origin in the upward graph and a backward search from the destination in
+ * the downward graph are run alternately, each one stopping when its minimum
+ * cost is not lower than the best path found so far. Nodes that are reached
+ * with a lower cost through a higher node are stalled (their edges are not
+ * relaxed).
+ * </p>
+ *
+ * <p>
+ * The shortcuts of the resulting path are unpacked, so the solution contains a
+ * normal {@link Path} of arcs of the graph. If no hierarchy is given, the
+ * hierarchy of the graph and inspector is retrieved with
+ * {@link #retrieveHierarchy()}, by default with
+ * {@link ContractionHierarchy#of(Graph, org.insa.graphs.algorithm.ArcInspector)},
+ * and thus computed during the first run if it has not been computed yet. If the
+ * running thread is interrupted during this computation, the run returns a
+ * cancelled solution.
+ * </p>
+ *
+ */
+public class ContractionHierarchyAlgorithm extends ShortestPathAlgorithm {
+
+    // Hierarchy, retrieved on first run if not given.
+    private ContractionHierarchy hierarchy;
+
+    // Best path found so far: cost, and node where the two searches met.
+    private double bestCost;
+    private int meetingNode;
+
+    public ContractionHierarchyAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    public ContractionHierarchyAlgorithm(ShortestPathData data, ContractionHierarchy hierarchy) {
+        super(data);
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Retrieve the hierarchy to use when none was given at construction.
+     *
+     * @return The hierarchy of the graph and inspector of the input data.
+     */
+    protected ContractionHierarchy retrieveHierarchy() {
+        return ContractionHierarchy.of(getInputData().getGraph(),
+                getInputData().getArcInspector());
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        if (this.hierarchy == null) {
+            try {
+                this.hierarchy = retrieveHierarchy();
+            }
+            catch (CancellationException e) {
+                // The thread has been interrupted while computing the hierarchy.
+                return new ShortestPathSolution(data, Status.CANCELLED);
+            }
+        }
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        notifyOriginProcessed(data.getOrigin());
+
+        // The path from a node to itself is empty, consistently with Dijkstra.
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        try (SearchWorkspace forward = SearchWorkspace.acquire(graph.size());
+                SearchWorkspace backward = SearchWorkspace.acquire(graph.size())) {
+
+            Label originLabel = new Label(data.getOrigin());
+            originLabel.setCost(0);
+            forward.setLabel(origin, originLabel);
+            forward.getLabelHeap().insert(originLabel);
+
+            Label destinationLabel = new Label(data.getDestination());
+            destinationLabel.setCost(0);
+            backward.setLabel(destination, destinationLabel);
+            backward.getLabelHeap().insert(destinationLabel);
+
+            IndexedBinaryHeap<Label> forwardHeap = forward.getLabelHeap(),
+                    backwardHeap = backward.getLabelHeap();
+
+            this.bestCost = Double.POSITIVE_INFINITY;
+            this.meetingNode = -1;
+
+            boolean forwardTurn = true;
+            while (true) {
+                boolean forwardActive = !forwardHeap.isEmpty()
+                        && forwardHeap.findMin().getCost() < this.bestCost;
+                boolean backwardActive = !backwardHeap.isEmpty()
+                        && backwardHeap.findMin().getCost() < this.bestCost;
+                if (!forwardActive && !backwardActive) {
+                    break;
+                }
+                Status interruption = checkInterruption();
+                if (interruption != null) {
+                    return new ShortestPathSolution(data, interruption);
+                }
+                if (forwardActive && (forwardTurn || !backwardActive)) {
+                    step(forward, backward, true);
+                }
+                else {
+                    step(backward, forward, false);
+                }
+                forwardTurn = !forwardTurn;
+            }
+
+            if (this.meetingNode == -1) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    createPath(forward, backward, this.meetingNode));
+        }
+    }
+
+    /**
+     * Settle the minimum label of one of the searches and relax its upward (or
+     * downward) edges.
+     *
+     * @param current Workspace of the search to advance.
+     * @param other Workspace of the opposite search.
+     * @param forward true if the forward search should be advanced.
+     */
+    private void step(SearchWorkspace current, SearchWorkspace other, boolean forward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final ContractionHierarchy hierarchy = this.hierarchy;
+
+        Label label = current.getLabelHeap().deleteMin();
+        label.mark();
+        notifyNodeMarked(label.getNode());
+
+        final int node = label.getNode().getId();
+
+        // Check if the two searches meet with a better path at this node.
+        Label otherLabel = other.getLabel(node);
+        if (otherLabel != null && label.getCost() + otherLabel.getCost() < this.bestCost) {
+            if (this.meetingNode == -1) {
+                notifyDestinationReached(data.getDestination());
+            }
+            this.bestCost = label.getCost() + otherLabel.getCost();
+            this.meetingNode = node;
+        }
+
+        // Stall-on-demand: if a higher node reached by the search gives a cheaper
+        // path to this node, this node is not on a shortest path and its edges do
+        // not need to be relaxed.
+        final int firstReverse = forward ? hierarchy.getFirstDownwardEdge(node)
+                : hierarchy.getFirstUpwardEdge(node);
+        final int lastReverse = forward ? hierarchy.getFirstDownwardEdge(node + 1)
+                : hierarchy.getFirstUpwardEdge(node + 1);
+        for (int index = firstReverse; index < lastReverse; ++index) {
+            final Label higherLabel = current.getLabel(forward ? hierarchy.getDownwardTail(index)
+                    : hierarchy.getUpwardHead(index));
+            if (higherLabel != null && higherLabel.getCost() + (forward
+                    ? hierarchy.getDownwardCost(index)
+                    : hierarchy.getUpwardCost(index)) < label.getCost()) {
+                return;
+            }
+        }
+
+        final int first = forward ? hierarchy.getFirstUpwardEdge(node)
+                : hierarchy.getFirstDownwardEdge(node);
+        final int last = forward ? hierarchy.getFirstUpwardEdge(node + 1)
+                : hierarchy.getFirstDownwardEdge(node + 1);
+        for (int index = first; index < last; ++index) {
+            final int next = forward ? hierarchy.getUpwardHead(index)
+                    : hierarchy.getDownwardTail(index);
+            final double cost = label.getCost() + (forward ? hierarchy.getUpwardCost(index)
+                    : hierarchy.getDownwardCost(index));
+
+            Label nextLabel = current.getLabel(next);
+            if (nextLabel == null) {
+                nextLabel = new Label(graph.get(next));
+                current.setLabel(next, nextLabel);
+                if (other.getLabel(next) == null) {
+                    notifyNodeReached(nextLabel.getNode());
+                }
+            }
+            if (!nextLabel.isMarked() && cost < nextLabel.getCost()) {
+                nextLabel.setCost(cost);
+                nextLabel.setPredecessorArc(forward ? hierarchy.getUpwardEdgeId(index)
+                        : hierarchy.getDownwardEdgeId(index));
+                if (current.getLabelHeap().contains(nextLabel)) {
+                    current.getLabelHeap().decreaseKey(nextLabel);
+                }
+                else {
+                    current.getLabelHeap().insert(nextLabel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the path from the origin to the destination going through the given
+     * node, unpacking the shortcuts.
+     *
+     * @param forward Workspace of the forward search.
+     * @param backward Workspace of the backward search.
+     * @param meetingNode Node where the two searches met.
+     *
+     * @return The path from the origin to the destination.
+     */
+    private Path createPath(SearchWorkspace forward, SearchWorkspace backward, int meetingNode) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+
+        // Edges of the forward search, from the meeting node back to the origin.
+        List<Integer> arcIds = new ArrayList<>(), edgeArcs = new ArrayList<>();
+        for (int node = meetingNode; node != data.getOrigin().getId();) {
+            edgeArcs.clear();
+            this.hierarchy.unpack(forward.getLabel(node).getPredecessorArc(), edgeArcs::add);
+            for (int i = edgeArcs.size() - 1; i >= 0; --i) {
+                arcIds.add(edgeArcs.get(i));
+            }
+            node = compact.getOrigin(edgeArcs.get(0));
+        }
+        Collections.reverse(arcIds);
+
+        // Edges of the backward search, from the meeting node to the destination.
+        for (int node = meetingNode; node != data.getDestination().getId();) {
+            edgeArcs.clear();
+            this.hierarchy.unpack(backward.getLabel(node).getPredecessorArc(), edgeArcs::add);
+            arcIds.addAll(edgeArcs);
+            node = compact.getDestination(edgeArcs.get(edgeArcs.size() - 1));
+        }
+
+        List<Arc> arcs = new ArrayList<>(arcIds.size());
+        for (int arcId: arcIds) {
+            arcs.add(graph.getArc(arcId));
+        }
+        return new Path(graph, arcs);
+    }
+
+}
@@ -0,0 +1,731 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Computes the {@link ContractionHierarchy} of a graph for a given
+ * {@link ArcInspector}.
+ * </p>
+ *
+ * <p>
+ * The priority of a node is twice its edge difference (number of shortcuts
+ * required to contract it minus the number of edges removed by the
+ * contraction) plus its number of contracted neighbors. Nodes are contracted
+ * by levels: each level contains the nodes whose priority is lower than the
+ * priority of all their neighbors. Nodes of a level are independent, so they
+ * are contracted concurrently on a {@link ForkJoinPool}, and the priorities of
+ * their neighbors are then updated. The resulting hierarchy does not depend on
+ * the number of threads. With a parallelism of 1, nodes are instead contracted
+ * one by one by increasing priority, priorities being updated lazily when a
+ * node is picked.
+ * </p>
+ *
+ * <p>
+ * When contracting a node {@code v}, a shortcut {@code u -> w} is added for each
+ * pair of neighbors if no witness path from {@code u} to {@code w} avoiding
+ * {@code v} and not longer than {@code u -> v -> w} is found. Witness searches
+ * are limited in number of settled nodes, so unnecessary shortcuts may be
+ * added, but no required shortcut is missed.
+ * </p>
+ *
+ */
+public final class ContractionHierarchyBuilder {
+
+    /**
+     * Default maximum number of nodes settled by a witness search.
+     */
+    public static final int DEFAULT_WITNESS_SETTLE_LIMIT = 500;
+
+    // Maximum number of nodes settled by the witness searches used to compute
+    // priorities, which only need to be estimates.
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    /**
+     * Growable list of edges (other node, cost and edge ID) of a node in the
+     * remaining graph.
+     */
+    private static final class EdgeList {
+
+        int size = 0;
+        int[] nodes = new int[4], edges = new int[4];
+        double[] costs = new double[4];
+
+        int indexOf(int node) {
+            for (int i = 0; i < this.size; ++i) {
+                if (this.nodes[i] == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void add(int node, double cost, int edge) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+                this.edges = Arrays.copyOf(this.edges, 2 * this.size);
+                this.costs = Arrays.copyOf(this.costs, 2 * this.size);
+            }
+            this.nodes[this.size] = node;
+            this.costs[this.size] = cost;
+            this.edges[this.size] = edge;
+            this.size += 1;
+        }
+
+        void remove(int node) {
+            int index = indexOf(node);
+            if (index != -1) {
+                this.size -= 1;
+                this.nodes[index] = this.nodes[this.size];
+                this.costs[index] = this.costs[this.size];
+                this.edges[index] = this.edges[this.size];
+            }
+        }
+
+    }
+
+    /**
+     * Growable list of the shortcuts (origin, destination, cost and replaced
+     * edges) required to contract a node.
+     */
+    private static final class ShortcutList {
+
+        int size = 0;
+        int[] origins = new int[4], destinations = new int[4], firsts = new int[4],
+                seconds = new int[4];
+        double[] costs = new double[4];
+
+        void add(int origin, int destination, double cost, int first, int second) {
+            if (this.size == this.origins.length) {
+                this.origins = Arrays.copyOf(this.origins, 2 * this.size);
+                this.destinations = Arrays.copyOf(this.destinations, 2 * this.size);
+                this.firsts = Arrays.copyOf(this.firsts, 2 * this.size);
+                this.seconds = Arrays.copyOf(this.seconds, 2 * this.size);
+                this.costs = Arrays.copyOf(this.costs, 2 * this.size);
+            }
+            this.origins[this.size] = origin;
+            this.destinations[this.size] = destination;
+            this.costs[this.size] = cost;
+            this.firsts[this.size] = first;
+            this.seconds[this.size] = second;
+            this.size += 1;
+        }
+
+    }
+
+    /**
+     * Binary heap of node IDs with double keys, supporting key updates.
+     */
+    private static final class NodeHeap {
+
+        private int size = 0;
+        private final int[] nodes;
+        private final double[] keys;
+        private final int[] positions;
+
+        NodeHeap(int nbNodes) {
+            this.nodes = new int[nbNodes];
+            this.keys = new double[nbNodes];
+            this.positions = new int[nbNodes];
+            Arrays.fill(this.positions, -1);
+        }
+
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        boolean contains(int node) {
+            return this.positions[node] != -1;
+        }
+
+        double minKey() {
+            return this.keys[this.nodes[0]];
+        }
+
+        void clear() {
+            for (int i = 0; i < this.size; ++i) {
+                this.positions[this.nodes[i]] = -1;
+            }
+            this.size = 0;
+        }
+
+        /**
+         * Insert the node, or update its key if it is already in the heap.
+         */
+        void update(int node, double key) {
+            this.keys[node] = key;
+            if (this.positions[node] == -1) {
+                this.nodes[this.size] = node;
+                this.positions[node] = this.size;
+                this.size += 1;
+                siftUp(this.size - 1);
+            }
+            else {
+                siftUp(this.positions[node]);
+                siftDown(this.positions[node]);
+            }
+        }
+
+        int deleteMin() {
+            int min = this.nodes[0];
+            this.positions[min] = -1;
+            this.size -= 1;
+            if (this.size > 0) {
+                move(this.nodes[this.size], 0);
+                siftDown(0);
+            }
+            return min;
+        }
+
+        private void move(int node, int index) {
+            this.nodes[index] = node;
+            this.positions[node] = index;
+        }
+
+        private void siftUp(int index) {
+            int node = this.nodes[index];
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (this.keys[this.nodes[parent]] <= this.keys[node]) {
+                    break;
+                }
+                move(this.nodes[parent], index);
+                index = parent;
+            }
+            move(node, index);
+        }
+
+        private void siftDown(int index) {
+            int node = this.nodes[index];
+            while (2 * index + 1 < this.size) {
+                int child = 2 * index + 1;
+                if (child + 1 < this.size
+                        && this.keys[this.nodes[child + 1]] < this.keys[this.nodes[child]]) {
+                    child += 1;
+                }
+                if (this.keys[this.nodes[child]] >= this.keys[node]) {
+                    break;
+                }
+                move(this.nodes[child], index);
+                index = child;
+            }
+            move(node, index);
+        }
+
+    }
+
+    /**
+     * Workspace of the witness searches of a thread. Witness searches only read
+     * the remaining graph, so several of them can run concurrently.
+     */
+    private final class WitnessSearch {
+
+        private final NodeHeap heap;
+        private final double[] distances;
+        private final int[] stamps;
+        private int generation = 0;
+
+        WitnessSearch(int nbNodes) {
+            this.heap = new NodeHeap(nbNodes);
+            this.distances = new double[nbNodes];
+            this.stamps = new int[nbNodes];
+        }
+
+        /**
+         * Run a witness search from the given source in the remaining graph,
+         * avoiding the given node and the nodes of the level being contracted,
+         * until all nodes closer than maxCost are settled or the given settle limit
+         * is reached.
+         */
+        void run(int source, int avoided, double maxCost, int settleLimit) {
+            this.generation += 1;
+            this.heap.clear();
+            this.stamps[source] = this.generation;
+            this.distances[source] = 0;
+            this.heap.update(source, 0);
+
+            int nbSettled = 0;
+            while (!this.heap.isEmpty() && nbSettled < settleLimit) {
+                final int node = this.heap.deleteMin();
+                final double distance = this.distances[node];
+                ++nbSettled;
+                EdgeList edges = out[node];
+                for (int i = 0; i < edges.size; ++i) {
+                    final int next = edges.nodes[i];
+                    if (next == avoided || contracting[next]) {
+                        continue;
+                    }
+                    final double cost = distance + edges.costs[i];
+                    if (cost > maxCost) {
+                        continue;
+                    }
+                    if (this.stamps[next] != this.generation || cost < this.distances[next]) {
+                        this.stamps[next] = this.generation;
+                        this.distances[next] = cost;
+                        this.heap.update(next, cost);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return Distance found by the last search, or infinity.
+         */
+        double distance(int node) {
+            return this.stamps[node] == this.generation ? this.distances[node]
+                    : Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+    // Graph and inspector.
+    private final Graph graph;
+    private final String inspector;
+    private final WeightProfile weights;
+
+    // Maximum number of nodes settled by a witness search.
+    private int witnessSettleLimit = DEFAULT_WITNESS_SETTLE_LIMIT;
+
+    // Number of threads contracting nodes.
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Observers of the contraction.
+    private final List<ContractionHierarchyObserver> observers = new ArrayList<>();
+
+    // Remaining graph: outgoing and incoming edges of each node.
+    private EdgeList[] out, in;
+    private boolean[] contracted;
+
+    // Nodes of the level being contracted, avoided by witness searches.
+    private boolean[] contracting;
+
+    // Priorities of the nodes, and number of contracted neighbors.
+    private double[] priorities;
+    private int[] contractedNeighbors;
+
+    // Shortcuts (edges replaced by each shortcut).
+    private int nbShortcuts;
+    private int[] shortcutFirst, shortcutSecond;
+
+    // Witness search workspace of each thread.
+    private ThreadLocal<WitnessSearch> witnessSearches;
+
+    /**
+     * Create a new builder for the given graph and inspector.
+     *
+     * @param graph Graph for which the hierarchy should be computed.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     */
+    public ContractionHierarchyBuilder(Graph graph, ArcInspector arcInspector) {
+        this.graph = graph;
+        this.inspector = arcInspector.toString();
+        this.weights = WeightProfile.of(graph, arcInspector);
+    }
+
+    /**
+     * @param witnessSettleLimit Maximum number of nodes settled by a witness
+     *        search. Lower values make preprocessing faster but may add
+     *        unnecessary shortcuts.
+     */
+    public void setWitnessSettleLimit(int witnessSettleLimit) {
+        this.witnessSettleLimit = witnessSettleLimit;
+    }
+
+    /**
+     * @param parallelism Number of threads contracting nodes (by default, the
+     *        number of available processors). With a parallelism of 1, nodes are
+     *        contracted sequentially.
+     *
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Add an observer to this builder.
+     *
+     * @param observer Observer to add.
+     */
+    public void addObserver(ContractionHierarchyObserver observer) {
+        this.observers.add(observer);
+    }
+
+    /**
+     * Create the remaining graph from the allowed arcs, keeping only the cheapest
+     * arc between two nodes and no loop.
+     */
+    private void initialize() {
+        final CompactGraph compact = this.graph.getCompactGraph();
+        final int nbNodes = compact.size();
+        this.out = new EdgeList[nbNodes];
+        this.in = new EdgeList[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.out[node] = new EdgeList();
+            this.in[node] = new EdgeList();
+        }
+        this.contracted = new boolean[nbNodes];
+        this.contracting = new boolean[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                final int destination = compact.getDestination(arc);
+                if (this.weights.isAllowed(arc) && destination != node) {
+                    addEdge(node, destination, this.weights.getCost(arc), arc);
+                }
+            }
+        }
+
+        this.priorities = new double[nbNodes];
+        this.contractedNeighbors = new int[nbNodes];
+
+        this.nbShortcuts = 0;
+        this.shortcutFirst = new int[16];
+        this.shortcutSecond = new int[16];
+
+        this.witnessSearches = ThreadLocal.withInitial(() -> new WitnessSearch(nbNodes));
+    }
+
+    /**
+     * Add an edge to the remaining graph, or update the existing edge between the
+     * two nodes if the new one is cheaper.
+     */
+    private void addEdge(int origin, int destination, double cost, int edge) {
+        EdgeList outgoing = this.out[origin], incoming = this.in[destination];
+        int index = outgoing.indexOf(destination);
+        if (index == -1) {
+            outgoing.add(destination, cost, edge);
+            incoming.add(origin, cost, edge);
+        }
+        else if (cost < outgoing.costs[index]) {
+            outgoing.costs[index] = cost;
+            outgoing.edges[index] = edge;
+            int reverseIndex = incoming.indexOf(origin);
+            incoming.costs[reverseIndex] = cost;
+            incoming.edges[reverseIndex] = edge;
+        }
+    }
+
+    /**
+     * Compute the shortcuts required to contract the given node. This method only
+     * reads the remaining graph.
+     *
+     * @param node Node to contract.
+     * @param settleLimit Maximum number of nodes settled by witness searches.
+     * @param shortcuts List to which the shortcuts should be added, or null if
+     *        they should only be counted.
+     *
+     * @return Number of shortcuts required.
+     */
+    private int findShortcuts(int node, int settleLimit, ShortcutList shortcuts) {
+        final WitnessSearch witnessSearch = this.witnessSearches.get();
+        EdgeList incoming = this.in[node], outgoing = this.out[node];
+        int count = 0;
+        for (int i = 0; i < incoming.size; ++i) {
+            final int source = incoming.nodes[i];
+            double maxCost = -1;
+            for (int j = 0; j < outgoing.size; ++j) {
+                if (outgoing.nodes[j] != source) {
+                    maxCost = Math.max(maxCost, outgoing.costs[j]);
+                }
+            }
+            if (maxCost < 0) {
+                continue;
+            }
+
+            final double sourceCost = incoming.costs[i];
+            witnessSearch.run(source, node, sourceCost + maxCost, settleLimit);
+            for (int j = 0; j < outgoing.size; ++j) {
+                final int target = outgoing.nodes[j];
+                final double cost = sourceCost + outgoing.costs[j];
+                if (target != source && witnessSearch.distance(target) > cost) {
+                    ++count;
+                    if (shortcuts != null) {
+                        shortcuts.add(source, target, cost, incoming.edges[i],
+                                outgoing.edges[j]);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void addShortcuts(ShortcutList shortcuts) {
+        for (int i = 0; i < shortcuts.size; ++i) {
+            if (this.nbShortcuts == this.shortcutFirst.length) {
+                this.shortcutFirst = Arrays.copyOf(this.shortcutFirst, 2 * this.nbShortcuts);
+                this.shortcutSecond = Arrays.copyOf(this.shortcutSecond, 2 * this.nbShortcuts);
+            }
+            this.shortcutFirst[this.nbShortcuts] = shortcuts.firsts[i];
+            this.shortcutSecond[this.nbShortcuts] = shortcuts.seconds[i];
+            addEdge(shortcuts.origins[i], shortcuts.destinations[i], shortcuts.costs[i],
+                    this.graph.getCompactGraph().getArcCount() + this.nbShortcuts);
+            this.nbShortcuts += 1;
+        }
+    }
+
+    /**
+     * @return Priority of the given node in the contraction order.
+     */
+    private double priority(int node) {
+        final int edgeDifference = findShortcuts(node, SIMULATION_SETTLE_LIMIT, null)
+                - this.in[node].size - this.out[node].size;
+        return 2 * edgeDifference + this.contractedNeighbors[node];
+    }
+
+    /**
+     * Remove the given node from the remaining graph. Its lists are kept as its
+     * upward (out) and downward (in) edges.
+     *
+     * @param node Node to remove.
+     * @param neighbors Consumer of the neighbors of the node, called once per edge.
+     */
+    private void remove(int node, IntConsumer neighbors) {
+        this.contracted[node] = true;
+        EdgeList incoming = this.in[node], outgoing = this.out[node];
+        for (int i = 0; i < incoming.size; ++i) {
+            this.out[incoming.nodes[i]].remove(node);
+        }
+        for (int i = 0; i < outgoing.size; ++i) {
+            this.in[outgoing.nodes[i]].remove(node);
+        }
+        for (int i = 0; i < incoming.size; ++i) {
+            this.contractedNeighbors[incoming.nodes[i]] += 1;
+            neighbors.accept(incoming.nodes[i]);
+        }
+        for (int i = 0; i < outgoing.size; ++i) {
+            this.contractedNeighbors[outgoing.nodes[i]] += 1;
+            neighbors.accept(outgoing.nodes[i]);
+        }
+    }
+
+    /**
+     * Compute the hierarchy.
+     *
+     * @return The contraction hierarchy of the graph.
+     *
+     * @throws CancellationException if the calling thread is interrupted during
+     *         the contraction.
+     */
+    public ContractionHierarchy build() {
+        initialize();
+        final int nbNodes = this.graph.size();
+        for (ContractionHierarchyObserver observer: this.observers) {
+            observer.notifyStartContraction(nbNodes);
+        }
+
+        int[] ranks = this.parallelism == 1 ? contractSequentially(nbNodes)
+                : contractByLevels(nbNodes);
+
+        for (ContractionHierarchyObserver observer: this.observers) {
+            observer.notifyEndContraction(this.nbShortcuts);
+        }
+        return createHierarchy(ranks);
+    }
+
+    /**
+     * Contract the nodes one by one by increasing priority.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     *
+     * @return Ranks of the nodes.
+     */
+    private int[] contractSequentially(int nbNodes) {
+        NodeHeap queue = new NodeHeap(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("contraction interrupted");
+            }
+            queue.update(node, priority(node));
+        }
+
+        int[] ranks = new int[nbNodes];
+        ShortcutList shortcuts = new ShortcutList();
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("contraction interrupted");
+            }
+            int node = queue.deleteMin();
+
+            // Lazy update: contract the node only if it still has the lowest
+            // priority.
+            double priority = priority(node);
+            if (!queue.isEmpty() && priority > queue.minKey()) {
+                queue.update(node, priority);
+                continue;
+            }
+
+            shortcuts.size = 0;
+            findShortcuts(node, this.witnessSettleLimit, shortcuts);
+            addShortcuts(shortcuts);
+            ranks[node] = rank++;
+            remove(node, neighbor -> {
+                if (queue.contains(neighbor)) {
+                    queue.update(neighbor, priority(neighbor));
+                }
+            });
+
+            for (ContractionHierarchyObserver observer: this.observers) {
+                observer.notifyLevelContracted(rank - 1, 1, nbNodes - rank);
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * @return true if the first node comes before the second one in the
+     *         contraction order, ties on priorities being broken by a hash of the
+     *         node IDs.
+     */
+    private boolean isBefore(int node, int other) {
+        if (this.priorities[node] != this.priorities[other]) {
+            return this.priorities[node] < this.priorities[other];
+        }
+        final int hash = node * 0x9E3779B9, otherHash = other * 0x9E3779B9;
+        return hash != otherHash ? hash < otherHash : node < other;
+    }
+
+    /**
+     * @return true if the given node comes before all its neighbors in the
+     *         remaining graph.
+     */
+    private boolean isLocalMinimum(int node) {
+        EdgeList incoming = this.in[node], outgoing = this.out[node];
+        for (int i = 0; i < incoming.size; ++i) {
+            if (isBefore(incoming.nodes[i], node)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < outgoing.size; ++i) {
+            if (isBefore(outgoing.nodes[i], node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Contract the nodes by levels of independent nodes. The remaining graph is
+     * only read by concurrent tasks, and modified between them.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     *
+     * @return Ranks of the nodes.
+     */
+    private int[] contractByLevels(int nbNodes) {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, nbNodes).parallel()
+                    .forEach(node -> this.priorities[node] = priority(node))).join();
+
+            int[] remaining = IntStream.range(0, nbNodes).toArray();
+            int[] ranks = new int[nbNodes];
+            boolean[] updated = new boolean[nbNodes];
+            int rank = 0;
+            for (int level = 0; remaining.length > 0; ++level) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("contraction interrupted");
+                }
+                final int[] candidates = remaining;
+                final int[] selected = pool.submit(() -> Arrays.stream(candidates).parallel()
+                        .filter(this::isLocalMinimum).toArray()).join();
+
+                // Find the shortcuts of the selected nodes concurrently.
+                final ShortcutList[] shortcuts = new ShortcutList[selected.length];
+                for (int node: selected) {
+                    this.contracting[node] = true;
+                }
+                pool.submit(() -> IntStream.range(0, selected.length).parallel().forEach(i -> {
+                    shortcuts[i] = new ShortcutList();
+                    findShortcuts(selected[i], this.witnessSettleLimit, shortcuts[i]);
+                })).join();
+                for (int node: selected) {
+                    this.contracting[node] = false;
+                }
+
+                // Add the shortcuts and remove the nodes in a deterministic order.
+                final List<Integer> neighbors = new ArrayList<>();
+                for (int i = 0; i < selected.length; ++i) {
+                    addShortcuts(shortcuts[i]);
+                    ranks[selected[i]] = rank++;
+                    remove(selected[i], neighbor -> {
+                        if (!this.contracted[neighbor] && !updated[neighbor]) {
+                            updated[neighbor] = true;
+                            neighbors.add(neighbor);
+                        }
+                    });
+                }
+
+                // Update the priorities of the neighbors concurrently.
+                pool.submit(() -> neighbors.parallelStream()
+                        .forEach(neighbor -> this.priorities[neighbor] = priority(neighbor)))
+                        .join();
+                for (int neighbor: neighbors) {
+                    updated[neighbor] = false;
+                }
+
+                remaining = Arrays.stream(remaining).filter(node -> !this.contracted[node])
+                        .toArray();
+                for (ContractionHierarchyObserver observer: this.observers) {
+                    observer.notifyLevelContracted(level, selected.length, remaining.length);
+                }
+            }
+            return ranks;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Create the hierarchy from the edges kept for each contracted node.
+     */
+    private ContractionHierarchy createHierarchy(int[] ranks) {
+        final int nbNodes = ranks.length;
+        int[] upFirst = new int[nbNodes + 1], downFirst = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            upFirst[node + 1] = upFirst[node] + this.out[node].size;
+            downFirst[node + 1] = downFirst[node] + this.in[node].size;
+        }
+        int[] upHeads = new int[upFirst[nbNodes]], upEdges = new int[upFirst[nbNodes]];
+        double[] upCosts = new double[upFirst[nbNodes]];
+        int[] downTails = new int[downFirst[nbNodes]], downEdges = new int[downFirst[nbNodes]];
+        double[] downCosts = new double[downFirst[nbNodes]];
+        for (int node = 0; node < nbNodes; ++node) {
+            EdgeList outgoing = this.out[node], incoming = this.in[node];
+            System.arraycopy(outgoing.nodes, 0, upHeads, upFirst[node], outgoing.size);
+            System.arraycopy(outgoing.costs, 0, upCosts, upFirst[node], outgoing.size);
+            System.arraycopy(outgoing.edges, 0, upEdges, upFirst[node], outgoing.size);
+            System.arraycopy(incoming.nodes, 0, downTails, downFirst[node], incoming.size);
+            System.arraycopy(incoming.costs, 0, downCosts, downFirst[node], incoming.size);
+            System.arraycopy(incoming.edges, 0, downEdges, downFirst[node], incoming.size);
+        }
+
+        // Release the remaining graph.
+        this.out = null;
+        this.in = null;
+        this.witnessSearches.remove();
+        this.witnessSearches = null;
+
+        return new ContractionHierarchy(this.graph.getMapId(), this.inspector,
+                this.graph.getCompactGraph().getArcCount(), ranks,
+                Arrays.copyOf(this.shortcutFirst, this.nbShortcuts),
+                Arrays.copyOf(this.shortcutSecond, this.nbShortcuts), upFirst, upHeads, upCosts,
+                upEdges, downFirst, downTails, downCosts, downEdges);
+    }
+
+}
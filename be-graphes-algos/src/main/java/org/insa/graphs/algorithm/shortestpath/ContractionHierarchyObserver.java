@@ -0,0 +1,37 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * Base interface that should be implemented by classes that want to observe the
+ * computation of a {@link ContractionHierarchy} by a
+ * {@link ContractionHierarchyBuilder}.
+ *
+ */
+public interface ContractionHierarchyObserver {
+
+    /**
+     * Notify that the contraction is starting, this method is always the first
+     * called.
+     *
+     * @param nbNodes Number of nodes to contract.
+     */
+    public void notifyStartContraction(int nbNodes);
+
+    /**
+     * Notify that a level of the hierarchy has been contracted. Nodes of a level
+     * are contracted together, a level contains a single node when the
+     * contraction is sequential.
+     *
+     * @param level Index of the level, starting at 0.
+     * @param nbContracted Number of nodes contracted in this level.
+     * @param nbRemaining Number of nodes remaining to be contracted.
+     */
+    public void notifyLevelContracted(int level, int nbContracted, int nbRemaining);
+
+    /**
+     * Notify that all nodes have been contracted.
+     *
+     * @param nbShortcuts Number of shortcuts added during the contraction.
+     */
+    public void notifyEndContraction(int nbShortcuts);
+
+}
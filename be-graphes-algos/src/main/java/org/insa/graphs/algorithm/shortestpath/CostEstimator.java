@@ -0,0 +1,93 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.model.GraphStatistics.NO_MAXIMUM_SPEED;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Node;
+
+/**
+ * Lower bound of the cost between two nodes, used by the A* variants.
+ *
+ */
+final class CostEstimator {
+
+    // Input data and heuristic.
+    private final ShortestPathData data;
+    private final AStarAlgorithm.Heuristic heuristic;
+
+    // Bound used with the EQUIRECTANGULAR heuristic, computed on first use.
+    private EquirectangularBound bound;
+
+    // Maximum speed (in meters per second) used in TIME mode, computed on first
+    // use.
+    private double maxSpeed = Double.NaN;
+
+    /**
+     * @param data Input data of the search.
+     * @param heuristic Lower bound of the distance to use.
+     */
+    CostEstimator(ShortestPathData data, AStarAlgorithm.Heuristic heuristic) {
+        this.data = data;
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * @param data Input data of the search.
+     *
+     * @return Maximum speed that can be reached in the graph (in kilometers per
+     *         hour).
+     */
+    private static int getMaxSpeed(ShortestPathData data) {
+        int dataMaxSpeed = data.getMaximumSpeed();
+        int graphMaxSpeed = data.getGraph().getGraphInformation().getMaximumSpeed();
+        if (dataMaxSpeed == NO_MAXIMUM_SPEED && graphMaxSpeed == NO_MAXIMUM_SPEED) {
+            return 130;
+        }
+        else if (dataMaxSpeed == NO_MAXIMUM_SPEED ^ graphMaxSpeed == NO_MAXIMUM_SPEED) {
+            return Math.max(dataMaxSpeed, graphMaxSpeed);
+        }
+        else {
+            return Math.min(dataMaxSpeed, graphMaxSpeed);
+        }
+    }
+
+    /**
+     * @param from First node.
+     * @param to Second node.
+     *
+     * @return A lower bound of the cost of a path from the first node to the
+     *         second one.
+     */
+    double estimate(Node from, Node to) {
+        double distance;
+        if (this.heuristic == AStarAlgorithm.Heuristic.EQUIRECTANGULAR) {
+            if (this.bound == null) {
+                this.bound = EquirectangularBound.of(this.data.getGraph());
+            }
+            distance = this.bound.distance(from.getId(), to.getId());
+        }
+        else {
+            distance = from.getPoint().distanceTo(to.getPoint());
+
+            // Rounding errors in Point.distance() give NaN for (almost) identical
+            // points.
+            if (Double.isNaN(distance)) {
+                distance = 0;
+            }
+        }
+
+        if (this.data.getMode().equals(Mode.LENGTH)) {
+            return distance;
+        }
+        else if (this.data.getMode().equals(Mode.TIME)) {
+            if (Double.isNaN(this.maxSpeed)) {
+                this.maxSpeed = getMaxSpeed(this.data) / 3.6;
+            }
+            return distance / this.maxSpeed;
+        }
+        else {
+            throw new IllegalArgumentException();
+        }
+    }
+
+}
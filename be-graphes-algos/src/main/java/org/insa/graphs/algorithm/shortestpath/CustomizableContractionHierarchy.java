@@ -0,0 +1,682 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.InspectorCache;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Customizable contraction hierarchy of a graph: a contraction order that does
+ * not depend on arc costs and the corresponding hierarchy topology, computed
+ * once per graph and then customized quickly for any {@link ArcInspector} into
+ * a {@link ContractionHierarchy} usable by {@link ContractionHierarchyAlgorithm}.
+ * </p>
+ *
+ * <p>
+ * The order is a nested dissection of the undirected graph of all the arcs
+ * (whatever their permissions): each connected cell is split into two halves
+ * along the direction (longitude, latitude or one of the diagonals) giving the
+ * smallest separator, the halves are ordered recursively and the separator
+ * nodes are ranked last. Contracting the nodes in this order without witness
+ * searches gives a chordal graph, whose edges are the edges of the hierarchy.
+ * </p>
+ *
+ * <p>
+ * Customization gives each edge of the hierarchy, in both directions, the cost
+ * of the cheapest allowed arc it corresponds to, and then relaxes each edge
+ * {@code u - w} through its lower triangles {@code u - v - w} ({@code v} being
+ * lower than {@code u} and {@code w}). Nodes are processed by levels of the
+ * elimination tree: the edges of the nodes of a level only depend on the edges
+ * of lower levels, so they are customized concurrently.
+ * </p>
+ *
+ */
+public final class CustomizableContractionHierarchy {
+
+    // Cells with at most this number of nodes are not dissected.
+    private static final int MAX_LEAF_CELL_SIZE = 2;
+
+    /**
+     * Hierarchy of a graph, computed on first access. The map of hierarchies is
+     * only locked to retrieve the entry, so computing the hierarchy of a graph
+     * does not block the retrieval of the hierarchies of other graphs.
+     */
+    private static final class Entry {
+
+        private volatile CustomizableContractionHierarchy value;
+
+        private CustomizableContractionHierarchy get(Graph graph) {
+            CustomizableContractionHierarchy value = this.value;
+            if (value == null) {
+                synchronized (this) {
+                    value = this.value;
+                    if (value == null) {
+                        value = compute(graph);
+                        this.value = value;
+                    }
+                }
+            }
+            return value;
+        }
+
+    }
+
+    // Cached hierarchies, by graph.
+    private static final Map<Graph, Entry> HIERARCHIES = new WeakHashMap<>();
+
+    /**
+     * Maximum number of customizations cached for a graph.
+     */
+    public static final int MAX_CACHED_CUSTOMIZATIONS = 8;
+
+    // Cached customizations, by graph and inspector.
+    private static final InspectorCache<ContractionHierarchy> CUSTOMIZATIONS = new InspectorCache<>(
+            MAX_CACHED_CUSTOMIZATIONS, (graph, inspector) -> of(graph).customize(graph, inspector));
+
+    /**
+     * Retrieve the customizable hierarchy of the given graph, computing it if
+     * needed.
+     *
+     * @param graph Graph for which the hierarchy should be retrieved.
+     *
+     * @return Customizable hierarchy of the given graph.
+     */
+    public static CustomizableContractionHierarchy of(Graph graph) {
+        Entry entry;
+        synchronized (HIERARCHIES) {
+            entry = HIERARCHIES.computeIfAbsent(graph, g -> new Entry());
+        }
+        return entry.get(graph);
+    }
+
+    /**
+     * Retrieve the hierarchy of the given graph customized for the given
+     * inspector, customizing it if needed.
+     *
+     * @param graph Graph for which the hierarchy should be retrieved.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return Customized hierarchy for the given graph and inspector.
+     */
+    public static ContractionHierarchy customizedOf(Graph graph, ArcInspector arcInspector) {
+        return CUSTOMIZATIONS.get(graph, arcInspector);
+    }
+
+    /**
+     * Undirected graph in compressed form: neighbors of node {@code i} are
+     * {@code neighbors[first[i]]} to {@code neighbors[first[i + 1] - 1]}.
+     */
+    private static final class UndirectedGraph {
+
+        final int[] first, neighbors;
+
+        UndirectedGraph(CompactGraph compact) {
+            final int nbNodes = compact.size();
+            int[] degrees = new int[nbNodes + 1];
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                    if (compact.getDestination(arc) != node) {
+                        degrees[node] += 1;
+                        degrees[compact.getDestination(arc)] += 1;
+                    }
+                }
+            }
+            int[] starts = new int[nbNodes + 1];
+            for (int node = 0; node < nbNodes; ++node) {
+                starts[node + 1] = starts[node] + degrees[node];
+            }
+            int[] all = new int[starts[nbNodes]], positions = Arrays.copyOf(starts, nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                    final int destination = compact.getDestination(arc);
+                    if (destination != node) {
+                        all[positions[node]++] = destination;
+                        all[positions[destination]++] = node;
+                    }
+                }
+            }
+
+            // Remove duplicate neighbors.
+            this.first = new int[nbNodes + 1];
+            int size = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                Arrays.sort(all, starts[node], starts[node + 1]);
+                this.first[node] = size;
+                for (int i = starts[node]; i < starts[node + 1]; ++i) {
+                    if (i == starts[node] || all[i] != all[i - 1]) {
+                        all[size++] = all[i];
+                    }
+                }
+            }
+            this.first[nbNodes] = size;
+            this.neighbors = Arrays.copyOf(all, size);
+        }
+
+    }
+
+    /**
+     * Nested dissection of an undirected graph using node coordinates.
+     */
+    private static final class NestedDissection {
+
+        private final UndirectedGraph graph;
+
+        // Projections of the nodes on the dissection directions.
+        private final float[][] projections;
+
+        // Stamps used to mark cells, visited nodes and halves.
+        private final int[] marks;
+        private int stamp = 0;
+
+        // Nodes in contraction order.
+        private final int[] order;
+        private int nbOrdered = 0;
+
+        NestedDissection(CompactGraph compact, UndirectedGraph graph) {
+            final int nbNodes = compact.size();
+            this.graph = graph;
+            this.marks = new int[nbNodes];
+            this.order = new int[nbNodes];
+
+            double latitudes = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                latitudes += compact.getLatitude(node);
+            }
+            final double scale = Math.cos(Math.toRadians(latitudes / Math.max(nbNodes, 1)));
+            this.projections = new float[4][nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                final float x = (float) (compact.getLongitude(node) * scale),
+                        y = compact.getLatitude(node);
+                this.projections[0][node] = x;
+                this.projections[1][node] = y;
+                this.projections[2][node] = x + y;
+                this.projections[3][node] = x - y;
+            }
+        }
+
+        /**
+         * @return Nodes of the graph in contraction order.
+         */
+        int[] compute() {
+            dissect(IntStream.range(0, this.order.length).toArray());
+            return this.order;
+        }
+
+        private void append(int[] nodes) {
+            System.arraycopy(nodes, 0, this.order, this.nbOrdered, nodes.length);
+            this.nbOrdered += nodes.length;
+        }
+
+        private void dissect(int[] cell) {
+            if (cell.length <= MAX_LEAF_CELL_SIZE) {
+                append(cell);
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("dissection interrupted");
+            }
+            List<int[]> components = components(cell);
+            if (components.size() > 1) {
+                for (int[] component: components) {
+                    dissect(component);
+                }
+                return;
+            }
+
+            int[][] best = null;
+            for (float[] projection: this.projections) {
+                int[][] halves = bisect(cell, projection);
+                if (best == null || halves[2].length < best[2].length) {
+                    best = halves;
+                }
+            }
+            dissect(best[0]);
+            dissect(best[1]);
+            append(best[2]);
+        }
+
+        /**
+         * @return Connected components of the given cell.
+         */
+        private List<int[]> components(int[] cell) {
+            final int cellStamp = ++this.stamp, visitedStamp = ++this.stamp;
+            for (int node: cell) {
+                this.marks[node] = cellStamp;
+            }
+            List<int[]> components = new ArrayList<>();
+            int[] queue = new int[cell.length];
+            for (int root: cell) {
+                if (this.marks[root] != cellStamp) {
+                    continue;
+                }
+                int size = 0;
+                queue[size++] = root;
+                this.marks[root] = visitedStamp;
+                for (int head = 0; head < size; ++head) {
+                    final int node = queue[head];
+                    for (int i = this.graph.first[node]; i < this.graph.first[node + 1]; ++i) {
+                        final int neighbor = this.graph.neighbors[i];
+                        if (this.marks[neighbor] == cellStamp) {
+                            this.marks[neighbor] = visitedStamp;
+                            queue[size++] = neighbor;
+                        }
+                    }
+                }
+                components.add(Arrays.copyOf(queue, size));
+            }
+            return components;
+        }
+
+        /**
+         * Split the given cell at the median of the given projection.
+         *
+         * @return The two halves without the separator, and the separator (the
+         *         smallest set of boundary nodes of one half).
+         */
+        private int[][] bisect(int[] cell, float[] projection) {
+            long[] keys = new long[cell.length];
+            for (int i = 0; i < cell.length; ++i) {
+                int bits = Float.floatToIntBits(projection[cell[i]]);
+                bits ^= (bits >> 31) & 0x7fffffff;
+                keys[i] = ((long) bits << 32) | cell[i];
+            }
+            Arrays.sort(keys);
+
+            final int middle = cell.length / 2;
+            final int[] stamps = { ++this.stamp, ++this.stamp };
+            for (int i = 0; i < cell.length; ++i) {
+                this.marks[(int) keys[i]] = stamps[i < middle ? 0 : 1];
+            }
+
+            // Boundary nodes of each half.
+            int[][] boundaries = new int[2][];
+            for (int side = 0; side < 2; ++side) {
+                int[] boundary = new int[side == 0 ? middle : cell.length - middle];
+                int size = 0;
+                for (int i = side == 0 ? 0 : middle; i < (side == 0 ? middle
+                        : cell.length); ++i) {
+                    final int node = (int) keys[i];
+                    for (int j = this.graph.first[node]; j < this.graph.first[node + 1]; ++j) {
+                        if (this.marks[this.graph.neighbors[j]] == stamps[1 - side]) {
+                            boundary[size++] = node;
+                            break;
+                        }
+                    }
+                }
+                boundaries[side] = Arrays.copyOf(boundary, size);
+            }
+            final int separatorSide = boundaries[0].length <= boundaries[1].length ? 0 : 1;
+            final int[] separator = boundaries[separatorSide];
+
+            // Remove the separator from its half.
+            for (int node: separator) {
+                this.marks[node] = 0;
+            }
+            int[][] halves = new int[3][];
+            for (int side = 0; side < 2; ++side) {
+                int[] half = new int[side == 0 ? middle : cell.length - middle];
+                int size = 0;
+                for (int i = side == 0 ? 0 : middle; i < (side == 0 ? middle
+                        : cell.length); ++i) {
+                    final int node = (int) keys[i];
+                    if (this.marks[node] == stamps[side]) {
+                        half[size++] = node;
+                    }
+                }
+                halves[side] = Arrays.copyOf(half, size);
+            }
+            halves[2] = separator;
+            return halves;
+        }
+
+    }
+
+    /**
+     * Compute the customizable hierarchy of the given graph.
+     *
+     * @param graph Graph for which the hierarchy should be computed.
+     *
+     * @return Customizable hierarchy of the given graph.
+     *
+     * @throws CancellationException if the calling thread is interrupted during
+     *         the computation.
+     */
+    public static CustomizableContractionHierarchy compute(Graph graph) {
+        final CompactGraph compact = graph.getCompactGraph();
+        UndirectedGraph undirected = new UndirectedGraph(compact);
+        return new CustomizableContractionHierarchy(graph.getMapId(), compact, undirected,
+                new NestedDissection(compact, undirected).compute());
+    }
+
+    // ID of the map, number of nodes and arcs of the graph.
+    private final String mapId;
+    private final int nbNodes, nbArcs;
+
+    // Rank of each node, and node of each rank.
+    private final int[] ranks, nodes;
+
+    // Edges of the hierarchy: for each rank, ranks of the higher neighbors
+    // (sorted). The ID of an edge is its index in this array.
+    private final int[] upFirst, upHeads;
+
+    // For each rank, lower neighbors and IDs of the corresponding edges.
+    private final int[] downFirst, downTails, downEdges;
+
+    // Directed edge (2 * edge ID, plus 1 if the arc goes down) corresponding to
+    // each arc, or -1 for loops.
+    private final int[] arcEdges;
+
+    // Ranks of the nodes by level of the elimination tree.
+    private final int[] levelFirst, levelRanks;
+
+    private CustomizableContractionHierarchy(String mapId, CompactGraph compact,
+            UndirectedGraph graph, int[] order) {
+        this.mapId = mapId;
+        this.nbNodes = compact.size();
+        this.nbArcs = compact.getArcCount();
+        this.nodes = order;
+        this.ranks = new int[this.nbNodes];
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            this.ranks[order[rank]] = rank;
+        }
+
+        // Contract the nodes in order: the higher neighbors of a node become
+        // neighbors of its lowest higher neighbor (its parent in the elimination
+        // tree).
+        int[][] higher = new int[this.nbNodes][];
+        int[] sizes = new int[this.nbNodes];
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            final int node = order[rank];
+            higher[rank] = new int[graph.first[node + 1] - graph.first[node]];
+            for (int i = graph.first[node]; i < graph.first[node + 1]; ++i) {
+                final int neighbor = this.ranks[graph.neighbors[i]];
+                if (neighbor > rank) {
+                    higher[rank][sizes[rank]++] = neighbor;
+                }
+            }
+        }
+        this.upFirst = new int[this.nbNodes + 1];
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            int[] neighbors = higher[rank];
+            Arrays.sort(neighbors, 0, sizes[rank]);
+            int size = 0;
+            for (int i = 0; i < sizes[rank]; ++i) {
+                if (i == 0 || neighbors[i] != neighbors[i - 1]) {
+                    neighbors[size++] = neighbors[i];
+                }
+            }
+            sizes[rank] = size;
+            this.upFirst[rank + 1] = this.upFirst[rank] + size;
+            if (size > 1) {
+                final int parent = neighbors[0];
+                if (sizes[parent] + size - 1 > higher[parent].length) {
+                    higher[parent] = Arrays.copyOf(higher[parent],
+                            Math.max(2 * higher[parent].length, sizes[parent] + size - 1));
+                }
+                System.arraycopy(neighbors, 1, higher[parent], sizes[parent], size - 1);
+                sizes[parent] += size - 1;
+            }
+        }
+        this.upHeads = new int[this.upFirst[this.nbNodes]];
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            System.arraycopy(higher[rank], 0, this.upHeads, this.upFirst[rank], sizes[rank]);
+            higher[rank] = null;
+        }
+
+        // Reverse edges, sorted by tail since edges are visited by increasing tail.
+        this.downFirst = new int[this.nbNodes + 1];
+        for (int head: this.upHeads) {
+            this.downFirst[head + 1] += 1;
+        }
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            this.downFirst[rank + 1] += this.downFirst[rank];
+        }
+        this.downTails = new int[this.upHeads.length];
+        this.downEdges = new int[this.upHeads.length];
+        int[] positions = Arrays.copyOf(this.downFirst, this.nbNodes);
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            for (int edge = this.upFirst[rank]; edge < this.upFirst[rank + 1]; ++edge) {
+                final int position = positions[this.upHeads[edge]]++;
+                this.downTails[position] = rank;
+                this.downEdges[position] = edge;
+            }
+        }
+
+        // Edges corresponding to arcs.
+        this.arcEdges = new int[this.nbArcs];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                final int origin = this.ranks[node],
+                        destination = this.ranks[compact.getDestination(arc)];
+                if (origin == destination) {
+                    this.arcEdges[arc] = -1;
+                }
+                else {
+                    final int low = Math.min(origin, destination);
+                    final int edge = Arrays.binarySearch(this.upHeads, this.upFirst[low],
+                            this.upFirst[low + 1], Math.max(origin, destination));
+                    this.arcEdges[arc] = 2 * edge + (origin < destination ? 0 : 1);
+                }
+            }
+        }
+
+        // Levels of the elimination tree.
+        int[] levels = new int[this.nbNodes];
+        int nbLevels = 0;
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            for (int edge = this.upFirst[rank]; edge < this.upFirst[rank + 1]; ++edge) {
+                levels[this.upHeads[edge]] = Math.max(levels[this.upHeads[edge]],
+                        levels[rank] + 1);
+            }
+            nbLevels = Math.max(nbLevels, levels[rank] + 1);
+        }
+        this.levelFirst = new int[nbLevels + 1];
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            this.levelFirst[levels[rank] + 1] += 1;
+        }
+        for (int level = 0; level < nbLevels; ++level) {
+            this.levelFirst[level + 1] += this.levelFirst[level];
+        }
+        this.levelRanks = new int[this.nbNodes];
+        positions = Arrays.copyOf(this.levelFirst, nbLevels);
+        for (int rank = 0; rank < this.nbNodes; ++rank) {
+            this.levelRanks[positions[levels[rank]]++] = rank;
+        }
+    }
+
+    /**
+     * @return Number of nodes of the hierarchy.
+     */
+    public int size() {
+        return this.nbNodes;
+    }
+
+    /**
+     * @return Number of (undirected) edges of the hierarchy.
+     */
+    public int getEdgeCount() {
+        return this.upHeads.length;
+    }
+
+    /**
+     * @return Number of levels of the elimination tree, i.e. number of
+     *         customization steps.
+     */
+    public int getLevelCount() {
+        return this.levelFirst.length - 1;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Rank of the node in the contraction order.
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * Customize this hierarchy for the given inspector.
+     *
+     * @param graph Graph of this hierarchy.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return A new hierarchy for the given graph and inspector.
+     *
+     * @throws IllegalArgumentException if the graph is not the graph of this
+     *         hierarchy.
+     * @throws CancellationException if the calling thread is interrupted during
+     *         the customization.
+     */
+    public ContractionHierarchy customize(Graph graph, ArcInspector arcInspector) {
+        if (!graph.getMapId().equals(this.mapId) || graph.size() != this.nbNodes
+                || graph.getCompactGraph().getArcCount() != this.nbArcs) {
+            throw new IllegalArgumentException(
+                    "Graph " + graph.getMapId() + " does not match hierarchy of " + this.mapId);
+        }
+        final WeightProfile weights = WeightProfile.of(graph, arcInspector);
+
+        // Cost of each directed edge, and arc or halves (directed edges) of the
+        // path giving this cost.
+        final int nbDirectedEdges = 2 * this.upHeads.length;
+        final double[] costs = new double[nbDirectedEdges];
+        final int[] arcs = new int[nbDirectedEdges], firstHalves = new int[nbDirectedEdges],
+                secondHalves = new int[nbDirectedEdges];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(arcs, -1);
+        for (int arc = 0; arc < this.nbArcs; ++arc) {
+            final int edge = this.arcEdges[arc];
+            if (edge != -1 && weights.isAllowed(arc) && weights.getCost(arc) < costs[edge]) {
+                costs[edge] = weights.getCost(arc);
+                arcs[edge] = arc;
+            }
+        }
+
+        for (int level = 0; level < getLevelCount(); ++level) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("customization interrupted");
+            }
+            IntStream.range(this.levelFirst[level], this.levelFirst[level + 1]).parallel()
+                    .forEach(index -> relaxLowerTriangles(this.levelRanks[index], costs, arcs,
+                            firstHalves, secondHalves));
+        }
+
+        return createHierarchy(graph, arcInspector, costs, arcs, firstHalves, secondHalves);
+    }
+
+    /**
+     * Relax the edges from the given node to higher nodes through their lower
+     * triangles. Only the edges of the given node are modified, and only the edges
+     * of lower nodes are read.
+     */
+    private void relaxLowerTriangles(int rank, double[] costs, int[] arcs, int[] firstHalves,
+            int[] secondHalves) {
+        for (int i = this.downFirst[rank]; i < this.downFirst[rank + 1]; ++i) {
+            final int lower = this.downTails[i], lowerEdge = this.downEdges[i];
+
+            // Higher neighbors of the lower node above this node are also neighbors
+            // of this node, and both lists are sorted.
+            int edge = this.upFirst[rank];
+            for (int other = lowerEdge + 1; other < this.upFirst[lower + 1]; ++other) {
+                while (this.upHeads[edge] != this.upHeads[other]) {
+                    ++edge;
+                }
+
+                // Upward: rank -> lower -> head.
+                double cost = costs[2 * lowerEdge + 1] + costs[2 * other];
+                if (cost < costs[2 * edge]) {
+                    costs[2 * edge] = cost;
+                    arcs[2 * edge] = -1;
+                    firstHalves[2 * edge] = 2 * lowerEdge + 1;
+                    secondHalves[2 * edge] = 2 * other;
+                }
+
+                // Downward: head -> lower -> rank.
+                cost = costs[2 * other + 1] + costs[2 * lowerEdge];
+                if (cost < costs[2 * edge + 1]) {
+                    costs[2 * edge + 1] = cost;
+                    arcs[2 * edge + 1] = -1;
+                    firstHalves[2 * edge + 1] = 2 * other + 1;
+                    secondHalves[2 * edge + 1] = 2 * lowerEdge;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the contraction hierarchy from the customized costs, keeping only
+     * the directed edges with finite costs.
+     */
+    private ContractionHierarchy createHierarchy(Graph graph, ArcInspector arcInspector,
+            double[] costs, int[] arcs, int[] firstHalves, int[] secondHalves) {
+        final int nbDirectedEdges = costs.length;
+
+        // Edge IDs of the hierarchy: arc IDs, or shortcut IDs after the arcs.
+        int[] ids = new int[nbDirectedEdges];
+        int nbShortcuts = 0;
+        for (int edge = 0; edge < nbDirectedEdges; ++edge) {
+            if (costs[edge] < Double.POSITIVE_INFINITY) {
+                ids[edge] = arcs[edge] != -1 ? arcs[edge] : this.nbArcs + nbShortcuts++;
+            }
+        }
+        int[] shortcutFirst = new int[nbShortcuts], shortcutSecond = new int[nbShortcuts];
+        for (int edge = 0; edge < nbDirectedEdges; ++edge) {
+            if (costs[edge] < Double.POSITIVE_INFINITY && arcs[edge] == -1) {
+                shortcutFirst[ids[edge] - this.nbArcs] = ids[firstHalves[edge]];
+                shortcutSecond[ids[edge] - this.nbArcs] = ids[secondHalves[edge]];
+            }
+        }
+
+        int[] upFirst = new int[this.nbNodes + 1], downFirst = new int[this.nbNodes + 1];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            final int rank = this.ranks[node];
+            upFirst[node + 1] = upFirst[node];
+            downFirst[node + 1] = downFirst[node];
+            for (int edge = this.upFirst[rank]; edge < this.upFirst[rank + 1]; ++edge) {
+                if (costs[2 * edge] < Double.POSITIVE_INFINITY) {
+                    upFirst[node + 1] += 1;
+                }
+                if (costs[2 * edge + 1] < Double.POSITIVE_INFINITY) {
+                    downFirst[node + 1] += 1;
+                }
+            }
+        }
+        int[] upHeads = new int[upFirst[this.nbNodes]], upEdges = new int[upFirst[this.nbNodes]];
+        double[] upCosts = new double[upFirst[this.nbNodes]];
+        int[] downTails = new int[downFirst[this.nbNodes]],
+                downEdges = new int[downFirst[this.nbNodes]];
+        double[] downCosts = new double[downFirst[this.nbNodes]];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            final int rank = this.ranks[node];
+            int up = upFirst[node], down = downFirst[node];
+            for (int edge = this.upFirst[rank]; edge < this.upFirst[rank + 1]; ++edge) {
+                final int head = this.nodes[this.upHeads[edge]];
+                if (costs[2 * edge] < Double.POSITIVE_INFINITY) {
+                    upHeads[up] = head;
+                    upCosts[up] = costs[2 * edge];
+                    upEdges[up++] = ids[2 * edge];
+                }
+                if (costs[2 * edge + 1] < Double.POSITIVE_INFINITY) {
+                    downTails[down] = head;
+                    downCosts[down] = costs[2 * edge + 1];
+                    downEdges[down++] = ids[2 * edge + 1];
+                }
+            }
+        }
+
+        return new ContractionHierarchy(this.mapId, arcInspector.toString(), this.nbArcs,
+                this.ranks.clone(), shortcutFirst, shortcutSecond, upFirst, upHeads, upCosts,
+                upEdges, downFirst, downTails, downCosts, downEdges);
+    }
+
+}
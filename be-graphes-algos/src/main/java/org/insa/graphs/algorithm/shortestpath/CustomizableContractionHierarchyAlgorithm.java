@@ -0,0 +1,21 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * Contraction hierarchy query on the {@link CustomizableContractionHierarchy} of
+ * the graph, customized for the inspector of the input data (see
+ * {@link CustomizableContractionHierarchy#customizedOf(org.insa.graphs.model.Graph, org.insa.graphs.algorithm.ArcInspector)}).
+ *
+ */
+public class CustomizableContractionHierarchyAlgorithm extends ContractionHierarchyAlgorithm {
+
+    public CustomizableContractionHierarchyAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ContractionHierarchy retrieveHierarchy() {
+        return CustomizableContractionHierarchy.customizedOf(getInputData().getGraph(),
+                getInputData().getArcInspector());
+    }
+
+}
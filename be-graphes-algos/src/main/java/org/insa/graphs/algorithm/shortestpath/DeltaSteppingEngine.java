@@ -0,0 +1,514 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Computation of complete shortest-path trees with delta-stepping, a parallel
+ * variant of Dijkstra's algorithm.
+ * </p>
+ *
+ * <p>
+ * Nodes are grouped in buckets of width delta (see {@link #setDelta(double)}) by
+ * tentative cost. Buckets are processed in increasing order: the light arcs
+ * (with a cost lower or equal to delta) of the nodes of the current bucket are
+ * relaxed in parallel, until the bucket stays empty, then the heavy arcs of all
+ * the nodes removed from the bucket are relaxed in parallel, once. Costs are
+ * kept in a primitive array updated with atomic minimums, so concurrent
+ * relaxations of the same node do not need any lock.
+ * </p>
+ *
+ * <p>
+ * A small delta settles nodes almost in Dijkstra's order but leaves little work in
+ * each bucket, while a large delta gives more parallel work but relaxes nodes
+ * several times. The default delta is derived from the {@link GraphStatistics} of
+ * the graph (see {@link #getDefaultDelta(Graph, ArcInspector)}).
+ * </p>
+ *
+ * <p>
+ * The resulting trees are regular {@link ShortestPathTree}. Predecessor arcs are
+ * only chosen once all the costs are known, among the arcs that are tight for
+ * the final costs.
+ * </p>
+ *
+ */
+public final class DeltaSteppingEngine {
+
+    /**
+     * Factor applied to the ratio between the maximum cost of an arc and the
+     * average degree of the nodes to get the default delta.
+     */
+    public static final double DEFAULT_DELTA_FACTOR = 8;
+
+    // Minimum number of nodes in a phase for the relaxations to be run in
+    // parallel.
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * Growable list of integers.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size = 0;
+
+        private void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
+            }
+            this.values[this.size++] = value;
+        }
+
+        private void addAll(IntList other) {
+            if (this.size + other.size > this.values.length) {
+                this.values = Arrays.copyOf(this.values,
+                        Math.max(this.size + other.size, 2 * this.values.length));
+            }
+            System.arraycopy(other.values, 0, this.values, this.size, other.size);
+            this.size += other.size;
+        }
+
+    }
+
+    /**
+     * Compute the default delta of the given graph and inspector: the maximum cost of
+     * an arc (from the maximum length and speed of the {@link GraphStatistics},
+     * or from the costs of the arcs when the statistics are not available),
+     * divided by the average degree of the nodes, times
+     * {@link #DEFAULT_DELTA_FACTOR}.
+     *
+     * @param graph Graph of the trees.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return Default delta for the given graph and inspector.
+     */
+    public static double getDefaultDelta(Graph graph, ArcInspector arcInspector) {
+        GraphStatistics statistics = graph.getGraphInformation();
+        CompactGraph compact = graph.getCompactGraph();
+
+        int nbArcs = statistics.getArcCount();
+        if (nbArcs <= 0) {
+            nbArcs = compact.getFirstArc(graph.size());
+        }
+        final double degree = Math.max(1.0, nbArcs / (double) Math.max(graph.size(), 1));
+
+        double maxCost = 0;
+        if (statistics.getMaximumLength() > 0) {
+            if (arcInspector.getMode() == Mode.LENGTH) {
+                maxCost = statistics.getMaximumLength();
+            }
+            else if (statistics.getMaximumSpeed() > 0) {
+                maxCost = statistics.getMaximumLength() * 3.6 / statistics.getMaximumSpeed();
+            }
+        }
+        if (maxCost <= 0) {
+            WeightProfile weights = WeightProfile.of(graph, arcInspector);
+            for (int arc = 0; arc < weights.getArcCount(); ++arc) {
+                if (weights.isAllowed(arc)) {
+                    maxCost = Math.max(maxCost, weights.getCost(arc));
+                }
+            }
+        }
+        return maxCost > 0 ? DEFAULT_DELTA_FACTOR * maxCost / degree : 1;
+    }
+
+    // Graph of the engine.
+    private final Graph graph;
+
+    // Allowed arcs of each node, light arcs first: for each node, index of its
+    // first arc and of its first heavy arc, and for each arc, its head, cost and
+    // ID in the compact graph.
+    private final int[] first, firstHeavy, heads, arcs;
+    private final double[] costs;
+
+    // Maximum cost of an allowed arc.
+    private final double maxCost;
+
+    // Width of the buckets, and number of threads.
+    private double delta;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Create a new engine for the given graph and inspector, with the default delta.
+     *
+     * @param graph Graph of the trees.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     */
+    public DeltaSteppingEngine(Graph graph, ArcInspector arcInspector) {
+        this.graph = graph;
+        CompactGraph compact = graph.getCompactGraph();
+        WeightProfile weights = WeightProfile.of(graph, arcInspector);
+
+        final int nbNodes = graph.size();
+        this.first = new int[nbNodes + 1];
+        this.firstHeavy = new int[nbNodes];
+        this.heads = new int[weights.getAllowedArcCount()];
+        this.arcs = new int[weights.getAllowedArcCount()];
+        this.costs = new double[weights.getAllowedArcCount()];
+        int index = 0;
+        double maxCost = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            this.first[node] = index;
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                if (weights.isAllowed(arc)) {
+                    this.heads[index] = compact.getDestination(arc);
+                    this.arcs[index] = arc;
+                    this.costs[index] = weights.getCost(arc);
+                    maxCost = Math.max(maxCost, this.costs[index]);
+                    index += 1;
+                }
+            }
+        }
+        this.first[nbNodes] = index;
+        this.maxCost = maxCost;
+
+        setDelta(getDefaultDelta(graph, arcInspector));
+    }
+
+    /**
+     * @return Width of the buckets.
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * Set the width of the buckets, and split the arcs of each node between light
+     * and heavy arcs accordingly. The engine keeps one bucket per delta up to the
+     * maximum cost of an arc, so delta should not be several orders of magnitude
+     * lower than this maximum cost.
+     *
+     * @param delta Width of the buckets.
+     *
+     * @throws IllegalArgumentException if delta is not a positive finite number.
+     */
+    public void setDelta(double delta) {
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("Invalid delta: " + delta);
+        }
+        this.delta = delta;
+
+        // Sort the arcs of each node so that light arcs come first.
+        for (int node = 0; node < this.firstHeavy.length; ++node) {
+            int heavy = this.first[node + 1];
+            for (int i = this.first[node]; i < heavy;) {
+                if (this.costs[i] <= delta) {
+                    ++i;
+                }
+                else {
+                    --heavy;
+                    swapArcs(i, heavy);
+                }
+            }
+            this.firstHeavy[node] = heavy;
+        }
+    }
+
+    /**
+     * Swap the two given arcs of the arc arrays.
+     */
+    private void swapArcs(int i, int j) {
+        int head = this.heads[i], arc = this.arcs[i];
+        double cost = this.costs[i];
+        this.heads[i] = this.heads[j];
+        this.arcs[i] = this.arcs[j];
+        this.costs[i] = this.costs[j];
+        this.heads[j] = head;
+        this.arcs[j] = arc;
+        this.costs[j] = cost;
+    }
+
+    /**
+     * @return Number of threads used to relax arcs.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the number of threads used to relax arcs.
+     *
+     * @param parallelism Number of threads.
+     *
+     * @throws IllegalArgumentException if parallelism is lower than 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Compute the tree of the shortest paths from the given root to all the
+     * nodes.
+     *
+     * @param root Root of the tree.
+     *
+     * @return The shortest-path tree of the given root.
+     */
+    public ShortestPathTree computeTree(Node root) {
+        final int nbNodes = this.graph.size();
+        final AtomicLongArray distances = new AtomicLongArray(nbNodes);
+        final long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int node = 0; node < nbNodes; ++node) {
+            distances.set(node, infinity);
+        }
+
+        ForkJoinPool pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        try {
+            computeDistances(root.getId(), distances, pool);
+
+            double[] costs = new double[nbNodes];
+            int size = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                costs[node] = Double.longBitsToDouble(distances.get(node));
+                if (costs[node] != Double.POSITIVE_INFINITY) {
+                    size += 1;
+                }
+            }
+            int[] predecessorArcs = computePredecessors(root.getId(), costs, pool);
+            return new ShortestPathTree(this.graph, root, costs, predecessorArcs, size);
+        }
+        finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Lower the distance of the given node to the given value, if it is lower than
+     * the current one. Since distances are non-negative, their bits are ordered
+     * as the distances themselves.
+     *
+     * @return true if the distance has been lowered.
+     */
+    private static boolean relax(AtomicLongArray distances, int node, double distance) {
+        final long bits = Double.doubleToRawLongBits(distance);
+        long current = distances.get(node);
+        while (bits < current) {
+            if (distances.compareAndSet(node, current, bits)) {
+                return true;
+            }
+            current = distances.get(node);
+        }
+        return false;
+    }
+
+    /**
+     * Relax the light or heavy arcs of the given nodes, possibly in parallel.
+     *
+     * @return The nodes whose distance has been lowered (possibly several times).
+     */
+    private IntList relaxArcs(IntList nodes, boolean light, AtomicLongArray distances,
+            ForkJoinPool pool) {
+        final int[] values = nodes.values;
+        IntStream indices = IntStream.range(0, nodes.size);
+        if (pool == null || nodes.size < PARALLEL_THRESHOLD) {
+            return relaxArcs(indices, values, light, distances);
+        }
+        return pool.submit(() -> relaxArcs(indices.parallel(), values, light, distances)).join();
+    }
+
+    /**
+     * Relax the light or heavy arcs of the nodes at the given indices.
+     */
+    private IntList relaxArcs(IntStream indices, int[] nodes, boolean light,
+            AtomicLongArray distances) {
+        return indices.collect(IntList::new, (improved, index) -> {
+            final int node = nodes[index];
+            final double distance = Double.longBitsToDouble(distances.get(node));
+            final int end = light ? this.firstHeavy[node] : this.first[node + 1];
+            for (int i = light ? this.first[node] : this.firstHeavy[node]; i < end; ++i) {
+                if (relax(distances, this.heads[i], distance + this.costs[i])) {
+                    improved.add(this.heads[i]);
+                }
+            }
+        }, IntList::addAll);
+    }
+
+    /**
+     * Compute the distances from the given root.
+     */
+    private void computeDistances(int root, AtomicLongArray distances, ForkJoinPool pool) {
+        final int nbNodes = this.graph.size();
+
+        // Buckets are used cyclically: when processing bucket i, all queued nodes
+        // are in buckets i to i + maxCost / delta + 1 (one more bucket is kept for
+        // rounding errors).
+        final int nbBuckets = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.floor(this.maxCost / this.delta) + 3);
+        final IntList[] buckets = new IntList[nbBuckets];
+
+        // Stamps of the nodes added to the next phase of the current bucket, and
+        // to the nodes removed from the current bucket.
+        final int[] phaseStamps = new int[nbNodes], bucketStamps = new int[nbNodes];
+        int phase = 0, nbProcessedBuckets = 0;
+
+        distances.set(root, Double.doubleToRawLongBits(0));
+        enqueue(buckets, 0, root);
+        long nbQueued = 1;
+
+        for (long bucket = 0; nbQueued > 0; ++bucket) {
+            IntList entries = buckets[(int) (bucket % nbBuckets)];
+            if (entries == null || entries.size == 0) {
+                continue;
+            }
+            buckets[(int) (bucket % nbBuckets)] = null;
+            nbQueued -= entries.size;
+            nbProcessedBuckets += 1;
+
+            // Nodes of the current phase: entries still in this bucket (others have
+            // been lowered to a previous bucket since).
+            phase += 1;
+            IntList current = new IntList();
+            for (int k = 0; k < entries.size; ++k) {
+                int node = entries.values[k];
+                if (phaseStamps[node] != phase && bucketOf(distances, node) == bucket) {
+                    phaseStamps[node] = phase;
+                    current.add(node);
+                }
+            }
+
+            IntList removed = new IntList();
+            while (current.size > 0) {
+                for (int k = 0; k < current.size; ++k) {
+                    int node = current.values[k];
+                    if (bucketStamps[node] != nbProcessedBuckets) {
+                        bucketStamps[node] = nbProcessedBuckets;
+                        removed.add(node);
+                    }
+                }
+
+                IntList improved = relaxArcs(current, true, distances, pool);
+                phase += 1;
+                current = new IntList();
+                for (int k = 0; k < improved.size; ++k) {
+                    int node = improved.values[k];
+                    long nodeBucket = bucketOf(distances, node);
+                    if (nodeBucket == bucket) {
+                        if (phaseStamps[node] != phase) {
+                            phaseStamps[node] = phase;
+                            current.add(node);
+                        }
+                    }
+                    else {
+                        enqueue(buckets, nodeBucket, node);
+                        nbQueued += 1;
+                    }
+                }
+            }
+
+            // Heavy arcs always lead to later buckets.
+            IntList improved = relaxArcs(removed, false, distances, pool);
+            for (int k = 0; k < improved.size; ++k) {
+                int node = improved.values[k];
+                enqueue(buckets, bucketOf(distances, node), node);
+                nbQueued += 1;
+            }
+        }
+    }
+
+    /**
+     * @return Index of the bucket of the given node.
+     */
+    private long bucketOf(AtomicLongArray distances, int node) {
+        return (long) (Double.longBitsToDouble(distances.get(node)) / this.delta);
+    }
+
+    /**
+     * Add the given node to the given bucket.
+     */
+    private static void enqueue(IntList[] buckets, long bucket, int node) {
+        int index = (int) (bucket % buckets.length);
+        if (buckets[index] == null) {
+            buckets[index] = new IntList();
+        }
+        buckets[index].add(node);
+    }
+
+    /**
+     * Choose the predecessor arc of each reached node among the arcs that are
+     * tight for the given final costs: first, in parallel, arcs whose tail has a
+     * strictly lower cost, then, sequentially, arcs between nodes with the same
+     * cost (e.g., arcs of cost zero), growing the tree from the nodes that
+     * already have a predecessor so that it cannot contain cycles.
+     */
+    private int[] computePredecessors(int root, double[] costs, ForkJoinPool pool) {
+        final int nbNodes = this.graph.size();
+        final int[] predecessorArcs = new int[nbNodes];
+        Arrays.fill(predecessorArcs, Label.NO_PREDECESSOR);
+
+        Runnable strict = () -> {
+            IntStream nodes = IntStream.range(0, nbNodes);
+            (pool == null ? nodes : nodes.parallel()).forEach(node -> {
+                final double cost = costs[node];
+                if (cost == Double.POSITIVE_INFINITY) {
+                    return;
+                }
+                for (int i = this.first[node]; i < this.first[node + 1]; ++i) {
+                    final int head = this.heads[i];
+                    if (cost < costs[head] && cost + this.costs[i] == costs[head]) {
+                        predecessorArcs[head] = this.arcs[i];
+                    }
+                }
+            });
+        };
+        if (pool == null) {
+            strict.run();
+        }
+        else {
+            pool.submit(strict).join();
+        }
+
+        IntList queue = new IntList();
+        for (int node = 0; node < nbNodes; ++node) {
+            if (node != root && costs[node] != Double.POSITIVE_INFINITY
+                    && predecessorArcs[node] == Label.NO_PREDECESSOR) {
+                queue.add(node);
+            }
+        }
+        if (queue.size > 0) {
+            queue.size = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                if (node == root || predecessorArcs[node] != Label.NO_PREDECESSOR) {
+                    addTiedSuccessors(root, node, costs, predecessorArcs, queue);
+                }
+            }
+            for (int k = 0; k < queue.size; ++k) {
+                addTiedSuccessors(root, queue.values[k], costs, predecessorArcs, queue);
+            }
+        }
+        return predecessorArcs;
+    }
+
+    /**
+     * Give a predecessor to the successors of the given node that do not have one
+     * yet and have the same cost as the node, and add them to the given queue.
+     */
+    private void addTiedSuccessors(int root, int node, double[] costs, int[] predecessorArcs,
+            IntList queue) {
+        final double cost = costs[node];
+        for (int i = this.first[node]; i < this.first[node + 1]; ++i) {
+            final int head = this.heads[i];
+            if (head != root && predecessorArcs[head] == Label.NO_PREDECESSOR
+                    && cost + this.costs[i] == costs[head]) {
+                predecessorArcs[head] = this.arcs[i];
+                queue.add(head);
+            }
+        }
+    }
+
+}
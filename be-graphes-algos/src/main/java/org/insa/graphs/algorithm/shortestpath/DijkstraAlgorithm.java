@@ -1,106 +1,541 @@
 package org.insa.graphs.algorithm.shortestpath;
 
-import java.util.ArrayList;
+import java.util.function.IntUnaryOperator;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.algorithm.utils.ElementNotFoundException;
-import org.insa.graphs.model.Arc;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.WeightProfile.Quantization;
+import org.insa.graphs.algorithm.utils.AddressablePriorityQueue;
+import org.insa.graphs.algorithm.utils.FibonacciHeap;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.algorithm.utils.IndexedDoubleHeap;
+import org.insa.graphs.algorithm.utils.MonotonePriorityQueue;
+import org.insa.graphs.algorithm.utils.MultiLevelBucketQueue;
+import org.insa.graphs.algorithm.utils.PairingHeap;
+import org.insa.graphs.algorithm.utils.RadixHeap;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
-import org.insa.graphs.model.Path;
 
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
+	
+	/**
+	 * Priority queues that can be used by the search.
+	 */
+	public enum QueueStrategy
+	{
+		/**
+		 * Binary heap of labels, on exact costs (default).
+		 */
+		BINARY_HEAP,
+		
+		/**
+		 * {@link IndexedDaryHeap} of labels with 4 children per slot, on exact
+		 * costs.
+		 */
+		FOUR_ARY_HEAP,
+		
+		/**
+		 * {@link IndexedDaryHeap} of labels with 8 children per slot, on exact
+		 * costs.
+		 */
+		EIGHT_ARY_HEAP,
+		
+		/**
+		 * {@link PairingHeap} of labels, on exact costs.
+		 */
+		PAIRING_HEAP,
+		
+		/**
+		 * {@link FibonacciHeap} of labels, on exact costs.
+		 */
+		FIBONACCI_HEAP,
+		
+		/**
+		 * {@link IndexedDoubleHeap} of node IDs with primitive keys, on exact
+		 * costs, without any label: nodes are settled in the same order as with
+		 * {@link #BINARY_HEAP}.
+		 */
+		PRIMITIVE_HEAP,
+		
+		/**
+		 * {@link RadixHeap} of nodes, on quantized costs (see
+		 * {@link WeightProfile#getQuantizedCost(int)}).
+		 */
+		RADIX_HEAP,
+		
+		/**
+		 * {@link MultiLevelBucketQueue} of nodes, on quantized costs (see
+		 * {@link WeightProfile#getQuantizedCost(int)}).
+		 */
+		MULTI_LEVEL_BUCKETS
+	}
+	
+	private QueueStrategy queueStrategy;
 
     public DijkstraAlgorithm(ShortestPathData data) {
         super(data);
+        this.queueStrategy = QueueStrategy.BINARY_HEAP;
     }
     
-    protected Label createLabel(Node node)
+    /**
+     * Select the priority queue used by the search. With monotone integer queues,
+     * nodes are ordered by quantized costs (and quantized heuristics, rounded down
+     * so they remain consistent), so the path found is optimal for the quantized
+     * costs, and its exact cost may exceed the optimal one by a few quantization
+     * units.
+     * 
+     * @param queueStrategy Priority queue used by the search.
+     */
+    public void setQueueStrategy(QueueStrategy queueStrategy) {
+    	this.queueStrategy = queueStrategy;
+    }
+    
+    /**
+     * @return Priority queue used by the search.
+     */
+    public QueueStrategy getQueueStrategy() {
+    	return this.queueStrategy;
+    }
+    
+    /**
+     * Retrieve the queue of labels of the current strategy from the given
+     * workspace.
+     * 
+     * @param workspace Workspace of the current search.
+     * 
+     * @return An empty queue of labels.
+     */
+    private AddressablePriorityQueue<Label> getLabelQueue(SearchWorkspace workspace)
+    {
+    	switch (this.queueStrategy)
+    	{
+    	case FOUR_ARY_HEAP:
+    		return workspace.getLabelQueue(QueueStrategy.FOUR_ARY_HEAP,
+    				capacity -> new IndexedDaryHeap<Label>(label -> label.getNode().getId(), 4,
+    						capacity));
+    	case EIGHT_ARY_HEAP:
+    		return workspace.getLabelQueue(QueueStrategy.EIGHT_ARY_HEAP,
+    				capacity -> new IndexedDaryHeap<Label>(label -> label.getNode().getId(), 8,
+    						capacity));
+    	case PAIRING_HEAP:
+    		return workspace.getLabelQueue(QueueStrategy.PAIRING_HEAP,
+    				capacity -> new PairingHeap<Label>(label -> label.getNode().getId(),
+    						capacity));
+    	case FIBONACCI_HEAP:
+    		return workspace.getLabelQueue(QueueStrategy.FIBONACCI_HEAP,
+    				capacity -> new FibonacciHeap<Label>(label -> label.getNode().getId(),
+    						capacity));
+    	default:
+    		return workspace.getLabelHeap();
+    	}
+    }
+    
+    /**
+     * Create the label of a node, called once when the node is first reached.
+     * 
+     * @param node Node for which the label should be created.
+     * @param workspace Workspace of the current search.
+     * 
+     * @return A new label for the node.
+     */
+    protected Label createLabel(Node node, SearchWorkspace workspace)
     {
     	return new Label(node);
     }
+    
+    /**
+     * Estimate the cost from a node to the destination, as the labels created by
+     * {@link #createLabel(Node, SearchWorkspace)}, for searches that do not
+     * create labels (see {@link QueueStrategy#PRIMITIVE_HEAP}).
+     * 
+     * @param node Node for which the cost should be estimated.
+     * @param workspace Workspace of the current search.
+     * 
+     * @return Estimated cost from the node to the destination, 0 without
+     *         heuristic.
+     */
+    protected double estimateCost(Node node, SearchWorkspace workspace)
+    {
+    	return 0;
+    }
+    
+    /**
+     * @return true if the labels created by this algorithm are {@link LabelStar}
+     *         labels, whose ties are broken on the estimated cost (see
+     *         {@link Label#getAlternateCost()}).
+     */
+    protected boolean usesEstimatedCosts()
+    {
+    	return false;
+    }
 
     @Override
     protected ShortestPathSolution doRun() {
         final ShortestPathData data = this.getInputData();
         Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        WeightProfile weights = data.getWeightProfile();
 
-        final int nbNodes = graph.size();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final SearchStatistics counters = getCounters();
+        
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size()))
+        {
+        	if (this.queueStrategy == QueueStrategy.PRIMITIVE_HEAP)
+        	{
+        		return runWithNodeHeap(workspace, workspace.getNodeHeap());
+        	}
+        	if (this.queueStrategy == QueueStrategy.RADIX_HEAP)
+        	{
+        		return runWithMonotoneQueue(workspace,
+        				workspace.getMonotoneQueue(RadixHeap.class, RadixHeap::new));
+        	}
+        	if (this.queueStrategy == QueueStrategy.MULTI_LEVEL_BUCKETS)
+        	{
+        		return runWithMonotoneQueue(workspace, workspace
+        				.getMonotoneQueue(MultiLevelBucketQueue.class, MultiLevelBucketQueue::new));
+        	}
+        	
+        	Label originLabel = createLabel(data.getOrigin(), workspace);
+        	originLabel.setCost(0);
+        	workspace.setLabel(origin, originLabel);
+        	
+        	AddressablePriorityQueue<Label> heap = getLabelQueue(workspace);
+        	heap.insert(originLabel);
+        	if (counters != null)
+        		counters.queueInsert(1);
+        	
+        	this.notifyOriginProcessed(data.getOrigin());
+        	
+        	while (!heap.isEmpty())
+        	{
+        		Status interruption = this.checkInterruption();
+        		if (interruption != null)
+        			return new ShortestPathSolution(data, interruption);
+        		
+        		Label current = heap.deleteMin();
+        		if (counters != null)
+        		{
+        			counters.queueDelete();
+        			counters.nodeSettled();
+        		}
+        		current.mark();
+        		this.notifyNodeMarked(current.getNode());
+        		
+        		final int currentNode = current.getNode().getId();
+        		if (currentNode == destination)
+        			break;
+        		
+        		final int lastArc = compact.getFirstArc(currentNode + 1);
+        		for (int successorArc = compact.getFirstArc(currentNode); successorArc < lastArc; ++successorArc)
+        		{
+        			if (!weights.isAllowed(successorArc))
+        			{
+        				if (counters != null)
+        					counters.arcFiltered();
+        				continue;
+        			}
+        			if (counters != null)
+        				counters.arcRelaxed();
+        			
+        			int successorNode = compact.getDestination(successorArc);
+        			double weight = weights.getCost(successorArc);
+        			Label successorLabel = workspace.getLabel(successorNode);
+        			
+        			// Labels are only created for the nodes that are reached.
+        			if (successorLabel == null)
+        			{
+        				successorLabel = createLabel(graph.get(successorNode), workspace);
+        				workspace.setLabel(successorNode, successorLabel);
+        			}
+        			
+        			if (!successorLabel.isMarked())
+        			{
+        				if (successorLabel.getCost() > current.getCost() + weight)
+        				{
+        					if (successorLabel.getCost() == Double.POSITIVE_INFINITY)
+        					{
+        						if (counters != null)
+        							counters.nodeReached();
+        						this.notifyNodeReached(successorLabel.getNode());
+        						if (successorNode == destination)
+        						{
+        							this.notifyDestinationReached(data.getDestination());
+        						}
+        					}
+        					successorLabel.setCost(current.getCost() + weight);
+        					successorLabel.setPredecessorArc(successorArc);
+        					
+        					if (heap.contains(successorLabel))
+        					{
+        						heap.decreaseKey(successorLabel);
+        						if (counters != null)
+        							counters.queueDecrease();
+        					}
+        					else
+        					{
+        						heap.insert(successorLabel);
+        						if (counters != null)
+        							counters.queueInsert(heap.size());
+        					}
+        				}
+        			}
+        		}
+        	}
+        	
+        	return createSolution(workspace);
+        }
+    }
+    
+    /**
+     * Run the search with a heap of node IDs, keeping costs, predecessors and
+     * states in the primitive arrays of the workspace. Keys and tie-breaking keys
+     * are the total and alternate costs that the labels would have.
+     * 
+     * @param workspace Workspace of the search.
+     * @param heap Empty heap of node IDs.
+     * 
+     * @return Solution of the search.
+     */
+    private ShortestPathSolution runWithNodeHeap(SearchWorkspace workspace, IndexedDoubleHeap heap)
+    {
+        final ShortestPathData data = this.getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        WeightProfile weights = data.getWeightProfile();
+        final boolean estimated = usesEstimatedCosts();
+        
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final SearchStatistics counters = getCounters();
+        
+        final double originEstimate = estimateCost(data.getOrigin(), workspace);
+        workspace.setDistance(origin, 0);
+        workspace.setState(origin, SearchWorkspace.REACHED);
+        heap.insert(origin, originEstimate, estimated ? originEstimate : 0);
+        if (counters != null)
+        	counters.queueInsert(1);
         
-        Label[] labels = new Label[nbNodes];
+        this.notifyOriginProcessed(data.getOrigin());
         
-        for (int i = 0; i < nbNodes; ++i)
+        while (!heap.isEmpty())
         {
-        	labels[i] = createLabel(graph.get(i));
+        	Status interruption = this.checkInterruption();
+        	if (interruption != null)
+        		return new ShortestPathSolution(data, interruption);
+        	
+        	final int currentNode = heap.deleteMin();
+        	if (counters != null)
+        	{
+        		counters.queueDelete();
+        		counters.nodeSettled();
+        	}
+        	workspace.setState(currentNode, SearchWorkspace.SETTLED);
+        	this.notifyNodeMarked(graph.get(currentNode));
+        	
+        	if (currentNode == destination)
+        		break;
+        	
+        	final double currentCost = workspace.getDistance(currentNode);
+        	final int lastArc = compact.getFirstArc(currentNode + 1);
+        	for (int successorArc = compact.getFirstArc(currentNode); successorArc < lastArc; ++successorArc)
+        	{
+        		if (!weights.isAllowed(successorArc))
+        		{
+        			if (counters != null)
+        				counters.arcFiltered();
+        			continue;
+        		}
+        		if (counters != null)
+        			counters.arcRelaxed();
+        		
+        		int successorNode = compact.getDestination(successorArc);
+        		if (workspace.getState(successorNode) == SearchWorkspace.SETTLED)
+        			continue;
+        		
+        		final double cost = currentCost + weights.getCost(successorArc);
+        		final double successorCost = workspace.getDistance(successorNode);
+        		if (successorCost > cost)
+        		{
+        			if (successorCost == Double.POSITIVE_INFINITY)
+        			{
+        				if (counters != null)
+        					counters.nodeReached();
+        				this.notifyNodeReached(graph.get(successorNode));
+        				if (successorNode == destination)
+        				{
+        					this.notifyDestinationReached(data.getDestination());
+        				}
+        			}
+        			workspace.setDistance(successorNode, cost);
+        			workspace.setPredecessorArc(successorNode, successorArc);
+        			
+        			final double estimate = estimateCost(graph.get(successorNode), workspace);
+        			if (workspace.getState(successorNode) == SearchWorkspace.REACHED)
+        			{
+        				heap.decreaseKey(successorNode, cost + estimate, estimated ? estimate : cost);
+        				if (counters != null)
+        					counters.queueDecrease();
+        			}
+        			else
+        			{
+        				workspace.setState(successorNode, SearchWorkspace.REACHED);
+        				heap.insert(successorNode, cost + estimate, estimated ? estimate : cost);
+        				if (counters != null)
+        					counters.queueInsert(heap.size());
+        			}
+        		}
+        	}
         }
         
-        labels[data.getOrigin().getId()].setCost(0);
+        return createSolution(workspace::getPredecessorArc);
+    }
+    
+    /**
+     * Run the search with a monotone queue of node IDs, keyed by the quantized
+     * cost from the origin plus the quantized heuristic of the labels.
+     * 
+     * @param workspace Workspace of the search.
+     * @param queue Empty monotone queue.
+     * 
+     * @return Solution of the search.
+     */
+    private ShortestPathSolution runWithMonotoneQueue(SearchWorkspace workspace, MonotonePriorityQueue queue)
+    {
+        final ShortestPathData data = this.getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        WeightProfile weights = data.getWeightProfile();
+        Quantization quantization = weights.getQuantization();
         
-        BinaryHeap<Label> heap = new BinaryHeap<Label>();
-        heap.insert(labels[data.getOrigin().getId()]);
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final SearchStatistics counters = getCounters();
+        
+        Label originLabel = createLabel(data.getOrigin(), workspace);
+        originLabel.setCost(0);
+        workspace.setLabel(origin, originLabel);
+        queue.insert(origin, quantization.quantizeDown(originLabel.getHeuristic()));
+        if (counters != null)
+        	counters.queueInsert(1);
         
         this.notifyOriginProcessed(data.getOrigin());
         
-        while (!labels[data.getDestination().getId()].isMarked() && !heap.isEmpty())
+        while (!queue.isEmpty())
         {
-        	Label current = heap.deleteMin();
+        	Status interruption = this.checkInterruption();
+        	if (interruption != null)
+        		return new ShortestPathSolution(data, interruption);
+        	
+        	final int currentNode = queue.deleteMin();
+        	if (counters != null)
+        	{
+        		counters.queueDelete();
+        		counters.nodeSettled();
+        	}
+        	final long currentKey = queue.getLastKey();
+        	Label current = workspace.getLabel(currentNode);
         	current.mark();
         	this.notifyNodeMarked(current.getNode());
-        	labels[current.getNode().getId()] = current;
         	
-        	for (Arc successorArc : current.getNode().getSuccessors())
+        	if (currentNode == destination)
+        		break;
+        	
+        	// Quantized cost from the origin of the current node.
+        	final long currentCost = currentKey - quantization.quantizeDown(current.getHeuristic());
+        	
+        	final int lastArc = compact.getFirstArc(currentNode + 1);
+        	for (int successorArc = compact.getFirstArc(currentNode); successorArc < lastArc; ++successorArc)
         	{
-        		if (!data.isAllowed(successorArc))
+        		if (!weights.isAllowed(successorArc))
+        		{
+        			if (counters != null)
+        				counters.arcFiltered();
         			continue;
+        		}
+        		if (counters != null)
+        			counters.arcRelaxed();
         		
-        		Node successorNode = successorArc.getDestination();
-        		double weight = data.getCost(successorArc);
-        		Label successorLabel = labels[successorNode.getId()];
+        		int successorNode = compact.getDestination(successorArc);
+        		Label successorLabel = workspace.getLabel(successorNode);
+        		if (successorLabel == null)
+        		{
+        			successorLabel = createLabel(graph.get(successorNode), workspace);
+        			workspace.setLabel(successorNode, successorLabel);
+        		}
         		
         		if (!successorLabel.isMarked())
         		{
-        			if (successorLabel.getCost() > current.getCost() + weight)
+        			// Keys are only raised to the current key when rounding errors make
+        			// the heuristic inconsistent.
+        			long key = Math.max(currentKey, currentCost + weights.getQuantizedCost(successorArc)
+        					+ quantization.quantizeDown(successorLabel.getHeuristic()));
+        			boolean queued = queue.contains(successorNode);
+        			if (!queued || key < queue.getKey(successorNode))
         			{
-        				if (successorLabel.getCost() == Double.POSITIVE_INFINITY)
+        				if (!queued)
         				{
+        					if (counters != null)
+        						counters.nodeReached();
         					this.notifyNodeReached(successorLabel.getNode());
-        					if (successorLabel.getNode().equals(data.getDestination()))
+        					if (successorNode == destination)
         					{
         						this.notifyDestinationReached(data.getDestination());
         					}
         				}
-        				try
+        				successorLabel.setCost(current.getCost() + weights.getCost(successorArc));
+        				successorLabel.setPredecessorArc(successorArc);
+        				
+        				if (queued)
         				{
-        					heap.remove(successorLabel);
+        					queue.decreaseKey(successorNode, key);
+        					if (counters != null)
+        						counters.queueDecrease();
+        				}
+        				else
+        				{
+        					queue.insert(successorNode, key);
+        					if (counters != null)
+        						counters.queueInsert(queue.size());
         				}
-        				catch (ElementNotFoundException e) {}
-
-        				successorLabel.setCost(current.getCost() + weight);
-        				successorLabel.setPredecessorArc(successorArc);
-    					heap.insert(successorLabel);
-        				labels[successorNode.getId()] = successorLabel;
         			}
         		}
         	}
         }
         
-        if (labels[data.getDestination().getId()].getPredecessorArc() == null)
-        {
-        	return new ShortestPathSolution(data, Status.INFEASIBLE);
-        }
-        
-        ArrayList<Arc> arcs = new ArrayList<Arc>();
-        
-        Node currentNode = data.getDestination();
-        while (!currentNode.equals(data.getOrigin()))
-        {
-        	Arc arc = labels[currentNode.getId()].getPredecessorArc();
-        	arcs.add(0, arc);
-        	currentNode = arc.getOrigin();
-        }
-        Path shortestPath = new Path(data.getGraph(), arcs);
-        return new ShortestPathSolution(data, Status.OPTIMAL, shortestPath);
+        return createSolution(workspace);
+    }
+    
+    /**
+     * @param workspace Workspace of a finished search.
+     * 
+     * @return Solution of the search, from the labels of the workspace.
+     */
+    private ShortestPathSolution createSolution(SearchWorkspace workspace)
+    {
+    	return createSolution(node -> {
+    		Label label = workspace.getLabel(node);
+    		return label == null ? Label.NO_PREDECESSOR : label.getPredecessorArc();
+    	});
+    }
+    
+    /**
+     * @param predecessorArcs Function returning the ID of the predecessor arc of
+     *        a node in a finished search, or {@link Label#NO_PREDECESSOR}.
+     * 
+     * @return Solution of the search.
+     */
+    private ShortestPathSolution createSolution(IntUnaryOperator predecessorArcs)
+    {
+        final ShortestPathData data = this.getInputData();
+    	if (predecessorArcs.applyAsInt(data.getDestination().getId()) == Label.NO_PREDECESSOR)
+    	{
+    		return new ShortestPathSolution(data, Status.INFEASIBLE);
+    	}
+    	
+    	return new ShortestPathSolution(data, Status.OPTIMAL, createPath(predecessorArcs));
     }
 
 }
@@ -0,0 +1,14 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * A* using the {@link AStarAlgorithm.Heuristic#EQUIRECTANGULAR} heuristic, so
+ * that it can be registered in the algorithm factory.
+ *
+ */
+public class EquirectangularAStarAlgorithm extends AStarAlgorithm {
+
+    public EquirectangularAStarAlgorithm(ShortestPathData data) {
+        super(data, Heuristic.EQUIRECTANGULAR);
+    }
+
+}
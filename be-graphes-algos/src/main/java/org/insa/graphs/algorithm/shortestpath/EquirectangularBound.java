@@ -0,0 +1,102 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Cheap lower bound of the distance (in meters) between two nodes of a graph,
+ * based on an equirectangular projection.
+ * </p>
+ *
+ * <p>
+ * The cosine of the latitude of each node is computed once per graph (see
+ * {@link #of(Graph)}), so computing a bound only requires a few multiplications
+ * and a square root, instead of the trigonometric functions used by
+ * {@link Point#distance(Point, Point)}. The bound is derived from the haversine
+ * formula, using the smallest cosine of the two latitudes and a lower bound of
+ * the sine, so it is never greater than the great-circle distance and can be
+ * used as an A* heuristic.
+ * </p>
+ *
+ */
+public final class EquirectangularBound {
+
+    // Cached bounds, by graph.
+    private static final Map<Graph, EquirectangularBound> BOUNDS = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Retrieve the bound for the given graph, computing it if it has not been
+     * computed yet.
+     *
+     * @param graph Graph for which the bound should be retrieved.
+     *
+     * @return Bound for the given graph.
+     */
+    public static EquirectangularBound of(Graph graph) {
+        return BOUNDS.computeIfAbsent(graph, EquirectangularBound::new);
+    }
+
+    // Longitude and latitude (in radians) and cosine of the latitude of each
+    // node.
+    private final double[] longitudes, latitudes, cosLatitudes;
+
+    /**
+     * Compute the coordinates of the nodes of the given graph.
+     *
+     * @param graph Graph for which the bound should be computed.
+     */
+    private EquirectangularBound(Graph graph) {
+        CompactGraph compact = graph.getCompactGraph();
+        final int nbNodes = compact.size();
+        this.longitudes = new double[nbNodes];
+        this.latitudes = new double[nbNodes];
+        this.cosLatitudes = new double[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.longitudes[node] = Math.toRadians(compact.getLongitude(node));
+            this.latitudes[node] = Math.toRadians(compact.getLatitude(node));
+            this.cosLatitudes[node] = Math.cos(this.latitudes[node]);
+        }
+    }
+
+    /**
+     * Lower bound of sin(x) for x in [0, pi/2], tight for small values.
+     *
+     * @param x Angle, in radians.
+     *
+     * @return x - x^3 / 6.
+     */
+    private static double sinLowerBound(double x) {
+        return x - x * x * x / 6;
+    }
+
+    /**
+     * Compute a lower bound of the great-circle distance between two nodes.
+     *
+     * @param from ID of the first node.
+     * @param to ID of the second node.
+     *
+     * @return A lower bound of the distance between the two nodes, in meters.
+     */
+    public double distance(int from, int to) {
+        double dlon = Math.abs(this.longitudes[to] - this.longitudes[from]);
+        if (dlon > Math.PI) {
+            dlon = 2 * Math.PI - dlon;
+        }
+        final double dlat = Math.abs(this.latitudes[to] - this.latitudes[from]);
+        final double cosLat = Math.min(this.cosLatitudes[from], this.cosLatitudes[to]);
+
+        // sin^2(d / 2R) = sin^2(dlat / 2) + cos(lat1) cos(lat2) sin^2(dlon / 2), and
+        // d / 2R >= sin(d / 2R).
+        final double y = sinLowerBound(dlat / 2);
+        final double x = cosLat * sinLowerBound(dlon / 2);
+        return 2 * Point.EARTH_RADIUS * Math.sqrt(x * x + y * y);
+    }
+
+}
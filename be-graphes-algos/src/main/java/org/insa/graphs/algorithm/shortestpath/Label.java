@@ -1,21 +1,25 @@
 package org.insa.graphs.algorithm.shortestpath;
 
-import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Node;
 
 public class Label implements Comparable<Label>{
 
+	/**
+	 * Value of the predecessor arc for labels without predecessor.
+	 */
+	public static final int NO_PREDECESSOR = -1;
+
 	protected Node node;
 	protected boolean mark;
 	protected double costFromOrigin;
-	protected Arc predecessorArc;
+	protected int predecessorArc;
 	
 	public Label(Node node)
 	{
 		this.node = node;
 		this.mark = false;
 		this.costFromOrigin = Double.POSITIVE_INFINITY;
-		this.predecessorArc = null;
+		this.predecessorArc = NO_PREDECESSOR;
 	}
 	
 	public double getCost()
@@ -43,12 +47,19 @@ public class Label implements Comparable<Label>{
 		return this.node;
 	}
 	
-	public void setPredecessorArc(Arc father)
+	/**
+	 * @param father ID of the arc to this node in the compact graph.
+	 */
+	public void setPredecessorArc(int father)
 	{
 		this.predecessorArc = father;
 	}
 	
-	public Arc getPredecessorArc()
+	/**
+	 * @return ID of the arc to this node in the compact graph, or
+	 *         {@link #NO_PREDECESSOR}.
+	 */
+	public int getPredecessorArc()
 	{
 		return this.predecessorArc;
 	}
@@ -58,6 +69,15 @@ public class Label implements Comparable<Label>{
 		return this.costFromOrigin;
 	}
 	
+	/**
+	 * @return Estimated cost from the node to the destination, 0 for labels
+	 *         without heuristic.
+	 */
+	public double getHeuristic()
+	{
+		return 0;
+	}
+	
 	public double getAlternateCost()
 	{
 		return this.costFromOrigin;
@@ -81,6 +101,6 @@ public class Label implements Comparable<Label>{
 	{
 		return "Node " + this.node.getId()
 		+ ", costFromOrigin = " + this.costFromOrigin
-		+ ((this.predecessorArc == null) ? ", no father" : ", father = " + this.predecessorArc.getOrigin().getId());
+		+ ((this.predecessorArc == NO_PREDECESSOR) ? ", no father" : ", father arc = " + this.predecessorArc);
 	}
 }
@@ -6,6 +6,7 @@ public class LabelStar extends Label {
 	
 	private double estimatedCostToDestination;
 	
+	@Override
 	public double getHeuristic()
 	{
 		return this.estimatedCostToDestination;
@@ -40,6 +41,6 @@ public class LabelStar extends Label {
 		+ ", totalCost = " + this.getTotalCost()
 		+ ", costFromOrigin = " + this.costFromOrigin
 		+ ", estimatedCostToDestination = " + this.estimatedCostToDestination
-		+ ((this.predecessorArc == null) ? ", no father" : ", father = " + this.predecessorArc.getOrigin().getId());
+		+ ((this.predecessorArc == NO_PREDECESSOR) ? ", no father" : ", father arc = " + this.predecessorArc);
 	}
 }
@@ -0,0 +1,653 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.InspectorCache;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Distances from and to a small set of landmarks, for a given graph and
+ * {@link ArcInspector}, used by {@link ALTAlgorithm} to compute lower bounds
+ * with the triangle inequality:
+ * {@code d(v, t) >= max(d(L, t) - d(L, v), d(v, L) - d(t, L))}.
+ * </p>
+ *
+ * <p>
+ * Distances are stored as floats, in node-major order (the distances of a node to all the landmarks are
+ * contiguous). Tables are computed once per pair (graph, inspector) and cached
+ * (see {@link #of(Graph, ArcInspector)} and {@link InspectorCache}), and can be
+ * persisted in a directory (see {@link #setDirectory(File)}).
+ * </p>
+ *
+ */
+public final class LandmarkTable {
+
+    /**
+     * Strategies used to select landmarks.
+     */
+    public enum Selection {
+
+        /**
+         * Each landmark is the reachable node farthest from the previous landmarks.
+         */
+        FARTHEST,
+
+        /**
+         * Each landmark is a leaf of a shortest-path tree from a random root, in the
+         * region where the current landmarks give the worst bounds (avoid
+         * heuristic).
+         */
+        AVOID
+    }
+
+    /**
+     * Default number of landmarks.
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+    /**
+     * Extension of the landmark files.
+     */
+    public static final String LANDMARKS_EXTENSION = ".landmarks";
+
+    // Magic number and version of the landmark files.
+    private static final int MAGIC_NUMBER = 0x4C4D524B;
+    private static final int VERSION = 1;
+
+    // Maximum relative error of the float distances, subtracted from the bounds so
+    // that they remain lower bounds.
+    private static final double ROUNDING_ERROR = 0x1p-23;
+
+    // Seed used to select landmarks in of().
+    private static final long DEFAULT_SEED = 0x5EED;
+
+    /**
+     * Maximum number of tables cached for a graph.
+     */
+    public static final int MAX_CACHED_TABLES = 8;
+
+    // Cached tables, by graph and inspector.
+    private static final InspectorCache<LandmarkTable> TABLES = new InspectorCache<>(
+            MAX_CACHED_TABLES, LandmarkTable::load);
+
+    // Directory where tables are persisted, or null.
+    private static volatile File directory = null;
+
+    /**
+     * Set the directory where tables computed by {@link #of(Graph, ArcInspector)}
+     * are stored, and looked for before computing them.
+     *
+     * @param directory Directory of the landmark files, or null to disable
+     *        persistence.
+     */
+    public static void setDirectory(File directory) {
+        LandmarkTable.directory = directory;
+    }
+
+    /**
+     * @return Directory where tables are persisted, or null if persistence is
+     *         disabled.
+     */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Retrieve the table for the given graph and inspector with the default
+     * number of landmarks, reading it from the directory set with
+     * {@link #setDirectory(File)} or computing it (and writing it to the
+     * directory) if needed.
+     *
+     * @param graph Graph for which the table should be retrieved.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return Table for the given graph and inspector.
+     *
+     * @throws UncheckedIOException if the table cannot be written.
+     */
+    public static LandmarkTable of(Graph graph, ArcInspector arcInspector) {
+        return TABLES.get(graph, arcInspector);
+    }
+
+    /**
+     * Read the table for the given graph and inspector from the directory set
+     * with {@link #setDirectory(File)}, or compute it.
+     */
+    private static LandmarkTable load(Graph graph, ArcInspector arcInspector) {
+        File dir = directory;
+        if (dir == null) {
+            return compute(graph, arcInspector, DEFAULT_LANDMARK_COUNT, Selection.AVOID,
+                    DEFAULT_SEED);
+        }
+        try {
+            return readOrCompute(getFile(dir, graph, arcInspector), graph, arcInspector);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param directory Directory of the landmark files.
+     * @param graph Graph of the table.
+     * @param arcInspector Inspector of the table.
+     *
+     * @return File containing the table for the given graph and inspector.
+     */
+    public static File getFile(File directory, Graph graph, ArcInspector arcInspector) {
+        return new File(directory,
+                graph.getMapId().replaceAll("[^A-Za-z0-9_-]", "_") + "-"
+                        + Integer.toHexString(arcInspector.toString().hashCode())
+                        + LANDMARKS_EXTENSION);
+    }
+
+    /**
+     * Read the table for the given graph and inspector from the given file, or
+     * compute it and write it to the file if the file does not exist or does not
+     * correspond to the graph and inspector.
+     *
+     * @param file File containing the table.
+     * @param graph Graph of the table.
+     * @param arcInspector Inspector of the table.
+     *
+     * @return Table for the given graph and inspector.
+     *
+     * @throws IOException if the table cannot be written.
+     */
+    public static LandmarkTable readOrCompute(File file, Graph graph, ArcInspector arcInspector)
+            throws IOException {
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                return read(input, graph, arcInspector);
+            }
+            catch (IOException e) {
+                // Outdated or corrupted file, compute the table again.
+            }
+        }
+
+        LandmarkTable table = compute(graph, arcInspector, DEFAULT_LANDMARK_COUNT,
+                Selection.AVOID, DEFAULT_SEED);
+        File temporaryFile = File.createTempFile(file.getName(), LANDMARKS_EXTENSION,
+                file.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                table.write(output);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+        return table;
+    }
+
+    /**
+     * Compute a new table.
+     *
+     * @param graph Graph for which the table should be computed.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     * @param nbLandmarks Number of landmarks to select (at most the number of
+     *        nodes).
+     * @param selection Strategy used to select the landmarks.
+     * @param seed Seed of the random choices of the selection.
+     *
+     * @return A new table for the given graph and inspector.
+     *
+     * @throws CancellationException if the calling thread is interrupted during
+     *         the computation.
+     */
+    public static LandmarkTable compute(Graph graph, ArcInspector arcInspector, int nbLandmarks,
+            Selection selection, long seed) {
+        return new Builder(graph, arcInspector).build(Math.min(nbLandmarks, graph.size()),
+                selection, new Random(seed));
+    }
+
+    /**
+     * Read a table written with {@link #write(DataOutputStream)}.
+     *
+     * @param input Stream to read the table from.
+     * @param graph Graph of the table.
+     * @param arcInspector Inspector of the table.
+     *
+     * @return The table read.
+     *
+     * @throws IOException if the table cannot be read or does not correspond to
+     *         the given graph and inspector.
+     */
+    public static LandmarkTable read(DataInputStream input, Graph graph,
+            ArcInspector arcInspector) throws IOException {
+        int magicNumber = input.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        String mapId = input.readUTF();
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        CompactGraph compact = graph.getCompactGraph();
+        int nbNodes = input.readInt(), nbArcs = input.readInt();
+        if (nbNodes != compact.size() || nbArcs != compact.getArcCount()) {
+            throw new BadFormatException("landmarks computed for another graph");
+        }
+        String inspector = input.readUTF();
+        if (!inspector.equals(arcInspector.toString())) {
+            throw new BadFormatException("landmarks computed for another inspector: " + inspector);
+        }
+
+        int[] landmarks = new int[input.readInt()];
+        for (int i = 0; i < landmarks.length; ++i) {
+            landmarks[i] = input.readInt();
+        }
+        float[] from = new float[nbNodes * landmarks.length],
+                to = new float[nbNodes * landmarks.length];
+        for (int i = 0; i < from.length; ++i) {
+            from[i] = input.readFloat();
+        }
+        for (int i = 0; i < to.length; ++i) {
+            to[i] = input.readFloat();
+        }
+        return new LandmarkTable(arcInspector.toString(), graph.getMapId(), nbNodes, nbArcs,
+                landmarks, from, to);
+    }
+
+    // Description of the inspector and ID of the map.
+    private final String inspector, mapId;
+
+    // Number of nodes and arcs of the graph.
+    private final int nbNodes, nbArcs;
+
+    // Landmarks.
+    private final int[] landmarks;
+
+    // Distances from and to the landmarks, by node then landmark.
+    private final float[] from, to;
+
+    private LandmarkTable(String inspector, String mapId, int nbNodes, int nbArcs,
+            int[] landmarks, float[] from, float[] to) {
+        this.inspector = inspector;
+        this.mapId = mapId;
+        this.nbNodes = nbNodes;
+        this.nbArcs = nbArcs;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Write this table to the given stream.
+     *
+     * @param output Stream to write the table to.
+     *
+     * @throws IOException if the table cannot be written.
+     */
+    public void write(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        output.writeUTF(this.mapId);
+        output.writeInt(this.nbNodes);
+        output.writeInt(this.nbArcs);
+        output.writeUTF(this.inspector);
+        output.writeInt(this.landmarks.length);
+        for (int landmark: this.landmarks) {
+            output.writeInt(landmark);
+        }
+        for (float distance: this.from) {
+            output.writeFloat(distance);
+        }
+        for (float distance: this.to) {
+            output.writeFloat(distance);
+        }
+    }
+
+    /**
+     * @return Number of landmarks of this table.
+     */
+    public int getLandmarkCount() {
+        return this.landmarks.length;
+    }
+
+    /**
+     * @param index Index of a landmark.
+     *
+     * @return ID of the landmark at the given index.
+     */
+    public int getLandmark(int index) {
+        return this.landmarks[index];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param index Index of a landmark.
+     *
+     * @return Lower bound of the cost from the landmark to the node, or infinity
+     *         if the node cannot be reached from the landmark.
+     */
+    public float getCostFromLandmark(int node, int index) {
+        return this.from[node * this.landmarks.length + index];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param index Index of a landmark.
+     *
+     * @return Lower bound of the cost from the node to the landmark, or infinity
+     *         if the landmark cannot be reached from the node.
+     */
+    public float getCostToLandmark(int node, int index) {
+        return this.to[node * this.landmarks.length + index];
+    }
+
+    /**
+     * Compute a lower bound of the cost between two nodes.
+     *
+     * @param node Origin of the path.
+     * @param target Destination of the path.
+     *
+     * @return A lower bound (non-negative) of the cost of a path from node to
+     *         target.
+     */
+    public double lowerBound(int node, int target) {
+        final int k = this.landmarks.length;
+        final int nodeOffset = node * k, targetOffset = target * k;
+        double bound = 0;
+        for (int i = 0; i < k; ++i) {
+            // Infinite distances give infinite or NaN bounds, which are ignored.
+            final float fromTarget = this.from[targetOffset + i];
+            double forward = fromTarget - (double) this.from[nodeOffset + i]
+                    - ROUNDING_ERROR * fromTarget;
+            if (forward > bound && forward != Double.POSITIVE_INFINITY) {
+                bound = forward;
+            }
+            final float toNode = this.to[nodeOffset + i];
+            double backward = toNode - (double) this.to[targetOffset + i]
+                    - ROUNDING_ERROR * toNode;
+            if (backward > bound && backward != Double.POSITIVE_INFINITY) {
+                bound = backward;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Helper used to compute the distances of a table.
+     */
+    private static final class Builder {
+
+        // Graph and costs of the arcs.
+        private final Graph graph;
+        private final CompactGraph compact;
+        private final WeightProfile weights;
+        private final String inspector;
+
+        // Labels and heap of the one-to-all searches.
+        private final Label[] labels;
+        private final IndexedBinaryHeap<Label> heap;
+
+        Builder(Graph graph, ArcInspector arcInspector) {
+            this.graph = graph;
+            this.compact = graph.getCompactGraph();
+            this.weights = WeightProfile.of(graph, arcInspector);
+            this.inspector = arcInspector.toString();
+            this.labels = new Label[graph.size()];
+            this.heap = new IndexedBinaryHeap<Label>(label -> label.getNode().getId(),
+                    graph.size());
+        }
+
+        /**
+         * Compute the costs from (or to) the given node to (or from) all the nodes.
+         *
+         * @param source Source node of the search.
+         * @param forward true to compute costs from the source, false to compute
+         *        costs to the source.
+         * @param distances Array filled with the costs (infinite for unreachable
+         *        nodes).
+         * @param parents Array filled with the parent of each node in the
+         *        shortest-path tree, or null.
+         * @param order Array filled with the nodes in the order they are settled,
+         *        or null.
+         *
+         * @return Number of settled nodes.
+         */
+        int search(int source, boolean forward, double[] distances, int[] parents,
+                int[] order) {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(this.labels, null);
+            this.heap.clear();
+
+            Label sourceLabel = new Label(this.graph.get(source));
+            sourceLabel.setCost(0);
+            this.labels[source] = sourceLabel;
+            this.heap.insert(sourceLabel);
+            if (parents != null) {
+                parents[source] = -1;
+            }
+
+            int nbSettled = 0;
+            while (!this.heap.isEmpty()) {
+                Label label = this.heap.deleteMin();
+                label.mark();
+                final int node = label.getNode().getId();
+                distances[node] = label.getCost();
+                if (order != null) {
+                    order[nbSettled] = node;
+                }
+                ++nbSettled;
+
+                final int first = forward ? this.compact.getFirstArc(node)
+                        : this.compact.getFirstIncomingArc(node);
+                final int last = forward ? this.compact.getFirstArc(node + 1)
+                        : this.compact.getFirstIncomingArc(node + 1);
+                for (int index = first; index < last; ++index) {
+                    final int arc = forward ? index : this.compact.getIncomingArc(index);
+                    if (!this.weights.isAllowed(arc)) {
+                        continue;
+                    }
+                    final int next = forward ? this.compact.getDestination(arc)
+                            : this.compact.getIncomingOrigin(index);
+                    final double cost = label.getCost() + this.weights.getCost(arc);
+                    Label nextLabel = this.labels[next];
+                    if (nextLabel == null) {
+                        nextLabel = new Label(this.graph.get(next));
+                        this.labels[next] = nextLabel;
+                    }
+                    if (!nextLabel.isMarked() && cost < nextLabel.getCost()) {
+                        nextLabel.setCost(cost);
+                        if (parents != null) {
+                            parents[next] = node;
+                        }
+                        if (this.heap.contains(nextLabel)) {
+                            this.heap.decreaseKey(nextLabel);
+                        }
+                        else {
+                            this.heap.insert(nextLabel);
+                        }
+                    }
+                }
+            }
+            return nbSettled;
+        }
+
+        /**
+         * Select the landmarks and compute the table.
+         */
+        LandmarkTable build(int nbLandmarks, Selection selection, Random random) {
+            final int nbNodes = this.graph.size();
+            int[] landmarks = new int[nbLandmarks];
+            float[] from = new float[nbNodes * nbLandmarks], to = new float[nbNodes * nbLandmarks];
+
+            double[] distances = new double[nbNodes];
+            double[] reverseDistances = new double[nbNodes];
+            int[] parents = new int[nbNodes], order = new int[nbNodes];
+
+            // Smallest sum of the distances from and to the selected landmarks, used
+            // by FARTHEST.
+            double[] closest = new double[nbNodes];
+            Arrays.fill(closest, Double.POSITIVE_INFINITY);
+
+            boolean[] isLandmark = new boolean[nbNodes];
+            for (int i = 0; i < nbLandmarks; ++i) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("landmark selection interrupted");
+                }
+                int landmark = -1;
+                if (selection == Selection.AVOID) {
+                    landmark = selectAvoid(landmarks, i, from, to, isLandmark, random, distances,
+                            parents, order);
+                }
+                if (landmark == -1) {
+                    landmark = selectFarthest(i, closest, isLandmark, random, distances);
+                }
+                landmarks[i] = landmark;
+                isLandmark[landmark] = true;
+
+                search(landmark, true, distances, null, null);
+                search(landmark, false, reverseDistances, null, null);
+                for (int node = 0; node < nbNodes; ++node) {
+                    from[node * nbLandmarks + i] = (float) distances[node];
+                    to[node * nbLandmarks + i] = (float) reverseDistances[node];
+                    closest[node] = Math.min(closest[node],
+                            distances[node] + reverseDistances[node]);
+                }
+            }
+
+            return new LandmarkTable(this.inspector, this.graph.getMapId(), nbNodes,
+                    this.compact.getArcCount(), landmarks, from, to);
+        }
+
+        /**
+         * Select the node farthest from the selected landmarks (or from a random
+         * node for the first landmark).
+         */
+        private int selectFarthest(int nbSelected, double[] closest, boolean[] isLandmark,
+                Random random, double[] distances) {
+            final int nbNodes = this.graph.size();
+            if (nbSelected == 0) {
+                int root = random.nextInt(nbNodes);
+                int nbSettled = search(root, true, distances, null, null);
+                int farthest = root;
+                for (int node = 0; node < nbNodes; ++node) {
+                    if (distances[node] != Double.POSITIVE_INFINITY
+                            && distances[node] > distances[farthest]) {
+                        farthest = node;
+                    }
+                }
+                return nbSettled > 1 ? farthest : root;
+            }
+
+            int farthest = -1;
+            for (int node = 0; node < nbNodes; ++node) {
+                if (!isLandmark[node] && closest[node] != Double.POSITIVE_INFINITY
+                        && (farthest == -1 || closest[node] > closest[farthest])) {
+                    farthest = node;
+                }
+            }
+            if (farthest == -1) {
+                // All the nodes reachable from the landmarks are landmarks.
+                do {
+                    farthest = random.nextInt(nbNodes);
+                }
+                while (isLandmark[farthest]);
+            }
+            return farthest;
+        }
+
+        /**
+         * Select a landmark using the avoid heuristic, or return -1 if no landmark
+         * can be found this way.
+         */
+        private int selectAvoid(int[] landmarks, int nbSelected, float[] from, float[] to,
+                boolean[] isLandmark, Random random, double[] distances, int[] parents,
+                int[] order) {
+            if (nbSelected == 0) {
+                return -1;
+            }
+            final int nbNodes = this.graph.size();
+            final int k = landmarks.length;
+            final int root = random.nextInt(nbNodes);
+            final int nbSettled = search(root, true, distances, parents, order);
+
+            // Weight of each node: difference between its distance from the root and
+            // the bound given by the selected landmarks. Size of each node: sum of
+            // the weights of its subtree, or 0 if the subtree contains a landmark.
+            double[] sizes = new double[nbNodes];
+            boolean[] covered = new boolean[nbNodes];
+            for (int j = nbSettled - 1; j >= 0; --j) {
+                final int node = order[j];
+                if (isLandmark[node] || covered[node]) {
+                    sizes[node] = 0;
+                    if (parents[node] != -1) {
+                        covered[parents[node]] = true;
+                    }
+                    continue;
+                }
+                double bound = 0;
+                for (int i = 0; i < nbSelected; ++i) {
+                    double forward = (double) from[node * k + i] - from[root * k + i];
+                    double backward = (double) to[root * k + i] - to[node * k + i];
+                    if (forward > bound && forward != Double.POSITIVE_INFINITY) {
+                        bound = forward;
+                    }
+                    if (backward > bound && backward != Double.POSITIVE_INFINITY) {
+                        bound = backward;
+                    }
+                }
+                sizes[node] += Math.max(distances[node] - bound, 0);
+                if (parents[node] != -1) {
+                    sizes[parents[node]] += sizes[node];
+                }
+            }
+
+            // Child of each node with the largest size.
+            int[] bestChild = new int[nbNodes];
+            Arrays.fill(bestChild, -1);
+            for (int j = 1; j < nbSettled; ++j) {
+                final int node = order[j], parent = parents[node];
+                if (sizes[node] > 0
+                        && (bestChild[parent] == -1 || sizes[node] > sizes[bestChild[parent]])) {
+                    bestChild[parent] = node;
+                }
+            }
+            if (sizes[root] <= 0) {
+                return -1;
+            }
+
+            // Follow the largest subtrees from the root to a leaf.
+            int node = root;
+            while (bestChild[node] != -1) {
+                node = bestChild[node];
+            }
+            return isLandmark[node] ? -1 : node;
+        }
+
+    }
+
+}
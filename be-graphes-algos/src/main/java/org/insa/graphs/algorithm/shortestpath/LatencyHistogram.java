@@ -0,0 +1,111 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * <p>
+ * Histogram of latencies (in nanoseconds) using a bounded amount of memory,
+ * whatever the number of recorded values.
+ * </p>
+ *
+ * <p>
+ * Values below {@code 2 * SUB_BUCKETS} are counted exactly. Larger values are
+ * counted in buckets whose width is {@code 1 / SUB_BUCKETS} of the power of two
+ * below them, so percentiles are known with a relative error below
+ * {@code 1 / SUB_BUCKETS}. The minimum, maximum and mean of the values are
+ * exact.
+ * </p>
+ *
+ */
+final class LatencyHistogram {
+
+    // Number of buckets for each power of two.
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Number of values in each bucket.
+    private final long[] counts = new long[bucketOf(Long.MAX_VALUE) + 1];
+
+    // Number of values, their sum, and extreme values.
+    private long count = 0, sum = 0;
+    private long min = Long.MAX_VALUE, max = 0;
+
+    /**
+     * @param value A non-negative value.
+     *
+     * @return Index of the bucket containing the given value.
+     */
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * @param bucket Index of a bucket.
+     *
+     * @return Largest value of the given bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Record the given value.
+     *
+     * @param value Value to record.
+     *
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid value: " + value);
+        }
+        this.counts[bucketOf(value)] += 1;
+        this.count += 1;
+        this.sum += value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * @return Number of recorded values.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return Mean of the recorded values, or 0 if there are none.
+     */
+    public long getMean() {
+        return this.count == 0 ? 0 : this.sum / this.count;
+    }
+
+    /**
+     * @param percentile Percentile, between 0 and 100.
+     *
+     * @return A value such that the given percentage of the recorded values are
+     *         lower or equal, or 0 if there are none.
+     */
+    public long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        final long rank = Math.max((long) Math.ceil(percentile / 100 * this.count), 1);
+        long seen = 0;
+        for (int bucket = 0; bucket < this.counts.length; ++bucket) {
+            seen += this.counts[bucket];
+            if (seen >= rank) {
+                return Math.max(this.min, Math.min(this.max, highestValueOf(bucket)));
+            }
+        }
+        return this.max;
+    }
+
+}
@@ -0,0 +1,350 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Computation of complete shortest-path trees on a {@link ContractionHierarchy}
+ * with PHAST: the tree of an origin is obtained by a search from the origin in
+ * the upward graph, followed by a single linear sweep over all the nodes in
+ * decreasing level, each node taking the minimum over its downward edges (from
+ * nodes of higher level, thus already swept).
+ * </p>
+ *
+ * <p>
+ * The downward graph is renumbered in sweep order when the engine is created,
+ * so the sweep reads its edges and writes the costs sequentially. Several
+ * origins are processed by each sweep (see {@link #setBatchSize(int)}): their
+ * costs are interleaved, so each downward edge is read once per batch. Batches
+ * of origins are processed concurrently (see {@link #setParallelism(int)}).
+ * </p>
+ *
+ * <p>
+ * The resulting trees are regular {@link ShortestPathTree}, whose predecessor
+ * arcs are arcs of the graph (the last arc of each shortcut).
+ * </p>
+ *
+ */
+public final class PhastEngine {
+
+    /**
+     * Default number of origins processed by each sweep.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8;
+
+    // Graph and hierarchy of the engine.
+    private final Graph graph;
+    private final ContractionHierarchy hierarchy;
+
+    // Node at each position of the sweep, and position of each node.
+    private final int[] nodes, positions;
+
+    // Downward edges in sweep order: for each position, position of the tail,
+    // cost and last arc of the edges to the node at this position.
+    private final int[] sweepFirst, sweepTails, sweepArcs;
+    private final double[] sweepCosts;
+
+    // Last arc of each upward edge.
+    private final int[] upwardArcs;
+
+    // Number of origins per sweep, and number of threads.
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Create a new engine for the given graph and inspector, using the hierarchy
+     * retrieved with {@link ContractionHierarchy#of(Graph, ArcInspector)}.
+     *
+     * @param graph Graph of the trees.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     */
+    public PhastEngine(Graph graph, ArcInspector arcInspector) {
+        this(graph, ContractionHierarchy.of(graph, arcInspector));
+    }
+
+    /**
+     * Create a new engine for the given graph and hierarchy.
+     *
+     * @param graph Graph of the trees.
+     * @param hierarchy Hierarchy of the graph.
+     *
+     * @throws IllegalArgumentException if the hierarchy has not been computed for
+     *         the graph.
+     */
+    public PhastEngine(Graph graph, ContractionHierarchy hierarchy) {
+        if (!hierarchy.isHierarchyOf(graph)) {
+            throw new IllegalArgumentException(
+                    "Hierarchy has not been computed for graph " + graph.getMapId());
+        }
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+
+        final int nbNodes = hierarchy.size();
+
+        // Level of each node: 0 if no downward edge leaves the node, 1 + the
+        // maximum level of the heads of its downward edges otherwise, so the tail
+        // of a downward edge has a higher level than its head.
+        int[] byRank = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            byRank[hierarchy.getRank(node)] = node;
+        }
+        final int[] levels = new int[nbNodes];
+        for (int node: byRank) {
+            for (int i = hierarchy.getFirstDownwardEdge(node); i < hierarchy
+                    .getFirstDownwardEdge(node + 1); ++i) {
+                final int tail = hierarchy.getDownwardTail(i);
+                levels[tail] = Math.max(levels[tail], levels[node] + 1);
+            }
+        }
+
+        // Sweep order: decreasing level, then increasing ID (to keep the locality
+        // of the original numbering).
+        Integer[] order = new Integer[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            order[node] = node;
+        }
+        Arrays.sort(order, (u, v) -> levels[u] != levels[v]
+                ? Integer.compare(levels[v], levels[u]) : Integer.compare(u, v));
+        this.nodes = new int[nbNodes];
+        this.positions = new int[nbNodes];
+        for (int position = 0; position < nbNodes; ++position) {
+            this.nodes[position] = order[position];
+            this.positions[order[position]] = position;
+        }
+
+        final int nbDownwardEdges = hierarchy.getFirstDownwardEdge(nbNodes);
+        this.sweepFirst = new int[nbNodes + 1];
+        this.sweepTails = new int[nbDownwardEdges];
+        this.sweepArcs = new int[nbDownwardEdges];
+        this.sweepCosts = new double[nbDownwardEdges];
+        int index = 0;
+        for (int position = 0; position < nbNodes; ++position) {
+            final int node = this.nodes[position];
+            this.sweepFirst[position] = index;
+            for (int i = hierarchy.getFirstDownwardEdge(node); i < hierarchy
+                    .getFirstDownwardEdge(node + 1); ++i, ++index) {
+                this.sweepTails[index] = this.positions[hierarchy.getDownwardTail(i)];
+                this.sweepCosts[index] = hierarchy.getDownwardCost(i);
+                this.sweepArcs[index] = hierarchy.getLastArc(hierarchy.getDownwardEdgeId(i));
+            }
+        }
+        this.sweepFirst[nbNodes] = index;
+
+        this.upwardArcs = new int[hierarchy.getFirstUpwardEdge(nbNodes)];
+        for (int i = 0; i < this.upwardArcs.length; ++i) {
+            this.upwardArcs[i] = hierarchy.getLastArc(hierarchy.getUpwardEdgeId(i));
+        }
+    }
+
+    /**
+     * @return Graph of this engine.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Hierarchy of this engine.
+     */
+    public ContractionHierarchy getHierarchy() {
+        return this.hierarchy;
+    }
+
+    /**
+     * @param batchSize Number of origins processed by each sweep (by default,
+     *        {@link #DEFAULT_BATCH_SIZE}).
+     *
+     * @throws IllegalArgumentException if batch size is not positive.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param parallelism Number of threads processing batches of origins (by
+     *        default, the number of available processors).
+     *
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Compute the tree of the shortest paths from the given origin.
+     *
+     * @param origin Root of the tree.
+     *
+     * @return The shortest-path tree of the given origin.
+     */
+    public ShortestPathTree computeTree(Node origin) {
+        ShortestPathTree[] trees = new ShortestPathTree[1];
+        computeBatch(Collections.singletonList(origin), 0, 1, (tree, index) -> trees[0] = tree);
+        return trees[0];
+    }
+
+    /**
+     * Compute the trees of the shortest paths from the given origins. All the
+     * trees are kept in memory, see {@link #computeTrees(List, Consumer)} to
+     * process them as they are computed.
+     *
+     * @param origins Roots of the trees.
+     *
+     * @return The shortest-path trees of the given origins, in the same order.
+     */
+    public List<ShortestPathTree> computeTrees(List<Node> origins) {
+        ShortestPathTree[] trees = new ShortestPathTree[origins.size()];
+        computeTrees(origins, (tree, index) -> trees[index] = tree);
+        return Arrays.asList(trees);
+    }
+
+    /**
+     * Compute the trees of the shortest paths from the given origins, and give
+     * them to the given consumer as soon as they are computed. The consumer may be
+     * called concurrently from several threads, in any order.
+     *
+     * @param origins Roots of the trees.
+     * @param consumer Consumer receiving the trees.
+     */
+    public void computeTrees(List<Node> origins, Consumer<ShortestPathTree> consumer) {
+        computeTrees(origins, (tree, index) -> consumer.accept(tree));
+    }
+
+    /**
+     * Compute the trees of the given origins, by batches of at most
+     * {@link #batchSize} origins processed concurrently.
+     */
+    private void computeTrees(List<Node> origins, ObjIntConsumer<ShortestPathTree> consumer) {
+        final int batchSize = this.batchSize;
+        final int nbBatches = (origins.size() + batchSize - 1) / batchSize;
+        final IntStream batches = IntStream.range(0, nbBatches);
+        if (this.parallelism == 1 || nbBatches <= 1) {
+            batches.forEach(batch -> computeBatch(origins, batch * batchSize,
+                    Math.min(origins.size(), (batch + 1) * batchSize), consumer));
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.submit(() -> batches.parallel()
+                    .forEach(batch -> computeBatch(origins, batch * batchSize,
+                            Math.min(origins.size(), (batch + 1) * batchSize), consumer)))
+                    .join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compute the trees of the origins in {@code [from, to)} with a single sweep.
+     */
+    private void computeBatch(List<Node> origins, int from, int to,
+            ObjIntConsumer<ShortestPathTree> consumer) {
+        final int nbNodes = this.nodes.length;
+        final int width = to - from;
+
+        // Costs and predecessor arcs of the batch, indexed by position * width +
+        // index of the origin in the batch.
+        final double[] costs = new double[nbNodes * width];
+        final int[] arcs = new int[nbNodes * width];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(arcs, Label.NO_PREDECESSOR);
+
+        for (int k = 0; k < width; ++k) {
+            searchUpward(origins.get(from + k), k, width, costs, arcs);
+        }
+
+        for (int position = 0; position < nbNodes; ++position) {
+            final int base = position * width;
+            for (int i = this.sweepFirst[position]; i < this.sweepFirst[position + 1]; ++i) {
+                final int tailBase = this.sweepTails[i] * width;
+                final double cost = this.sweepCosts[i];
+                for (int k = 0; k < width; ++k) {
+                    final double candidate = costs[tailBase + k] + cost;
+                    if (candidate < costs[base + k]) {
+                        costs[base + k] = candidate;
+                        arcs[base + k] = this.sweepArcs[i];
+                    }
+                }
+            }
+        }
+
+        for (int k = 0; k < width; ++k) {
+            double[] treeCosts = new double[nbNodes];
+            int[] treeArcs = new int[nbNodes];
+            int size = 0;
+            for (int position = 0; position < nbNodes; ++position) {
+                final int node = this.nodes[position];
+                treeCosts[node] = costs[position * width + k];
+                treeArcs[node] = arcs[position * width + k];
+                if (treeCosts[node] != Double.POSITIVE_INFINITY) {
+                    ++size;
+                }
+            }
+            consumer.accept(new ShortestPathTree(this.graph, origins.get(from + k), treeCosts,
+                    treeArcs, size), from + k);
+        }
+    }
+
+    /**
+     * Run a search from the given origin in the upward graph, and store the costs
+     * and predecessor arcs of the settled nodes in the given batch arrays.
+     */
+    private void searchUpward(Node origin, int k, int width, double[] costs, int[] arcs) {
+        final ContractionHierarchy hierarchy = this.hierarchy;
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(this.nodes.length)) {
+            Label originLabel = new Label(origin);
+            originLabel.setCost(0);
+            workspace.setLabel(origin.getId(), originLabel);
+            IndexedBinaryHeap<Label> heap = workspace.getLabelHeap();
+            heap.insert(originLabel);
+
+            while (!heap.isEmpty()) {
+                Label label = heap.deleteMin();
+                label.mark();
+                final int node = label.getNode().getId();
+                costs[this.positions[node] * width + k] = label.getCost();
+                arcs[this.positions[node] * width + k] = label.getPredecessorArc();
+
+                for (int i = hierarchy.getFirstUpwardEdge(node); i < hierarchy
+                        .getFirstUpwardEdge(node + 1); ++i) {
+                    final int head = hierarchy.getUpwardHead(i);
+                    final double cost = label.getCost() + hierarchy.getUpwardCost(i);
+                    Label headLabel = workspace.getLabel(head);
+                    if (headLabel == null) {
+                        headLabel = new Label(this.graph.get(head));
+                        workspace.setLabel(head, headLabel);
+                    }
+                    if (!headLabel.isMarked() && cost < headLabel.getCost()) {
+                        headLabel.setCost(cost);
+                        headLabel.setPredecessorArc(this.upwardArcs[i]);
+                        if (heap.contains(headLabel)) {
+                            heap.decreaseKey(headLabel);
+                        }
+                        else {
+                            heap.insert(headLabel);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+
+/**
+ * <p>
+ * Measurements of a run of a shortest-path algorithm, attached to its solution
+ * (see {@link ShortestPathSolution#getStatistics()}).
+ * </p>
+ *
+ * <p>
+ * The duration of the three phases of a run is always measured: initialization
+ * (until the origin has been processed, see
+ * {@link ShortestPathAlgorithm#notifyOriginProcessed(org.insa.graphs.model.Node)}),
+ * search, and construction of the path (see
+ * {@link ShortestPathAlgorithm#createPath(java.util.function.IntUnaryOperator)}).
+ * </p>
+ *
+ * <p>
+ * Counters of nodes, arcs and queue operations are only collected by algorithms
+ * whose counters are enabled (see
+ * {@link ShortestPathAlgorithm#setCountersEnabled(boolean)}), and are 0
+ * otherwise. For algorithms that do not use a priority queue (e.g.,
+ * Bellman-Ford), the queue counters describe the queue or rounds they use
+ * instead, if any.
+ * </p>
+ *
+ */
+public final class SearchStatistics {
+
+    // Value of the timestamps of the phases that have not started.
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // true if counters are collected.
+    private final boolean counting;
+
+    // Counters of nodes and arcs.
+    private long nbSettledNodes, nbReachedNodes, nbRelaxedArcs, nbFilteredArcs;
+
+    // Counters of queue operations, and maximum size of the queue.
+    private long nbInserts, nbDecreases, nbDeletes;
+    private int peakQueueSize;
+
+    // Start of the run, of the search and of the construction of the path, and
+    // end of the run (System.nanoTime).
+    private final long start;
+    private long searchStart = NOT_STARTED, pathStart = NOT_STARTED, end;
+
+    /**
+     * Create statistics for a run starting now.
+     *
+     * @param counting true if counters should be collected.
+     */
+    SearchStatistics(boolean counting) {
+        this.counting = counting;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Record that a node has been settled (its final cost is known, or its arcs
+     * have been scanned).
+     */
+    void nodeSettled() {
+        this.nbSettledNodes += 1;
+    }
+
+    /**
+     * Record that a node has been reached for the first time.
+     */
+    void nodeReached() {
+        this.nbReachedNodes += 1;
+    }
+
+    /**
+     * Record that an allowed arc has been relaxed.
+     */
+    void arcRelaxed() {
+        this.nbRelaxedArcs += 1;
+    }
+
+    /**
+     * Record that an arc has been skipped because the inspector does not allow
+     * it.
+     */
+    void arcFiltered() {
+        this.nbFilteredArcs += 1;
+    }
+
+    /**
+     * Record an insertion in the queue.
+     *
+     * @param size Size of the queue after the insertion.
+     */
+    void queueInsert(int size) {
+        this.nbInserts += 1;
+        if (size > this.peakQueueSize) {
+            this.peakQueueSize = size;
+        }
+    }
+
+    /**
+     * Record a decrease of key in the queue.
+     */
+    void queueDecrease() {
+        this.nbDecreases += 1;
+    }
+
+    /**
+     * Record a deletion from the queue.
+     */
+    void queueDelete() {
+        this.nbDeletes += 1;
+    }
+
+    /**
+     * Record the start of the search (the first call wins).
+     */
+    void markSearchStart() {
+        if (this.searchStart == NOT_STARTED) {
+            this.searchStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Record the start of the construction of the path (the first call wins).
+     */
+    void markPathStart() {
+        if (this.pathStart == NOT_STARTED) {
+            this.pathStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Record the end of the run. Phases that have not started are given an empty
+     * duration.
+     */
+    void markEnd() {
+        this.end = System.nanoTime();
+        if (this.searchStart == NOT_STARTED) {
+            this.searchStart = this.pathStart == NOT_STARTED ? this.end : this.pathStart;
+        }
+        if (this.pathStart == NOT_STARTED) {
+            this.pathStart = this.end;
+        }
+    }
+
+    /**
+     * @return true if counters have been collected, false if only phase durations
+     *         have been measured.
+     */
+    public boolean isCounting() {
+        return this.counting;
+    }
+
+    /**
+     * @return Number of nodes settled (or scanned) by the search.
+     */
+    public long getSettledNodeCount() {
+        return this.nbSettledNodes;
+    }
+
+    /**
+     * @return Number of nodes reached by the search, excluding the origin.
+     */
+    public long getReachedNodeCount() {
+        return this.nbReachedNodes;
+    }
+
+    /**
+     * @return Number of allowed arcs relaxed by the search.
+     */
+    public long getRelaxedArcCount() {
+        return this.nbRelaxedArcs;
+    }
+
+    /**
+     * @return Number of arcs skipped by the search because the inspector does not
+     *         allow them.
+     */
+    public long getFilteredArcCount() {
+        return this.nbFilteredArcs;
+    }
+
+    /**
+     * @return Number of insertions in the queue.
+     */
+    public long getInsertCount() {
+        return this.nbInserts;
+    }
+
+    /**
+     * @return Number of decreases of key in the queue.
+     */
+    public long getDecreaseCount() {
+        return this.nbDecreases;
+    }
+
+    /**
+     * @return Number of deletions from the queue.
+     */
+    public long getDeleteCount() {
+        return this.nbDeletes;
+    }
+
+    /**
+     * @return Maximum number of elements in the queue.
+     */
+    public int getPeakQueueSize() {
+        return this.peakQueueSize;
+    }
+
+    /**
+     * @return Duration of the initialization, until the origin has been processed.
+     */
+    public Duration getInitializationTime() {
+        return Duration.ofNanos(this.searchStart - this.start);
+    }
+
+    /**
+     * @return Duration of the search.
+     */
+    public Duration getSearchTime() {
+        return Duration.ofNanos(this.pathStart - this.searchStart);
+    }
+
+    /**
+     * @return Duration of the construction of the path (and of the solution).
+     */
+    public Duration getPathBuildTime() {
+        return Duration.ofNanos(this.end - this.pathStart);
+    }
+
+    @Override
+    public String toString() {
+        String phases = String.format("init %.3f ms, search %.3f ms, path %.3f ms",
+                getInitializationTime().toNanos() / 1e6, getSearchTime().toNanos() / 1e6,
+                getPathBuildTime().toNanos() / 1e6);
+        if (!this.counting) {
+            return phases;
+        }
+        return String.format(
+                "%s, %d settled, %d reached, %d arcs relaxed, %d filtered, "
+                        + "%d inserts, %d decreases, %d deletes, peak queue %d",
+                phases, this.nbSettledNodes, this.nbReachedNodes, this.nbRelaxedArcs,
+                this.nbFilteredArcs, this.nbInserts, this.nbDecreases, this.nbDeletes,
+                this.peakQueueSize);
+    }
+
+}
@@ -0,0 +1,383 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.insa.graphs.algorithm.utils.AddressablePriorityQueue;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.algorithm.utils.IndexedDoubleHeap;
+import org.insa.graphs.algorithm.utils.MonotonePriorityQueue;
+
+/**
+ * <p>
+ * Per-node storage for shortest-path searches (distances, predecessors, states,
+ * heuristics and labels) that can be reused between searches.
+ * </p>
+ *
+ * <p>
+ * Workspaces are borrowed with {@link #acquire(int)} and given back with
+ * {@link #close()}, usually through a try-with-resources statement. Each thread
+ * has its own pool of workspaces, so a workspace is never shared between
+ * threads, and nested searches on the same thread get different workspaces.
+ * </p>
+ *
+ * <p>
+ * A node is "touched" by the current search when one of its values is set. The
+ * values of untouched nodes are the default ones (infinite distance, no
+ * predecessor, {@link #UNREACHED}, no heuristic, no label), whatever the previous searches
+ * did: instead of clearing the arrays, each search gets a new generation number
+ * and values are only considered if the node was touched during the current
+ * generation. Acquiring and releasing a workspace is thus proportional to the
+ * number of nodes touched by the search, not to the size of the graph.
+ * </p>
+ *
+ */
+public final class SearchWorkspace implements AutoCloseable {
+
+    /**
+     * State of nodes that have not been reached by the current search.
+     */
+    public static final byte UNREACHED = 0;
+
+    /**
+     * State of nodes that have been reached but not settled by the current search.
+     */
+    public static final byte REACHED = 1;
+
+    /**
+     * State of nodes that have been settled (their final value is known) by the
+     * current search.
+     */
+    public static final byte SETTLED = 2;
+
+    // Pool of available workspaces for each thread.
+    private static final ThreadLocal<ArrayDeque<SearchWorkspace>> POOLS = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    /**
+     * Borrow a workspace for a search on a graph with the given number of nodes.
+     * The workspace must be given back with {@link #close()}.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     *
+     * @return A workspace where no node has been touched.
+     */
+    public static SearchWorkspace acquire(int nbNodes) {
+        SearchWorkspace workspace = POOLS.get().pollFirst();
+        if (workspace == null) {
+            workspace = new SearchWorkspace();
+        }
+        workspace.reset(nbNodes);
+        return workspace;
+    }
+
+    // Current generation, and generation in which each node was last touched.
+    private int generation;
+    private int[] stamps;
+
+    // Values for each node.
+    private double[] distances;
+    private int[] predecessorArcs;
+    private byte[] states;
+    private double[] heuristics;
+    private Label[] labels;
+
+    // Nodes touched during the current generation.
+    private int[] touchedNodes;
+    private int nbTouchedNodes;
+
+    // Heap of labels, reused between searches.
+    private IndexedBinaryHeap<Label> labelHeap;
+
+    // Heap of node IDs, reused between searches.
+    private IndexedDoubleHeap nodeHeap;
+
+    // Other queues of labels by key, reused between searches.
+    private final Map<Object, AddressablePriorityQueue<Label>> labelQueues = new HashMap<>();
+
+    // Monotone queues of node IDs by type, reused between searches.
+    private final Map<Class<?>, MonotonePriorityQueue> monotoneQueues = new HashMap<>();
+
+    // true if this workspace is borrowed.
+    private boolean acquired;
+
+    private SearchWorkspace() {
+        this.generation = 0;
+        this.stamps = new int[0];
+        this.distances = new double[0];
+        this.predecessorArcs = new int[0];
+        this.states = new byte[0];
+        this.heuristics = new double[0];
+        this.labels = new Label[0];
+        this.touchedNodes = new int[16];
+        this.nbTouchedNodes = 0;
+        this.acquired = false;
+    }
+
+    /**
+     * Start a new generation, making sure that nodes with ID lower than nbNodes
+     * can be stored.
+     *
+     * @param nbNodes Number of nodes of the graph.
+     */
+    private void reset(int nbNodes) {
+        if (nbNodes > this.stamps.length) {
+            this.stamps = Arrays.copyOf(this.stamps, nbNodes);
+            this.distances = Arrays.copyOf(this.distances, nbNodes);
+            this.predecessorArcs = Arrays.copyOf(this.predecessorArcs, nbNodes);
+            this.states = Arrays.copyOf(this.states, nbNodes);
+            this.heuristics = Arrays.copyOf(this.heuristics, nbNodes);
+            this.labels = Arrays.copyOf(this.labels, nbNodes);
+        }
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamps, 0);
+            this.generation = 0;
+        }
+        this.generation += 1;
+        this.nbTouchedNodes = 0;
+        this.acquired = true;
+    }
+
+    /**
+     * Set the current generation of this workspace, used by tests to reach the
+     * wrap-around of generations.
+     *
+     * @param generation New generation.
+     */
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Give this workspace back to the pool of the current thread. The workspace
+     * must not be used afterwards.
+     *
+     * @throws IllegalStateException if this workspace has already been given back.
+     */
+    @Override
+    public void close() {
+        if (!this.acquired) {
+            throw new IllegalStateException("workspace already released");
+        }
+        this.acquired = false;
+
+        // Release the labels (and thus the nodes of the graph) of this search.
+        for (int i = 0; i < this.nbTouchedNodes; ++i) {
+            this.labels[this.touchedNodes[i]] = null;
+        }
+        if (this.labelHeap != null) {
+            this.labelHeap.clear();
+        }
+        if (this.nodeHeap != null) {
+            this.nodeHeap.clear();
+        }
+        for (AddressablePriorityQueue<Label> queue: this.labelQueues.values()) {
+            queue.clear();
+        }
+        for (MonotonePriorityQueue queue: this.monotoneQueues.values()) {
+            queue.clear();
+        }
+        POOLS.get().addFirst(this);
+    }
+
+    /**
+     * Touch the given node, setting its values to the default ones if it has not
+     * been touched yet in the current generation.
+     *
+     * @param node ID of the node.
+     */
+    private void touch(int node) {
+        if (this.stamps[node] != this.generation) {
+            this.stamps[node] = this.generation;
+            this.distances[node] = Double.POSITIVE_INFINITY;
+            this.predecessorArcs[node] = Label.NO_PREDECESSOR;
+            this.states[node] = UNREACHED;
+            this.heuristics[node] = Double.NaN;
+            this.labels[node] = null;
+            if (this.nbTouchedNodes == this.touchedNodes.length) {
+                this.touchedNodes = Arrays.copyOf(this.touchedNodes, 2 * this.nbTouchedNodes);
+            }
+            this.touchedNodes[this.nbTouchedNodes++] = node;
+        }
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node has been touched by the current search.
+     */
+    public boolean isTouched(int node) {
+        return this.stamps[node] == this.generation;
+    }
+
+    /**
+     * @return Number of nodes touched by the current search.
+     */
+    public int getTouchedNodeCount() {
+        return this.nbTouchedNodes;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Distance of the given node, or {@link Double#POSITIVE_INFINITY} if it
+     *         has not been set.
+     */
+    public double getDistance(int node) {
+        return isTouched(node) ? this.distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param distance New distance of the node.
+     */
+    public void setDistance(int node, double distance) {
+        touch(node);
+        this.distances[node] = distance;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return ID of the predecessor arc of the given node, or
+     *         {@link Label#NO_PREDECESSOR} if it has not been set.
+     */
+    public int getPredecessorArc(int node) {
+        return isTouched(node) ? this.predecessorArcs[node] : Label.NO_PREDECESSOR;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param arc ID of the new predecessor arc of the node.
+     */
+    public void setPredecessorArc(int node, int arc) {
+        touch(node);
+        this.predecessorArcs[node] = arc;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return State of the given node ({@link #UNREACHED}, {@link #REACHED} or
+     *         {@link #SETTLED}).
+     */
+    public byte getState(int node) {
+        return isTouched(node) ? this.states[node] : UNREACHED;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param state New state of the node.
+     */
+    public void setState(int node, byte state) {
+        touch(node);
+        this.states[node] = state;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Heuristic (estimated cost to the destination) of the given node, or
+     *         {@link Double#NaN} if it has not been computed yet.
+     */
+    public double getHeuristic(int node) {
+        return isTouched(node) ? this.heuristics[node] : Double.NaN;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param heuristic Heuristic (estimated cost to the destination) of the node.
+     */
+    public void setHeuristic(int node, double heuristic) {
+        touch(node);
+        this.heuristics[node] = heuristic;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Label of the given node, or null if it has not been set.
+     */
+    public Label getLabel(int node) {
+        return isTouched(node) ? this.labels[node] : null;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param label New label of the node.
+     */
+    public void setLabel(int node, Label label) {
+        touch(node);
+        this.labels[node] = label;
+    }
+
+    /**
+     * @return Heap of labels indexed by node ID, empty when the workspace is
+     *         acquired.
+     */
+    public IndexedBinaryHeap<Label> getLabelHeap() {
+        if (this.labelHeap == null) {
+            this.labelHeap = new IndexedBinaryHeap<Label>(label -> label.getNode().getId(),
+                    this.stamps.length);
+        }
+        return this.labelHeap;
+    }
+
+    /**
+     * @return Heap of node IDs with primitive keys, empty when the workspace is
+     *         acquired.
+     */
+    public IndexedDoubleHeap getNodeHeap() {
+        if (this.nodeHeap == null || this.nodeHeap.getCapacity() < this.stamps.length) {
+            this.nodeHeap = new IndexedDoubleHeap(this.stamps.length);
+        }
+        return this.nodeHeap;
+    }
+
+    /**
+     * Retrieve the queue of labels associated to the given key, creating it with
+     * the given factory (which receives the number of nodes) if this workspace
+     * does not have one yet.
+     *
+     * @param key Key of the queue (e.g., the strategy that uses it).
+     * @param factory Function creating a queue of labels indexed by node ID, with
+     *        the given capacity.
+     *
+     * @return Queue of labels associated to the given key, empty when the
+     *         workspace is acquired.
+     */
+    public AddressablePriorityQueue<Label> getLabelQueue(Object key,
+            IntFunction<? extends AddressablePriorityQueue<Label>> factory) {
+        AddressablePriorityQueue<Label> queue = this.labelQueues.get(key);
+        if (queue == null) {
+            queue = factory.apply(this.stamps.length);
+            this.labelQueues.put(key, queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Retrieve the monotone queue of node IDs of the given type, creating it with
+     * the given factory (which receives the number of nodes) if this workspace
+     * does not have one yet.
+     *
+     * @param type Type of the queue.
+     * @param factory Function creating a queue with the given capacity.
+     *
+     * @return Monotone queue of the given type, empty when the workspace is
+     *         acquired.
+     */
+    public <Q extends MonotonePriorityQueue> Q getMonotoneQueue(Class<Q> type,
+            IntFunction<? extends Q> factory) {
+        MonotonePriorityQueue queue = this.monotoneQueues.get(type);
+        if (queue == null || queue.getCapacity() < this.stamps.length) {
+            queue = factory.apply(this.stamps.length);
+            this.monotoneQueues.put(type, queue);
+        }
+        return type.cast(queue);
+    }
+
+}
@@ -1,17 +1,72 @@
 package org.insa.graphs.algorithm.shortestpath;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.IntUnaryOperator;
+
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
 
 public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPathObserver> {
 
+    // true if the counters of the statistics are collected, and statistics of
+    // the current (or last) run.
+    private boolean countersEnabled;
+    private SearchStatistics statistics;
+
     protected ShortestPathAlgorithm(ShortestPathData data) {
         super(data);
+        this.countersEnabled = false;
+        this.statistics = null;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * The solution holds the statistics of the run (see
+     * {@link ShortestPathSolution#getStatistics()}).
+     */
     @Override
     public ShortestPathSolution run() {
-        return (ShortestPathSolution) super.run();
+        this.statistics = new SearchStatistics(this.countersEnabled);
+        ShortestPathSolution solution = (ShortestPathSolution) super.run();
+        this.statistics.markEnd();
+        solution.setStatistics(this.statistics);
+        return solution;
+    }
+
+    /**
+     * @return true if the counters of the statistics are collected.
+     */
+    public boolean isCountersEnabled() {
+        return countersEnabled;
+    }
+
+    /**
+     * Enable or disable the counters of the statistics of the next runs (see
+     * {@link SearchStatistics}). Phase durations are measured in both cases.
+     * 
+     * @param countersEnabled true if counters should be collected.
+     */
+    public void setCountersEnabled(boolean countersEnabled) {
+        this.countersEnabled = countersEnabled;
+    }
+
+    /**
+     * Retrieve the statistics whose counters should be updated by the current
+     * run. Searches should retrieve them once, so that disabled counters only
+     * cost a null check per event.
+     * 
+     * @return Statistics of the current run if its counters are enabled, null
+     *         otherwise.
+     */
+    protected SearchStatistics getCounters() {
+        return this.statistics != null && this.statistics.isCounting() ? this.statistics
+                : null;
     }
 
     @Override
@@ -23,11 +78,46 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
     }
 
     /**
-     * Notify all observers that the origin has been processed.
+     * Create the path from the origin to the destination of the input data by
+     * following the given predecessor arcs backward from the destination.
+     * 
+     * @param predecessorArc Function returning the ID (in the compact graph) of
+     *        the arc used to reach the given node.
+     * 
+     * @return The path from the origin to the destination.
+     * 
+     * @see Graph#getCompactGraph()
+     */
+    protected Path createPath(IntUnaryOperator predecessorArc) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = graph.getCompactGraph();
+        if (this.statistics != null) {
+            this.statistics.markPathStart();
+        }
+
+        ArrayList<Arc> arcs = new ArrayList<Arc>();
+        int origin = data.getOrigin().getId();
+        for (int node = data.getDestination().getId(); node != origin;) {
+            int arc = predecessorArc.applyAsInt(node);
+            arcs.add(graph.getArc(arc));
+            node = compact.getOrigin(arc);
+        }
+        Collections.reverse(arcs);
+
+        return new Path(graph, arcs);
+    }
+
+    /**
+     * Notify all observers that the origin has been processed, which ends the
+     * initialization phase of the run (see {@link SearchStatistics}).
      * 
      * @param node Origin.
      */
     public void notifyOriginProcessed(Node node) {
+        if (this.statistics != null) {
+            this.statistics.markSearchStart();
+        }
         for (ShortestPathObserver obs: getObservers()) {
             obs.notifyOriginProcessed(node);
         }
@@ -10,12 +10,16 @@ public class ShortestPathSolution extends AbstractSolution {
     // Optimal solution.
     private final Path path;
 
+    // Statistics of the run that computed this solution.
+    private SearchStatistics statistics;
+
     /**
      * Create a new infeasible shortest-path solution for the given input and
      * status.
      * 
      * @param data Original input data for this solution.
-     * @param status Status of the solution (UNKNOWN / INFEASIBLE).
+     * @param status Status of the solution (UNKNOWN / INFEASIBLE / TIMEOUT /
+     *        CANCELLED).
      */
     public ShortestPathSolution(ShortestPathData data, Status status) {
         super(data, status);
@@ -46,10 +50,30 @@ public class ShortestPathSolution extends AbstractSolution {
         return path;
     }
 
+    /**
+     * @return Statistics of the run that computed this solution, or null if the
+     *         solution was not returned by {@link ShortestPathAlgorithm#run()}.
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @param statistics Statistics of the run that computed this solution.
+     */
+    void setStatistics(SearchStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     @Override
     public String toString() {
         String info = null;
-        if (!isFeasible()) {
+        if (isInterrupted()) {
+            info = String.format("Search from node #%d to node #%d stopped (%s)",
+                    getInputData().getOrigin().getId(), getInputData().getDestination().getId(),
+                    getStatus());
+        }
+        else if (!isFeasible()) {
             info = String.format("No path found from node #%d to node #%d",
                     getInputData().getOrigin().getId(), getInputData().getDestination().getId());
         }
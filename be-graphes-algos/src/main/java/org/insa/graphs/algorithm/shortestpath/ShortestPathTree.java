@@ -0,0 +1,254 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Tree of the shortest paths from a root node, computed by a single Dijkstra
+ * search and reusable for any number of destinations: the cost of the path to
+ * a node is read in constant time, and the path itself is extracted in time
+ * linear in its number of arcs.
+ * </p>
+ *
+ * <p>
+ * The search can be complete (see
+ * {@link #compute(Graph, Node, ArcInspector)}), bounded in cost (see
+ * {@link #computeBounded(Graph, Node, ArcInspector, double)}) or stopped once
+ * a set of targets is settled (see
+ * {@link #computeToTargets(Graph, Node, ArcInspector, Collection)}). Only
+ * settled nodes belong to the tree. The tree only stores the cost and the
+ * predecessor arc of each node, in primitive arrays.
+ * </p>
+ *
+ */
+public final class ShortestPathTree {
+
+    /**
+     * Compute the tree of the shortest paths from the given root to all the
+     * nodes.
+     *
+     * @param graph Graph in which the paths should be looked for.
+     * @param root Root of the tree.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     *
+     * @return The shortest-path tree of the given root.
+     */
+    public static ShortestPathTree compute(Graph graph, Node root, ArcInspector arcInspector) {
+        return compute(graph, root, arcInspector, Double.POSITIVE_INFINITY, null);
+    }
+
+    /**
+     * Compute the tree of the shortest paths from the given root to the nodes
+     * that can be reached with a cost lower or equal to the given bound.
+     *
+     * @param graph Graph in which the paths should be looked for.
+     * @param root Root of the tree.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     * @param maxCost Maximum cost of the paths of the tree.
+     *
+     * @return The bounded shortest-path tree of the given root.
+     */
+    public static ShortestPathTree computeBounded(Graph graph, Node root,
+            ArcInspector arcInspector, double maxCost) {
+        return compute(graph, root, arcInspector, maxCost, null);
+    }
+
+    /**
+     * Compute a tree of the shortest paths from the given root, stopping the
+     * search once all the given targets are settled. The tree contains the
+     * targets that can be reached, and the nodes settled before them.
+     *
+     * @param graph Graph in which the paths should be looked for.
+     * @param root Root of the tree.
+     * @param arcInspector Inspector providing costs and permissions of the arcs.
+     * @param targets Nodes that should belong to the tree if they can be reached.
+     *
+     * @return A shortest-path tree of the given root containing the targets.
+     */
+    public static ShortestPathTree computeToTargets(Graph graph, Node root,
+            ArcInspector arcInspector, Collection<Node> targets) {
+        return compute(graph, root, arcInspector, Double.POSITIVE_INFINITY, targets);
+    }
+
+    private static ShortestPathTree compute(Graph graph, Node root, ArcInspector arcInspector,
+            double maxCost, Collection<Node> targets) {
+        final CompactGraph compact = graph.getCompactGraph();
+        final WeightProfile weights = WeightProfile.of(graph, arcInspector);
+        final int nbNodes = graph.size();
+
+        boolean[] isTarget = null;
+        int nbRemaining = -1;
+        if (targets != null) {
+            isTarget = new boolean[nbNodes];
+            nbRemaining = 0;
+            for (Node target: targets) {
+                if (!isTarget[target.getId()]) {
+                    isTarget[target.getId()] = true;
+                    nbRemaining += 1;
+                }
+            }
+        }
+
+        double[] costs = new double[nbNodes];
+        int[] predecessorArcs = new int[nbNodes];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessorArcs, Label.NO_PREDECESSOR);
+        int nbSettled = 0;
+
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+            Label rootLabel = new Label(root);
+            rootLabel.setCost(0);
+            workspace.setLabel(root.getId(), rootLabel);
+            IndexedBinaryHeap<Label> heap = workspace.getLabelHeap();
+            heap.insert(rootLabel);
+
+            while (!heap.isEmpty() && nbRemaining != 0 && heap.findMin().getCost() <= maxCost) {
+                Label current = heap.deleteMin();
+                current.mark();
+                final int node = current.getNode().getId();
+                costs[node] = current.getCost();
+                predecessorArcs[node] = current.getPredecessorArc();
+                nbSettled += 1;
+                if (isTarget != null && isTarget[node]) {
+                    nbRemaining -= 1;
+                }
+
+                for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                    if (!weights.isAllowed(arc)) {
+                        continue;
+                    }
+                    final int successor = compact.getDestination(arc);
+                    final double cost = current.getCost() + weights.getCost(arc);
+                    Label successorLabel = workspace.getLabel(successor);
+                    if (successorLabel == null) {
+                        successorLabel = new Label(graph.get(successor));
+                        workspace.setLabel(successor, successorLabel);
+                    }
+                    if (!successorLabel.isMarked() && cost < successorLabel.getCost()) {
+                        successorLabel.setCost(cost);
+                        successorLabel.setPredecessorArc(arc);
+                        if (heap.contains(successorLabel)) {
+                            heap.decreaseKey(successorLabel);
+                        }
+                        else {
+                            heap.insert(successorLabel);
+                        }
+                    }
+                }
+            }
+        }
+
+        return new ShortestPathTree(graph, root, costs, predecessorArcs, nbSettled);
+    }
+
+    // Graph and root of the tree.
+    private final Graph graph;
+    private final Node root;
+
+    // Cost and predecessor arc of each node (infinity and no predecessor for
+    // nodes that do not belong to the tree).
+    private final double[] costs;
+    private final int[] predecessorArcs;
+
+    // Number of nodes in the tree.
+    private final int size;
+
+    ShortestPathTree(Graph graph, Node root, double[] costs, int[] predecessorArcs,
+            int size) {
+        this.graph = graph;
+        this.root = root;
+        this.costs = costs;
+        this.predecessorArcs = predecessorArcs;
+        this.size = size;
+    }
+
+    /**
+     * @return Graph of this tree.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Root of this tree.
+     */
+    public Node getRoot() {
+        return this.root;
+    }
+
+    /**
+     * @return Number of nodes (settled by the search) in this tree.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return true if the given node belongs to this tree.
+     */
+    public boolean contains(Node node) {
+        return this.costs[node.getId()] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Cost of the shortest path from the root to the given node, or
+     *         infinity if the node does not belong to this tree.
+     */
+    public double getCost(Node node) {
+        return this.costs[node.getId()];
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return ID of the last arc of the shortest path from the root to the given
+     *         node, or {@link Label#NO_PREDECESSOR} for the root and nodes that do
+     *         not belong to this tree.
+     */
+    public int getPredecessorArc(Node node) {
+        return this.predecessorArcs[node.getId()];
+    }
+
+    /**
+     * @param node Node of the graph.
+     *
+     * @return Shortest path from the root to the given node (a path containing only
+     *         the root if the node is the root), or null if the node does not
+     *         belong to this tree.
+     */
+    public Path getPath(Node node) {
+        if (!contains(node)) {
+            return null;
+        }
+        if (node.equals(this.root)) {
+            return new Path(this.graph, this.root);
+        }
+        final CompactGraph compact = this.graph.getCompactGraph();
+        List<Arc> arcs = new ArrayList<>();
+        for (int current = node.getId(); current != this.root.getId();) {
+            final int arc = this.predecessorArcs[current];
+            arcs.add(this.graph.getArc(arc));
+            current = compact.getOrigin(arc);
+        }
+        Collections.reverse(arcs);
+        return new Path(this.graph, arcs);
+    }
+
+}
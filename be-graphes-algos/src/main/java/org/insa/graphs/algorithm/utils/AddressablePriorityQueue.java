@@ -0,0 +1,50 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * <p>
+ * Priority queue whose elements can be looked up and whose keys can be decreased
+ * in place, as needed by Dijkstra-like algorithms.
+ * </p>
+ *
+ * <p>
+ * Implementations associate each element to a unique non-negative integer
+ * index (e.g., the ID of a node), so two elements with the same index cannot be
+ * in the queue at the same time.
+ * </p>
+ *
+ */
+public interface AddressablePriorityQueue<E extends Comparable<E>> extends PriorityQueue<E> {
+
+    /**
+     * Check if the given element is in the queue.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to look for.
+     *
+     * @return true if the given element is in the queue.
+     */
+    public boolean contains(E x);
+
+    /**
+     * Restore the order of the queue after the key of the given element has been
+     * decreased.
+     *
+     * @param x Element whose key has been decreased.
+     *
+     * @throws ElementNotFoundException if the element is not in the queue.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException;
+
+    /**
+     * Remove all the elements from this queue.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where n is the current size of the queue.
+     * </p>
+     */
+    public void clear();
+
+}
@@ -0,0 +1,422 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a Fibonacci heap containing elements of type E, where each element
+ * is associated to a unique non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * The heap is a list of trees whose roots are linked together.
+ * {@link #insert(Comparable)} adds a new root, and
+ * {@link #decreaseKey(Comparable)} cuts the node from its parent (cascading to
+ * ancestors that already lost a child), both in amortized <i>O(1)</i>.
+ * {@link #deleteMin()} consolidates the roots so that no two of them have the
+ * same degree, in amortized <i>O(log n)</i>.
+ * </p>
+ *
+ * <p>
+ * Tree nodes are kept by index and reused when an element with the same index
+ * is inserted again, as in {@link PairingHeap}.
+ * </p>
+ *
+ */
+public class FibonacciHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    // Upper bound of the degree of a node (about 1.44 log2(n)).
+    private static final int MAX_DEGREE = 64;
+
+    /**
+     * Node of a tree.
+     */
+    private static final class Entry<E> {
+
+        // Element of this node (null if the node is not in the heap).
+        private E element;
+
+        // Parent and one of the children of this node.
+        private Entry<E> parent, child;
+
+        // Siblings of this node, in a circular list.
+        private Entry<E> left, right;
+
+        // Number of children, and whether this node lost a child since it became
+        // the child of its parent.
+        private int degree;
+        private boolean marked;
+
+    }
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Node of each index.
+    private Entry<E>[] entries;
+
+    // Minimum root (null if the heap is empty), and number of elements.
+    private Entry<E> min;
+    private int currentSize;
+
+    // Buffers used to consolidate the roots.
+    private final Entry<E>[] roots;
+    private final ArrayList<Entry<E>> rootList = new ArrayList<>();
+
+    /**
+     * Construct a new empty Fibonacci heap.
+     *
+     * @param indexer Function returning the index of an element.
+     */
+    public FibonacciHeap(ToIntFunction<? super E> indexer) {
+        this(indexer, 16);
+    }
+
+    /**
+     * Construct a new empty Fibonacci heap that can hold elements whose index is
+     * lower than the given capacity without resizing.
+     *
+     * @param indexer Function returning the index of an element.
+     * @param capacity Initial capacity of the heap (e.g., number of nodes).
+     */
+    @SuppressWarnings("unchecked")
+    public FibonacciHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.indexer = indexer;
+        this.entries = (Entry<E>[]) new Entry<?>[Math.max(capacity, 1)];
+        this.roots = (Entry<E>[]) new Entry<?>[MAX_DEGREE];
+        this.min = null;
+        this.currentSize = 0;
+    }
+
+    /**
+     * Construct a copy of the given heap (with the same elements, but not the same
+     * trees).
+     *
+     * @param heap Fibonacci heap to copy.
+     */
+    public FibonacciHeap(FibonacciHeap<E> heap) {
+        this(heap.indexer, heap.entries.length);
+        heap.forEachEntry(entry -> insert(entry.element));
+    }
+
+    /**
+     * Apply the given action to all the nodes of the heap, after their links have
+     * been read.
+     */
+    private void forEachEntry(Consumer<Entry<E>> action) {
+        ArrayDeque<Entry<E>> stack = new ArrayDeque<>();
+        if (this.min != null) {
+            stack.push(this.min);
+        }
+        while (!stack.isEmpty()) {
+            Entry<E> first = stack.pop();
+            Entry<E> entry = first;
+            do {
+                Entry<E> next = entry.right;
+                if (entry.child != null) {
+                    stack.push(entry.child);
+                }
+                action.accept(entry);
+                entry = next;
+            }
+            while (entry != first);
+        }
+    }
+
+    /**
+     * @return Node of the given element, or null if the element is not in the
+     *         heap.
+     */
+    private Entry<E> entryOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.entries.length) {
+            return null;
+        }
+        Entry<E> entry = this.entries[index];
+        return entry != null && entry.element == x ? entry : null;
+    }
+
+    /**
+     * Remove the given node from its list of siblings.
+     */
+    private static <E> void unlink(Entry<E> entry) {
+        entry.left.right = entry.right;
+        entry.right.left = entry.left;
+        entry.left = entry;
+        entry.right = entry;
+    }
+
+    /**
+     * Insert the given list of siblings after the given node.
+     */
+    private static <E> void splice(Entry<E> after, Entry<E> first) {
+        Entry<E> last = first.left, next = after.right;
+        after.right = first;
+        first.left = after;
+        last.right = next;
+        next.left = last;
+    }
+
+    /**
+     * Add the given node (without sibling) to the list of roots, updating the
+     * minimum.
+     */
+    private void addRoot(Entry<E> entry) {
+        entry.parent = null;
+        entry.marked = false;
+        if (this.min == null) {
+            this.min = entry;
+        }
+        else {
+            splice(this.min, entry);
+            if (entry.element.compareTo(this.min.element) < 0) {
+                this.min = entry;
+            }
+        }
+    }
+
+    /**
+     * Move the children of the given root to the list of roots.
+     */
+    private void promoteChildren(Entry<E> entry) {
+        Entry<E> first = entry.child;
+        if (first != null) {
+            Entry<E> child = first;
+            do {
+                child.parent = null;
+                child.marked = false;
+                child = child.right;
+            }
+            while (child != first);
+            splice(entry, first);
+            entry.child = null;
+            entry.degree = 0;
+        }
+    }
+
+    /**
+     * Cut the given node from its parent, move it to the list of roots, and
+     * cascade to its ancestors.
+     */
+    private void cutFromParent(Entry<E> entry) {
+        Entry<E> parent = entry.parent;
+        while (parent != null) {
+            if (parent.child == entry) {
+                parent.child = entry.right == entry ? null : entry.right;
+            }
+            parent.degree -= 1;
+            unlink(entry);
+            addRoot(entry);
+
+            // Stop at the first ancestor that had not lost a child yet (or at a
+            // root).
+            if (!parent.marked || parent.parent == null) {
+                if (parent.parent != null) {
+                    parent.marked = true;
+                }
+                break;
+            }
+            entry = parent;
+            parent = entry.parent;
+        }
+    }
+
+    /**
+     * Link the roots with the same degree until all degrees are distinct, and find
+     * the new minimum.
+     */
+    private void consolidate() {
+        Entry<E> entry = this.min;
+        do {
+            this.rootList.add(entry);
+            entry = entry.right;
+        }
+        while (entry != this.min);
+
+        for (Entry<E> root: this.rootList) {
+            Entry<E> x = root;
+            int degree = x.degree;
+            while (this.roots[degree] != null) {
+                Entry<E> y = this.roots[degree];
+                if (y.element.compareTo(x.element) < 0) {
+                    Entry<E> tmp = x;
+                    x = y;
+                    y = tmp;
+                }
+                // Make y a child of x.
+                unlink(y);
+                y.parent = x;
+                y.marked = false;
+                if (x.child == null) {
+                    x.child = y;
+                }
+                else {
+                    splice(x.child, y);
+                }
+                x.degree += 1;
+                this.roots[degree++] = null;
+            }
+            this.roots[degree] = x;
+        }
+        this.rootList.clear();
+
+        this.min = null;
+        for (int degree = 0; degree < MAX_DEGREE; ++degree) {
+            Entry<E> root = this.roots[degree];
+            if (root != null) {
+                if (this.min == null || root.element.compareTo(this.min.element) < 0) {
+                    this.min = root;
+                }
+                this.roots[degree] = null;
+            }
+        }
+    }
+
+    /**
+     * Release the given node, that has been removed from the heap.
+     */
+    private void release(Entry<E> entry) {
+        entry.element = null;
+        entry.parent = null;
+        entry.child = null;
+        entry.left = entry;
+        entry.right = entry;
+        entry.degree = 0;
+        entry.marked = false;
+        this.currentSize -= 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return entryOf(x) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @throws IllegalArgumentException if an element with the same index is already
+     *         in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index >= this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, Math.max(index + 1, 2 * this.entries.length));
+        }
+        Entry<E> entry = this.entries[index];
+        if (entry == null) {
+            entry = new Entry<>();
+            entry.left = entry;
+            entry.right = entry;
+            this.entries[index] = entry;
+        }
+        else if (entry.element != null) {
+            throw new IllegalArgumentException("an element with index " + index
+                    + " is already in the heap: " + entry.element);
+        }
+        entry.element = x;
+        addRoot(entry);
+        this.currentSize += 1;
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        // Turn the node into a root, then replace it by its children (the
+        // minimum does not change, unless the node is the minimum).
+        cutFromParent(entry);
+        if (entry == this.min) {
+            deleteMin();
+            return;
+        }
+        promoteChildren(entry);
+        unlink(entry);
+        release(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> amortized <i>O(1)</i>
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (entry.parent != null && entry.element.compareTo(entry.parent.element) < 0) {
+            cutFromParent(entry);
+        }
+        else if (entry.parent == null && entry.element.compareTo(this.min.element) < 0) {
+            this.min = entry;
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.min.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> amortized <i>O(log n)</i>
+     * </p>
+     */
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        Entry<E> oldMin = this.min;
+        promoteChildren(oldMin);
+        if (oldMin.right == oldMin) {
+            this.min = null;
+        }
+        else {
+            this.min = oldMin.right;
+            unlink(oldMin);
+            consolidate();
+        }
+        release(oldMin);
+        return minItem;
+    }
+
+    @Override
+    public void clear() {
+        forEachEntry(this::release);
+        this.min = null;
+        this.currentSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + this.currentSize + "]";
+    }
+
+}
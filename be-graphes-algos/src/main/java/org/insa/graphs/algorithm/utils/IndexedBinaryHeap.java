@@ -0,0 +1,327 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a binary heap containing elements of type E, where each element is
+ * associated to a unique non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * The heap keeps track of the slot of each element in its array, so that
+ * {@link #remove(Comparable)}, {@link #contains(Comparable)} and
+ * {@link #decreaseKey(Comparable)} do not need to scan the heap. Two elements
+ * with the same index cannot be in the heap at the same time.
+ * </p>
+ *
+ * Note that all comparisons are based on the compareTo method, hence E must
+ * implement Comparable
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    // Value in the positions array for elements that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    private E[] array;
+
+    // Position of each element in the heap array, by index.
+    private int[] positions;
+
+    /**
+     * Construct a new empty indexed binary heap.
+     *
+     * @param indexer Function returning the index of an element.
+     */
+    public IndexedBinaryHeap(ToIntFunction<? super E> indexer) {
+        this(indexer, 16);
+    }
+
+    /**
+     * Construct a new empty indexed binary heap that can hold elements whose index
+     * is lower than the given capacity without resizing.
+     *
+     * @param indexer Function returning the index of an element.
+     * @param capacity Initial capacity of the heap (e.g., number of nodes).
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedBinaryHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.indexer = indexer;
+        this.currentSize = 0;
+        this.array = (E[]) new Comparable<?>[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Indexed binary heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap<E> heap) {
+        this.indexer = heap.indexer;
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.positions = Arrays.copyOf(heap.positions, heap.positions.length);
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    protected int indexParent(int index) {
+        return (index - 1) / 2;
+    }
+
+    /**
+     * @return Index of the left child of the given index.
+     */
+    protected int indexLeft(int index) {
+        return index * 2 + 1;
+    }
+
+    /**
+     * Make sure that elements with the given index can be stored in this heap.
+     *
+     * @param index Index of an element.
+     */
+    private void ensureIndex(int index) {
+        if (index >= this.positions.length) {
+            int oldLength = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions, Math.max(index + 1, 2 * oldLength));
+            Arrays.fill(this.positions, oldLength, this.positions.length, NOT_IN_HEAP);
+        }
+    }
+
+    /**
+     * Put the given element at the given slot of the array, and update its
+     * position.
+     *
+     * @param slot Slot at which the element should be set.
+     * @param value Element to set.
+     */
+    private void arraySet(int slot, E value) {
+        this.array[slot] = value;
+        this.positions[this.indexer.applyAsInt(value)] = slot;
+    }
+
+    /**
+     * @return Slot of the given element in the heap array, or -1 if the element is
+     *         not in the heap.
+     */
+    private int slotOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.positions.length) {
+            return NOT_IN_HEAP;
+        }
+        int slot = this.positions[index];
+        if (slot == NOT_IN_HEAP || this.array[slot] != x) {
+            return NOT_IN_HEAP;
+        }
+        return slot;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param slot Slot at which the percolate begins.
+     */
+    private void percolateUp(int slot) {
+        E x = this.array[slot];
+        while (slot > 0) {
+            int parent = indexParent(slot);
+            E parentValue = this.array[parent];
+            if (x.compareTo(parentValue) >= 0) {
+                break;
+            }
+            this.arraySet(slot, parentValue);
+            slot = parent;
+        }
+        this.arraySet(slot, x);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param slot Slot at which the percolate begins.
+     */
+    private void percolateDown(int slot) {
+        E x = this.array[slot];
+        int ileft = indexLeft(slot);
+        while (ileft < this.currentSize) {
+            int ichild = ileft;
+            int iright = ileft + 1;
+            if (iright < this.currentSize
+                    && this.array[iright].compareTo(this.array[ileft]) < 0) {
+                ichild = iright;
+            }
+            E child = this.array[ichild];
+            if (child.compareTo(x) >= 0) {
+                break;
+            }
+            this.arraySet(slot, child);
+            slot = ichild;
+            ileft = indexLeft(slot);
+        }
+        this.arraySet(slot, x);
+    }
+
+    /**
+     * Remove the element at the given slot.
+     *
+     * @param slot Slot of the element to remove.
+     */
+    private void removeAt(int slot) {
+        E removed = this.array[slot];
+        E lastElement = this.array[--this.currentSize];
+        this.array[this.currentSize] = null;
+        this.positions[this.indexer.applyAsInt(removed)] = NOT_IN_HEAP;
+
+        if (slot < this.currentSize) {
+            this.arraySet(slot, lastElement);
+            if (slot > 0 && lastElement.compareTo(this.array[indexParent(slot)]) < 0) {
+                this.percolateUp(slot);
+            }
+            else {
+                this.percolateDown(slot);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * Check if the given element is in the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to look for.
+     *
+     * @return true if the given element is in the heap.
+     */
+    public boolean contains(E x) {
+        return slotOf(x) != NOT_IN_HEAP;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if an element with the same index is already
+     *         in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        int index = this.indexer.applyAsInt(x);
+        ensureIndex(index);
+        if (this.positions[index] != NOT_IN_HEAP) {
+            throw new IllegalArgumentException("an element with index " + index
+                    + " is already in the heap: " + this.array[this.positions[index]]);
+        }
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, 2 * this.array.length);
+        }
+        int slot = this.currentSize++;
+        this.arraySet(slot, x);
+        this.percolateUp(slot);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int slot = slotOf(x);
+        if (slot == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        removeAt(slot);
+    }
+
+    /**
+     * Restore the heap property after the key of the given element has been
+     * decreased.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element whose key has been decreased.
+     *
+     * @throws ElementNotFoundException if the element is not in the heap.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int slot = slotOf(x);
+        if (slot == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        percolateUp(slot);
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.array[0];
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        removeAt(0);
+        return minItem;
+    }
+
+    /**
+     * Remove all the elements from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where n is the current size of the heap (not
+     * its capacity).
+     * </p>
+     */
+    public void clear() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            this.positions[this.indexer.applyAsInt(this.array[slot])] = NOT_IN_HEAP;
+            this.array[slot] = null;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * Verify if the current heap is valid.
+     *
+     * @return true if the heap property holds and every element is at the position
+     *         recorded for its index.
+     */
+    public boolean isValid() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            if (this.positions[this.indexer.applyAsInt(this.array[slot])] != slot) {
+                return false;
+            }
+            if (slot > 0 && this.array[slot].compareTo(this.array[indexParent(slot)]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + this.currentSize + "]";
+    }
+
+}
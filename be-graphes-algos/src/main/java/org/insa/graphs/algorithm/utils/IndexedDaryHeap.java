@@ -0,0 +1,308 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a d-ary heap containing elements of type E, where each element is
+ * associated to a unique non-negative integer index (e.g., the ID of a node), as
+ * {@link IndexedBinaryHeap}.
+ * </p>
+ *
+ * <p>
+ * Each slot has {@code d} children instead of 2, so the heap is
+ * {@code log2(d)} times shallower: {@link #insert(Comparable)} and
+ * {@link #decreaseKey(Comparable)} are cheaper, in <i>O(log_d n)</i>, while
+ * {@link #deleteMin()} compares up to {@code d} children per level, in
+ * <i>O(d log_d n)</i>. Since Dijkstra's algorithm decreases keys more often than
+ * it removes elements, 4-ary and 8-ary heaps are usually faster than binary
+ * ones.
+ * </p>
+ *
+ */
+public class IndexedDaryHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    // Value in the positions array for elements that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Number of children of each slot.
+    private final int arity;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    private E[] array;
+
+    // Position of each element in the heap array, by index.
+    private int[] positions;
+
+    /**
+     * Construct a new empty indexed d-ary heap.
+     *
+     * @param indexer Function returning the index of an element.
+     * @param arity Number of children of each slot (at least 2).
+     */
+    public IndexedDaryHeap(ToIntFunction<? super E> indexer, int arity) {
+        this(indexer, arity, 16);
+    }
+
+    /**
+     * Construct a new empty indexed d-ary heap that can hold elements whose index
+     * is lower than the given capacity without resizing.
+     *
+     * @param indexer Function returning the index of an element.
+     * @param arity Number of children of each slot (at least 2).
+     * @param capacity Initial capacity of the heap (e.g., number of nodes).
+     *
+     * @throws IllegalArgumentException if arity is lower than 2.
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedDaryHeap(ToIntFunction<? super E> indexer, int arity, int capacity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Invalid arity: " + arity);
+        }
+        this.indexer = indexer;
+        this.arity = arity;
+        this.currentSize = 0;
+        this.array = (E[]) new Comparable<?>[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Indexed d-ary heap to copy.
+     */
+    public IndexedDaryHeap(IndexedDaryHeap<E> heap) {
+        this.indexer = heap.indexer;
+        this.arity = heap.arity;
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.positions = Arrays.copyOf(heap.positions, heap.positions.length);
+    }
+
+    /**
+     * @return Number of children of each slot of this heap.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * Make sure that elements with the given index can be stored in this heap.
+     *
+     * @param index Index of an element.
+     */
+    private void ensureIndex(int index) {
+        if (index >= this.positions.length) {
+            int oldLength = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions, Math.max(index + 1, 2 * oldLength));
+            Arrays.fill(this.positions, oldLength, this.positions.length, NOT_IN_HEAP);
+        }
+    }
+
+    /**
+     * Put the given element at the given slot of the array, and update its
+     * position.
+     */
+    private void arraySet(int slot, E value) {
+        this.array[slot] = value;
+        this.positions[this.indexer.applyAsInt(value)] = slot;
+    }
+
+    /**
+     * @return Slot of the given element in the heap array, or -1 if the element is
+     *         not in the heap.
+     */
+    private int slotOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.positions.length) {
+            return NOT_IN_HEAP;
+        }
+        int slot = this.positions[index];
+        if (slot == NOT_IN_HEAP || this.array[slot] != x) {
+            return NOT_IN_HEAP;
+        }
+        return slot;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     */
+    private void percolateUp(int slot) {
+        E x = this.array[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / this.arity;
+            E parentValue = this.array[parent];
+            if (x.compareTo(parentValue) >= 0) {
+                break;
+            }
+            this.arraySet(slot, parentValue);
+            slot = parent;
+        }
+        this.arraySet(slot, x);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     */
+    private void percolateDown(int slot) {
+        E x = this.array[slot];
+        int first = slot * this.arity + 1;
+        while (first < this.currentSize) {
+            int ichild = first;
+            final int last = Math.min(first + this.arity, this.currentSize);
+            for (int i = first + 1; i < last; ++i) {
+                if (this.array[i].compareTo(this.array[ichild]) < 0) {
+                    ichild = i;
+                }
+            }
+            E child = this.array[ichild];
+            if (child.compareTo(x) >= 0) {
+                break;
+            }
+            this.arraySet(slot, child);
+            slot = ichild;
+            first = slot * this.arity + 1;
+        }
+        this.arraySet(slot, x);
+    }
+
+    /**
+     * Remove the element at the given slot.
+     */
+    private void removeAt(int slot) {
+        E removed = this.array[slot];
+        E lastElement = this.array[--this.currentSize];
+        this.array[this.currentSize] = null;
+        this.positions[this.indexer.applyAsInt(removed)] = NOT_IN_HEAP;
+
+        if (slot < this.currentSize) {
+            this.arraySet(slot, lastElement);
+            if (slot > 0
+                    && lastElement.compareTo(this.array[(slot - 1) / this.arity]) < 0) {
+                this.percolateUp(slot);
+            }
+            else {
+                this.percolateDown(slot);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return slotOf(x) != NOT_IN_HEAP;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if an element with the same index is already
+     *         in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        int index = this.indexer.applyAsInt(x);
+        ensureIndex(index);
+        if (this.positions[index] != NOT_IN_HEAP) {
+            throw new IllegalArgumentException("an element with index " + index
+                    + " is already in the heap: " + this.array[this.positions[index]]);
+        }
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, 2 * this.array.length);
+        }
+        int slot = this.currentSize++;
+        this.arraySet(slot, x);
+        this.percolateUp(slot);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int slot = slotOf(x);
+        if (slot == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        removeAt(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log_d n)</i>
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int slot = slotOf(x);
+        if (slot == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        percolateUp(slot);
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.array[0];
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        removeAt(0);
+        return minItem;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            this.positions[this.indexer.applyAsInt(this.array[slot])] = NOT_IN_HEAP;
+            this.array[slot] = null;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * Verify if the current heap is valid.
+     *
+     * @return true if the heap property holds and every element is at the position
+     *         recorded for its index.
+     */
+    public boolean isValid() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            if (this.positions[this.indexer.applyAsInt(this.array[slot])] != slot) {
+                return false;
+            }
+            if (slot > 0
+                    && this.array[slot].compareTo(this.array[(slot - 1) / this.arity]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[arity=" + this.arity + ", size="
+                + this.currentSize + "]";
+    }
+
+}
@@ -0,0 +1,283 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a binary heap of integer items (in {@code [0, capacity)}, e.g.,
+ * node IDs) with {@code double} keys, stored in parallel primitive arrays.
+ * </p>
+ *
+ * <p>
+ * Each item has a key and a tie-breaking key. Items are ordered as
+ * {@link org.insa.graphs.algorithm.shortestpath.Label labels}: by key when the
+ * keys differ by more than {@link #EPSILON}, by tie-breaking key otherwise. A
+ * search using this heap with the total cost as key and the alternate cost as
+ * tie-breaking key thus settles nodes in the same order as with an
+ * {@link IndexedBinaryHeap} of labels, without any object per node.
+ * </p>
+ *
+ */
+public class IndexedDoubleHeap {
+
+    /**
+     * Maximum difference between two keys considered as equal.
+     */
+    public static final double EPSILON = 1e-6;
+
+    // Value in the positions array for items that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Number of items in heap.
+    private int currentSize;
+
+    // The heap arrays: item, key and tie-breaking key of each slot.
+    private final int[] items;
+    private final double[] keys;
+    private final double[] tieKeys;
+
+    // Slot of each item in the heap arrays.
+    private final int[] positions;
+
+    /**
+     * Construct a new empty heap for items in {@code [0, capacity)}.
+     *
+     * @param capacity Number of items that can be stored (e.g., number of nodes).
+     */
+    public IndexedDoubleHeap(int capacity) {
+        this.currentSize = 0;
+        this.items = new int[capacity];
+        this.keys = new double[capacity];
+        this.tieKeys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Compare two entries (key and tie-breaking key) of the heap.
+     *
+     * @return A negative value, zero or a positive value if the first entry is
+     *         lower than, equal to or greater than the second one.
+     */
+    private static int compare(double key1, double tieKey1, double key2, double tieKey2) {
+        if (Math.abs(key1 - key2) > EPSILON) {
+            return Double.compare(key1, key2);
+        }
+        return Double.compare(tieKey1, tieKey2);
+    }
+
+    /**
+     * Put the given entry at the given slot of the arrays, and update the position
+     * of its item.
+     */
+    private void arraySet(int slot, int item, double key, double tieKey) {
+        this.items[slot] = item;
+        this.keys[slot] = key;
+        this.tieKeys[slot] = tieKey;
+        this.positions[item] = slot;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     */
+    private void percolateUp(int slot) {
+        final int item = this.items[slot];
+        final double key = this.keys[slot], tieKey = this.tieKeys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (compare(key, tieKey, this.keys[parent], this.tieKeys[parent]) >= 0) {
+                break;
+            }
+            this.arraySet(slot, this.items[parent], this.keys[parent], this.tieKeys[parent]);
+            slot = parent;
+        }
+        this.arraySet(slot, item, key, tieKey);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     */
+    private void percolateDown(int slot) {
+        final int item = this.items[slot];
+        final double key = this.keys[slot], tieKey = this.tieKeys[slot];
+        int ileft = slot * 2 + 1;
+        while (ileft < this.currentSize) {
+            int ichild = ileft;
+            int iright = ileft + 1;
+            if (iright < this.currentSize && compare(this.keys[iright], this.tieKeys[iright],
+                    this.keys[ileft], this.tieKeys[ileft]) < 0) {
+                ichild = iright;
+            }
+            if (compare(this.keys[ichild], this.tieKeys[ichild], key, tieKey) >= 0) {
+                break;
+            }
+            this.arraySet(slot, this.items[ichild], this.keys[ichild], this.tieKeys[ichild]);
+            slot = ichild;
+            ileft = slot * 2 + 1;
+        }
+        this.arraySet(slot, item, key, tieKey);
+    }
+
+    /**
+     * @return Number of items that can be stored (items are in
+     *         {@code [0, capacity)}).
+     */
+    public int getCapacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * @return Current number of items in the heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @param item Item to look for.
+     *
+     * @return true if the given item is in the heap.
+     */
+    public boolean contains(int item) {
+        return this.positions[item] != NOT_IN_HEAP;
+    }
+
+    /**
+     * @param item Item in the heap.
+     *
+     * @return Current key of the given item.
+     *
+     * @throws ElementNotFoundException if the item is not in the heap.
+     */
+    public double getKey(int item) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        return this.keys[this.positions[item]];
+    }
+
+    /**
+     * Insert the given item in the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item to insert.
+     * @param key Key of the item.
+     * @param tieKey Tie-breaking key of the item.
+     *
+     * @throws IllegalArgumentException if the item is already in the heap.
+     */
+    public void insert(int item, double key, double tieKey) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Item " + item + " is already in the heap");
+        }
+        int slot = this.currentSize++;
+        this.arraySet(slot, item, key, tieKey);
+        this.percolateUp(slot);
+    }
+
+    /**
+     * Decrease the keys of the given item.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param item Item in the heap.
+     * @param key New key of the item, lower than or equal to the current one.
+     * @param tieKey New tie-breaking key of the item.
+     *
+     * @throws ElementNotFoundException if the item is not in the heap.
+     */
+    public void decreaseKey(int item, double key, double tieKey) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        int slot = this.positions[item];
+        this.keys[slot] = key;
+        this.tieKeys[slot] = tieKey;
+        this.percolateUp(slot);
+    }
+
+    /**
+     * @return The item with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.items[0];
+    }
+
+    /**
+     * Remove the item with the smallest key from the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @return The removed item.
+     *
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        int minItem = findMin();
+        this.positions[minItem] = NOT_IN_HEAP;
+        int last = --this.currentSize;
+        if (last > 0) {
+            this.arraySet(0, this.items[last], this.keys[last], this.tieKeys[last]);
+            this.percolateDown(0);
+        }
+        return minItem;
+    }
+
+    /**
+     * Remove all the items from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where n is the current size of the heap.
+     * </p>
+     */
+    public void clear() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            this.positions[this.items[slot]] = NOT_IN_HEAP;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * Verify if the current heap is valid.
+     *
+     * @return true if the heap property holds and every item is at the position
+     *         recorded for it.
+     */
+    public boolean isValid() {
+        for (int slot = 0; slot < this.currentSize; ++slot) {
+            if (this.positions[this.items[slot]] != slot) {
+                return false;
+            }
+            int parent = (slot - 1) / 2;
+            if (slot > 0 && compare(this.keys[slot], this.tieKeys[slot], this.keys[parent],
+                    this.tieKeys[parent]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + this.currentSize + "]";
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * <p>
+ * Interface for priority queues of integer items (in {@code [0, capacity)})
+ * with non-negative integer keys, restricted to monotone workloads: the key of
+ * an inserted item, or the new key of an item, can never be lower than the key
+ * of the last item removed with {@link #deleteMin()}.
+ * </p>
+ *
+ * <p>
+ * This is the case of Dijkstra's algorithm with non-negative integer costs (see
+ * {@link org.insa.graphs.algorithm.WeightProfile#getQuantizedCost(int)}), and
+ * allows implementations based on buckets instead of comparisons.
+ * </p>
+ *
+ */
+public interface MonotonePriorityQueue {
+
+    /**
+     * @return Number of items that can be stored (items are in
+     *         {@code [0, capacity)}).
+     */
+    public int getCapacity();
+
+    /**
+     * Check if the priority queue is empty.
+     *
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty();
+
+    /**
+     * Get the number of items in this queue.
+     *
+     * @return Current number of items in the queue.
+     */
+    public int size();
+
+    /**
+     * @param item An item.
+     *
+     * @return true if the item is in this queue.
+     */
+    public boolean contains(int item);
+
+    /**
+     * @param item An item of this queue.
+     *
+     * @return Key of the item.
+     *
+     * @throws ElementNotFoundException if the item is not in this queue.
+     */
+    public long getKey(int item) throws ElementNotFoundException;
+
+    /**
+     * @return Key of the last item removed with {@link #deleteMin()}, or 0 if no
+     *         item has been removed yet. Keys lower than this one are rejected.
+     */
+    public long getLastKey();
+
+    /**
+     * Insert the given item with the given key.
+     *
+     * @param item Item to insert, not in this queue.
+     * @param key Key of the item.
+     *
+     * @throws IllegalArgumentException if the item is already in this queue, or
+     *         the key is lower than {@link #getLastKey()}.
+     */
+    public void insert(int item, long key);
+
+    /**
+     * Decrease the key of the given item.
+     *
+     * @param item Item of this queue.
+     * @param key New key of the item, lower or equal to its current key.
+     *
+     * @throws ElementNotFoundException if the item is not in this queue.
+     * @throws IllegalArgumentException if the key is greater than the current key
+     *         of the item, or lower than {@link #getLastKey()}.
+     */
+    public void decreaseKey(int item, long key) throws ElementNotFoundException;
+
+    /**
+     * Remove and return the item with the minimum key.
+     *
+     * @return The item with the minimum key.
+     *
+     * @throws EmptyPriorityQueueException if the queue is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException;
+
+    /**
+     * Remove all the items of this queue, and reset its last key to 0.
+     */
+    public void clear();
+
+}
@@ -0,0 +1,283 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a multi-level bucket queue: keys are written in base
+ * {@code 2^bitsPerLevel}, and an item whose key first differs from the last
+ * removed key at digit {@code l} is stored in the bucket of level {@code l}
+ * indexed by this digit. The items of level 0 are the smallest ones, and all the
+ * items of a bucket of level 0 have the same key.
+ * </p>
+ *
+ * <p>
+ * When level 0 is empty, the first non-empty bucket of the lowest non-empty
+ * level is scanned for its minimum key, which becomes the last key, and its
+ * items are redistributed to lower levels. Each item thus moves down at most
+ * once per level, and {@link #deleteMin()} runs in amortized
+ * <i>O(levels + 2^bitsPerLevel / 64)</i> regardless of the number of items.
+ * Insertion, {@link #decreaseKey(int, long)} and {@link #contains(int)} run in
+ * <i>O(1)</i>.
+ * </p>
+ *
+ */
+public class MultiLevelBucketQueue implements MonotonePriorityQueue {
+
+    /**
+     * Default number of bits of the digit of each level.
+     */
+    public static final int DEFAULT_BITS_PER_LEVEL = 8;
+
+    // Value in the buckets array for items that are not in the queue, and of
+    // the links at the end of bucket lists.
+    private static final int NONE = -1;
+
+    // Number of bits of each digit, number of buckets of each level, and number of
+    // levels (keys are non-negative, thus have 63 bits).
+    private final int bits, radix, nbLevels;
+
+    // Number of words of the non-empty bucket masks of each level.
+    private final int nbWords;
+
+    // First item of each bucket (by level * radix + digit).
+    private final int[] heads;
+
+    // Non-empty buckets of each level, and non-empty levels.
+    private final long[] nonEmptyBuckets;
+    private long nonEmptyLevels;
+
+    // Key, bucket and links to the previous and next items in the bucket of each
+    // item.
+    private final long[] keys;
+    private final int[] buckets, previous, next;
+
+    // Number of items, and key of the last removed item.
+    private int size;
+    private long lastKey;
+
+    /**
+     * Construct a new empty queue with {@link #DEFAULT_BITS_PER_LEVEL}.
+     *
+     * @param capacity Number of items that can be stored.
+     */
+    public MultiLevelBucketQueue(int capacity) {
+        this(capacity, DEFAULT_BITS_PER_LEVEL);
+    }
+
+    /**
+     * Construct a new empty queue.
+     *
+     * @param capacity Number of items that can be stored.
+     * @param bitsPerLevel Number of bits of the digit of each level (between 1 and
+     *        16): more bits means fewer levels (thus fewer moves between levels)
+     *        but more buckets per level.
+     *
+     * @throws IllegalArgumentException if the number of bits is not between 1 and
+     *         16.
+     */
+    public MultiLevelBucketQueue(int capacity, int bitsPerLevel) {
+        if (bitsPerLevel < 1 || bitsPerLevel > 16) {
+            throw new IllegalArgumentException(
+                    "Invalid number of bits per level: " + bitsPerLevel);
+        }
+        this.bits = bitsPerLevel;
+        this.radix = 1 << bitsPerLevel;
+        this.nbLevels = (63 + bitsPerLevel - 1) / bitsPerLevel;
+        this.nbWords = Math.max(1, this.radix / 64);
+        this.heads = new int[this.nbLevels * this.radix];
+        Arrays.fill(this.heads, NONE);
+        this.nonEmptyBuckets = new long[this.nbLevels * this.nbWords];
+        this.nonEmptyLevels = 0;
+        this.keys = new long[capacity];
+        this.buckets = new int[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+        Arrays.fill(this.buckets, NONE);
+        this.size = 0;
+        this.lastKey = 0;
+    }
+
+    /**
+     * @return Bucket where an item with the given key should be stored.
+     */
+    private int bucketOf(long key) {
+        final long difference = key ^ this.lastKey;
+        final int level = difference == 0 ? 0
+                : (63 - Long.numberOfLeadingZeros(difference)) / this.bits;
+        final int digit = (int) (key >>> (level * this.bits)) & (this.radix - 1);
+        return level * this.radix + digit;
+    }
+
+    /**
+     * @return First non-empty bucket of the given (non-empty) level.
+     */
+    private int firstBucket(int level) {
+        for (int word = 0; word < this.nbWords; ++word) {
+            final long mask = this.nonEmptyBuckets[level * this.nbWords + word];
+            if (mask != 0) {
+                return level * this.radix + word * 64 + Long.numberOfTrailingZeros(mask);
+            }
+        }
+        throw new IllegalStateException("level " + level + " is empty");
+    }
+
+    /**
+     * Add the given item at the head of the given bucket.
+     */
+    private void link(int item, int bucket) {
+        final int head = this.heads[bucket];
+        this.previous[item] = NONE;
+        this.next[item] = head;
+        if (head != NONE) {
+            this.previous[head] = item;
+        }
+        else {
+            final int level = bucket / this.radix, digit = bucket % this.radix;
+            this.nonEmptyBuckets[level * this.nbWords + digit / 64] |= 1L << digit;
+            this.nonEmptyLevels |= 1L << level;
+        }
+        this.heads[bucket] = item;
+        this.buckets[item] = bucket;
+    }
+
+    /**
+     * Remove the given item from its bucket.
+     */
+    private void unlink(int item) {
+        final int bucket = this.buckets[item];
+        final int before = this.previous[item], after = this.next[item];
+        if (before != NONE) {
+            this.next[before] = after;
+        }
+        else {
+            this.heads[bucket] = after;
+        }
+        if (after != NONE) {
+            this.previous[after] = before;
+        }
+        this.buckets[item] = NONE;
+        if (this.heads[bucket] == NONE) {
+            markEmpty(bucket);
+        }
+    }
+
+    /**
+     * Update the masks of non-empty buckets and levels for the given bucket, that
+     * has just become empty.
+     */
+    private void markEmpty(int bucket) {
+        final int level = bucket / this.radix, digit = bucket % this.radix;
+        this.nonEmptyBuckets[level * this.nbWords + digit / 64] &= ~(1L << digit);
+        boolean empty = true;
+        for (int word = 0; word < this.nbWords && empty; ++word) {
+            empty = this.nonEmptyBuckets[level * this.nbWords + word] == 0;
+        }
+        if (empty) {
+            this.nonEmptyLevels &= ~(1L << level);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(int item) {
+        return this.buckets[item] != NONE;
+    }
+
+    @Override
+    public long getKey(int item) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        return this.keys[item];
+    }
+
+    @Override
+    public long getLastKey() {
+        return this.lastKey;
+    }
+
+    @Override
+    public void insert(int item, long key) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Item " + item + " is already in the queue");
+        }
+        if (key < this.lastKey) {
+            throw new IllegalArgumentException(
+                    "Key " + key + " is lower than the last key " + this.lastKey);
+        }
+        this.keys[item] = key;
+        link(item, bucketOf(key));
+        this.size += 1;
+    }
+
+    @Override
+    public void decreaseKey(int item, long key) throws ElementNotFoundException {
+        if (!contains(item)) {
+            throw new ElementNotFoundException(item);
+        }
+        if (key > this.keys[item] || key < this.lastKey) {
+            throw new IllegalArgumentException("Invalid new key " + key + " for item " + item);
+        }
+        unlink(item);
+        this.keys[item] = key;
+        link(item, bucketOf(key));
+    }
+
+    @Override
+    public int deleteMin() throws EmptyPriorityQueueException {
+        if (this.size == 0) {
+            throw new EmptyPriorityQueueException();
+        }
+        if ((this.nonEmptyLevels & 1) == 0) {
+            // Move the first bucket of the lowest level to lower levels, relative
+            // to its minimum key.
+            final int bucket = firstBucket(Long.numberOfTrailingZeros(this.nonEmptyLevels));
+            long minKey = Long.MAX_VALUE;
+            for (int item = this.heads[bucket]; item != NONE; item = this.next[item]) {
+                minKey = Math.min(minKey, this.keys[item]);
+            }
+            this.lastKey = minKey;
+            int item = this.heads[bucket];
+            this.heads[bucket] = NONE;
+            markEmpty(bucket);
+            while (item != NONE) {
+                final int following = this.next[item];
+                link(item, bucketOf(this.keys[item]));
+                item = following;
+            }
+        }
+        final int item = this.heads[firstBucket(0)];
+        unlink(item);
+        this.lastKey = this.keys[item];
+        this.size -= 1;
+        return item;
+    }
+
+    @Override
+    public void clear() {
+        while (this.nonEmptyLevels != 0) {
+            final int bucket = firstBucket(Long.numberOfTrailingZeros(this.nonEmptyLevels));
+            while (this.heads[bucket] != NONE) {
+                unlink(this.heads[bucket]);
+            }
+        }
+        this.size = 0;
+        this.lastKey = 0;
+    }
+
+}
@@ -0,0 +1,331 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a pairing heap containing elements of type E, where each element is
+ * associated to a unique non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * The heap is a tree where each node is lower or equal to its children.
+ * {@link #insert(Comparable)} and {@link #decreaseKey(Comparable)} simply link a
+ * tree with the root, in <i>O(1)</i>. {@link #deleteMin()} melds the children
+ * of the root in two passes (by pairs from left to right, then from right to
+ * left), in amortized <i>O(log n)</i>.
+ * </p>
+ *
+ * <p>
+ * Tree nodes are kept by index and reused when an element with the same index
+ * is inserted again, so a heap used by successive searches stops allocating
+ * once all the indices have been seen.
+ * </p>
+ *
+ */
+public class PairingHeap<E extends Comparable<E>> implements AddressablePriorityQueue<E> {
+
+    /**
+     * Node of the tree.
+     */
+    private static final class Entry<E> {
+
+        // Element of this node (null if the node is not in the heap).
+        private E element;
+
+        // First child, next sibling, and previous sibling (or parent for the
+        // first child).
+        private Entry<E> child, sibling, previous;
+
+    }
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Node of each index.
+    private Entry<E>[] entries;
+
+    // Root of the tree, and number of elements.
+    private Entry<E> root;
+    private int currentSize;
+
+    /**
+     * Construct a new empty pairing heap.
+     *
+     * @param indexer Function returning the index of an element.
+     */
+    public PairingHeap(ToIntFunction<? super E> indexer) {
+        this(indexer, 16);
+    }
+
+    /**
+     * Construct a new empty pairing heap that can hold elements whose index is
+     * lower than the given capacity without resizing.
+     *
+     * @param indexer Function returning the index of an element.
+     * @param capacity Initial capacity of the heap (e.g., number of nodes).
+     */
+    @SuppressWarnings("unchecked")
+    public PairingHeap(ToIntFunction<? super E> indexer, int capacity) {
+        this.indexer = indexer;
+        this.entries = (Entry<E>[]) new Entry<?>[Math.max(capacity, 1)];
+        this.root = null;
+        this.currentSize = 0;
+    }
+
+    /**
+     * Construct a copy of the given heap (with the same elements, but not the same
+     * tree).
+     *
+     * @param heap Pairing heap to copy.
+     */
+    public PairingHeap(PairingHeap<E> heap) {
+        this(heap.indexer, heap.entries.length);
+        heap.forEachEntry(entry -> insert(entry.element));
+    }
+
+    /**
+     * Apply the given action to all the nodes of the tree, after their links have
+     * been read.
+     */
+    private void forEachEntry(Consumer<Entry<E>> action) {
+        ArrayDeque<Entry<E>> stack = new ArrayDeque<>();
+        if (this.root != null) {
+            stack.push(this.root);
+        }
+        while (!stack.isEmpty()) {
+            Entry<E> entry = stack.pop();
+            if (entry.sibling != null) {
+                stack.push(entry.sibling);
+            }
+            if (entry.child != null) {
+                stack.push(entry.child);
+            }
+            action.accept(entry);
+        }
+    }
+
+    /**
+     * @return Node of the given element, or null if the element is not in the
+     *         heap.
+     */
+    private Entry<E> entryOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.entries.length) {
+            return null;
+        }
+        Entry<E> entry = this.entries[index];
+        return entry != null && entry.element == x ? entry : null;
+    }
+
+    /**
+     * Link the two given roots (without sibling), the greatest one becoming the
+     * first child of the other.
+     *
+     * @return The new root.
+     */
+    private Entry<E> link(Entry<E> a, Entry<E> b) {
+        if (b.element.compareTo(a.element) < 0) {
+            Entry<E> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        b.sibling = a.child;
+        if (a.child != null) {
+            a.child.previous = b;
+        }
+        b.previous = a;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Detach the given node (and its subtree) from its parent and siblings.
+     */
+    private void cut(Entry<E> entry) {
+        if (entry.previous.child == entry) {
+            entry.previous.child = entry.sibling;
+        }
+        else {
+            entry.previous.sibling = entry.sibling;
+        }
+        if (entry.sibling != null) {
+            entry.sibling.previous = entry.previous;
+        }
+        entry.sibling = null;
+        entry.previous = null;
+    }
+
+    /**
+     * Meld the given list of siblings in two passes.
+     *
+     * @return The new root, or null if the list is empty.
+     */
+    private Entry<E> mergePairs(Entry<E> first) {
+        // First pass: link pairs from left to right, stacking the results
+        // (through their sibling links).
+        Entry<E> pairs = null;
+        Entry<E> entry = first;
+        while (entry != null) {
+            Entry<E> a = entry, b = entry.sibling;
+            entry = b == null ? null : b.sibling;
+            a.sibling = null;
+            a.previous = null;
+            if (b != null) {
+                b.sibling = null;
+                b.previous = null;
+                a = link(a, b);
+            }
+            a.sibling = pairs;
+            pairs = a;
+        }
+
+        // Second pass: link the results from right to left.
+        Entry<E> result = pairs;
+        if (result != null) {
+            pairs = result.sibling;
+            result.sibling = null;
+            while (pairs != null) {
+                Entry<E> next = pairs.sibling;
+                pairs.sibling = null;
+                result = link(result, pairs);
+                pairs = next;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Release the given node, that has been removed from the tree.
+     */
+    private void release(Entry<E> entry) {
+        entry.element = null;
+        entry.child = null;
+        entry.sibling = null;
+        entry.previous = null;
+        this.currentSize -= 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return entryOf(x) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @throws IllegalArgumentException if an element with the same index is already
+     *         in the heap.
+     */
+    @Override
+    public void insert(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index >= this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, Math.max(index + 1, 2 * this.entries.length));
+        }
+        Entry<E> entry = this.entries[index];
+        if (entry == null) {
+            entry = new Entry<>();
+            this.entries[index] = entry;
+        }
+        else if (entry.element != null) {
+            throw new IllegalArgumentException("an element with index " + index
+                    + " is already in the heap: " + entry.element);
+        }
+        entry.element = x;
+        this.root = this.root == null ? entry : link(this.root, entry);
+        this.currentSize += 1;
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (entry == this.root) {
+            deleteMin();
+            return;
+        }
+        cut(entry);
+        Entry<E> subtree = mergePairs(entry.child);
+        if (subtree != null) {
+            this.root = link(this.root, subtree);
+        }
+        release(entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        Entry<E> entry = entryOf(x);
+        if (entry == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (entry != this.root) {
+            cut(entry);
+            this.root = link(this.root, entry);
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.root.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * <b>Complexity:</b> amortized <i>O(log n)</i>
+     * </p>
+     */
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        Entry<E> oldRoot = this.root;
+        this.root = mergePairs(oldRoot.child);
+        release(oldRoot);
+        return minItem;
+    }
+
+    @Override
+    public void clear() {
+        // The links of a node are read before the action is applied, so the
+        // nodes can be released during the traversal.
+        forEachEntry(this::release);
+        this.root = null;
+        this.currentSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + this.currentSize + "]";
+    }
+
+}
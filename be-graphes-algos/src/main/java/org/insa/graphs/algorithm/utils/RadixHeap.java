@@ -0,0 +1,31 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * <p>
+ * Implements a radix heap: an item whose key first differs from the last
+ * removed key at bit {@code i} is stored in bucket {@code i} (items whose key is
+ * the last key being stored in bucket 0), so buckets cover exponentially
+ * growing ranges of keys above the last key.
+ * </p>
+ *
+ * <p>
+ * This is exactly a {@link MultiLevelBucketQueue} with one bit per level
+ * (above level 0, the only non-empty bucket of a level is the one of digit 1),
+ * and it shares its implementation: each item moves down at most 63 times, and
+ * {@link #deleteMin()} runs in amortized <i>O(log C)</i> where {@code C} is the
+ * largest difference between two keys of the queue.
+ * </p>
+ *
+ */
+public class RadixHeap extends MultiLevelBucketQueue {
+
+    /**
+     * Construct a new empty radix heap.
+     *
+     * @param capacity Number of items that can be stored.
+     */
+    public RadixHeap(int capacity) {
+        super(capacity, 1);
+    }
+
+}
@@ -15,6 +15,10 @@ import org.insa.graphs.model.Node;
 public class WeaklyConnectedComponentsAlgorithm
         extends AbstractAlgorithm<WeaklyConnectedComponentObserver> {
 
+    // Status returned by checkInterruption() if the current run has been
+    // interrupted, null otherwise.
+    private Status interruption;
+
     /**
      * @param data Input data for this algorithm.
      */
@@ -91,7 +95,9 @@ public class WeaklyConnectedComponentsAlgorithm
 
     /**
      * Apply a breadth first search algorithm on the given undirected graph
-     * (adjacency list), starting at node cur, and marking nodes in marked.
+     * (adjacency list), starting at node cur, and marking nodes in marked. The
+     * search stops early (with an incomplete component) if the algorithm is
+     * interrupted (see {@link #checkInterruption()}).
      * 
      * @param marked
      * @param cur
@@ -112,6 +118,11 @@ public class WeaklyConnectedComponentsAlgorithm
         queue.add(cur);
         marked[cur] = true;
         while (!queue.isEmpty()) {
+            this.interruption = checkInterruption();
+            if (this.interruption != null) {
+                break;
+            }
+
             Node node = graph.get(queue.remove());
             component.add(node);
 
@@ -143,10 +154,15 @@ public class WeaklyConnectedComponentsAlgorithm
         ArrayList<ArrayList<Node>> components = new ArrayList<ArrayList<Node>>();
 
         // perform algorithm
+        this.interruption = null;
         int cur = 0;
         while (cur < marked.length) {
             // Apply BFS
             components.add(this.bfs(ugraph, marked, cur));
+            if (this.interruption != null) {
+                return new WeaklyConnectedComponentsSolution(getInputData(), this.interruption,
+                        components);
+            }
 
             // Find next non-marked
             for (; cur < marked.length && marked[cur]; ++cur)
@@ -49,7 +49,8 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
                 nGt10 += 1;
             }
         }
-        return "Found " + components.size() + " components (" + nGt10 + " with more than 10 nodes, "
+        String stopped = isInterrupted() ? " (" + getStatus() + ", incomplete)" : "";
+        return "Found " + components.size() + " components" + stopped + " (" + nGt10 + " with more than 10 nodes, "
                 + nIsolated + " isolated nodes) in " + getSolvingTime().getSeconds() + " seconds.";
 
     }
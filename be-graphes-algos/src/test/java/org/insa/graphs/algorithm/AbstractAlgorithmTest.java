@@ -0,0 +1,286 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm.RelaxationStrategy;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalAStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyBuilder;
+import org.insa.graphs.algorithm.shortestpath.CustomizableContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.CustomizableContractionHierarchyAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm.QueueStrategy;
+import org.insa.graphs.algorithm.shortestpath.LandmarkTable;
+import org.insa.graphs.algorithm.shortestpath.LandmarkTable.Selection;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathObserver;
+import org.insa.graphs.algorithm.shortestpath.TestGraphs;
+import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentObserver;
+import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
+import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsData;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AbstractAlgorithmTest {
+
+    // Random graph used for tests, and a query whose search explores all the
+    // nodes reachable from its origin.
+    private static Graph graph;
+    private static ShortestPathData data;
+
+    // Query on a smaller graph, for algorithms with a preprocessing.
+    private static ShortestPathData smallData;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(5000, 15000, 3);
+        CompactGraph compact = graph.getCompactGraph();
+        int destination = 0;
+        while (compact.getFirstIncomingArc(destination) != compact
+                .getFirstIncomingArc(destination + 1)) {
+            ++destination;
+        }
+        data = new ShortestPathData(graph, graph.get(destination == 0 ? 1 : 0),
+                graph.get(destination), ArcInspectorFactory.getAllFilters().get(0));
+
+        Graph smallGraph = TestGraphs.randomGraph(400, 1200, 3);
+        smallData = new ShortestPathData(smallGraph, smallGraph.get(0), smallGraph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    /**
+     * Observer counting the nodes processed by an algorithm, that cancels the
+     * given token after the given number of nodes.
+     */
+    private static class CancellingObserver
+            implements ShortestPathObserver, WeaklyConnectedComponentObserver {
+
+        private final CancellationToken token;
+        private final int limit;
+        private int nbNodes = 0;
+
+        private CancellingObserver(CancellationToken token, int limit) {
+            this.token = token;
+            this.limit = limit;
+        }
+
+        private void count() {
+            if (++this.nbNodes == this.limit) {
+                this.token.cancel();
+            }
+        }
+
+        @Override
+        public void notifyOriginProcessed(Node node) {
+        }
+
+        @Override
+        public void notifyNodeReached(Node node) {
+            count();
+        }
+
+        @Override
+        public void notifyNodeMarked(Node node) {
+        }
+
+        @Override
+        public void notifyDestinationReached(Node node) {
+        }
+
+        @Override
+        public void notifyStartComponent(Node curNode) {
+        }
+
+        @Override
+        public void notifyNewNodeInComponent(Node node) {
+            count();
+        }
+
+        @Override
+        public void notifyEndComponent(ArrayList<Node> nodes) {
+        }
+
+    }
+
+    /**
+     * @return Functions creating the algorithms that support interruptions.
+     */
+    private static List<Supplier<AbstractAlgorithm<?>>> algorithms() {
+        List<Supplier<AbstractAlgorithm<?>>> algorithms = new ArrayList<>();
+        for (QueueStrategy strategy: QueueStrategy.values()) {
+            algorithms.add(() -> {
+                DijkstraAlgorithm algorithm = new DijkstraAlgorithm(data);
+                algorithm.setQueueStrategy(strategy);
+                return algorithm;
+            });
+        }
+        algorithms.add(() -> new AStarAlgorithm(data));
+        for (RelaxationStrategy strategy: RelaxationStrategy.values()) {
+            algorithms.add(() -> {
+                BellmanFordAlgorithm algorithm = new BellmanFordAlgorithm(data);
+                algorithm.setRelaxationStrategy(strategy);
+                return algorithm;
+            });
+        }
+        algorithms.add(() -> new WeaklyConnectedComponentsAlgorithm(
+                new WeaklyConnectedComponentsData(graph)));
+        return algorithms;
+    }
+
+    /**
+     * @return Functions creating the algorithms that support interruptions,
+     *         including those whose search on the test query is too short to be
+     *         cancelled by an observer (bidirectional and preprocessed searches).
+     */
+    private static List<Supplier<AbstractAlgorithm<?>>> allAlgorithms() {
+        List<Supplier<AbstractAlgorithm<?>>> algorithms = algorithms();
+        algorithms.add(() -> new BidirectionalDijkstraAlgorithm(data));
+        algorithms.add(() -> new BidirectionalAStarAlgorithm(data));
+        algorithms.add(() -> new ALTAlgorithm(smallData));
+        algorithms.add(() -> new ContractionHierarchyAlgorithm(smallData));
+        algorithms.add(() -> new CustomizableContractionHierarchyAlgorithm(smallData));
+        return algorithms;
+    }
+
+    @Test
+    public void testNoInterruption() {
+        for (Supplier<AbstractAlgorithm<?>> supplier: allAlgorithms()) {
+            AbstractAlgorithm<?> algorithm = supplier.get();
+            algorithm.setCancellationToken(new CancellationToken());
+            algorithm.setTimeout(Duration.ofHours(1));
+            assertFalse(algorithm.run().isInterrupted());
+        }
+    }
+
+    @Test
+    public void testCancelledToken() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        for (Supplier<AbstractAlgorithm<?>> supplier: allAlgorithms()) {
+            AbstractAlgorithm<?> algorithm = supplier.get();
+            algorithm.setCancellationToken(token);
+            AbstractSolution solution = algorithm.run();
+            assertTrue(solution.isInterrupted());
+            assertEquals(Status.CANCELLED, solution.getStatus());
+        }
+    }
+
+    @Test
+    public void testCancellationDuringRun() {
+        for (Supplier<AbstractAlgorithm<?>> supplier: algorithms()) {
+            AbstractAlgorithm<?> algorithm = supplier.get();
+            CancellationToken token = new CancellationToken();
+            CancellingObserver observer = new CancellingObserver(token, 100);
+            if (algorithm instanceof ShortestPathAlgorithm) {
+                ((ShortestPathAlgorithm) algorithm).addObserver(observer);
+            }
+            else {
+                ((WeaklyConnectedComponentsAlgorithm) algorithm).addObserver(observer);
+            }
+            algorithm.setCancellationToken(token);
+            assertEquals(token, algorithm.getCancellationToken());
+            assertEquals(Status.CANCELLED, algorithm.run().getStatus());
+
+            // Each node processed after the cancellation may reach all its
+            // successors.
+            assertTrue(observer.nbNodes < 100 + 16 * AbstractAlgorithm.CHECK_INTERVAL);
+        }
+    }
+
+    @Test
+    public void testTimeout() {
+        for (Supplier<AbstractAlgorithm<?>> supplier: allAlgorithms()) {
+            AbstractAlgorithm<?> algorithm = supplier.get();
+            algorithm.setTimeout(Duration.ZERO);
+            assertEquals(Duration.ZERO, algorithm.getTimeout());
+            assertEquals(Status.TIMEOUT, algorithm.run().getStatus());
+
+            // The timeout applies to each run.
+            algorithm.setTimeout(null);
+            assertFalse(algorithm.run().isInterrupted());
+        }
+    }
+
+    @Test
+    public void testThreadInterruption() {
+        for (Supplier<AbstractAlgorithm<?>> supplier: allAlgorithms()) {
+            AbstractAlgorithm<?> algorithm = supplier.get();
+            Thread.currentThread().interrupt();
+            try {
+                assertEquals(Status.CANCELLED, algorithm.run().getStatus());
+            }
+            finally {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Test
+    public void testPreprocessingInterruption() {
+        // Graph whose landmarks and hierarchies have not been computed by other
+        // tests.
+        Graph other = TestGraphs.randomGraph(300, 900, 11);
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        List<Runnable> preprocessings = new ArrayList<>();
+        preprocessings.add(() -> new ContractionHierarchyBuilder(other, inspector).build());
+        preprocessings.add(() -> CustomizableContractionHierarchy.compute(other));
+        preprocessings.add(
+                () -> LandmarkTable.compute(other, inspector, 8, Selection.AVOID, 0));
+        for (Runnable preprocessing: preprocessings) {
+            Thread.currentThread().interrupt();
+            try {
+                preprocessing.run();
+                fail("preprocessing not interrupted");
+            }
+            catch (CancellationException e) {
+                // Expected.
+            }
+            finally {
+                Thread.interrupted();
+            }
+        }
+
+        ShortestPathData query = new ShortestPathData(other, other.get(0), other.get(1),
+                inspector);
+        List<Supplier<ShortestPathAlgorithm>> algorithms = new ArrayList<>();
+        algorithms.add(() -> new ALTAlgorithm(query));
+        algorithms.add(() -> new ContractionHierarchyAlgorithm(query));
+        algorithms.add(() -> new CustomizableContractionHierarchyAlgorithm(query));
+        for (Supplier<ShortestPathAlgorithm> supplier: algorithms) {
+            Thread.currentThread().interrupt();
+            try {
+                assertEquals(Status.CANCELLED, supplier.get().run().getStatus());
+            }
+            finally {
+                Thread.interrupted();
+            }
+
+            // The interrupted preprocessing is not cached.
+            assertFalse(supplier.get().run().isInterrupted());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimeout() {
+        new DijkstraAlgorithm(data).setTimeout(Duration.ofSeconds(-1));
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.shortestpath.TestGraphs;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class InspectorCacheTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(200, 600, 5);
+    }
+
+    /**
+     * Inspector allowing all the arcs, with their length plus an offset as cost,
+     * identified in caches by its offset.
+     */
+    private static class OffsetInspector implements ArcInspector {
+
+        private final int offset;
+
+        private OffsetInspector(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return true;
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getLength() + this.offset;
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.LENGTH;
+        }
+
+        @Override
+        public Object cacheKey() {
+            return Arrays.asList(OffsetInspector.class, this.offset);
+        }
+
+        @Override
+        public String toString() {
+            return "Length plus " + this.offset;
+        }
+
+    }
+
+    /**
+     * @return A new instance of an inspector without cache key, described as the
+     *         inspector with an offset of 0.
+     */
+    private static ArcInspector undescribed() {
+        return new ArcInspector() {
+
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return true;
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return arc.getLength();
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return GraphStatistics.NO_MAXIMUM_SPEED;
+            }
+
+            @Override
+            public Mode getMode() {
+                return Mode.LENGTH;
+            }
+
+            @Override
+            public String toString() {
+                return new OffsetInspector(0).toString();
+            }
+
+        };
+    }
+
+    /**
+     * Cache counting the computed values.
+     */
+    private static class CountingCache {
+
+        private int nbComputed = 0;
+
+        private final InspectorCache<Integer> cache = new InspectorCache<>(2,
+                (graph, inspector) -> ++this.nbComputed);
+
+    }
+
+    @Test
+    public void testSameFilters() {
+        List<ArcInspector> expected = ArcInspectorFactory.getAllFilters();
+        List<ArcInspector> actual = ArcInspectorFactory.getAllFilters();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertSame(expected.get(i), actual.get(i));
+            assertSame(WeightProfile.of(graph, expected.get(i)),
+                    WeightProfile.of(graph, actual.get(i)));
+        }
+    }
+
+    @Test
+    public void testEquivalentInspectors() {
+        assertSame(WeightProfile.of(graph, new OffsetInspector(1)),
+                WeightProfile.of(graph, new OffsetInspector(1)));
+        assertNotSame(WeightProfile.of(graph, new OffsetInspector(1)),
+                WeightProfile.of(graph, new OffsetInspector(2)));
+    }
+
+    @Test
+    public void testInspectorsWithoutKey() {
+        // Inspectors that do not override cacheKey() are identified by instance,
+        // whatever their description.
+        CountingCache counting = new CountingCache();
+        ArcInspector inspector = undescribed();
+        assertEquals(1, (int) counting.cache.get(graph, inspector));
+        assertEquals(1, (int) counting.cache.get(graph, inspector));
+        assertNull(counting.cache.getIfPresent(graph, undescribed()));
+        assertEquals(2, (int) counting.cache.get(graph, undescribed()));
+        assertNull(counting.cache.getIfPresent(graph, new OffsetInspector(0)));
+        assertEquals(3, (int) counting.cache.get(graph, new OffsetInspector(0)));
+    }
+
+    @Test
+    public void testCapacity() {
+        CountingCache counting = new CountingCache();
+        assertEquals(2, counting.cache.getCapacity());
+        assertEquals(1, (int) counting.cache.get(graph, new OffsetInspector(1)));
+        assertEquals(2, (int) counting.cache.get(graph, new OffsetInspector(2)));
+
+        // Accessing the first value makes the second one the least recently used.
+        assertEquals(1, (int) counting.cache.get(graph, new OffsetInspector(1)));
+        assertEquals(3, (int) counting.cache.get(graph, new OffsetInspector(3)));
+        assertEquals(1, (int) counting.cache.getIfPresent(graph, new OffsetInspector(1)));
+        assertNull(counting.cache.getIfPresent(graph, new OffsetInspector(2)));
+        assertEquals(4, (int) counting.cache.get(graph, new OffsetInspector(2)));
+        assertEquals(4, counting.nbComputed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new InspectorCache<>(0, (graph, inspector) -> null);
+    }
+
+}
@@ -0,0 +1,178 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixAlgorithm.Method;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyBuilder;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.shortestpath.TestGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DistanceMatrixAlgorithmTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspector used for tests, and corresponding hierarchy.
+    private static ArcInspector inspector;
+    private static ContractionHierarchy hierarchy;
+
+    // Sources and targets (with a duplicate and a node in both lists).
+    private static List<Node> sources, targets;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspector = ArcInspectorFactory.getAllFilters().get(2);
+        hierarchy = new ContractionHierarchyBuilder(graph, inspector).build();
+
+        Random random = new Random(3);
+        sources = new ArrayList<>();
+        targets = new ArrayList<>();
+        for (int i = 0; i < 12; ++i) {
+            sources.add(graph.get(random.nextInt(graph.size())));
+            targets.add(graph.get(random.nextInt(graph.size())));
+        }
+        targets.add(targets.get(0));
+        targets.add(sources.get(0));
+    }
+
+    /**
+     * @return Cost of the given path for the inspector of the tests.
+     */
+    private static double cost(Path path) {
+        return path.getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check the given solution against Dijkstra.
+     */
+    private static void check(DistanceMatrixSolution solution, boolean paths) {
+        for (int row = 0; row < sources.size(); ++row) {
+            for (int column = 0; column < targets.size(); ++column) {
+                Node source = sources.get(row), target = targets.get(column);
+                double distance = solution.getDistance(row, column);
+                if (source.equals(target)) {
+                    assertEquals(0, distance, 0);
+                    continue;
+                }
+                ShortestPathSolution expected = new DijkstraAlgorithm(
+                        new ShortestPathData(graph, source, target, inspector)).run();
+                if (!expected.isFeasible()) {
+                    assertTrue(Double.isInfinite(distance));
+                    assertNull(solution.getPath(row, column));
+                    continue;
+                }
+                double expectedCost = cost(expected.getPath());
+                assertEquals(expectedCost, distance, 1e-6 * expectedCost);
+                if (paths) {
+                    Path path = solution.getPath(row, column);
+                    assertTrue(path.isValid());
+                    assertEquals(source, path.getOrigin());
+                    assertEquals(target, path.getDestination());
+                    assertEquals(expectedCost, cost(path), 1e-6 * expectedCost);
+                }
+                else {
+                    assertNull(solution.getPath(row, column));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDijkstra() {
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                new DistanceMatrixData(graph, sources, targets, inspector), null);
+        assertEquals(Method.ONE_TO_MANY_DIJKSTRA, algorithm.getMethod());
+        check(algorithm.run(), false);
+    }
+
+    @Test
+    public void testDijkstraPaths() {
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                new DistanceMatrixData(graph, sources, targets, inspector, true), null);
+        check(algorithm.run(), true);
+    }
+
+    @Test
+    public void testBuckets() {
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                new DistanceMatrixData(graph, sources, targets, inspector), hierarchy);
+        assertEquals(Method.CH_BUCKETS, algorithm.getMethod());
+        check(algorithm.run(), false);
+    }
+
+    @Test
+    public void testBucketsPaths() {
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                new DistanceMatrixData(graph, sources, targets, inspector, true), hierarchy);
+        check(algorithm.run(), true);
+    }
+
+    @Test
+    public void testSmallMatrix() {
+        DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                new DistanceMatrixData(graph, sources.subList(0, 2), targets.subList(0, 3),
+                        inspector),
+                hierarchy);
+        assertEquals(Method.ONE_TO_MANY_DIJKSTRA, algorithm.getMethod());
+    }
+
+    @Test
+    public void testSequential() {
+        for (ContractionHierarchy used: new ContractionHierarchy[] { null, hierarchy }) {
+            DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                    new DistanceMatrixData(graph, sources, targets, inspector, true), used);
+            algorithm.setParallelism(1);
+            assertEquals(1, algorithm.getParallelism());
+            check(algorithm.run(), true);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new DistanceMatrixAlgorithm(new DistanceMatrixData(graph, sources, targets, inspector),
+                null).setParallelism(0);
+    }
+
+    @Test
+    public void testObserver() {
+        for (ContractionHierarchy used: new ContractionHierarchy[] { null, hierarchy }) {
+            DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                    new DistanceMatrixData(graph, sources, targets, inspector), used);
+            algorithm.setParallelism(4);
+
+            // Rows are notified once each, from the thread running the algorithm.
+            Thread caller = Thread.currentThread();
+            boolean[] notified = new boolean[sources.size()];
+            algorithm.addObserver((index, source) -> {
+                assertSame(caller, Thread.currentThread());
+                assertEquals(sources.get(index), source);
+                assertFalse(notified[index]);
+                notified[index] = true;
+            });
+            algorithm.run();
+            for (boolean rowNotified: notified) {
+                assertTrue(rowNotified);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ALTAlgorithmTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check that ALT finds paths as short as Dijkstra's ones, and that the bounds
+     * of the table are lower than the actual costs.
+     */
+    private void checkAgainstDijkstra(LandmarkTable.Selection selection) {
+        Random random = new Random(7);
+        for (ArcInspector inspector: inspectors) {
+            LandmarkTable table = LandmarkTable.compute(graph, inspector, 8, selection, 1);
+            for (int i = 0; i < 50; ++i) {
+                ShortestPathData data = new ShortestPathData(graph,
+                        graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ALTAlgorithm(data, table).run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.isFeasible()) {
+                    double expectedCost = cost(expected, inspector);
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(expectedCost, cost(actual, inspector), 1e-6 * expectedCost);
+                    assertTrue(table.lowerBound(data.getOrigin().getId(),
+                            data.getDestination().getId()) <= expectedCost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFarthest() {
+        checkAgainstDijkstra(LandmarkTable.Selection.FARTHEST);
+    }
+
+    @Test
+    public void testAvoid() {
+        checkAgainstDijkstra(LandmarkTable.Selection.AVOID);
+    }
+
+    /**
+     * Inspector with the costs, permissions, cache key and description of another
+     * one.
+     */
+    private static class CopyInspector implements ArcInspector {
+
+        private final ArcInspector inspector;
+
+        private CopyInspector(ArcInspector inspector) {
+            this.inspector = inspector;
+        }
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return this.inspector.isAllowed(arc);
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return this.inspector.getCost(arc);
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return this.inspector.getMaximumSpeed();
+        }
+
+        @Override
+        public Mode getMode() {
+            return this.inspector.getMode();
+        }
+
+        @Override
+        public Object cacheKey() {
+            return this.inspector.cacheKey();
+        }
+
+        @Override
+        public String toString() {
+            return this.inspector.toString();
+        }
+
+    }
+
+    @Test
+    public void testCache() {
+        // Equivalent instances of an inspector share their table.
+        assertSame(LandmarkTable.of(graph, new CopyInspector(inspectors.get(0))),
+                LandmarkTable.of(graph, new CopyInspector(inspectors.get(0))));
+        assertSame(LandmarkTable.of(graph, inspectors.get(2)),
+                LandmarkTable.of(graph, ArcInspectorFactory.getAllFilters().get(2)));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        LandmarkTable table = LandmarkTable.compute(graph, inspectors.get(2), 4,
+                LandmarkTable.Selection.AVOID, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes));
+
+        LandmarkTable read = LandmarkTable.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), graph,
+                inspectors.get(2));
+        assertEquals(table.getLandmarkCount(), read.getLandmarkCount());
+        for (int i = 0; i < table.getLandmarkCount(); ++i) {
+            assertEquals(table.getLandmark(i), read.getLandmark(i));
+            for (int node = 0; node < graph.size(); ++node) {
+                assertEquals(table.getCostFromLandmark(node, i),
+                        read.getCostFromLandmark(node, i), 0);
+                assertEquals(table.getCostToLandmark(node, i), read.getCostToLandmark(node, i),
+                        0);
+            }
+        }
+    }
+
+    @Test(expected = BadFormatException.class)
+    public void testReadOtherInspector() throws IOException {
+        LandmarkTable table = LandmarkTable.compute(graph, inspectors.get(2), 4,
+                LandmarkTable.Selection.AVOID, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes));
+        LandmarkTable.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                graph, inspectors.get(0));
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AStarAlgorithmTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+    }
+
+    /**
+     * Check that the given algorithm finds paths as short as Dijkstra's ones, for
+     * all filters.
+     */
+    private static void checkAgainstDijkstra(
+            Function<ShortestPathData, ? extends AStarAlgorithm> algorithm) {
+        Random random = new Random(7);
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int i = 0; i < 50; ++i) {
+                ShortestPathData data = new ShortestPathData(graph,
+                        graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = algorithm.apply(data).run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.isFeasible()) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+                    assertEquals(data.getDestination(), actual.getPath().getDestination());
+                    assertEquals(cost(expected, inspector), cost(actual, inspector), 1e-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    @Test
+    public void testGreatCircle() {
+        checkAgainstDijkstra(AStarAlgorithm::new);
+        checkAgainstDijkstra(
+                data -> new AStarAlgorithm(data, AStarAlgorithm.Heuristic.GREAT_CIRCLE));
+    }
+
+    @Test
+    public void testEquirectangular() {
+        checkAgainstDijkstra(
+                data -> new AStarAlgorithm(data, AStarAlgorithm.Heuristic.EQUIRECTANGULAR));
+        checkAgainstDijkstra(EquirectangularAStarAlgorithm::new);
+    }
+
+    @Test
+    public void testHeuristic() {
+        ShortestPathData data = new ShortestPathData(graph, graph.get(0), graph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0));
+        assertEquals(AStarAlgorithm.Heuristic.GREAT_CIRCLE,
+                new AStarAlgorithm(data).getHeuristic());
+        assertEquals(AStarAlgorithm.Heuristic.EQUIRECTANGULAR,
+                new EquirectangularAStarAlgorithm(data).getHeuristic());
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+/**
+ * Small benchmark comparing a sequential loop over
+ * {@link AlgorithmFactory#createAlgorithm(Class, org.insa.graphs.algorithm.AbstractInputData)}
+ * with {@link BatchRouter} for increasing parallelism, on random queries on a map
+ * file or on a random graph.
+ *
+ * Usage: {@code BatchRouterBenchmark [mapFile | nbNodes [nbQueries [algorithm]]]}.
+ */
+public class BatchRouterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final Graph graph;
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(args[0]))))) {
+                reader.setLazyGeometry(true);
+                graph = reader.read();
+            }
+        }
+        else {
+            final int nbNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+            graph = TestGraphs.randomGraph(nbNodes, 3 * nbNodes, 42);
+        }
+        final int nbQueries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final String algorithm = args.length > 2 ? args[2] : "Dijkstra";
+
+        Random random = new Random(42);
+        List<ShortestPathData> queries = new ArrayList<>();
+        for (int i = 0; i < nbQueries; ++i) {
+            queries.add(new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())),
+                    ArcInspectorFactory.getAllFilters().get(0)));
+        }
+        System.out.println("Graph: " + graph.size() + " nodes, " + nbQueries + " queries, "
+                + algorithm + ", " + Runtime.getRuntime().availableProcessors() + " cores.");
+
+        for (int run = 0; run < 2; ++run) {
+            long start = System.nanoTime();
+            for (ShortestPathData data: queries) {
+                AlgorithmFactory.createAlgorithm(
+                        AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class, algorithm),
+                        data).run();
+            }
+            System.out.println(String.format("  Run %d: sequential %.1f queries/s", run,
+                    nbQueries * 1e9 / (System.nanoTime() - start)));
+
+            BatchRouter router = new BatchRouter(algorithm);
+            for (int parallelism = 1; parallelism <= Runtime.getRuntime()
+                    .availableProcessors(); parallelism *= 2) {
+                router.setParallelism(parallelism);
+                System.out.println("  Run " + run + ": parallelism " + parallelism + ", "
+                        + router.route(queries).getStatistics());
+            }
+        }
+    }
+
+}
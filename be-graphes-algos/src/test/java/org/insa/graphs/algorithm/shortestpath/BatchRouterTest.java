@@ -0,0 +1,162 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm.QueueStrategy;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchRouterTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Random queries, and their solutions computed one by one.
+    private static List<ShortestPathData> queries;
+    private static List<ShortestPathSolution> expected;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(500, 1500, 7);
+        queries = new ArrayList<>();
+        expected = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 200; ++i) {
+            ShortestPathData data = new ShortestPathData(graph,
+                    graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())),
+                    ArcInspectorFactory.getAllFilters().get(i % 2 == 0 ? 0 : 2));
+            queries.add(data);
+            expected.add(new DijkstraAlgorithm(data).run());
+        }
+    }
+
+    /**
+     * Check that the given solution is the expected solution of its query.
+     */
+    private static void checkSolution(ShortestPathSolution expected,
+            ShortestPathSolution actual) {
+        assertEquals(expected.getInputData(), actual.getInputData());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.isFeasible()) {
+            assertEquals(expected.getPath().getArcs(), actual.getPath().getArcs());
+        }
+    }
+
+    @Test
+    public void testOrderedResults() {
+        BatchRouter router = new BatchRouter("Dijkstra");
+        for (int parallelism: new int[] { 1, 4 }) {
+            router.setParallelism(parallelism);
+            BatchRouter.Result result = router.route(queries);
+            assertEquals(queries.size(), result.getSolutions().size());
+            for (int i = 0; i < queries.size(); ++i) {
+                checkSolution(expected.get(i), result.getSolutions().get(i));
+            }
+            assertEquals(queries.size(), result.getStatistics().getQueryCount());
+        }
+    }
+
+    @Test
+    public void testCompletionStream() {
+        Map<ShortestPathData, ShortestPathSolution> expectedByQuery = new HashMap<>();
+        for (int i = 0; i < queries.size(); ++i) {
+            expectedByQuery.put(queries.get(i), expected.get(i));
+        }
+        BatchRouter router = new BatchRouter(data -> {
+            DijkstraAlgorithm algorithm = new DijkstraAlgorithm(data);
+            algorithm.setQueueStrategy(QueueStrategy.PRIMITIVE_HEAP);
+            return algorithm;
+        });
+        router.setParallelism(3);
+        List<ShortestPathSolution> solutions = new ArrayList<>();
+        BatchRouter.Statistics statistics = router.route(queries.stream(), solutions::add);
+        assertEquals(queries.size(), solutions.size());
+        assertEquals(queries.size(), statistics.getQueryCount());
+        for (ShortestPathSolution solution: solutions) {
+            checkSolution(expectedByQuery.get(solution.getInputData()), solution);
+        }
+    }
+
+    @Test
+    public void testExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BatchRouter router = new BatchRouter("A*");
+            router.setExecutor(executor);
+            assertEquals(executor, router.getExecutor());
+            BatchRouter.Result result = router.route(queries);
+            for (int i = 0; i < queries.size(); ++i) {
+                assertEquals(expected.get(i).getStatus(),
+                        result.getSolutions().get(i).getStatus());
+            }
+            assertTrue(!executor.isShutdown());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        BatchRouter.Statistics statistics = new BatchRouter("Dijkstra").route(queries)
+                .getStatistics();
+        assertTrue(statistics.getThroughput() > 0);
+        assertTrue(statistics.getElapsedTime().toNanos() > 0);
+        assertTrue(statistics.getLatencyPercentile(0)
+                .compareTo(statistics.getLatencyPercentile(50)) <= 0);
+        assertTrue(statistics.getLatencyPercentile(50)
+                .compareTo(statistics.getLatencyPercentile(99)) <= 0);
+        assertTrue(statistics.getLatencyPercentile(99)
+                .compareTo(statistics.getLatencyPercentile(100)) <= 0);
+        assertTrue(statistics.getMeanLatency()
+                .compareTo(statistics.getLatencyPercentile(100)) <= 0);
+
+        BatchRouter.Statistics empty = new BatchRouter("Dijkstra")
+                .route(new ArrayList<ShortestPathData>()).getStatistics();
+        assertEquals(0, empty.getQueryCount());
+        assertEquals(0, empty.getLatencyPercentile(50).toNanos());
+    }
+
+    @Test
+    public void testTimeout() {
+        BatchRouter router = new BatchRouter("Dijkstra");
+        router.setParallelism(2);
+        router.setTimeout(Duration.ZERO);
+        assertEquals(Duration.ZERO, router.getTimeout());
+        for (ShortestPathSolution solution: router.route(queries).getSolutions()) {
+            assertEquals(Status.TIMEOUT, solution.getStatus());
+        }
+
+        router.setTimeout(Duration.ofHours(1));
+        BatchRouter.Result result = router.route(queries);
+        for (int i = 0; i < queries.size(); ++i) {
+            checkSolution(expected.get(i), result.getSolutions().get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAlgorithm() {
+        new BatchRouter("Unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new BatchRouter("Dijkstra").route(queries.subList(0, 5)).getStatistics()
+                .getLatencyPercentile(101);
+    }
+
+}
@@ -0,0 +1,173 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm.RelaxationStrategy;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BellmanFordAlgorithmTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(2000, 6000, 5);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * Inspector allowing the arcs of the given inspector from a node to a node
+     * with a greater ID (so that the graph has no cycle), with the given offset
+     * added to their cost.
+     */
+    private static ArcInspector acyclicInspector(final ArcInspector inspector,
+            final double offset) {
+        return new ArcInspector() {
+
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return inspector.isAllowed(arc)
+                        && arc.getOrigin().getId() < arc.getDestination().getId();
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return inspector.getCost(arc) + offset;
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return inspector.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return inspector.getMode();
+            }
+
+        };
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Create Bellman-Ford with the given strategy and parallelism.
+     */
+    private static BellmanFordAlgorithm create(ShortestPathData data, RelaxationStrategy strategy,
+            int parallelism) {
+        BellmanFordAlgorithm algorithm = new BellmanFordAlgorithm(data);
+        algorithm.setRelaxationStrategy(strategy);
+        algorithm.setParallelism(parallelism);
+        assertEquals(strategy, algorithm.getRelaxationStrategy());
+        return algorithm;
+    }
+
+    /**
+     * Check that all the strategies find solutions as short as Dijkstra's
+     * algorithm (or as the default strategy) on random queries for the given
+     * inspector.
+     */
+    private static void checkStrategies(ArcInspector inspector, boolean dijkstra) {
+        Random random = new Random(11);
+        for (int i = 0; i < 10; ++i) {
+            ShortestPathData data = new ShortestPathData(graph,
+                    graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), inspector);
+            ShortestPathSolution expected = dijkstra ? new DijkstraAlgorithm(data).run()
+                    : new BellmanFordAlgorithm(data).run();
+            for (RelaxationStrategy strategy: RelaxationStrategy.values()) {
+                for (int parallelism: new int[] { 1, 4 }) {
+                    BellmanFordAlgorithm algorithm = create(data, strategy, parallelism);
+                    ShortestPathSolution actual = algorithm.run();
+                    assertFalse(algorithm.hasNegativeCycle());
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (expected.isFeasible()) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+                        assertEquals(data.getDestination(), actual.getPath().getDestination());
+                        assertEquals(cost(expected, inspector), cost(actual, inspector), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStrategies() {
+        for (ArcInspector inspector: inspectors) {
+            checkStrategies(inspector, true);
+        }
+    }
+
+    @Test
+    public void testNegativeCosts() {
+        // Costs are shifted down so that most arcs have a negative cost, but the
+        // allowed arcs do not form any cycle.
+        checkStrategies(acyclicInspector(inspectors.get(0), -2000), false);
+    }
+
+    @Test
+    public void testNegativeCycle() {
+        // With no upper bound on the cost of a path, every strategy must stop and
+        // report an infeasible solution.
+        final ArcInspector allowed = inspectors.get(0);
+        ArcInspector inspector = new ArcInspector() {
+
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return allowed.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return -1;
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return allowed.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return allowed.getMode();
+            }
+
+        };
+        ShortestPathData data = new ShortestPathData(graph, graph.get(0), graph.get(1),
+                inspector);
+        for (RelaxationStrategy strategy: RelaxationStrategy.values()) {
+            BellmanFordAlgorithm algorithm = create(data, strategy, 2);
+            assertEquals(Status.INFEASIBLE, algorithm.run().getStatus());
+            assertTrue(algorithm.hasNegativeCycle());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new BellmanFordAlgorithm(new ShortestPathData(graph, graph.get(0), graph.get(1),
+                inspectors.get(0))).setParallelism(0);
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ContractionHierarchyTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests, and corresponding hierarchies (computed
+    // sequentially).
+    private static List<ArcInspector> inspectors;
+    private static List<ContractionHierarchy> hierarchies;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspectors = ArcInspectorFactory.getAllFilters();
+        hierarchies = new ArrayList<>();
+        for (ArcInspector inspector: inspectors) {
+            ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(graph,
+                    inspector);
+            builder.setParallelism(1);
+            hierarchies.add(builder.build());
+        }
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    @Test
+    public void testRanks() {
+        for (ContractionHierarchy hierarchy: hierarchies) {
+            assertEquals(graph.size(), hierarchy.size());
+            boolean[] used = new boolean[graph.size()];
+            for (int node = 0; node < graph.size(); ++node) {
+                int rank = hierarchy.getRank(node);
+                assertTrue(!used[rank]);
+                used[rank] = true;
+
+                // Upward edges lead to higher nodes, downward edges come from them.
+                for (int index = hierarchy.getFirstUpwardEdge(node); index < hierarchy
+                        .getFirstUpwardEdge(node + 1); ++index) {
+                    assertTrue(hierarchy.getRank(hierarchy.getUpwardHead(index)) > rank);
+                }
+                for (int index = hierarchy.getFirstDownwardEdge(node); index < hierarchy
+                        .getFirstDownwardEdge(node + 1); ++index) {
+                    assertTrue(hierarchy.getRank(hierarchy.getDownwardTail(index)) > rank);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAgainstDijkstra() {
+        Random random = new Random(7);
+        for (int k = 0; k < inspectors.size(); ++k) {
+            ArcInspector inspector = inspectors.get(k);
+            for (int i = 0; i < 50; ++i) {
+                ShortestPathData data = new ShortestPathData(graph,
+                        graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ContractionHierarchyAlgorithm(data,
+                        hierarchies.get(k)).run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.isFeasible()) {
+                    double expectedCost = cost(expected, inspector);
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+                    assertEquals(data.getDestination(), actual.getPath().getDestination());
+                    assertEquals(expectedCost, cost(actual, inspector), 1e-6 * expectedCost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelContraction() {
+        ArcInspector inspector = inspectors.get(0);
+        ContractionHierarchy[] parallel = new ContractionHierarchy[2];
+        final int[] counts = new int[3];
+        for (int i = 0; i < parallel.length; ++i) {
+            ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(graph,
+                    inspector);
+            builder.setParallelism(2 + 2 * i);
+            builder.addObserver(new ContractionHierarchyObserver() {
+
+                @Override
+                public void notifyStartContraction(int nbNodes) {
+                    counts[0] += nbNodes;
+                }
+
+                @Override
+                public void notifyLevelContracted(int level, int nbContracted,
+                        int nbRemaining) {
+                    counts[1] += nbContracted;
+                }
+
+                @Override
+                public void notifyEndContraction(int nbShortcuts) {
+                    counts[2] += nbShortcuts;
+                }
+
+            });
+            parallel[i] = builder.build();
+        }
+        assertEquals(2 * graph.size(), counts[0]);
+        assertEquals(2 * graph.size(), counts[1]);
+        assertEquals(parallel[0].getShortcutCount() + parallel[1].getShortcutCount(),
+                counts[2]);
+
+        // The hierarchy does not depend on the number of threads.
+        assertEquals(parallel[0].getShortcutCount(), parallel[1].getShortcutCount());
+        for (int node = 0; node < graph.size(); ++node) {
+            assertEquals(parallel[0].getRank(node), parallel[1].getRank(node));
+        }
+
+        // Queries give the same results as with a sequential contraction.
+        Random random = new Random(11);
+        for (int i = 0; i < 100; ++i) {
+            ShortestPathData data = new ShortestPathData(graph,
+                    graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), inspector);
+            ShortestPathSolution expected = new ContractionHierarchyAlgorithm(data,
+                    hierarchies.get(0)).run();
+            ShortestPathSolution actual = new ContractionHierarchyAlgorithm(data, parallel[0])
+                    .run();
+            assertEquals(expected.getStatus(), actual.getStatus());
+            if (expected.isFeasible()) {
+                double expectedCost = cost(expected, inspector);
+                assertTrue(actual.getPath().isValid());
+                assertEquals(expectedCost, cost(actual, inspector), 1e-6 * expectedCost);
+            }
+        }
+    }
+
+    @Test
+    public void testCache() {
+        // Other users of the same filter (e.g., PHAST) share the cached hierarchy.
+        ArcInspector inspector = inspectors.get(1);
+        ContractionHierarchy hierarchy = ContractionHierarchy.of(graph, inspector);
+        assertSame(hierarchy, ContractionHierarchy.getIfPresent(graph,
+                ArcInspectorFactory.getAllFilters().get(1)));
+        assertSame(hierarchy, ContractionHierarchy.of(graph,
+                ArcInspectorFactory.getAllFilters().get(1)));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        ContractionHierarchy hierarchy = hierarchies.get(2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hierarchy.write(new DataOutputStream(bytes));
+
+        ContractionHierarchy read = ContractionHierarchy.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), graph,
+                inspectors.get(2));
+        assertEquals(hierarchy.getShortcutCount(), read.getShortcutCount());
+        for (int node = 0; node < graph.size(); ++node) {
+            assertEquals(hierarchy.getRank(node), read.getRank(node));
+            assertEquals(hierarchy.getFirstUpwardEdge(node + 1),
+                    read.getFirstUpwardEdge(node + 1));
+            assertEquals(hierarchy.getFirstDownwardEdge(node + 1),
+                    read.getFirstDownwardEdge(node + 1));
+        }
+        for (int index = 0; index < hierarchy.getFirstUpwardEdge(graph.size()); ++index) {
+            assertEquals(hierarchy.getUpwardHead(index), read.getUpwardHead(index));
+            assertEquals(hierarchy.getUpwardCost(index), read.getUpwardCost(index), 0);
+            assertEquals(hierarchy.getUpwardEdgeId(index), read.getUpwardEdgeId(index));
+        }
+    }
+
+    @Test(expected = BadFormatException.class)
+    public void testReadOtherInspector() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hierarchies.get(2).write(new DataOutputStream(bytes));
+        ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                graph, inspectors.get(0));
+    }
+
+}
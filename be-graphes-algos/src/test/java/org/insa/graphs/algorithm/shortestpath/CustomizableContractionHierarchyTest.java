@@ -0,0 +1,162 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CustomizableContractionHierarchyTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check that queries on the given hierarchy find paths as short as Dijkstra's
+     * ones.
+     */
+    private static void checkAgainstDijkstra(ContractionHierarchy hierarchy,
+            ArcInspector inspector) {
+        Random random = new Random(7);
+        for (int i = 0; i < 50; ++i) {
+            ShortestPathData data = new ShortestPathData(graph,
+                    graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), inspector);
+            ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+            ShortestPathSolution actual = new ContractionHierarchyAlgorithm(data, hierarchy)
+                    .run();
+            assertEquals(expected.getStatus(), actual.getStatus());
+            if (expected.isFeasible()) {
+                double expectedCost = cost(expected, inspector);
+                assertTrue(actual.getPath().isValid());
+                assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+                assertEquals(data.getDestination(), actual.getPath().getDestination());
+                assertEquals(expectedCost, cost(actual, inspector), 1e-6 * expectedCost);
+            }
+        }
+    }
+
+    @Test
+    public void testOrder() {
+        CustomizableContractionHierarchy hierarchy = CustomizableContractionHierarchy.of(graph);
+        assertSame(hierarchy, CustomizableContractionHierarchy.of(graph));
+        assertEquals(graph.size(), hierarchy.size());
+        boolean[] used = new boolean[graph.size()];
+        for (int node = 0; node < graph.size(); ++node) {
+            assertTrue(!used[hierarchy.getRank(node)]);
+            used[hierarchy.getRank(node)] = true;
+        }
+    }
+
+    @Test
+    public void testConcurrentRetrieval() throws Exception {
+        // Hierarchies of different graphs are computed concurrently, and each is
+        // computed once.
+        Graph other = TestGraphs.randomGraph(300, 900, 43);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CustomizableContractionHierarchy>> hierarchies = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                Graph target = i % 2 == 0 ? graph : other;
+                hierarchies.add(executor.submit(() -> CustomizableContractionHierarchy.of(target)));
+            }
+            for (int i = 0; i < hierarchies.size(); ++i) {
+                assertSame(CustomizableContractionHierarchy.of(i % 2 == 0 ? graph : other),
+                        hierarchies.get(i).get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(other.size(), CustomizableContractionHierarchy.of(other).size());
+    }
+
+    @Test
+    public void testAgainstDijkstra() {
+        for (ArcInspector inspector: inspectors) {
+            checkAgainstDijkstra(CustomizableContractionHierarchy.customizedOf(graph, inspector),
+                    inspector);
+        }
+    }
+
+    @Test
+    public void testCachedCustomizations() {
+        ArcInspector inspector = inspectors.get(3);
+        assertSame(CustomizableContractionHierarchy.customizedOf(graph, inspector),
+                CustomizableContractionHierarchy.customizedOf(graph,
+                        ArcInspectorFactory.getAllFilters().get(3)));
+    }
+
+    @Test
+    public void testCustomInspector() {
+        // Inspector defined at runtime: roads without speed limit cost three
+        // times their length.
+        ArcInspector inspector = new ArcInspector() {
+
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return true;
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return arc.getLength()
+                        * (arc.getRoadInformation().getMaximumSpeed() > 100 ? 3 : 1);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return -1;
+            }
+
+            @Override
+            public Mode getMode() {
+                return Mode.LENGTH;
+            }
+
+            @Override
+            public String toString() {
+                return "Length, motorways penalized";
+            }
+
+        };
+        checkAgainstDijkstra(CustomizableContractionHierarchy.of(graph).customize(graph,
+                inspector), inspector);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCustomizeOtherGraph() {
+        CustomizableContractionHierarchy.of(graph).customize(
+                TestGraphs.randomGraph(300, 900, 1), inspectors.get(0));
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+/**
+ * Small benchmark comparing complete trees computed by Dijkstra's algorithm (see
+ * {@link ShortestPathTree#compute}) and by {@link DeltaSteppingEngine}, for
+ * several multiples of the default delta and numbers of threads (powers of two up to
+ * the number of cores), on a map file or on a random graph.
+ *
+ * Usage: {@code DeltaSteppingBenchmark [mapFile | nbNodes [nbOrigins [nbThreads]]]}.
+ */
+public class DeltaSteppingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final Graph graph;
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(args[0]))))) {
+                reader.setLazyGeometry(true);
+                graph = reader.read();
+            }
+        }
+        else {
+            final int nbNodes = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+            graph = TestGraphs.randomGraph(nbNodes, 3 * nbNodes, 42);
+        }
+        final int nbOrigins = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int maxThreads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+
+        Random random = new Random(42);
+        int[] origins = new int[nbOrigins];
+        for (int i = 0; i < nbOrigins; ++i) {
+            origins[i] = random.nextInt(graph.size());
+        }
+
+        DeltaSteppingEngine engine = new DeltaSteppingEngine(graph, inspector);
+        final double defaultDelta = engine.getDelta();
+        System.out.println("Graph: " + graph.size() + " nodes, " + nbOrigins + " origins, "
+                + Runtime.getRuntime().availableProcessors() + " cores, default delta "
+                + defaultDelta + ".");
+
+        for (int run = 0; run < 2; ++run) {
+            long start = System.nanoTime();
+            for (int origin: origins) {
+                ShortestPathTree.compute(graph, graph.get(origin), inspector);
+            }
+            System.out.println(String.format("  Run %d: Dijkstra %.1f ms/tree", run,
+                    (System.nanoTime() - start) / 1e6 / nbOrigins));
+
+            for (double factor: new double[] { 0.125, 0.5, 1, 2, 8 }) {
+                engine.setDelta(defaultDelta * factor);
+                StringBuilder line = new StringBuilder(
+                        String.format("  Run %d: delta x%-5s", run, factor));
+                for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                    engine.setParallelism(threads);
+                    start = System.nanoTime();
+                    for (int origin: origins) {
+                        engine.computeTree(graph.get(origin));
+                    }
+                    line.append(String.format(" %d threads %.1f ms/tree", threads,
+                            (System.nanoTime() - start) / 1e6 / nbOrigins));
+                }
+                System.out.println(line);
+            }
+        }
+    }
+
+}
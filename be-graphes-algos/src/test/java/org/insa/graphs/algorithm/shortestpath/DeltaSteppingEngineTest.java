@@ -0,0 +1,135 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeltaSteppingEngineTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(2000, 6000, 5);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * Check that the given tree has the same costs as the tree computed by
+     * Dijkstra's algorithm, and that its paths are valid and have these costs.
+     */
+    private static void checkTree(ShortestPathTree tree, ArcInspector inspector) {
+        ShortestPathTree expected = ShortestPathTree.compute(tree.getGraph(), tree.getRoot(),
+                inspector);
+        assertEquals(expected.size(), tree.size());
+        for (Node node: tree.getGraph().getNodes()) {
+            assertEquals(expected.contains(node), tree.contains(node));
+            if (!expected.contains(node)) {
+                continue;
+            }
+            assertEquals(expected.getCost(node), tree.getCost(node), 1e-6);
+            if (node.equals(tree.getRoot())) {
+                continue;
+            }
+            Path path = tree.getPath(node);
+            assertTrue(path.isValid());
+            assertEquals(tree.getRoot(), path.getOrigin());
+            assertEquals(node, path.getDestination());
+            double cost = path.getArcs().stream().mapToDouble(inspector::getCost).sum();
+            assertEquals(tree.getCost(node), cost, 1e-6);
+        }
+    }
+
+    @Test
+    public void testDefaultDelta() {
+        for (ArcInspector inspector: inspectors) {
+            DeltaSteppingEngine engine = new DeltaSteppingEngine(graph, inspector);
+            assertEquals(DeltaSteppingEngine.getDefaultDelta(graph, inspector),
+                    engine.getDelta(), 0);
+            assertTrue(engine.getDelta() > 0);
+            checkTree(engine.computeTree(graph.get(0)), inspector);
+        }
+    }
+
+    @Test
+    public void testDeltas() {
+        ArcInspector inspector = inspectors.get(0);
+        DeltaSteppingEngine engine = new DeltaSteppingEngine(graph, inspector);
+        final double defaultDelta = engine.getDelta();
+        for (double factor: new double[] { 0.01, 0.1, 1, 10, 1000 }) {
+            engine.setDelta(defaultDelta * factor);
+            checkTree(engine.computeTree(graph.get(42)), inspector);
+        }
+    }
+
+    @Test
+    public void testParallelism() {
+        ArcInspector inspector = inspectors.get(2);
+        DeltaSteppingEngine engine = new DeltaSteppingEngine(graph, inspector);
+        engine.setDelta(engine.getDelta() / 10);
+        for (int parallelism: new int[] { 1, 2, 4 }) {
+            engine.setParallelism(parallelism);
+            assertEquals(parallelism, engine.getParallelism());
+            checkTree(engine.computeTree(graph.get(7)), inspector);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testZeroCostArcs() {
+        // Nodes 0 to 5 are linked by roads of length zero in both directions, so
+        // predecessors must be chosen among tight arcs without creating cycles.
+        RoadInformation road = new RoadInformation(RoadType.RESIDENTIAL,
+                AccessRestrictions.fromAccessWord(0x0000_0011_1111_1111L), false, 50, "");
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            nodes.add(new Node(i, new Point(1.4f, 43.5f)));
+        }
+        for (int i = 0; i < 5; ++i) {
+            Node.linkNodes(nodes.get(i), nodes.get(i + 1), 0, road,
+                    Collections.singletonList(nodes.get(i).getPoint()));
+            Node.linkNodes(nodes.get(5 - i), nodes.get(4 - i), 0, road,
+                    Collections.singletonList(nodes.get(i).getPoint()));
+        }
+        for (int i = 5; i < 9; ++i) {
+            Node.linkNodes(nodes.get(i), nodes.get(i + 1), 10 * i, road,
+                    Collections.singletonList(nodes.get(i).getPoint()));
+        }
+        Graph zeros = new Graph("ZERO", "", nodes, new GraphStatistics(null, -1, -1, 50, 0));
+        ArcInspector inspector = inspectors.get(0);
+        for (int root: new int[] { 0, 3, 5 }) {
+            DeltaSteppingEngine engine = new DeltaSteppingEngine(zeros, inspector);
+            checkTree(engine.computeTree(zeros.get(root)), inspector);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelta() {
+        new DeltaSteppingEngine(graph, inspectors.get(0)).setDelta(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new DeltaSteppingEngine(graph, inspectors.get(0)).setParallelism(0);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.WeightProfile;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm.QueueStrategy;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DijkstraQueueStrategyTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspectors used for tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * @return Cost of the path of the given solution for the given inspector.
+     */
+    private static double cost(ShortestPathSolution solution, ArcInspector inspector) {
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check that the given algorithm with the given strategy finds paths as short
+     * as the binary heap, up to one quantization unit per arc for monotone integer
+     * queues.
+     */
+    private static void checkStrategy(QueueStrategy strategy, boolean astar) {
+        Random random = new Random(9);
+        for (ArcInspector inspector: inspectors) {
+            WeightProfile weights = WeightProfile.of(graph, inspector);
+            for (int i = 0; i < 30; ++i) {
+                ShortestPathData data = new ShortestPathData(graph,
+                        graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                DijkstraAlgorithm algorithm = astar ? new AStarAlgorithm(data)
+                        : new DijkstraAlgorithm(data);
+                algorithm.setQueueStrategy(strategy);
+                assertEquals(strategy, algorithm.getQueueStrategy());
+                ShortestPathSolution actual = algorithm.run();
+                assertEquals(expected.getStatus(), actual.getStatus());
+                if (expected.isFeasible()) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(data.getOrigin(), actual.getPath().getOrigin());
+                    assertEquals(data.getDestination(), actual.getPath().getDestination());
+                    boolean quantized = strategy == QueueStrategy.RADIX_HEAP
+                            || strategy == QueueStrategy.MULTI_LEVEL_BUCKETS;
+                    double tolerance = quantized ? actual.getPath().getArcs().size()
+                            / weights.getQuantization().getFactor() : 0;
+                    assertEquals(cost(expected, inspector), cost(actual, inspector),
+                            tolerance + 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQuantization() {
+        for (ArcInspector inspector: inspectors) {
+            WeightProfile weights = WeightProfile.of(graph, inspector);
+            double factor = weights.getQuantization().getFactor();
+            for (int arc = 0; arc < weights.getArcCount(); ++arc) {
+                long quantized = weights.getQuantizedCost(arc);
+                assertTrue(quantized >= weights.getCost(arc) * factor - 1e-6);
+                assertTrue(quantized < weights.getCost(arc) * factor + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testRadixHeap() {
+        checkStrategy(QueueStrategy.RADIX_HEAP, false);
+    }
+
+    @Test
+    public void testMultiLevelBuckets() {
+        checkStrategy(QueueStrategy.MULTI_LEVEL_BUCKETS, false);
+    }
+
+    @Test
+    public void testDaryHeaps() {
+        checkStrategy(QueueStrategy.FOUR_ARY_HEAP, false);
+        checkStrategy(QueueStrategy.EIGHT_ARY_HEAP, false);
+    }
+
+    @Test
+    public void testPairingHeap() {
+        checkStrategy(QueueStrategy.PAIRING_HEAP, false);
+    }
+
+    @Test
+    public void testFibonacciHeap() {
+        checkStrategy(QueueStrategy.FIBONACCI_HEAP, false);
+    }
+
+    @Test
+    public void testPrimitiveHeap() {
+        // Nodes are settled in the same order as with labels, so the paths are the
+        // same.
+        Random random = new Random(11);
+        for (ArcInspector inspector: inspectors) {
+            for (int i = 0; i < 30; ++i) {
+                ShortestPathData data = new ShortestPathData(graph,
+                        graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector);
+                DijkstraAlgorithm[] algorithms = { new DijkstraAlgorithm(data),
+                        new AStarAlgorithm(data), new ALTAlgorithm(data) };
+                for (DijkstraAlgorithm algorithm: algorithms) {
+                    ShortestPathSolution expected = algorithm.run();
+                    algorithm.setQueueStrategy(QueueStrategy.PRIMITIVE_HEAP);
+                    ShortestPathSolution actual = algorithm.run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (expected.isFeasible()) {
+                        assertEquals(expected.getPath().getArcs(), actual.getPath().getArcs());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAStar() {
+        for (QueueStrategy strategy: QueueStrategy.values()) {
+            checkStrategy(strategy, true);
+        }
+    }
+
+}
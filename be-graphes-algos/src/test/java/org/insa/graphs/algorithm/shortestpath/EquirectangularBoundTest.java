@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.junit.Test;
+
+public class EquirectangularBoundTest {
+
+    // Tolerance (in meters) of the comparison with Point.distance, whose law of
+    // cosines is not accurate for close points.
+    private static final double TOLERANCE = 1.0;
+
+    /**
+     * Create a graph without arcs containing the given points.
+     */
+    private static Graph graphOf(List<Point> points) {
+        List<Node> nodes = new ArrayList<>();
+        for (Point point: points) {
+            nodes.add(new Node(nodes.size(), point));
+        }
+        return new Graph("ID", "", nodes, new GraphStatistics(null, -1, -1, 130, 0));
+    }
+
+    /**
+     * Check that the bound is never greater than the great-circle distance between
+     * any pair of nodes of the given graph.
+     */
+    private static void checkLowerBound(Graph graph) {
+        EquirectangularBound bound = EquirectangularBound.of(graph);
+        for (Node from: graph.getNodes()) {
+            for (Node to: graph.getNodes()) {
+                double expected = Point.distance(from.getPoint(), to.getPoint());
+                double actual = bound.distance(from.getId(), to.getId());
+                assertTrue(actual >= 0);
+                if (!Double.isNaN(expected)) {
+                    assertTrue(from.getPoint() + " -> " + to.getPoint() + ": " + actual
+                            + " > " + expected, actual <= expected + TOLERANCE);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomPoints() {
+        Random random = new Random(42);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 300; ++i) {
+            points.add(new Point(360 * random.nextFloat() - 180,
+                    180 * random.nextFloat() - 90));
+        }
+        checkLowerBound(graphOf(points));
+    }
+
+    @Test
+    public void testAntimeridian() {
+        Random random = new Random(7);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            float longitude = 179 + random.nextFloat();
+            points.add(new Point(random.nextBoolean() ? longitude : -longitude,
+                    120 * random.nextFloat() - 60));
+        }
+        points.add(new Point(180f, 0f));
+        points.add(new Point(-180f, 0f));
+        checkLowerBound(graphOf(points));
+
+        // Both points are close when crossing the antimeridian.
+        Graph graph = graphOf(points.subList(points.size() - 2, points.size()));
+        assertEquals(0, EquirectangularBound.of(graph).distance(0, 1), 1e-6);
+    }
+
+    @Test
+    public void testHighLatitudes() {
+        Random random = new Random(13);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            float latitude = 80 + 10 * random.nextFloat();
+            points.add(new Point(360 * random.nextFloat() - 180,
+                    random.nextBoolean() ? latitude : -latitude));
+        }
+        points.add(new Point(0f, 90f));
+        points.add(new Point(90f, 90f));
+        points.add(new Point(-170f, -90f));
+        checkLowerBound(graphOf(points));
+    }
+
+    @Test
+    public void testCloseToDistance() {
+        // The bound should be tight for the short distances of road networks.
+        Graph graph = TestGraphs.randomGraph(100, 0, 42);
+        EquirectangularBound bound = EquirectangularBound.of(graph);
+        assertSame(bound, EquirectangularBound.of(graph));
+        for (Node from: graph.getNodes()) {
+            for (Node to: graph.getNodes()) {
+                double expected = Point.distance(from.getPoint(), to.getPoint());
+                if (expected > 100) {
+                    assertEquals(expected, bound.distance(from.getId(), to.getId()),
+                            expected * 1e-2);
+                }
+            }
+        }
+    }
+
+}
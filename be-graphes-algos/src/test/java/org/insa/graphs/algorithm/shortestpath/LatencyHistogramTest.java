@@ -0,0 +1,81 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    /**
+     * @return Exact percentile of the given sorted values.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testSmallValues() {
+        // Small values are counted exactly.
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 50; ++value) {
+            histogram.record(value);
+        }
+        assertEquals(50, histogram.getCount());
+        assertEquals(25, histogram.getMean());
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(25, histogram.getPercentile(50));
+        assertEquals(45, histogram.getPercentile(90));
+        assertEquals(50, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testRelativeError() {
+        Random random = new Random(42);
+        long[] values = new long[20000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; ++i) {
+            // Log-uniform values between 1 microsecond and 1 second.
+            values[i] = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(Arrays.stream(values).sum() / values.length, histogram.getMean());
+        assertEquals(values[values.length - 1], histogram.getPercentile(100));
+        for (double percentile: new double[] { 0, 1, 10, 50, 90, 99, 99.9 }) {
+            long expected = percentile(values, percentile);
+            long actual = histogram.getPercentile(percentile);
+            assertTrue(percentile + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(percentile + ": " + actual + " > " + expected,
+                    actual <= expected * (1 + 1.0 / 32));
+        }
+    }
+
+    @Test
+    public void testExtremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeValue() {
+        new LatencyHistogram().record(-1);
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+/**
+ * Small benchmark measuring the throughput (in trees per second) of one-to-all
+ * Dijkstra searches and of {@link PhastEngine} with different batch sizes and
+ * parallelism, on a map file or on a random graph.
+ *
+ * Usage: {@code PhastBenchmark [mapFile | nbNodes [nbOrigins]]}.
+ */
+public class PhastBenchmark {
+
+    /**
+     * Report the throughput of the given run.
+     */
+    private static void report(String name, int nbTrees, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%-32s %8.1f trees/s (%.2f s)", name, nbTrees / seconds,
+                seconds));
+    }
+
+    /**
+     * Run PHAST with the given settings on the given origins, consuming the trees
+     * as they are computed.
+     */
+    private static void runPhast(PhastEngine engine, List<Node> origins, int batchSize,
+            int parallelism) {
+        engine.setBatchSize(batchSize);
+        engine.setParallelism(parallelism);
+        long start = System.nanoTime();
+        engine.computeTrees(origins, tree -> {
+        });
+        report(String.format("PHAST batch %d, %d thread(s)", batchSize, parallelism),
+                origins.size(), start);
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Graph graph;
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(args[0]))))) {
+                reader.setLazyGeometry(true);
+                graph = reader.read();
+            }
+        }
+        else {
+            final int nbNodes = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+            graph = TestGraphs.randomGraph(nbNodes, 3 * nbNodes, 42);
+        }
+        final int nbOrigins = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+
+        Random random = new Random(42);
+        List<Node> origins = new ArrayList<>();
+        for (int i = 0; i < nbOrigins; ++i) {
+            origins.add(graph.get(random.nextInt(graph.size())));
+        }
+
+        System.out.println("Graph: " + graph.size() + " nodes, " + nbOrigins + " origins.");
+
+        long start = System.nanoTime();
+        PhastEngine engine = new PhastEngine(graph, inspector);
+        System.out.println(String.format("Preprocessing: %.2f s",
+                (System.nanoTime() - start) / 1e9));
+
+        start = System.nanoTime();
+        for (Node origin: origins) {
+            ShortestPathTree.compute(graph, origin, inspector);
+        }
+        report("Dijkstra", nbOrigins, start);
+
+        final int nbProcessors = Runtime.getRuntime().availableProcessors();
+        runPhast(engine, origins, 1, 1);
+        runPhast(engine, origins, PhastEngine.DEFAULT_BATCH_SIZE, 1);
+        runPhast(engine, origins, 2 * PhastEngine.DEFAULT_BATCH_SIZE, 1);
+        if (nbProcessors > 1) {
+            runPhast(engine, origins, PhastEngine.DEFAULT_BATCH_SIZE, nbProcessors);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PhastEngineTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspector used for tests, and corresponding hierarchy.
+    private static ArcInspector inspector;
+    private static ContractionHierarchy hierarchy;
+
+    // Origins of the trees (with a duplicate).
+    private static List<Node> origins;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspector = ArcInspectorFactory.getAllFilters().get(2);
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(graph, inspector);
+        builder.setParallelism(1);
+        hierarchy = builder.build();
+
+        Random random = new Random(11);
+        origins = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            origins.add(graph.get(random.nextInt(graph.size())));
+        }
+        origins.add(origins.get(0));
+    }
+
+    /**
+     * @return Cost of the given path for the inspector of the tests.
+     */
+    private static double cost(Path path) {
+        return path.getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check the given tree against the tree computed by Dijkstra.
+     */
+    private static void checkTree(ShortestPathTree tree, Node origin) {
+        ShortestPathTree expected = ShortestPathTree.compute(graph, origin, inspector);
+        assertEquals(origin, tree.getRoot());
+        assertEquals(expected.size(), tree.size());
+        for (Node node: graph.getNodes()) {
+            assertEquals(expected.contains(node), tree.contains(node));
+            if (!expected.contains(node) || node.equals(origin)) {
+                continue;
+            }
+            double expectedCost = expected.getCost(node);
+            assertEquals(expectedCost, tree.getCost(node), 1e-6 * expectedCost);
+            Path path = tree.getPath(node);
+            assertTrue(path.isValid());
+            assertEquals(origin, path.getOrigin());
+            assertEquals(node, path.getDestination());
+            assertEquals(expectedCost, cost(path), 1e-6 * expectedCost);
+        }
+    }
+
+    @Test
+    public void testSingleTree() {
+        PhastEngine engine = new PhastEngine(graph, hierarchy);
+        for (Node origin: origins) {
+            checkTree(engine.computeTree(origin), origin);
+        }
+    }
+
+    @Test
+    public void testBatches() {
+        for (int batchSize: new int[] { 1, 3, 16 }) {
+            PhastEngine engine = new PhastEngine(graph, hierarchy);
+            engine.setBatchSize(batchSize);
+            engine.setParallelism(1);
+            List<ShortestPathTree> trees = engine.computeTrees(origins);
+            assertEquals(origins.size(), trees.size());
+            for (int i = 0; i < origins.size(); ++i) {
+                checkTree(trees.get(i), origins.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelBatches() {
+        PhastEngine engine = new PhastEngine(graph, hierarchy);
+        engine.setBatchSize(2);
+        engine.setParallelism(3);
+        List<ShortestPathTree> trees = engine.computeTrees(origins);
+        for (int i = 0; i < origins.size(); ++i) {
+            checkTree(trees.get(i), origins.get(i));
+        }
+
+        List<ShortestPathTree> consumed = Collections.synchronizedList(new ArrayList<>());
+        engine.computeTrees(origins, consumed::add);
+        assertEquals(origins.size(), consumed.size());
+        for (ShortestPathTree tree: consumed) {
+            checkTree(tree, tree.getRoot());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherGraph() {
+        new PhastEngine(TestGraphs.randomGraph(300, 900, 1), hierarchy);
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm.QueueStrategy;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+/**
+ * Small benchmark ranking the priority queues of {@link DijkstraAlgorithm} (see
+ * {@link QueueStrategy}) on random queries, for the length and time inspectors,
+ * on each of the given map files or random graphs.
+ *
+ * Usage:
+ * {@code QueueStrategyBenchmark [-queries nbQueries] [-runs nbRuns] [mapFile | nbNodes]...}
+ * (by default, random graphs with 10000 and 100000 nodes).
+ */
+public class QueueStrategyBenchmark {
+
+    /**
+     * Run the given queries with the given strategy.
+     *
+     * @return Average time per query, in milliseconds.
+     */
+    private static double run(Graph graph, ArcInspector inspector, int[] origins,
+            int[] destinations, QueueStrategy strategy) {
+        long start = System.nanoTime();
+        for (int i = 0; i < origins.length; ++i) {
+            DijkstraAlgorithm algorithm = new DijkstraAlgorithm(new ShortestPathData(graph,
+                    graph.get(origins[i]), graph.get(destinations[i]), inspector));
+            algorithm.setQueueStrategy(strategy);
+            algorithm.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / origins.length;
+    }
+
+    /**
+     * Read the map file with the given name, or create a random graph if the
+     * argument is a number of nodes.
+     */
+    private static Graph readGraph(String arg) throws Exception {
+        if (arg.matches("\\d+")) {
+            final int nbNodes = Integer.parseInt(arg);
+            return TestGraphs.randomGraph(nbNodes, 3 * nbNodes, 42);
+        }
+        try (BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(new FileInputStream(arg))))) {
+            reader.setLazyGeometry(true);
+            return reader.read();
+        }
+    }
+
+    /**
+     * Rank the strategies on the given graph, keeping the best time of the given
+     * number of runs for each strategy.
+     */
+    private static void rank(String name, Graph graph, int nbQueries, int nbRuns) {
+        Random random = new Random(42);
+        int[] origins = new int[nbQueries], destinations = new int[nbQueries];
+        for (int i = 0; i < nbQueries; ++i) {
+            origins[i] = random.nextInt(graph.size());
+            destinations[i] = random.nextInt(graph.size());
+        }
+
+        System.out.println(name + ": " + graph.size() + " nodes, " + nbQueries + " queries, best of "
+                + nbRuns + " runs.");
+        final QueueStrategy[] strategies = QueueStrategy.values();
+        for (int filter: new int[] { 0, 2 }) {
+            ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(filter);
+            final double[] times = new double[strategies.length];
+            Arrays.fill(times, Double.POSITIVE_INFINITY);
+
+            // Strategies are interleaved in each run, so that they all see the same
+            // state of the machine.
+            for (int run = 0; run < nbRuns; ++run) {
+                for (int i = 0; i < strategies.length; ++i) {
+                    times[i] = Math.min(times[i],
+                            run(graph, inspector, origins, destinations, strategies[i]));
+                }
+            }
+
+            List<Integer> ranking = new ArrayList<>();
+            for (int i = 0; i < strategies.length; ++i) {
+                ranking.add(i);
+            }
+            ranking.sort(Comparator.comparingDouble(i -> times[i]));
+            System.out.println("  " + inspector + ":");
+            for (int rank = 0; rank < ranking.size(); ++rank) {
+                int i = ranking.get(rank);
+                System.out.println(String.format("    %d. %-20s %8.2f ms/query (x%.2f)",
+                        rank + 1, strategies[i], times[i], times[i] / times[ranking.get(0)]));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nbQueries = 50, nbRuns = 3;
+        List<String> graphs = new ArrayList<>();
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i].equals("-queries")) {
+                nbQueries = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-runs")) {
+                nbRuns = Integer.parseInt(args[++i]);
+            }
+            else {
+                graphs.add(args[i]);
+            }
+        }
+        if (graphs.isEmpty()) {
+            graphs = Arrays.asList("10000", "100000");
+        }
+
+        for (String name: graphs) {
+            rank(name, readGraph(name), nbQueries, nbRuns);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm.RelaxationStrategy;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm.QueueStrategy;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SearchStatisticsTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Random queries for each inspector.
+    private static List<ShortestPathData> queries;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(2000, 6000, 7);
+        queries = new ArrayList<>();
+        Random random = new Random(13);
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (int i = 0; i < 5; ++i) {
+                queries.add(new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                        graph.get(random.nextInt(graph.size())), inspector));
+            }
+        }
+    }
+
+    /**
+     * Check that the given solutions are the same.
+     */
+    private static void assertSameSolution(ShortestPathSolution expected,
+            ShortestPathSolution actual) {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.isFeasible()) {
+            assertEquals(expected.getPath().getArcs(), actual.getPath().getArcs());
+        }
+    }
+
+    /**
+     * Run the given algorithm with and without counters, check that both runs
+     * find the same solution, and return the statistics of the run with
+     * counters.
+     */
+    private static SearchStatistics runWithCounters(ShortestPathAlgorithm algorithm) {
+        assertFalse(algorithm.isCountersEnabled());
+        ShortestPathSolution expected = algorithm.run();
+        SearchStatistics disabled = expected.getStatistics();
+        assertFalse(disabled.isCounting());
+        assertEquals(0, disabled.getSettledNodeCount());
+        assertEquals(0, disabled.getRelaxedArcCount());
+        assertEquals(0, disabled.getInsertCount());
+        assertEquals(0, disabled.getPeakQueueSize());
+        checkTimings(disabled);
+
+        algorithm.setCountersEnabled(true);
+        assertTrue(algorithm.isCountersEnabled());
+        ShortestPathSolution actual = algorithm.run();
+        assertSameSolution(expected, actual);
+        SearchStatistics statistics = actual.getStatistics();
+        assertTrue(statistics.isCounting());
+        checkTimings(statistics);
+        return statistics;
+    }
+
+    /**
+     * Check that the phases of the given statistics have consistent durations.
+     */
+    private static void checkTimings(SearchStatistics statistics) {
+        assertFalse(statistics.getInitializationTime().isNegative());
+        assertFalse(statistics.getSearchTime().isNegative());
+        assertFalse(statistics.getPathBuildTime().isNegative());
+    }
+
+    @Test
+    public void testDijkstra() {
+        for (ShortestPathData data: queries) {
+            for (QueueStrategy strategy: QueueStrategy.values()) {
+                DijkstraAlgorithm algorithm = new DijkstraAlgorithm(data);
+                algorithm.setQueueStrategy(strategy);
+                SearchStatistics statistics = runWithCounters(algorithm);
+
+                // Each reached node (and the origin) is inserted once, and each
+                // settled node has been deleted from the queue.
+                assertEquals(statistics.getReachedNodeCount() + 1, statistics.getInsertCount());
+                assertEquals(statistics.getSettledNodeCount(), statistics.getDeleteCount());
+                assertTrue(statistics.getDeleteCount() <= statistics.getInsertCount());
+                assertTrue(statistics.getPeakQueueSize() >= 1);
+                assertTrue(statistics.getPeakQueueSize() <= statistics.getInsertCount());
+                assertTrue(statistics.getSettledNodeCount() >= 1);
+            }
+        }
+    }
+
+    @Test
+    public void testAStar() {
+        for (ShortestPathData data: queries) {
+            SearchStatistics statistics = runWithCounters(new AStarAlgorithm(data));
+            assertEquals(statistics.getReachedNodeCount() + 1, statistics.getInsertCount());
+            assertEquals(statistics.getSettledNodeCount(), statistics.getDeleteCount());
+        }
+    }
+
+    @Test
+    public void testBellmanFord() {
+        for (ShortestPathData data: queries) {
+            for (RelaxationStrategy strategy: RelaxationStrategy.values()) {
+                BellmanFordAlgorithm algorithm = new BellmanFordAlgorithm(data);
+                algorithm.setRelaxationStrategy(strategy);
+                SearchStatistics statistics = runWithCounters(algorithm);
+                assertTrue(statistics.getSettledNodeCount() >= 1);
+                if (strategy == RelaxationStrategy.QUEUE) {
+                    // The search only stops once the queue is empty.
+                    assertEquals(statistics.getInsertCount(), statistics.getDeleteCount());
+                    assertTrue(statistics.getSettledNodeCount() >= statistics
+                            .getReachedNodeCount());
+                }
+                else {
+                    assertEquals(0, statistics.getInsertCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilteredArcs() {
+        // Arcs from settled nodes are either relaxed or filtered, so searches
+        // with a restrictive inspector filter arcs.
+        long nbFiltered = 0;
+        for (ShortestPathData data: queries) {
+            SearchStatistics statistics = runWithCounters(new DijkstraAlgorithm(data));
+            nbFiltered += statistics.getFilteredArcCount();
+            assertTrue(statistics.getRelaxedArcCount() >= statistics.getReachedNodeCount());
+        }
+        assertTrue(nbFiltered > 0);
+    }
+
+    @Test
+    public void testNoStatisticsBeforeRun() {
+        ShortestPathData data = queries.get(0);
+        assertNull(new ShortestPathSolution(data, Status.UNKNOWN).getStatistics());
+    }
+
+}
@@ -0,0 +1,178 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.insa.graphs.algorithm.utils.RadixHeap;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+public class SearchWorkspaceTest {
+
+    /**
+     * Check that no node of the given workspace has been touched.
+     */
+    private static void checkUntouched(SearchWorkspace workspace, int nbNodes) {
+        assertEquals(0, workspace.getTouchedNodeCount());
+        for (int node = 0; node < nbNodes; ++node) {
+            assertFalse(workspace.isTouched(node));
+            assertEquals(Double.POSITIVE_INFINITY, workspace.getDistance(node), 0);
+            assertEquals(Label.NO_PREDECESSOR, workspace.getPredecessorArc(node));
+            assertEquals(SearchWorkspace.UNREACHED, workspace.getState(node));
+            assertTrue(Double.isNaN(workspace.getHeuristic(node)));
+            assertNull(workspace.getLabel(node));
+        }
+    }
+
+    /**
+     * Set all the values of the given node.
+     */
+    private static void touchAll(SearchWorkspace workspace, int node) {
+        workspace.setDistance(node, 3.5);
+        workspace.setPredecessorArc(node, 7);
+        workspace.setState(node, SearchWorkspace.SETTLED);
+        workspace.setHeuristic(node, 1.5);
+        workspace.setLabel(node, new Label(new Node(node, null)));
+    }
+
+    @Test
+    public void testValues() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+            checkUntouched(workspace, 10);
+            touchAll(workspace, 4);
+            workspace.setDistance(4, 2.5);
+            workspace.setDistance(6, 1.0);
+            assertEquals(2, workspace.getTouchedNodeCount());
+            assertEquals(2.5, workspace.getDistance(4), 0);
+            assertEquals(7, workspace.getPredecessorArc(4));
+            assertEquals(SearchWorkspace.SETTLED, workspace.getState(4));
+            assertEquals(1.5, workspace.getHeuristic(4), 0);
+            assertEquals(4, workspace.getLabel(4).getNode().getId());
+
+            // Other values of a node touched through one of its values are the
+            // default ones.
+            assertEquals(1.0, workspace.getDistance(6), 0);
+            assertEquals(Label.NO_PREDECESSOR, workspace.getPredecessorArc(6));
+            assertEquals(SearchWorkspace.UNREACHED, workspace.getState(6));
+            assertNull(workspace.getLabel(6));
+        }
+    }
+
+    @Test
+    public void testResetAfterClose() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        for (int node = 0; node < 10; node += 2) {
+            touchAll(workspace, node);
+        }
+        workspace.getNodeHeap().insert(2, 1.0, 0.0);
+        workspace.getLabelHeap().insert(workspace.getLabel(4));
+        workspace.close();
+
+        try (SearchWorkspace other = SearchWorkspace.acquire(10)) {
+            assertSame(workspace, other);
+            checkUntouched(other, 10);
+            assertTrue(other.getNodeHeap().isEmpty());
+            assertTrue(other.getLabelHeap().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGenerationWrapAround() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+
+        // Node 3 is touched in generation 1, which is the generation following the
+        // wrap-around, and node 4 in the last generation.
+        workspace.setGeneration(1);
+        touchAll(workspace, 3);
+        workspace.setGeneration(Integer.MAX_VALUE);
+        touchAll(workspace, 4);
+        assertTrue(workspace.isTouched(4));
+        assertFalse(workspace.isTouched(3));
+        workspace.close();
+
+        try (SearchWorkspace other = SearchWorkspace.acquire(10)) {
+            assertSame(workspace, other);
+            checkUntouched(other, 10);
+            touchAll(other, 5);
+            assertTrue(other.isTouched(5));
+            assertEquals(1, other.getTouchedNodeCount());
+        }
+    }
+
+    @Test
+    public void testNestedAcquire() {
+        try (SearchWorkspace outer = SearchWorkspace.acquire(10)) {
+            outer.setDistance(1, 1.0);
+            try (SearchWorkspace inner = SearchWorkspace.acquire(10)) {
+                assertNotSame(outer, inner);
+                checkUntouched(inner, 10);
+                inner.setDistance(1, 2.0);
+                assertEquals(1.0, outer.getDistance(1), 0);
+                assertEquals(2.0, inner.getDistance(1), 0);
+                assertNotSame(outer.getNodeHeap(), inner.getNodeHeap());
+            }
+            assertEquals(1.0, outer.getDistance(1), 0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleClose() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        workspace.close();
+        workspace.close();
+    }
+
+    @Test
+    public void testDoubleCloseDoesNotPoolTwice() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        workspace.close();
+        try {
+            workspace.close();
+        }
+        catch (IllegalStateException e) {
+            // Expected.
+        }
+        try (SearchWorkspace first = SearchWorkspace.acquire(10);
+                SearchWorkspace second = SearchWorkspace.acquire(10)) {
+            assertNotSame(first, second);
+        }
+    }
+
+    @Test
+    public void testGrowth() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        touchAll(workspace, 9);
+        workspace.getNodeHeap();
+        workspace.getLabelHeap();
+        workspace.getMonotoneQueue(RadixHeap.class, RadixHeap::new);
+        workspace.close();
+
+        final int nbNodes = 1000;
+        try (SearchWorkspace other = SearchWorkspace.acquire(nbNodes)) {
+            assertSame(workspace, other);
+            checkUntouched(other, nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                touchAll(other, node);
+            }
+            assertEquals(nbNodes, other.getTouchedNodeCount());
+            assertEquals(3.5, other.getDistance(nbNodes - 1), 0);
+
+            assertTrue(other.getNodeHeap().getCapacity() >= nbNodes);
+            other.getNodeHeap().insert(nbNodes - 1, 1.0, 0.0);
+            assertEquals(nbNodes - 1, other.getNodeHeap().deleteMin());
+
+            other.getLabelHeap().insert(other.getLabel(nbNodes - 1));
+            assertSame(other.getLabel(nbNodes - 1), other.getLabelHeap().deleteMin());
+
+            RadixHeap queue = other.getMonotoneQueue(RadixHeap.class, RadixHeap::new);
+            assertTrue(queue.getCapacity() >= nbNodes);
+            queue.insert(nbNodes - 1, 5);
+            assertEquals(nbNodes - 1, queue.deleteMin());
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathTreeTest {
+
+    // Random graph used for tests.
+    private static Graph graph;
+
+    // Inspector used for tests.
+    private static ArcInspector inspector;
+
+    // Root of the trees and costs computed by Dijkstra for each node (infinity
+    // for unreachable nodes).
+    private static Node root;
+    private static double[] expectedCosts;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = TestGraphs.randomGraph(400, 1200, 42);
+        inspector = ArcInspectorFactory.getAllFilters().get(2);
+        root = graph.get(17);
+        expectedCosts = new double[graph.size()];
+        for (Node node: graph.getNodes()) {
+            if (node.equals(root)) {
+                continue;
+            }
+            ShortestPathSolution solution = new DijkstraAlgorithm(
+                    new ShortestPathData(graph, root, node, inspector)).run();
+            expectedCosts[node.getId()] = solution.isFeasible() ? cost(solution.getPath())
+                    : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * @return Cost of the given path for the inspector of the tests.
+     */
+    private static double cost(Path path) {
+        return path.getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+    /**
+     * Check the cost and the path of the given node in the given tree.
+     */
+    private static void checkNode(ShortestPathTree tree, Node node) {
+        double expectedCost = expectedCosts[node.getId()];
+        assertTrue(tree.contains(node));
+        assertEquals(expectedCost, tree.getCost(node), 1e-6 * expectedCost);
+        if (node.equals(root)) {
+            return;
+        }
+        Path path = tree.getPath(node);
+        assertTrue(path.isValid());
+        assertEquals(root, path.getOrigin());
+        assertEquals(node, path.getDestination());
+        assertEquals(expectedCost, cost(path), 1e-6 * expectedCost);
+    }
+
+    @Test
+    public void testOneToAll() {
+        ShortestPathTree tree = ShortestPathTree.compute(graph, root, inspector);
+        assertEquals(root, tree.getRoot());
+        int nbReachable = 0;
+        for (Node node: graph.getNodes()) {
+            if (Double.isInfinite(expectedCosts[node.getId()])) {
+                assertFalse(tree.contains(node));
+                assertNull(tree.getPath(node));
+            }
+            else {
+                checkNode(tree, node);
+                nbReachable += 1;
+            }
+        }
+        assertEquals(nbReachable, tree.size());
+    }
+
+    @Test
+    public void testRoot() {
+        ShortestPathTree tree = ShortestPathTree.compute(graph, root, inspector);
+        assertEquals(0, tree.getCost(root), 0);
+        assertEquals(Label.NO_PREDECESSOR, tree.getPredecessorArc(root));
+        assertEquals(1, tree.getPath(root).size());
+        assertTrue(tree.getPath(root).getArcs().isEmpty());
+        assertEquals(root, tree.getPath(root).getOrigin());
+    }
+
+    @Test
+    public void testBounded() {
+        double maxCost = 0;
+        for (double cost: expectedCosts) {
+            if (!Double.isInfinite(cost)) {
+                maxCost = Math.max(maxCost, cost);
+            }
+        }
+        maxCost /= 3;
+        ShortestPathTree tree = ShortestPathTree.computeBounded(graph, root, inspector, maxCost);
+        for (Node node: graph.getNodes()) {
+            if (expectedCosts[node.getId()] <= maxCost) {
+                checkNode(tree, node);
+            }
+            else {
+                assertFalse(tree.contains(node));
+            }
+        }
+    }
+
+    @Test
+    public void testTargets() {
+        Random random = new Random(5);
+        List<Node> targets = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            targets.add(graph.get(random.nextInt(graph.size())));
+        }
+        targets.add(targets.get(0));
+        ShortestPathTree tree = ShortestPathTree.computeToTargets(graph, root, inspector,
+                targets);
+        for (Node target: targets) {
+            if (Double.isInfinite(expectedCosts[target.getId()])) {
+                assertFalse(tree.contains(target));
+            }
+            else {
+                checkNode(tree, target);
+            }
+        }
+        assertTrue(tree.size() <= ShortestPathTree.compute(graph, root, inspector).size());
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * Graphs used by the shortest-path tests.
+ */
+public final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Create a random graph around Toulouse, with one-way roads, roads open to
+     * cars and pedestrian roads. The length of each road is at least the distance
+     * between its nodes.
+     *
+     * @param nbNodes Number of nodes.
+     * @param nbRoads Number of roads.
+     * @param seed Seed of the generator.
+     *
+     * @return A new random graph.
+     */
+    public static Graph randomGraph(int nbNodes, int nbRoads, long seed) {
+        Random random = new Random(seed);
+        RoadInformation[] descriptors = new RoadInformation[] {
+                new RoadInformation(RoadType.MOTORWAY, AccessRestrictions.fromAccessWord(
+                        0x0000_0011_1111_1111L), true, 130, ""),
+                new RoadInformation(RoadType.RESIDENTIAL, AccessRestrictions.fromAccessWord(
+                        0x0000_0011_1111_1111L), false, 50, ""),
+                new RoadInformation(RoadType.PEDESTRIAN, AccessRestrictions.fromAccessWord(
+                        0x0000_0000_0000_0001L), false, 5, "") };
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < nbNodes; ++i) {
+            nodes.add(new Node(i, new Point(1.4f + 0.2f * random.nextFloat(),
+                    43.5f + 0.2f * random.nextFloat())));
+        }
+        for (int i = 0; i < nbRoads; ++i) {
+            Node origin = nodes.get(random.nextInt(nodes.size())),
+                    destination = nodes.get(random.nextInt(nodes.size()));
+            List<Point> points = new ArrayList<>();
+            points.add(origin.getPoint());
+            points.add(destination.getPoint());
+            float length = (float) (origin.getPoint().distanceTo(destination.getPoint())
+                    * (1 + random.nextFloat()));
+            Node.linkNodes(origin, destination, length,
+                    descriptors[random.nextInt(descriptors.length)], points);
+        }
+        return new Graph("ID", "", nodes, new GraphStatistics(null, -1, -1, 130, 0));
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public abstract class AddressablePriorityQueueTest extends PriorityQueueTest {
+
+    // Index of each element, elements are indexed in order of first appearance.
+    private final Map<MutableInteger, Integer> indices = new IdentityHashMap<>();
+
+    protected int indexOf(MutableInteger x) {
+        Integer index = indices.get(x);
+        if (index == null) {
+            index = indices.size();
+            indices.put(x, index);
+        }
+        return index;
+    }
+
+    @Override
+    public abstract AddressablePriorityQueue<MutableInteger> createQueue();
+
+    /**
+     * Check that elements are removed from the given queue in order.
+     */
+    private static void checkDrain(AddressablePriorityQueue<MutableInteger> queue) {
+        int previous = Integer.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            int value = queue.deleteMin().get();
+            assertTrue(previous <= value);
+            previous = value;
+        }
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeFalse(parameters.data.length == 0);
+        AddressablePriorityQueue<MutableInteger> queue = createQueue();
+        for (MutableInteger x: parameters.data) {
+            queue.insert(x);
+        }
+        int min = queue.findMin().get();
+        for (MutableInteger x: parameters.data) {
+            x.set(--min);
+            queue.decreaseKey(x);
+            assertEquals(min, queue.findMin().get());
+            assertEquals(parameters.data.length, queue.size());
+        }
+        checkDrain(queue);
+    }
+
+    @Test
+    public void testContains() {
+        AddressablePriorityQueue<MutableInteger> queue = createQueue();
+        for (MutableInteger x: parameters.data) {
+            queue.insert(x);
+            assertTrue(queue.contains(x));
+        }
+        while (!queue.isEmpty()) {
+            MutableInteger x = queue.deleteMin();
+            assertTrue(!queue.contains(x));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        AddressablePriorityQueue<MutableInteger> queue = createQueue();
+        for (MutableInteger x: parameters.data) {
+            queue.insert(x);
+        }
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        for (MutableInteger x: parameters.data) {
+            assertTrue(!queue.contains(x));
+            queue.insert(x);
+        }
+        assertEquals(parameters.data.length, queue.size());
+        checkDrain(queue);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(parameters.data.length);
+        AddressablePriorityQueue<MutableInteger> queue = createQueue();
+        MutableInteger[] pool = new MutableInteger[100];
+        for (int i = 0; i < pool.length; ++i) {
+            pool[i] = new MutableInteger(0);
+        }
+
+        // Elements expected in the queue.
+        List<MutableInteger> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i) {
+            MutableInteger x = pool[random.nextInt(pool.length)];
+            if (!expected.contains(x)) {
+                x.set(random.nextInt(1000));
+                queue.insert(x);
+                expected.add(x);
+            }
+            else {
+                switch (random.nextInt(3)) {
+                case 0:
+                    x.set(x.get() - random.nextInt(100));
+                    queue.decreaseKey(x);
+                    break;
+                case 1:
+                    queue.remove(x);
+                    expected.remove(x);
+                    break;
+                default:
+                    MutableInteger min = queue.deleteMin();
+                    assertTrue(expected.remove(min));
+                    for (MutableInteger y: expected) {
+                        assertTrue(min.get() <= y.get());
+                    }
+                    break;
+                }
+            }
+            assertEquals(expected.size(), queue.size());
+            for (MutableInteger y: pool) {
+                assertEquals(expected.contains(y), queue.contains(y));
+            }
+            if (!expected.isEmpty()) {
+                int min = expected.stream().mapToInt(MutableInteger::get).min().getAsInt();
+                assertEquals(min, queue.findMin().get());
+            }
+        }
+        checkDrain(queue);
+    }
+
+}
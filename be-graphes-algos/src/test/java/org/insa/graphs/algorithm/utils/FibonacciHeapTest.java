@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class FibonacciHeapTest extends AddressablePriorityQueueTest {
+
+    @Override
+    public AddressablePriorityQueue<MutableInteger> createQueue() {
+        return new FibonacciHeap<>(this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new FibonacciHeap<>((FibonacciHeap<MutableInteger>) queue);
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IndexedBinaryHeapTest extends AddressablePriorityQueueTest {
+
+    @Override
+    public AddressablePriorityQueue<MutableInteger> createQueue() {
+        return new IndexedBinaryHeap<>(this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new IndexedBinaryHeap<>((IndexedBinaryHeap<MutableInteger>) queue);
+    }
+
+    @Test
+    public void testValidity() {
+        IndexedBinaryHeap<MutableInteger> heap = new IndexedBinaryHeap<>(this::indexOf);
+        for (MutableInteger x: parameters.data) {
+            heap.insert(x);
+            assertTrue(heap.isValid());
+        }
+        for (int i = 0; i < parameters.data.length; i += 2) {
+            heap.remove(parameters.data[i]);
+            assertTrue(heap.isValid());
+        }
+        while (!heap.isEmpty()) {
+            heap.deleteMin();
+            assertTrue(heap.isValid());
+        }
+    }
+
+}
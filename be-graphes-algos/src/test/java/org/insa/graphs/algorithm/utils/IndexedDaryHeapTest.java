@@ -0,0 +1,44 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IndexedDaryHeapTest extends AddressablePriorityQueueTest {
+
+    @Override
+    public AddressablePriorityQueue<MutableInteger> createQueue() {
+        return new IndexedDaryHeap<>(this::indexOf, 4);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new IndexedDaryHeap<>((IndexedDaryHeap<MutableInteger>) queue);
+    }
+
+    @Test
+    public void testArity() {
+        for (int arity: new int[] { 2, 3, 8 }) {
+            IndexedDaryHeap<MutableInteger> heap = new IndexedDaryHeap<>(this::indexOf, arity);
+            assertEquals(arity, heap.getArity());
+            for (MutableInteger x: parameters.data) {
+                heap.insert(x);
+                assertTrue(heap.isValid());
+            }
+            int previous = Integer.MIN_VALUE;
+            while (!heap.isEmpty()) {
+                int value = heap.deleteMin().get();
+                assertTrue(heap.isValid());
+                assertTrue(previous <= value);
+                previous = value;
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArity() {
+        new IndexedDaryHeap<>(this::indexOf, 1);
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedDoubleHeapTest {
+
+    @Test
+    public void testEmpty() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(10);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertEquals(10, heap.getCapacity());
+        assertFalse(heap.contains(3));
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmptyDeleteMin() {
+        new IndexedDoubleHeap(10).deleteMin();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwice() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(10);
+        heap.insert(3, 1, 1);
+        heap.insert(3, 2, 2);
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testDecreaseKeyNotFound() {
+        new IndexedDoubleHeap(10).decreaseKey(3, 1, 1);
+    }
+
+    @Test
+    public void testTieBreaking() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(10);
+        heap.insert(0, 10, 5);
+        heap.insert(1, 10 + IndexedDoubleHeap.EPSILON / 2, 2);
+        heap.insert(2, 9, 8);
+        heap.insert(3, 10, 3);
+        assertTrue(heap.isValid());
+        assertEquals(2, heap.deleteMin());
+        assertEquals(1, heap.deleteMin());
+        assertEquals(3, heap.deleteMin());
+        assertEquals(0, heap.deleteMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final int capacity = 200;
+        Random random = new Random(42);
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(capacity);
+
+        // Expected keys of the items (NaN if the item is not in the heap).
+        double[] keys = new double[capacity];
+        Arrays.fill(keys, Double.NaN);
+        int size = 0;
+        for (int i = 0; i < 20000; ++i) {
+            int item = random.nextInt(capacity);
+            if (Double.isNaN(keys[item])) {
+                keys[item] = random.nextInt(1000);
+                heap.insert(item, keys[item], 0);
+                size += 1;
+            }
+            else if (random.nextBoolean()) {
+                keys[item] -= random.nextInt(100);
+                heap.decreaseKey(item, keys[item], 0);
+            }
+            else {
+                int min = heap.deleteMin();
+                for (double key: keys) {
+                    assertFalse(key < keys[min]);
+                }
+                keys[min] = Double.NaN;
+                size -= 1;
+            }
+            assertTrue(heap.isValid());
+            assertEquals(size, heap.size());
+            for (int j = 0; j < capacity; ++j) {
+                assertEquals(!Double.isNaN(keys[j]), heap.contains(j));
+                if (heap.contains(j)) {
+                    assertEquals(keys[j], heap.getKey(j), 0);
+                }
+            }
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        for (int j = 0; j < capacity; ++j) {
+            assertFalse(heap.contains(j));
+        }
+    }
+
+}
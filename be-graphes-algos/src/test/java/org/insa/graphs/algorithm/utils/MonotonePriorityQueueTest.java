@@ -0,0 +1,172 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class MonotonePriorityQueueTest {
+
+    // Capacity of the queues.
+    private static final int CAPACITY = 2000;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        Collection<Object[]> objects = new ArrayList<>();
+        objects.add(new Object[] { "RadixHeap",
+                (IntFunction<MonotonePriorityQueue>) RadixHeap::new });
+        objects.add(new Object[] { "MultiLevelBucketQueue",
+                (IntFunction<MonotonePriorityQueue>) MultiLevelBucketQueue::new });
+        objects.add(new Object[] { "MultiLevelBucketQueue (3 bits)",
+                (IntFunction<MonotonePriorityQueue>) capacity -> new MultiLevelBucketQueue(
+                        capacity, 3) });
+        objects.add(new Object[] { "MultiLevelBucketQueue (16 bits)",
+                (IntFunction<MonotonePriorityQueue>) capacity -> new MultiLevelBucketQueue(
+                        capacity, 16) });
+        return objects;
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public IntFunction<MonotonePriorityQueue> factory;
+
+    @Test
+    public void testEmpty() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        assertEquals(CAPACITY, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getLastKey());
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testDeleteMinEmpty() {
+        factory.apply(CAPACITY).deleteMin();
+    }
+
+    @Test
+    public void testSameKeys() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        for (int item = 0; item < 10; ++item) {
+            queue.insert(item, 42);
+        }
+        for (int i = 0; i < 10; ++i) {
+            queue.deleteMin();
+            assertEquals(42, queue.getLastKey());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Run a Dijkstra-like workload (inserted keys and new keys are above the last
+     * removed key), and compare the removed keys to the ones of a reference queue.
+     */
+    @Test
+    public void testAgainstReference() {
+        for (long range: new long[] { 10, 1000, 1L << 40 }) {
+            MonotonePriorityQueue queue = factory.apply(CAPACITY);
+            TreeSet<long[]> reference = new TreeSet<>(
+                    (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            long[] keys = new long[CAPACITY];
+            boolean[] removed = new boolean[CAPACITY];
+            Random random = new Random(range);
+
+            queue.insert(0, 0);
+            keys[0] = 0;
+            reference.add(new long[] { 0, 0 });
+            while (!reference.isEmpty()) {
+                long[] expected = reference.pollFirst();
+                int item = queue.deleteMin();
+                assertEquals(expected[0], keys[item]);
+                assertEquals(expected[0], queue.getLastKey());
+                assertFalse(queue.contains(item));
+                removed[item] = true;
+                if (item != expected[1]) {
+                    // Same key, other item.
+                    assertTrue(reference.remove(new long[] { keys[item], item }));
+                    reference.add(expected);
+                }
+                for (int i = 0; i < 3; ++i) {
+                    int other = random.nextInt(CAPACITY);
+                    long key = queue.getLastKey() + (long) (random.nextDouble() * range);
+                    if (removed[other] || (queue.contains(other) && queue.getKey(other) <= key)) {
+                        continue;
+                    }
+                    if (queue.contains(other)) {
+                        reference.remove(new long[] { keys[other], other });
+                        queue.decreaseKey(other, key);
+                    }
+                    else {
+                        queue.insert(other, key);
+                    }
+                    keys[other] = key;
+                    reference.add(new long[] { key, other });
+                    assertEquals(key, queue.getKey(other));
+                }
+                assertEquals(reference.size(), queue.size());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        for (int item = 0; item < 100; ++item) {
+            queue.insert(item, 1000 + 37 * item);
+        }
+        queue.deleteMin();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getLastKey());
+        for (int item = 0; item < 100; ++item) {
+            assertFalse(queue.contains(item));
+        }
+        queue.insert(5, 3);
+        queue.insert(7, 1);
+        assertEquals(7, queue.deleteMin());
+        assertEquals(5, queue.deleteMin());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertBelowLastKey() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        queue.insert(0, 10);
+        queue.deleteMin();
+        queue.insert(1, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwice() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        queue.insert(0, 10);
+        queue.insert(0, 12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKey() {
+        MonotonePriorityQueue queue = factory.apply(CAPACITY);
+        queue.insert(0, 10);
+        queue.decreaseKey(0, 11);
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testDecreaseKeyMissing() {
+        factory.apply(CAPACITY).decreaseKey(3, 0);
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class PairingHeapTest extends AddressablePriorityQueueTest {
+
+    @Override
+    public AddressablePriorityQueue<MutableInteger> createQueue() {
+        return new PairingHeap<>(this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new PairingHeap<>((PairingHeap<MutableInteger>) queue);
+    }
+
+}
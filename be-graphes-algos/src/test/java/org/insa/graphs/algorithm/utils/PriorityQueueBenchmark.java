@@ -0,0 +1,122 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Random;
+
+/**
+ * Small benchmark comparing priority queue implementations on a workload
+ * similar to the one of Dijkstra's algorithm: each element is inserted once,
+ * its key is decreased a few times, and it is finally removed with deleteMin.
+ * 
+ * Usage: {@code PriorityQueueBenchmark [nbElements [nbRuns]]}.
+ */
+public class PriorityQueueBenchmark {
+
+    /**
+     * Element of the benchmark, with a mutable key and a fixed index.
+     */
+    private static class Entry implements Comparable<Entry> {
+
+        private final int index;
+        private double key;
+
+        public Entry(int index, double key) {
+            this.index = index;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Double.compare(this.key, other.key);
+        }
+
+    }
+
+    /**
+     * Run the workload using remove + insert to update keys (the only option with
+     * a plain {@link PriorityQueue}).
+     */
+    private static double runWithRemoveInsert(PriorityQueue<Entry> queue, Entry[] entries,
+            int[] updates, double[] keys) {
+        long start = System.nanoTime();
+        for (Entry entry: entries) {
+            queue.insert(entry);
+        }
+        int u = 0;
+        while (!queue.isEmpty()) {
+            queue.deleteMin();
+            for (int i = 0; i < 3 && u < updates.length; ++i, ++u) {
+                Entry entry = entries[updates[u]];
+                try {
+                    queue.remove(entry);
+                }
+                catch (ElementNotFoundException e) {
+                    continue;
+                }
+                entry.key = Math.min(entry.key, keys[u]);
+                queue.insert(entry);
+            }
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Run the workload using decreaseKey to update keys.
+     */
+    private static double runWithDecreaseKey(IndexedBinaryHeap<Entry> queue, Entry[] entries,
+            int[] updates, double[] keys) {
+        long start = System.nanoTime();
+        for (Entry entry: entries) {
+            queue.insert(entry);
+        }
+        int u = 0;
+        while (!queue.isEmpty()) {
+            queue.deleteMin();
+            for (int i = 0; i < 3 && u < updates.length; ++i, ++u) {
+                Entry entry = entries[updates[u]];
+                if (queue.contains(entry)) {
+                    entry.key = Math.min(entry.key, keys[u]);
+                    queue.decreaseKey(entry);
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Create a fresh set of entries with the given seed.
+     */
+    private static Entry[] createEntries(int n, long seed) {
+        Random random = new Random(seed);
+        Entry[] entries = new Entry[n];
+        for (int i = 0; i < n; ++i) {
+            entries[i] = new Entry(i, random.nextDouble() * 1e6);
+        }
+        return entries;
+    }
+
+    public static void main(String[] args) {
+        final int n = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        final int nbRuns = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(42);
+        int[] updates = new int[3 * n];
+        double[] keys = new double[3 * n];
+        for (int i = 0; i < updates.length; ++i) {
+            updates[i] = random.nextInt(n);
+            keys[i] = random.nextDouble() * 1e6;
+        }
+
+        System.out.println("Workload: " + n + " elements, " + updates.length + " key updates.");
+        for (int run = 0; run < nbRuns; ++run) {
+            double binaryHeap = runWithRemoveInsert(new BinaryHeap<Entry>(),
+                    createEntries(n, run), updates, keys);
+            double indexedHeap = runWithDecreaseKey(
+                    new IndexedBinaryHeap<Entry>(entry -> entry.index, n), createEntries(n, run),
+                    updates, keys);
+            System.out.println(String.format(
+                    "Run %d: BinaryHeap %.1f ms, IndexedBinaryHeap %.1f ms (x%.1f)", run,
+                    binaryHeap, indexedHeap, binaryHeap / indexedHeap));
+        }
+    }
+
+}
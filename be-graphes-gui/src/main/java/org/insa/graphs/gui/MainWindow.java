@@ -16,6 +16,7 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -67,9 +68,8 @@ import org.insa.graphs.gui.utils.FileUtils;
 import org.insa.graphs.gui.utils.FileUtils.FolderType;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
-import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
-import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.GraphSnapshots;
 import org.insa.graphs.model.io.MapMismatchException;
 
 public class MainWindow extends JFrame {
@@ -296,19 +296,7 @@ public class MainWindow extends JFrame {
                 JFileChooser chooser = FileUtils.createFileChooser(FolderType.Map);
                 if (chooser.showOpenDialog(MainWindow.this) == JFileChooser.APPROVE_OPTION) {
                     graphFilePath = chooser.getSelectedFile().getAbsolutePath();
-
-                    // Note: Don't use a try-resources block since loadGraph is asynchronous.
-                    final DataInputStream stream;
-                    try {
-                        stream = new DataInputStream(new BufferedInputStream(
-                                new FileInputStream(chooser.getSelectedFile())));
-                    }
-                    catch (IOException e1) {
-                        JOptionPane.showMessageDialog(MainWindow.this,
-                                "Cannot open the selected file.");
-                        return;
-                    }
-                    loadGraph(new BinaryGraphReader(stream));
+                    loadGraph(chooser.getSelectedFile());
                 }
             }
         };
@@ -401,7 +389,12 @@ public class MainWindow extends JFrame {
                     threadTimer.restart();
                     threadPanel.setVisible(true);
                     runnable.run();
-                    clearCurrentThread();
+
+                    // The thread may have been interrupted and replaced by another
+                    // one in the meantime.
+                    if (currentThread.getThread() == Thread.currentThread()) {
+                        clearCurrentThread();
+                    }
                 }
             }));
         }
@@ -572,16 +565,21 @@ public class MainWindow extends JFrame {
         drawGraph(null, this.currentPalette);
     }
 
-    private void loadGraph(GraphReader reader) {
+    private void loadGraph(File graphFile) {
         launchThread(new Runnable() {
             @Override
             public void run() {
                 GraphReaderProgressBar progressBar = new GraphReaderProgressBar(MainWindow.this);
                 progressBar.setLocationRelativeTo(mainPanel.getLeftComponent());
-                reader.addObserver(progressBar);
                 try {
-                    graph = reader.read();
-                    reader.close();
+                    // Read through the snapshot of the graph (created on first read).
+                    graph = GraphSnapshots.readGraph(graphFile, progressBar);
+                }
+                catch (InterruptedIOException exception) {
+                    // Reading has been stopped by the user.
+                    progressBar.setVisible(false);
+                    progressBar.dispose();
+                    return;
                 }
                 catch (Exception exception) {
                     progressBar.setVisible(false);
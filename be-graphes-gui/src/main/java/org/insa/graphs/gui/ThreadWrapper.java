@@ -37,10 +37,12 @@ public class ThreadWrapper implements RunningAction {
         return thread != null && thread.isAlive();
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public void interrupt() {
-        thread.stop();
+        // Actions check the interrupted flag of their thread: algorithms return a
+        // cancelled solution (see AbstractAlgorithm#checkInterruption()), graph
+        // reading fails with an InterruptedIOException and drawing stops.
+        thread.interrupt();
         this.mainWindow.clearCurrentThread();
     }
 
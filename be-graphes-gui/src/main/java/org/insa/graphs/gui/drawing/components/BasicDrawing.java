@@ -15,7 +15,6 @@ import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import javax.swing.JPanel;
@@ -33,6 +32,7 @@ import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ArcPoints;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
@@ -169,16 +169,16 @@ public class BasicDrawing extends JPanel implements Drawing {
 
     private class BasicPathOverlay extends BasicOverlay implements PathOverlay {
 
-        // List of points
-        private final List<Point> points;
+        // Points of the arcs of the path.
+        private final List<ArcPoints> polylines;
 
         // Origin / Destination markers.
         private BasicMarkerOverlay origin, destination;
 
-        public BasicPathOverlay(List<Point> points, Color color, BasicMarkerOverlay origin,
-                BasicMarkerOverlay destination) {
+        public BasicPathOverlay(List<ArcPoints> polylines, Color color,
+                BasicMarkerOverlay origin, BasicMarkerOverlay destination) {
             super(color);
-            this.points = points;
+            this.polylines = polylines;
             this.origin = origin;
             this.destination = destination;
             this.color = color;
@@ -198,25 +198,13 @@ public class BasicDrawing extends JPanel implements Drawing {
         @Override
         public void drawImpl(Graphics2D graphics) {
 
-            if (!points.isEmpty()) {
+            if (!polylines.isEmpty()) {
 
                 graphics.setStroke(new BasicStroke(2));
                 graphics.setColor(getColor());
 
-                Iterator<Point> itPoint = points.iterator();
-                Point prev = itPoint.next();
-
-                while (itPoint.hasNext()) {
-                    Point curr = itPoint.next();
-
-                    int x1 = projection.longitudeToPixelX(prev.getLongitude());
-                    int x2 = projection.longitudeToPixelX(curr.getLongitude());
-                    int y1 = projection.latitudeToPixelY(prev.getLatitude());
-                    int y2 = projection.latitudeToPixelY(curr.getLatitude());
-
-                    graphics.drawLine(x1, y1, x2, y2);
-
-                    prev = curr;
+                for (ArcPoints points: polylines) {
+                    drawPolyline(graphics, projection, points);
                 }
 
             }
@@ -581,31 +569,44 @@ public class BasicDrawing extends JPanel implements Drawing {
      *        use current settings.
      */
     protected void drawArc(Arc arc, GraphPalette palette, boolean repaint) {
-        List<Point> pts = arc.getPoints();
+        ArcPoints pts = arc.getPoints();
         if (!pts.isEmpty()) {
             if (palette != null) {
                 this.graphGraphics.setColor(palette.getColorForArc(arc));
                 this.graphGraphics.setStroke(new BasicStroke(palette.getWidthForArc(arc)));
             }
-            Iterator<Point> it1 = pts.iterator();
-            Point prev = it1.next();
-            while (it1.hasNext()) {
-                Point curr = it1.next();
-
-                int x1 = projection.longitudeToPixelX(prev.getLongitude());
-                int x2 = projection.longitudeToPixelX(curr.getLongitude());
-                int y1 = projection.latitudeToPixelY(prev.getLatitude());
-                int y2 = projection.latitudeToPixelY(curr.getLatitude());
-
-                graphGraphics.drawLine(x1, y1, x2, y2);
-                prev = curr;
-            }
+            drawPolyline(this.graphGraphics, projection, pts);
         }
         if (repaint) {
             this.repaint();
         }
     }
 
+    /**
+     * Draw the segments between the given points, without creating intermediate
+     * {@link Point} instances.
+     * 
+     * @param graphics Graphics to draw on.
+     * @param projection Projection from coordinates to pixels.
+     * @param points Points of the polyline to draw.
+     */
+    static void drawPolyline(Graphics2D graphics, Projection projection, ArcPoints points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        int x1 = projection.longitudeToPixelX(points.getLongitude(0));
+        int y1 = projection.latitudeToPixelY(points.getLatitude(0));
+        for (int i = 1; i < points.size(); ++i) {
+            int x2 = projection.longitudeToPixelX(points.getLongitude(i));
+            int y2 = projection.latitudeToPixelY(points.getLatitude(i));
+
+            graphics.drawLine(x1, y1, x2, y2);
+
+            x1 = x2;
+            y1 = y2;
+        }
+    }
+
     /**
      * Initialize the drawing for the given graph.
      * 
@@ -680,6 +681,11 @@ public class BasicDrawing extends JPanel implements Drawing {
         this.removeMouseWheelListener(zoomAndPanListener);
 
         for (Node node: graph.getNodes()) {
+            // Stop drawing if the drawing thread has been interrupted (e.g., by
+            // another action).
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
             for (Arc arc: node.getSuccessors()) {
                 // Draw arcs only if there are one-way arcs or if origin is lower than
                 // destination, avoid drawing two-ways arc twice.
@@ -707,17 +713,9 @@ public class BasicDrawing extends JPanel implements Drawing {
 
     @Override
     public PathOverlay drawPath(Path path, Color color, boolean markers) {
-        List<Point> points = new ArrayList<Point>();
-        if (!path.isEmpty()) {
-            points.add(path.getOrigin().getPoint());
-            for (Arc arc: path.getArcs()) {
-                Iterator<Point> itPoint = arc.getPoints().iterator();
-                // Discard origin each time
-                itPoint.next();
-                while (itPoint.hasNext()) {
-                    points.add(itPoint.next());
-                }
-            }
+        List<ArcPoints> polylines = new ArrayList<ArcPoints>(path.getArcs().size());
+        for (Arc arc: path.getArcs()) {
+            polylines.add(arc.getPoints());
         }
         BasicMarkerOverlay origin = null, destination = null;
         if (markers && !path.isEmpty()) {
@@ -726,7 +724,7 @@ public class BasicDrawing extends JPanel implements Drawing {
                     AlphaMode.TRANSPARENT);
         }
         return (PathOverlay) this.overlays
-                .add(new BasicPathOverlay(points, color, origin, destination));
+                .add(new BasicPathOverlay(polylines, color, origin, destination));
     }
 
     @Override
@@ -4,6 +4,7 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 
 import javax.swing.JFrame;
@@ -13,9 +14,8 @@ import org.insa.graphs.gui.drawing.Drawing;
 import org.insa.graphs.gui.drawing.components.BasicDrawing;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
-import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
-import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.GraphSnapshots;
 import org.insa.graphs.model.io.PathReader;
 
 public class Launch {
@@ -50,12 +50,8 @@ public class Launch {
         final String mapName = "C:/3MIC-IR/BE-Graphes/Maps/insa.mapgr";
         final String pathName = "C:/3MIC-IR/BE-Graphes/Paths/path_fr31insa_rangueil_r2.path";
 
-        // Create a graph reader.
-        final GraphReader reader = new BinaryGraphReader(
-                new DataInputStream(new BufferedInputStream(new FileInputStream(mapName))));
-
-        // Read the graph.
-        final Graph graph = reader.read();
+        // Read the graph, through its snapshot (created next to the map on first read).
+        final Graph graph = GraphSnapshots.readGraph(new File(mapName));
 
         // Create the drawing:
         final Drawing drawing = createDrawing();
@@ -72,8 +68,7 @@ public class Launch {
 
         // Draw the path.
         drawing.drawPath(path);
-        
-        reader.close();
+
         pathReader.close();
     }
 
@@ -0,0 +1,146 @@
+package org.insa.graphs.gui.drawing.components;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.gui.drawing.PlateCarreProjection;
+import org.insa.graphs.gui.drawing.Projection;
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BasicDrawingTest {
+
+    // Size of the images.
+    private static final int SIZE = 400;
+
+    // Projection used to draw.
+    private static Projection projection;
+
+    // Random polylines, as lists of points and as packed points.
+    private static List<List<Point>> polylines;
+    private static List<ArcPoints> packedPolylines;
+
+    @BeforeClass
+    public static void initAll() {
+        projection = new PlateCarreProjection(
+                new BoundingBox(new Point(1.3f, 43.7f), new Point(1.6f, 43.5f)), SIZE);
+
+        Random random = new Random(42);
+        PackedGeometry geometry = new PackedGeometry();
+        polylines = new ArrayList<>();
+        packedPolylines = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            int offset = geometry.size(), size = random.nextInt(6);
+            for (int j = 0; j < size; ++j) {
+                geometry.add(1300000 + random.nextInt(300000), 43500000 + random.nextInt(200000));
+            }
+            ArcPoints points = geometry.getPoints(offset, size);
+            List<Point> list = new ArrayList<>();
+            for (int j = 0; j < size; ++j) {
+                list.add(new Point(points.getLongitude(j), points.getLatitude(j)));
+            }
+            polylines.add(list);
+            packedPolylines.add(points);
+        }
+    }
+
+    /**
+     * @return A new white image with a graphics to draw in black on it.
+     */
+    private static BufferedImage createImage() {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, SIZE, SIZE);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Draw the given points by iterating over Point instances, as the drawing did
+     * before the cursor API of ArcPoints.
+     */
+    private static void drawPoints(Graphics2D graphics, List<Point> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        Iterator<Point> it = points.iterator();
+        Point prev = it.next();
+        while (it.hasNext()) {
+            Point curr = it.next();
+            graphics.drawLine(projection.longitudeToPixelX(prev.getLongitude()),
+                    projection.latitudeToPixelY(prev.getLatitude()),
+                    projection.longitudeToPixelX(curr.getLongitude()),
+                    projection.latitudeToPixelY(curr.getLatitude()));
+            prev = curr;
+        }
+    }
+
+    /**
+     * @return Pixels of the given image.
+     */
+    private static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Check that the given polylines are drawn through the cursor API exactly as
+     * the expected lists of points.
+     */
+    private static void checkSameDrawing(List<List<Point>> expectedPolylines,
+            List<ArcPoints> actualPolylines) {
+        BufferedImage expected = createImage(), actual = createImage();
+        Graphics2D expectedGraphics = expected.createGraphics(),
+                actualGraphics = actual.createGraphics();
+        expectedGraphics.setColor(Color.BLACK);
+        actualGraphics.setColor(Color.BLACK);
+        for (int i = 0; i < expectedPolylines.size(); ++i) {
+            drawPoints(expectedGraphics, expectedPolylines.get(i));
+            BasicDrawing.drawPolyline(actualGraphics, projection, actualPolylines.get(i));
+        }
+        expectedGraphics.dispose();
+        actualGraphics.dispose();
+        assertArrayEquals(pixels(expected), pixels(actual));
+    }
+
+    @Test
+    public void testPackedPolylines() {
+        checkSameDrawing(polylines, packedPolylines);
+    }
+
+    @Test
+    public void testReversedPolylines() {
+        List<List<Point>> expected = new ArrayList<>();
+        List<ArcPoints> reversed = new ArrayList<>();
+        for (int i = 0; i < polylines.size(); ++i) {
+            List<Point> points = new ArrayList<>(polylines.get(i));
+            Collections.reverse(points);
+            expected.add(points);
+            reversed.add(packedPolylines.get(i).reverse());
+        }
+        checkSameDrawing(expected, reversed);
+    }
+
+    @Test
+    public void testListPolylines() {
+        List<ArcPoints> views = new ArrayList<>();
+        for (List<Point> points: polylines) {
+            views.add(ArcPoints.of(points));
+        }
+        checkSameDrawing(polylines, views);
+    }
+
+}
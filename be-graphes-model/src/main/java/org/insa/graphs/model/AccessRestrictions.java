@@ -1,7 +1,9 @@
 package org.insa.graphs.model;
 
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -10,7 +12,9 @@ import java.util.EnumSet;
  * 
  * <p>
  * This class maps transport modes to their restriction and provide interface
- * based on EnumSet to query restrictions.
+ * based on EnumSet to query restrictions. Restrictions are stored as a single
+ * access word (4 bits per mode), and {@link AccessMask} can be used to check
+ * restrictions without any allocation.
  * </p>
  * 
  * <p>
@@ -153,17 +157,151 @@ public class AccessRestrictions {
 
     }
 
-    // Map mode -> restriction
-    private final EnumMap<AccessMode, AccessRestriction> restrictions;
+    /**
+     * <p>
+     * Predicate on access restrictions, precompiled from a set of modes and a set
+     * of restrictions, that can be tested without allocation.
+     * </p>
+     * 
+     * <p>
+     * A mask accepts an instance of AccessRestrictions if the restriction of each
+     * of its modes is one of its restrictions, i.e. {@code mask.test(access)} is
+     * equivalent to {@code access.areAllAllowedForAny(modes, restrictions)}.
+     * </p>
+     *
+     */
+    public static final class AccessMask {
+
+        /**
+         * Create a mask accepting access restrictions whose restriction for the given
+         * mode is one of the given restrictions.
+         * 
+         * @param mode Mode to check.
+         * @param restrictions Accepted restrictions for the mode.
+         * 
+         * @return The corresponding mask.
+         */
+        public static AccessMask of(AccessMode mode, EnumSet<AccessRestriction> restrictions) {
+            return of(EnumSet.of(mode), restrictions);
+        }
+
+        /**
+         * Create a mask accepting access restrictions whose restrictions for all the
+         * given modes are in the given restrictions.
+         * 
+         * @param modes Modes to check.
+         * @param restrictions Accepted restrictions for the modes.
+         * 
+         * @return The corresponding mask.
+         */
+        public static AccessMask of(EnumSet<AccessMode> modes,
+                EnumSet<AccessRestriction> restrictions) {
+            int[] shifts = new int[modes.size()];
+            int i = 0;
+            for (AccessMode mode: modes) {
+                shifts[i++] = MODE_SHIFTS[mode.ordinal()];
+            }
+            int values = 0;
+            for (int value = 0; value < VALUE_RESTRICTIONS.length; ++value) {
+                if (restrictions.contains(VALUE_RESTRICTIONS[value])) {
+                    values |= 1 << value;
+                }
+            }
+            return new AccessMask(shifts, values);
+        }
+
+        // Shifts of the modes in the access word.
+        private final int[] shifts;
+
+        // Accepted 4-bits values (bit i set if value i is accepted).
+        private final int values;
+
+        private AccessMask(int[] shifts, int values) {
+            this.shifts = shifts;
+            this.values = values;
+        }
+
+        /**
+         * @param access Access word to test (see
+         *        {@link AccessRestrictions#getAccessWord()}).
+         * 
+         * @return true if this mask accepts the given access word.
+         */
+        public boolean test(long access) {
+            for (int shift: shifts) {
+                if ((values & (1 << ((int) (access >>> shift) & 0xf))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param access Access restrictions to test.
+         * 
+         * @return true if this mask accepts the given access restrictions.
+         */
+        public boolean test(AccessRestrictions access) {
+            return test(access.access);
+        }
+
+    }
+
+    /**
+     * Access word corresponding to unknown restrictions for all modes.
+     */
+    public static final long UNKNOWN_ACCESS = -1L;
+
+    // Shift of the 4-bits value of each mode in the access word, by mode ordinal.
+    // See the following for more information:
+    // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
+    private static final int[] MODE_SHIFTS = new int[] { 0, 8, 12, 16, 20, 24, 28, 36 };
+
+    // Restriction corresponding to each 4-bits value (values above 6 are unknown).
+    private static final AccessRestriction[] VALUE_RESTRICTIONS = new AccessRestriction[16];
+
+    // 4-bits value of each restriction, by restriction ordinal.
+    private static final int[] RESTRICTION_VALUES = new int[AccessRestriction.values().length];
+
+    static {
+        AccessRestriction[] knownValues = new AccessRestriction[] { AccessRestriction.FORBIDDEN,
+                AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+                AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
+                AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
+        Arrays.fill(VALUE_RESTRICTIONS, AccessRestriction.UNKNOWN);
+        Arrays.fill(RESTRICTION_VALUES, 0xf);
+        for (int value = 0; value < knownValues.length; ++value) {
+            VALUE_RESTRICTIONS[value] = knownValues[value];
+            RESTRICTION_VALUES[knownValues[value].ordinal()] = value;
+        }
+    }
+
+    // Shared instances, by access word.
+    private static final ConcurrentHashMap<Long, AccessRestrictions> INSTANCES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Retrieve the access restrictions corresponding to the given access word.
+     * Instances are shared, i.e. this method returns the same instance for the
+     * same access word.
+     * 
+     * @param access Access word, made of 4-bits values for each mode, as stored in
+     *        binary graph files.
+     * 
+     * @return Access restrictions corresponding to the given word.
+     */
+    public static AccessRestrictions fromAccessWord(long access) {
+        return INSTANCES.computeIfAbsent(access, AccessRestrictions::new);
+    }
+
+    // Access word (4-bits value per mode).
+    private final long access;
 
     /**
      * Create new AccessRestrictions instances with unknown restrictions.
      */
     public AccessRestrictions() {
-        this.restrictions = new EnumMap<>(AccessMode.class);
-        for (AccessMode mode: AccessMode.values()) {
-            this.restrictions.put(mode, AccessRestriction.UNKNOWN);
-        }
+        this(UNKNOWN_ACCESS);
     }
 
     /**
@@ -173,7 +311,27 @@ public class AccessRestrictions {
      *        AccessRestrictions.
      */
     public AccessRestrictions(EnumMap<AccessMode, AccessRestriction> restrictions) {
-        this.restrictions = restrictions;
+        long access = UNKNOWN_ACCESS;
+        for (AccessMode mode: AccessMode.values()) {
+            int value = RESTRICTION_VALUES[restrictions
+                    .getOrDefault(mode, AccessRestriction.UNKNOWN).ordinal()];
+            access &= ~(0xfL << MODE_SHIFTS[mode.ordinal()]);
+            access |= ((long) value) << MODE_SHIFTS[mode.ordinal()];
+        }
+        this.access = access;
+    }
+
+    private AccessRestrictions(long access) {
+        this.access = access;
+    }
+
+    /**
+     * @return Access word of these restrictions.
+     * 
+     * @see #fromAccessWord(long)
+     */
+    public long getAccessWord() {
+        return access;
     }
 
     /**
@@ -184,7 +342,7 @@ public class AccessRestrictions {
      * @return Restriction for the given mode.
      */
     public AccessRestriction getRestrictionFor(AccessMode mode) {
-        return restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN);
+        return VALUE_RESTRICTIONS[(int) (access >>> MODE_SHIFTS[mode.ordinal()]) & 0xf];
     }
 
     /**
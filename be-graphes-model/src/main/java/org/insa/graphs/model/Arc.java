@@ -1,7 +1,5 @@
 package org.insa.graphs.model;
 
-import java.util.List;
-
 /**
  * <p>
  * Interface representing an arc in the graph. {@code Arc} is an interface and
@@ -11,7 +9,7 @@ import java.util.List;
  * 
  * <p>
  * Arc should never be created manually but always using the
- * {@link Node#linkNodes(Node, Node, float, RoadInformation, java.util.ArrayList)}
+ * {@link Node#linkNodes(Node, Node, float, RoadInformation, java.util.List)}
  * method to ensure proper instantiation of the {@link ArcForward} and
  * {@link ArcBackward} classes.
  * </p>
@@ -64,7 +62,7 @@ public abstract class Arc {
     public abstract RoadInformation getRoadInformation();
 
     /**
-     * @return Points representing segments of this arc.
+     * @return Points representing segments of this arc (unmodifiable list).
      */
-    public abstract List<Point> getPoints();
+    public abstract ArcPoints getPoints();
 }
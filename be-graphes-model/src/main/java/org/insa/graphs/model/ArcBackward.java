@@ -1,9 +1,5 @@
 package org.insa.graphs.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Implementation of Arc that represents a "backward" arc in a graph, i.e., an
  * arc that is the reverse of another one. This arc only holds a reference to
@@ -46,10 +42,8 @@ class ArcBackward extends Arc {
     }
 
     @Override
-    public List<Point> getPoints() {
-        List<Point> pts = new ArrayList<>(this.originalArc.getPoints());
-        Collections.reverse(pts);
-        return pts;
+    public ArcPoints getPoints() {
+        return this.originalArc.getPoints().reverse();
     }
 
 }
@@ -1,6 +1,5 @@
 package org.insa.graphs.model;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,7 +19,7 @@ class ArcForward extends Arc {
     private final RoadInformation info;
 
     // Segments.
-    private final List<Point> points;
+    private final ArcPoints points;
 
     /**
      * Create a new ArcForward with the given attributes.
@@ -37,7 +36,7 @@ class ArcForward extends Arc {
         this.destination = dest;
         this.length = length;
         this.info = roadInformation;
-        this.points = points;
+        this.points = points == null ? null : ArcPoints.of(points);
     }
 
     @Override
@@ -61,8 +60,8 @@ class ArcForward extends Arc {
     }
 
     @Override
-    public List<Point> getPoints() {
-        return Collections.unmodifiableList(points);
+    public ArcPoints getPoints() {
+        return points;
     }
 
 }
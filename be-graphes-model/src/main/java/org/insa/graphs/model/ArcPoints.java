@@ -0,0 +1,184 @@
+package org.insa.graphs.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * Unmodifiable list of the points of an arc.
+ * </p>
+ *
+ * <p>
+ * Implementations are usually views over a compact storage (see
+ * {@link PackedGeometry} or {@link LazyArcPoints}) that create {@link Point}
+ * instances on access. Consumers that iterate over many arcs (e.g., drawing)
+ * should use {@link #getLongitude(int)} and {@link #getLatitude(int)} instead
+ * of {@link #get(int)} to avoid these allocations.
+ * </p>
+ *
+ */
+public abstract class ArcPoints extends AbstractList<Point> implements RandomAccess {
+
+    /**
+     * Implementation of ArcPoints on top of a regular list of points.
+     */
+    private static class ListArcPoints extends ArcPoints {
+
+        // Underlying list.
+        private final List<Point> points;
+
+        public ListArcPoints(List<Point> points) {
+            this.points = points;
+        }
+
+        @Override
+        public Point get(int index) {
+            return points.get(index);
+        }
+
+        @Override
+        public float getLongitude(int index) {
+            return points.get(index).getLongitude();
+        }
+
+        @Override
+        public float getLatitude(int index) {
+            return points.get(index).getLatitude();
+        }
+
+        @Override
+        public int size() {
+            return points.size();
+        }
+
+    }
+
+    /**
+     * Reversed view of another instance of ArcPoints.
+     */
+    private static class ReversedArcPoints extends ArcPoints {
+
+        // Original points.
+        private final ArcPoints original;
+
+        public ReversedArcPoints(ArcPoints original) {
+            this.original = original;
+        }
+
+        @Override
+        public Point get(int index) {
+            return original.get(original.size() - 1 - index);
+        }
+
+        @Override
+        public float getLongitude(int index) {
+            return original.getLongitude(original.size() - 1 - index);
+        }
+
+        @Override
+        public float getLatitude(int index) {
+            return original.getLatitude(original.size() - 1 - index);
+        }
+
+        @Override
+        public int getMicroLongitude(int index) {
+            return original.getMicroLongitude(original.size() - 1 - index);
+        }
+
+        @Override
+        public int getMicroLatitude(int index) {
+            return original.getMicroLatitude(original.size() - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return original.size();
+        }
+
+        @Override
+        public ArcPoints reverse() {
+            return original;
+        }
+
+    }
+
+    /**
+     * Create an instance of ArcPoints from the given list of points.
+     *
+     * @param points List of points.
+     *
+     * @return points if it is already an instance of ArcPoints, otherwise a view
+     *         over points.
+     */
+    public static ArcPoints of(List<Point> points) {
+        if (points instanceof ArcPoints) {
+            return (ArcPoints) points;
+        }
+        return new ListArcPoints(points);
+    }
+
+    /**
+     * @param index Index of a point in this list.
+     *
+     * @return Longitude of the point at the given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public abstract float getLongitude(int index);
+
+    /**
+     * @param index Index of a point in this list.
+     *
+     * @return Latitude of the point at the given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public abstract float getLatitude(int index);
+
+    /**
+     * @param index Index of a point in this list.
+     *
+     * @return Longitude of the point at the given index, in micro-degrees. The
+     *         default implementation rounds {@link #getLongitude(int)}, which may
+     *         be off by a few micro-degrees.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getMicroLongitude(int index) {
+        return PackedGeometry.toMicroDegrees(getLongitude(index));
+    }
+
+    /**
+     * @param index Index of a point in this list.
+     *
+     * @return Latitude of the point at the given index, in micro-degrees. The
+     *         default implementation rounds {@link #getLatitude(int)}, which may
+     *         be off by a few micro-degrees.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getMicroLatitude(int index) {
+        return PackedGeometry.toMicroDegrees(getLatitude(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The returned point may be a new instance created on each call.
+     * </p>
+     */
+    @Override
+    public Point get(int index) {
+        return new Point(getLongitude(index), getLatitude(index));
+    }
+
+    /**
+     * @return A view of this list in reverse order.
+     */
+    public ArcPoints reverse() {
+        return new ReversedArcPoints(this);
+    }
+
+}
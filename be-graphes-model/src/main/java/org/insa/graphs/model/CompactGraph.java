@@ -0,0 +1,536 @@
+package org.insa.graphs.model;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Compact, array-based, representation of a {@link Graph} (compressed sparse
+ * row format).
+ * </p>
+ *
+ * <p>
+ * Nodes are identified by their ID and arcs by an integer ID. The outgoing arcs
+ * of node {@code n} are the arcs with ID in
+ * {@code [getFirstArc(n), getFirstArc(n + 1))}, in the same order as in
+ * {@link Node#getSuccessors()}, so arc {@code a} of node {@code n} is
+ * {@code n.getSuccessors().get(a - getFirstArc(n))} (see
+ * {@link Graph#getArc(int)}).
+ * </p>
+ *
+ * <p>
+ * Arcs are stored in primitive buffers (destination, length and index of the
+ * road information), which allows algorithms to explore the graph without
+ * going through {@link Node} or {@link Arc} objects. The buffers either wrap
+ * heap arrays or are mapped from a graph snapshot, in which case the graph is
+ * not copied in the Java heap.
+ * </p>
+ *
+ * <p>
+ * The incoming arcs of each node (reverse adjacency) are computed on first use
+ * (see {@link #getFirstIncomingArc(int)}). Incoming arcs are identified by the
+ * ID of the corresponding outgoing arc, so backward searches do not need a
+ * transposed copy of the graph.
+ * </p>
+ *
+ */
+public final class CompactGraph {
+
+    /**
+     * Maximum number of road information (descriptors) that can be referenced by
+     * the arcs of a compact graph.
+     */
+    public static final int MAX_DESCRIPTORS = 1 << 16;
+
+    /**
+     * Builder used to create a compact graph from a list of roads, in the same way
+     * {@link Node#linkNodes(Node, Node, float, RoadInformation, List)} creates arcs.
+     *
+     */
+    public static final class Builder {
+
+        // Coordinates of the nodes.
+        private final float[] longitudes, latitudes;
+
+        // Road information.
+        private final RoadInformation[] descriptors;
+
+        // Roads added to this builder.
+        private int nbRoads = 0;
+        private int[] roadOrigins, roadDestinations, roadDescriptors;
+        private float[] roadLengths;
+
+        /**
+         * Create a new builder for a graph with the given nodes and road information.
+         *
+         * @param longitudes Longitude of each node.
+         * @param latitudes Latitude of each node.
+         * @param descriptors Road information that can be referenced by the roads.
+         */
+        public Builder(float[] longitudes, float[] latitudes, RoadInformation[] descriptors) {
+            if (descriptors.length > MAX_DESCRIPTORS) {
+                throw new IllegalArgumentException("too many descriptors for a compact graph: "
+                        + descriptors.length + " > " + MAX_DESCRIPTORS);
+            }
+            this.longitudes = longitudes;
+            this.latitudes = latitudes;
+            this.descriptors = descriptors;
+            this.roadOrigins = new int[16];
+            this.roadDestinations = new int[16];
+            this.roadDescriptors = new int[16];
+            this.roadLengths = new float[16];
+        }
+
+        /**
+         * Add a road to this builder. A one-way road creates a single arc from origin
+         * to destination, a two-ways road also creates the reverse arc.
+         *
+         * @param origin ID of the origin node.
+         * @param destination ID of the destination node.
+         * @param length Length of the road, in meters.
+         * @param descriptor Index of the road information.
+         */
+        public void addRoad(int origin, int destination, float length, int descriptor) {
+            if (nbRoads == roadOrigins.length) {
+                int capacity = 2 * nbRoads;
+                roadOrigins = Arrays.copyOf(roadOrigins, capacity);
+                roadDestinations = Arrays.copyOf(roadDestinations, capacity);
+                roadDescriptors = Arrays.copyOf(roadDescriptors, capacity);
+                roadLengths = Arrays.copyOf(roadLengths, capacity);
+            }
+            roadOrigins[nbRoads] = origin;
+            roadDestinations[nbRoads] = destination;
+            roadDescriptors[nbRoads] = descriptor;
+            roadLengths[nbRoads] = length;
+            ++nbRoads;
+        }
+
+        /**
+         * @return The compact graph corresponding to the roads added to this builder.
+         */
+        public CompactGraph build() {
+            final int nbNodes = longitudes.length;
+
+            // Count the outgoing arcs of each node.
+            int[] firstArc = new int[nbNodes + 1];
+            for (int road = 0; road < nbRoads; ++road) {
+                firstArc[roadOrigins[road] + 1]++;
+                if (!descriptors[roadDescriptors[road]].isOneWay()) {
+                    firstArc[roadDestinations[road] + 1]++;
+                }
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                firstArc[node + 1] += firstArc[node];
+            }
+
+            // Fill arcs, in the order they were added.
+            final int nbArcs = firstArc[nbNodes];
+            int[] next = Arrays.copyOf(firstArc, nbNodes);
+            int[] destinations = new int[nbArcs];
+            float[] lengths = new float[nbArcs];
+            short[] descriptorIndices = new short[nbArcs];
+            for (int road = 0; road < nbRoads; ++road) {
+                int arc = next[roadOrigins[road]]++;
+                destinations[arc] = roadDestinations[road];
+                lengths[arc] = roadLengths[road];
+                descriptorIndices[arc] = (short) roadDescriptors[road];
+                if (!descriptors[roadDescriptors[road]].isOneWay()) {
+                    arc = next[roadDestinations[road]]++;
+                    destinations[arc] = roadOrigins[road];
+                    lengths[arc] = roadLengths[road];
+                    descriptorIndices[arc] = (short) roadDescriptors[road];
+                }
+            }
+
+            return new CompactGraph(longitudes, latitudes, firstArc, destinations, lengths,
+                    descriptorIndices, descriptors);
+        }
+
+    }
+
+    /**
+     * Create a compact graph from the given list of nodes.
+     *
+     * @param nodes Nodes of the graph, the node at index i must have ID i.
+     *
+     * @return A compact graph equivalent to the given list of nodes.
+     */
+    public static CompactGraph fromNodes(List<Node> nodes) {
+        final int nbNodes = nodes.size();
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        int[] firstArc = new int[nbNodes + 1];
+        for (Node node: nodes) {
+            Point point = node.getPoint();
+            longitudes[node.getId()] = point == null ? Float.NaN : point.getLongitude();
+            latitudes[node.getId()] = point == null ? Float.NaN : point.getLatitude();
+            firstArc[node.getId() + 1] = node.getNumberOfSuccessors();
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            firstArc[node + 1] += firstArc[node];
+        }
+
+        final int nbArcs = firstArc[nbNodes];
+        int[] destinations = new int[nbArcs];
+        float[] lengths = new float[nbArcs];
+        short[] descriptorIndices = new short[nbArcs];
+        Map<RoadInformation, Integer> indices = new IdentityHashMap<>();
+        for (Node node: nodes) {
+            int arc = firstArc[node.getId()];
+            for (Arc successor: node.getSuccessors()) {
+                Integer index = indices.get(successor.getRoadInformation());
+                if (index == null) {
+                    index = indices.size();
+                    if (index == MAX_DESCRIPTORS) {
+                        throw new IllegalArgumentException(
+                                "too many descriptors for a compact graph");
+                    }
+                    indices.put(successor.getRoadInformation(), index);
+                }
+                destinations[arc] = successor.getDestination().getId();
+                lengths[arc] = successor.getLength();
+                descriptorIndices[arc] = (short) index.intValue();
+                ++arc;
+            }
+        }
+
+        RoadInformation[] descriptors = new RoadInformation[indices.size()];
+        for (Map.Entry<RoadInformation, Integer> entry: indices.entrySet()) {
+            descriptors[entry.getValue()] = entry.getKey();
+        }
+
+        return new CompactGraph(longitudes, latitudes, firstArc, destinations, lengths,
+                descriptorIndices, descriptors);
+    }
+
+    // Coordinates of the nodes.
+    private final FloatBuffer longitudes, latitudes;
+
+    // Index of the first outgoing arc of each node (size is the number of nodes +
+    // 1).
+    private final IntBuffer firstArc;
+
+    // Destination, length and road information index of each arc.
+    private final IntBuffer destinations;
+    private final FloatBuffer lengths;
+    private final ShortBuffer descriptorIndices;
+
+    // Road information (shared by arcs).
+    private final RoadInformation[] descriptors;
+
+    // Origin of each arc, computed on first use.
+    private volatile int[] arcOrigins;
+
+    // Reverse adjacency, computed on first use: index of the first incoming arc
+    // of each node (size is the number of nodes + 1), and ID and origin of each
+    // incoming arc.
+    private volatile int[] firstIncomingArc;
+    private int[] incomingArcs, incomingOrigins;
+
+    /**
+     * Create a new compact graph from the given arrays. The arrays are not copied.
+     *
+     * @param longitudes Longitude of each node.
+     * @param latitudes Latitude of each node.
+     * @param firstArc Index of the first outgoing arc of each node, followed by the
+     *        number of arcs.
+     * @param destinations Destination node of each arc.
+     * @param lengths Length of each arc, in meters.
+     * @param descriptorIndices Index (unsigned) of the road information of each
+     *        arc.
+     * @param descriptors Road information referenced by the arcs.
+     */
+    public CompactGraph(float[] longitudes, float[] latitudes, int[] firstArc,
+            int[] destinations, float[] lengths, short[] descriptorIndices,
+            RoadInformation[] descriptors) {
+        this(FloatBuffer.wrap(longitudes), FloatBuffer.wrap(latitudes), IntBuffer.wrap(firstArc),
+                IntBuffer.wrap(destinations), FloatBuffer.wrap(lengths),
+                ShortBuffer.wrap(descriptorIndices), descriptors);
+    }
+
+    /**
+     * Create a new compact graph from the given buffers, e.g. buffers mapped from a
+     * file (see {@link java.nio.channels.FileChannel#map}). The buffers are not
+     * copied and are only accessed through absolute reads, from index 0 to their
+     * limit.
+     *
+     * @param longitudes Longitude of each node.
+     * @param latitudes Latitude of each node.
+     * @param firstArc Index of the first outgoing arc of each node, followed by the
+     *        number of arcs.
+     * @param destinations Destination node of each arc.
+     * @param lengths Length of each arc, in meters.
+     * @param descriptorIndices Index (unsigned) of the road information of each
+     *        arc.
+     * @param descriptors Road information referenced by the arcs.
+     */
+    public CompactGraph(FloatBuffer longitudes, FloatBuffer latitudes, IntBuffer firstArc,
+            IntBuffer destinations, FloatBuffer lengths, ShortBuffer descriptorIndices,
+            RoadInformation[] descriptors) {
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.firstArc = firstArc;
+        this.destinations = destinations;
+        this.lengths = lengths;
+        this.descriptorIndices = descriptorIndices;
+        this.descriptors = descriptors;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return this.firstArc.limit() - 1;
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getArcCount() {
+        return this.firstArc.get(this.firstArc.limit() - 1);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return ID of the first outgoing arc of the given node. Outgoing arcs of
+     *         {@code node} end (exclusive) at {@code getFirstArc(node + 1)}.
+     */
+    public int getFirstArc(int node) {
+        return this.firstArc.get(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Number of outgoing arcs of the given node.
+     */
+    public int getNumberOfSuccessors(int node) {
+        return this.firstArc.get(node + 1) - this.firstArc.get(node);
+    }
+
+    /**
+     * Compute the origin of each arc of this graph, if it has not been computed
+     * yet.
+     *
+     * @return Origin of each arc.
+     */
+    private int[] arcOrigins() {
+        int[] result = this.arcOrigins;
+        if (result == null) {
+            synchronized (this) {
+                result = this.arcOrigins;
+                if (result == null) {
+                    final int nbNodes = size();
+                    result = new int[getArcCount()];
+                    for (int node = 0; node < nbNodes; ++node) {
+                        Arrays.fill(result, this.firstArc.get(node), this.firstArc.get(node + 1),
+                                node);
+                    }
+                    this.arcOrigins = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the origin of the given arc.
+     *
+     * Complexity: O(1). The origins of all the arcs are computed on the first
+     * call, in O(n + m).
+     *
+     * @param arc ID of an arc.
+     *
+     * @return ID of the origin node of the given arc.
+     */
+    public int getOrigin(int arc) {
+        if (arc < 0 || arc >= getArcCount()) {
+            throw new IndexOutOfBoundsException("invalid arc: " + arc);
+        }
+        return arcOrigins()[arc];
+    }
+
+    /**
+     * Compute the reverse adjacency of this graph, if it has not been computed
+     * yet.
+     *
+     * @return Index of the first incoming arc of each node.
+     */
+    private int[] firstIncomingArc() {
+        int[] result = this.firstIncomingArc;
+        if (result == null) {
+            synchronized (this) {
+                result = this.firstIncomingArc;
+                if (result == null) {
+                    final int nbNodes = size(), nbArcs = getArcCount();
+                    result = new int[nbNodes + 1];
+                    for (int arc = 0; arc < nbArcs; ++arc) {
+                        result[this.destinations.get(arc) + 1] += 1;
+                    }
+                    for (int node = 0; node < nbNodes; ++node) {
+                        result[node + 1] += result[node];
+                    }
+
+                    // Incoming arcs of a node are sorted by ID.
+                    int[] next = Arrays.copyOf(result, nbNodes);
+                    int[] arcs = new int[nbArcs], origins = new int[nbArcs];
+                    for (int node = 0; node < nbNodes; ++node) {
+                        final int end = this.firstArc.get(node + 1);
+                        for (int arc = this.firstArc.get(node); arc < end; ++arc) {
+                            int index = next[this.destinations.get(arc)]++;
+                            arcs[index] = arc;
+                            origins[index] = node;
+                        }
+                    }
+                    this.incomingArcs = arcs;
+                    this.incomingOrigins = origins;
+                    this.firstIncomingArc = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the index of the first incoming arc of the given node. The
+     * incoming arcs of {@code node} are {@code getIncomingArc(i)} for {@code i} in
+     * {@code [getFirstIncomingArc(node), getFirstIncomingArc(node + 1))}.
+     *
+     * The reverse adjacency is computed on the first call, in O(n + m).
+     *
+     * @param node ID of a node.
+     *
+     * @return Index of the first incoming arc of the given node.
+     */
+    public int getFirstIncomingArc(int node) {
+        return firstIncomingArc()[node];
+    }
+
+    /**
+     * @param index Index of an incoming arc (see {@link #getFirstIncomingArc(int)}).
+     *
+     * @return ID of the incoming arc at the given index.
+     */
+    public int getIncomingArc(int index) {
+        firstIncomingArc();
+        return this.incomingArcs[index];
+    }
+
+    /**
+     * @param index Index of an incoming arc (see {@link #getFirstIncomingArc(int)}).
+     *
+     * @return ID of the origin node of the incoming arc at the given index.
+     */
+    public int getIncomingOrigin(int index) {
+        firstIncomingArc();
+        return this.incomingOrigins[index];
+    }
+
+    /**
+     * @param arc ID of an arc.
+     *
+     * @return ID of the destination node of the given arc.
+     */
+    public int getDestination(int arc) {
+        return this.destinations.get(arc);
+    }
+
+    /**
+     * @param arc ID of an arc.
+     *
+     * @return Length of the given arc, in meters.
+     */
+    public float getLength(int arc) {
+        return this.lengths.get(arc);
+    }
+
+    /**
+     * Compute the time required to travel the given arc if moving at the given
+     * speed.
+     *
+     * @param arc ID of an arc.
+     * @param speed Speed to compute the travel time (in kilometers-per-hour).
+     *
+     * @return Time (in seconds) required to travel the arc at the given speed.
+     *
+     * @see Arc#getTravelTime(double)
+     */
+    public double getTravelTime(int arc, double speed) {
+        return this.lengths.get(arc) * 3600.0 / (speed * 1000.0);
+    }
+
+    /**
+     * @param arc ID of an arc.
+     *
+     * @return Minimum time required to travel the given arc, in seconds.
+     *
+     * @see Arc#getMinimumTravelTime()
+     */
+    public double getMinimumTravelTime(int arc) {
+        return getTravelTime(arc, getRoadInformation(arc).getMaximumSpeed());
+    }
+
+    /**
+     * @param arc ID of an arc.
+     *
+     * @return Index of the road information of the given arc.
+     */
+    public int getDescriptorIndex(int arc) {
+        return this.descriptorIndices.get(arc) & 0xffff;
+    }
+
+    /**
+     * @param arc ID of an arc.
+     *
+     * @return Road information of the given arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.descriptors[this.descriptorIndices.get(arc) & 0xffff];
+    }
+
+    /**
+     * @return Number of road information referenced by the arcs of this graph.
+     */
+    public int getDescriptorCount() {
+        return this.descriptors.length;
+    }
+
+    /**
+     * @param index Index of a road information.
+     *
+     * @return Road information at the given index.
+     */
+    public RoadInformation getDescriptor(int index) {
+        return this.descriptors[index];
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Longitude of the given node (in degrees).
+     */
+    public float getLongitude(int node) {
+        return this.longitudes.get(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Latitude of the given node (in degrees).
+     */
+    public float getLatitude(int node) {
+        return this.latitudes.get(node);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[#nodes=%d, #arcs=%d, #descriptors=%d]",
+                getClass().getCanonicalName(), size(), getArcCount(), getDescriptorCount());
+    }
+
+}
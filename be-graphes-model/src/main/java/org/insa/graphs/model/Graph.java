@@ -3,6 +3,7 @@ package org.insa.graphs.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * <p>
@@ -29,6 +30,10 @@ public final class Graph {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Compact representation of this graph (created on first access if not
+    // given).
+    private volatile CompactGraph compactGraph;
+
     /**
      * Create a new graph with the given ID, name, nodes and information.
      * 
@@ -38,10 +43,45 @@ public final class Graph {
      * @param graphStatistics Information for this graph.
      */
     public Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics) {
+        this(mapId, mapName, nodes, graphStatistics, null);
+    }
+
+    /**
+     * Create a new graph with the given ID, name, nodes, information and compact
+     * representation.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param nodes List of nodes for this graph.
+     * @param graphStatistics Information for this graph.
+     * @param compactGraph Compact representation of the given nodes, or null to
+     *        create it on first access.
+     */
+    public Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics,
+            CompactGraph compactGraph) {
         this.mapId = mapId;
         this.mapName = mapName;
         this.nodes = Collections.unmodifiableList(nodes);
         this.graphStatistics = graphStatistics;
+        this.compactGraph = compactGraph;
+    }
+
+    /**
+     * Create a new graph with the given ID, name, information and compact
+     * representation, whose {@link Node} and {@link Arc} objects are created from
+     * the compact representation the first time they are accessed.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param graphStatistics Information for this graph.
+     * @param compactGraph Compact representation of this graph.
+     * @param arcPoints Function returning the points of the arc with the given ID
+     *        in the compact representation, from its origin to its destination.
+     */
+    public Graph(String mapId, String mapName, GraphStatistics graphStatistics,
+            CompactGraph compactGraph, IntFunction<ArcPoints> arcPoints) {
+        this(mapId, mapName, new LazyNodes(compactGraph, arcPoints), graphStatistics,
+                compactGraph);
     }
 
     /**
@@ -64,6 +104,42 @@ public final class Graph {
         return this.nodes.get(id);
     }
 
+    /**
+     * @return Compact (array-based) representation of this graph.
+     * 
+     * @see CompactGraph
+     */
+    public CompactGraph getCompactGraph() {
+        CompactGraph result = this.compactGraph;
+        if (result == null) {
+            synchronized (this) {
+                result = this.compactGraph;
+                if (result == null) {
+                    result = CompactGraph.fromNodes(this.nodes);
+                    this.compactGraph = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetch the arc with the given ID in the compact representation of this graph.
+     * 
+     * Complexity: O(1) (see {@link CompactGraph#getOrigin(int)}).
+     * 
+     * @param arcId ID of the arc to fetch.
+     * 
+     * @return Arc with the given ID.
+     * 
+     * @see CompactGraph
+     */
+    public Arc getArc(int arcId) {
+        CompactGraph compact = getCompactGraph();
+        int origin = compact.getOrigin(arcId);
+        return this.nodes.get(origin).getSuccessors().get(arcId - compact.getFirstArc(origin));
+    }
+
     /**
      * @return Number of nodes in this graph.
      */
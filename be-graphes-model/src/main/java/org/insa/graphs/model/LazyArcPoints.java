@@ -0,0 +1,168 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Points of an arc that are only decoded when first accessed.
+ * </p>
+ *
+ * <p>
+ * The intermediate points of the arc are stored as deltas (in longitude and
+ * latitude) from the previous point, in a {@link DeltaBuffer} shared by all the
+ * arcs of a graph. The points are decoded on the first access and kept
+ * afterwards (as micro-degree coordinates).
+ * </p>
+ *
+ */
+public final class LazyArcPoints extends ArcPoints {
+
+    /**
+     * Growable buffer of (longitude, latitude) deltas, shared by the arcs of a
+     * graph.
+     */
+    public static final class DeltaBuffer {
+
+        // Number of micro-degrees in one delta unit.
+        private final int unit;
+
+        // Deltas, interleaved (longitude, latitude).
+        private short[] deltas;
+
+        // Number of deltas (pairs) in the buffer.
+        private int size;
+
+        /**
+         * Create a new empty buffer of deltas.
+         *
+         * @param unit Number of micro-degrees in one delta unit, e.g. 5 if deltas are
+         *        expressed in 1/200000 of degrees.
+         */
+        public DeltaBuffer(int unit) {
+            this.unit = unit;
+            this.deltas = new short[1024];
+            this.size = 0;
+        }
+
+        /**
+         * @return Number of deltas (pairs) in this buffer.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Append a delta to this buffer.
+         *
+         * @param dlon Longitude delta, in delta units.
+         * @param dlat Latitude delta, in delta units.
+         */
+        public void add(short dlon, short dlat) {
+            if (2 * this.size + 2 > this.deltas.length) {
+                this.deltas = Arrays.copyOf(this.deltas, 2 * this.deltas.length);
+            }
+            this.deltas[2 * this.size] = dlon;
+            this.deltas[2 * this.size + 1] = dlat;
+            this.size += 1;
+        }
+
+        /**
+         * Release the unused capacity of this buffer, should be called once all the
+         * deltas have been added.
+         */
+        public void trim() {
+            this.deltas = Arrays.copyOf(this.deltas, 2 * this.size);
+        }
+
+    }
+
+    // Buffer containing the deltas.
+    private final DeltaBuffer buffer;
+
+    // Index of the first delta of this arc in the buffer, and number of deltas.
+    private final int offset, nbSegments;
+
+    // First and last points, in micro-degrees.
+    private final int firstLongitude, firstLatitude, lastLongitude, lastLatitude;
+
+    // Decoded coordinates (micro-degrees, interleaved), or null if not decoded.
+    private volatile int[] coordinates;
+
+    /**
+     * Create a new lazy list of points.
+     *
+     * @param firstLongitude Longitude of the first point, in micro-degrees.
+     * @param firstLatitude Latitude of the first point, in micro-degrees.
+     * @param lastLongitude Longitude of the last point, in micro-degrees.
+     * @param lastLatitude Latitude of the last point, in micro-degrees.
+     * @param buffer Buffer containing the deltas of the intermediate points.
+     * @param offset Index in the buffer of the delta of the first intermediate
+     *        point (from the first point).
+     * @param nbSegments Number of intermediate points.
+     */
+    public LazyArcPoints(int firstLongitude, int firstLatitude, int lastLongitude,
+            int lastLatitude, DeltaBuffer buffer, int offset, int nbSegments) {
+        this.firstLongitude = firstLongitude;
+        this.firstLatitude = firstLatitude;
+        this.lastLongitude = lastLongitude;
+        this.lastLatitude = lastLatitude;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.nbSegments = nbSegments;
+    }
+
+    /**
+     * @return true if the points of this list have already been decoded.
+     */
+    public boolean isDecoded() {
+        return this.coordinates != null;
+    }
+
+    /**
+     * @return The decoded coordinates, decoding them if necessary.
+     */
+    private int[] coordinates() {
+        int[] decoded = this.coordinates;
+        if (decoded == null) {
+            decoded = new int[2 * size()];
+            decoded[0] = firstLongitude;
+            decoded[1] = firstLatitude;
+            short[] deltas = buffer.deltas;
+            for (int seg = 0; seg < nbSegments; ++seg) {
+                decoded[2 * seg + 2] = decoded[2 * seg] + buffer.unit * deltas[2 * (offset + seg)];
+                decoded[2 * seg + 3] = decoded[2 * seg + 1]
+                        + buffer.unit * deltas[2 * (offset + seg) + 1];
+            }
+            decoded[decoded.length - 2] = lastLongitude;
+            decoded[decoded.length - 1] = lastLatitude;
+            this.coordinates = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public float getLongitude(int index) {
+        return PackedGeometry.toDegrees(getMicroLongitude(index));
+    }
+
+    @Override
+    public float getLatitude(int index) {
+        return PackedGeometry.toDegrees(getMicroLatitude(index));
+    }
+
+    @Override
+    public int getMicroLongitude(int index) {
+        return coordinates()[2 * index];
+    }
+
+    @Override
+    public int getMicroLatitude(int index) {
+        return coordinates()[2 * index + 1];
+    }
+
+    @Override
+    public int size() {
+        return nbSegments + 2;
+    }
+
+}
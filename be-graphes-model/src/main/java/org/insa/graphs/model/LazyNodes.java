@@ -0,0 +1,89 @@
+package org.insa.graphs.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * List of the nodes of a graph created on demand from its compact
+ * representation (see {@link Graph#Graph(String, String, GraphStatistics,
+ * CompactGraph, IntFunction)}).
+ * </p>
+ *
+ * <p>
+ * A node is created the first time it is accessed, and its successors the first
+ * time they are accessed, so algorithms working on the {@link CompactGraph} only
+ * create the few nodes and arcs they return. Once created, a node (and its
+ * arcs) is kept, so that each ID always corresponds to the same instance.
+ * </p>
+ *
+ */
+final class LazyNodes extends AbstractList<Node> implements RandomAccess {
+
+    // Compact graph from which nodes are created.
+    private final CompactGraph compact;
+
+    // Points of each arc, from origin to destination.
+    private final IntFunction<ArcPoints> arcPoints;
+
+    // Nodes created so far.
+    private final AtomicReferenceArray<Node> nodes;
+
+    /**
+     * Create a new list of nodes for the given compact graph.
+     *
+     * @param compact Compact graph from which nodes are created.
+     * @param arcPoints Function returning the points of the arc with the given ID,
+     *        from its origin to its destination (may return null).
+     */
+    public LazyNodes(CompactGraph compact, IntFunction<ArcPoints> arcPoints) {
+        this.compact = compact;
+        this.arcPoints = arcPoints;
+        this.nodes = new AtomicReferenceArray<>(compact.size());
+    }
+
+    @Override
+    public Node get(int id) {
+        Node node = this.nodes.get(id);
+        if (node == null) {
+            node = new Node(id, new Point(compact.getLongitude(id), compact.getLatitude(id)),
+                    this::loadSuccessors);
+            if (!this.nodes.compareAndSet(id, null, node)) {
+                node = this.nodes.get(id);
+            }
+        }
+        return node;
+    }
+
+    @Override
+    public int size() {
+        return this.nodes.length();
+    }
+
+    /**
+     * Add the successors of the given node, as {@link Node#linkNodes} would have
+     * created them: the arc of a two-ways road going from the node with the
+     * smallest ID to the other one is the forward arc.
+     *
+     * @param node Node whose successors should be loaded.
+     */
+    private void loadSuccessors(Node node) {
+        final int end = compact.getFirstArc(node.getId() + 1);
+        for (int arc = compact.getFirstArc(node.getId()); arc < end; ++arc) {
+            Node destination = get(compact.getDestination(arc));
+            RoadInformation info = compact.getRoadInformation(arc);
+            ArcPoints points = this.arcPoints.apply(arc);
+            if (info.isOneWay() || node.getId() < destination.getId()) {
+                node.addSuccessor(
+                        new ArcForward(node, destination, compact.getLength(arc), info, points));
+            }
+            else {
+                node.addSuccessor(new ArcBackward(new ArcForward(destination, node,
+                        compact.getLength(arc), info, points == null ? null : points.reverse())));
+            }
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package org.insa.graphs.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -37,12 +38,14 @@ public final class Node implements Comparable<Node> {
      * @param destination Destination of the arc.
      * @param length Length of the arc.
      * @param roadInformation Information corresponding to the arc.
-     * @param points Points for the arc.
+     * @param points Points for the arc, reversed in place (or through
+     *        {@link ArcPoints#reverse()}) if the backward arc is the one
+     *        storing the data.
      * 
      * @return The newly created forward arc (origin to destination).
      */
     public static Arc linkNodes(Node origin, Node destination, float length,
-            RoadInformation roadInformation, ArrayList<Point> points) {
+            RoadInformation roadInformation, List<Point> points) {
         Arc arc = null;
         if (roadInformation.isOneWay()) {
             arc = new ArcForward(origin, destination, length, roadInformation, points);
@@ -55,7 +58,12 @@ public final class Node implements Comparable<Node> {
                 d2o = new ArcBackward(arc);
             }
             else {
-                Collections.reverse(points);
+                if (points instanceof ArcPoints) {
+                    points = ((ArcPoints) points).reverse();
+                }
+                else {
+                    Collections.reverse(points);
+                }
                 d2o = new ArcForward(destination, origin, length, roadInformation, points);
                 arc = new ArcBackward(d2o);
             }
@@ -74,6 +82,9 @@ public final class Node implements Comparable<Node> {
     // Successors.
     private final ArrayList<Arc> successors;
 
+    // Loader of the successors, null once the successors have been loaded.
+    private volatile Consumer<Node> successorsLoader;
+
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
      * empty list of successors.
@@ -82,9 +93,39 @@ public final class Node implements Comparable<Node> {
      * @param point Position of the node.
      */
     public Node(int id, Point point) {
+        this(id, point, null);
+    }
+
+    /**
+     * Create a new Node with the given ID corresponding to the given Point whose
+     * successors are added by the given loader the first time they are accessed.
+     * 
+     * @param id ID of the node.
+     * @param point Position of the node.
+     * @param successorsLoader Loader of the successors, called at most once with
+     *        this node, or null.
+     */
+    Node(int id, Point point, Consumer<Node> successorsLoader) {
         this.id = id;
         this.point = point;
         this.successors = new ArrayList<Arc>();
+        this.successorsLoader = successorsLoader;
+    }
+
+    /**
+     * @return List of successors of this node, after loading them if needed.
+     */
+    private ArrayList<Arc> successors() {
+        if (this.successorsLoader != null) {
+            synchronized (this) {
+                Consumer<Node> loader = this.successorsLoader;
+                if (loader != null) {
+                    loader.accept(this);
+                    this.successorsLoader = null;
+                }
+            }
+        }
+        return this.successors;
     }
 
     /**
@@ -107,14 +148,14 @@ public final class Node implements Comparable<Node> {
      * @return Number of successors of this node.
      */
     public int getNumberOfSuccessors() {
-        return this.successors.size();
+        return successors().size();
     }
 
     /**
      * @return true if this node has at least one successor.
      */
     public boolean hasSuccessors() {
-        return !this.successors.isEmpty();
+        return !successors().isEmpty();
     }
 
     /**
@@ -123,7 +164,7 @@ public final class Node implements Comparable<Node> {
      * @see Collections#unmodifiableList(List)
      */
     public List<Arc> getSuccessors() {
-        return Collections.unmodifiableList(this.successors);
+        return Collections.unmodifiableList(successors());
     }
 
     /**
@@ -0,0 +1,227 @@
+package org.insa.graphs.model;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Packed storage for the geometry (chains of points) of the arcs of a graph.
+ * </p>
+ *
+ * <p>
+ * All the points are stored in a single buffer of micro-degree coordinates
+ * (interleaved longitude and latitude), and the points of an arc are accessed
+ * through a view (see {@link #getPoints(int, int)}), so that no {@link Point}
+ * instance is kept in memory.
+ * </p>
+ *
+ */
+public final class PackedGeometry {
+
+    /**
+     * Convert the given coordinate from micro-degrees to degrees.
+     *
+     * @param microDegrees Coordinate in micro-degrees.
+     *
+     * @return Coordinate in degrees.
+     */
+    public static float toDegrees(int microDegrees) {
+        return ((float) microDegrees) / 1E6f;
+    }
+
+    /**
+     * Convert the given coordinate from degrees to micro-degrees.
+     *
+     * @param degrees Coordinate in degrees.
+     *
+     * @return Coordinate in micro-degrees (rounded). Since {@link #toDegrees(int)}
+     *         is not exact, this may differ by a few micro-degrees from the value
+     *         the coordinate was created from.
+     */
+    public static int toMicroDegrees(float degrees) {
+        return (int) Math.round(degrees * 1E6);
+    }
+
+    /**
+     * View over a contiguous range of points of a packed geometry.
+     */
+    private static class PackedArcPoints extends ArcPoints {
+
+        // Geometry containing the points.
+        private final PackedGeometry geometry;
+
+        // Index of the first point, and number of points.
+        private final int offset, size;
+
+        public PackedArcPoints(PackedGeometry geometry, int offset, int size) {
+            this.geometry = geometry;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        /**
+         * @return Index in the coordinates array of the longitude of the point at the
+         *         given index.
+         */
+        private int slot(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return 2 * (offset + index);
+        }
+
+        @Override
+        public float getLongitude(int index) {
+            return toDegrees(getMicroLongitude(index));
+        }
+
+        @Override
+        public float getLatitude(int index) {
+            return toDegrees(getMicroLatitude(index));
+        }
+
+        @Override
+        public int getMicroLongitude(int index) {
+            return geometry.coordinates.get(slot(index));
+        }
+
+        @Override
+        public int getMicroLatitude(int index) {
+            return geometry.coordinates.get(slot(index) + 1);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    // Coordinates of the points (micro-degrees), interleaved (longitude,
+    // latitude), and array backing them if points can be added (null for
+    // geometries created from a buffer).
+    private IntBuffer coordinates;
+    private int[] array;
+
+    // Number of points.
+    private int size;
+
+    /**
+     * Create a new empty geometry.
+     */
+    public PackedGeometry() {
+        this(new int[1024]);
+        this.size = 0;
+    }
+
+    /**
+     * Create a new geometry from the given coordinates.
+     *
+     * @param coordinates Coordinates of the points (micro-degrees), interleaved
+     *        (longitude, latitude). The array is not copied.
+     */
+    public PackedGeometry(int[] coordinates) {
+        this.array = coordinates;
+        this.coordinates = IntBuffer.wrap(coordinates);
+        this.size = coordinates.length / 2;
+    }
+
+    /**
+     * Create a new read-only geometry from the given coordinates, e.g. a buffer
+     * mapped from a file (see {@link java.nio.channels.FileChannel#map}).
+     *
+     * @param coordinates Coordinates of the points (micro-degrees), interleaved
+     *        (longitude, latitude), from index 0 to the limit of the buffer. The
+     *        buffer is not copied.
+     */
+    public PackedGeometry(IntBuffer coordinates) {
+        this.array = null;
+        this.coordinates = coordinates;
+        this.size = coordinates.limit() / 2;
+    }
+
+    /**
+     * @return Number of points in this geometry.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Append a point to this geometry.
+     *
+     * @param longitude Longitude of the point, in micro-degrees.
+     * @param latitude Latitude of the point, in micro-degrees.
+     *
+     * @return Index of the new point.
+     *
+     * @throws UnsupportedOperationException if this geometry has been created from
+     *         a buffer.
+     */
+    public int add(int longitude, int latitude) {
+        if (this.array == null) {
+            throw new UnsupportedOperationException("read-only geometry");
+        }
+        if (2 * this.size + 2 > this.array.length) {
+            setArray(Arrays.copyOf(this.array, Math.max(2 * this.array.length, 2)));
+        }
+        this.array[2 * this.size] = longitude;
+        this.array[2 * this.size + 1] = latitude;
+        return this.size++;
+    }
+
+    /**
+     * Release the unused capacity of this geometry, should be called once all the
+     * points have been added.
+     */
+    public void trim() {
+        if (this.array != null) {
+            setArray(Arrays.copyOf(this.array, 2 * this.size));
+        }
+    }
+
+    /**
+     * Replace the array backing this geometry.
+     */
+    private void setArray(int[] array) {
+        this.array = array;
+        this.coordinates = IntBuffer.wrap(array);
+    }
+
+    /**
+     * @param index Index of a point.
+     *
+     * @return Longitude of the point, in micro-degrees.
+     */
+    public int getMicroLongitude(int index) {
+        return this.coordinates.get(2 * index);
+    }
+
+    /**
+     * @param index Index of a point.
+     *
+     * @return Latitude of the point, in micro-degrees.
+     */
+    public int getMicroLatitude(int index) {
+        return this.coordinates.get(2 * index + 1);
+    }
+
+    /**
+     * Create a view over the given range of points of this geometry. The view is
+     * not a copy, creating it is a constant time operation.
+     *
+     * @param offset Index of the first point.
+     * @param size Number of points.
+     *
+     * @return A view containing the points from offset (inclusive) to offset + size
+     *         (exclusive).
+     */
+    public ArcPoints getPoints(int offset, int size) {
+        if (offset < 0 || size < 0 || offset + size > this.size) {
+            throw new IndexOutOfBoundsException(
+                    "Range: [" + offset + ", " + (offset + size) + "), Size: " + this.size);
+        }
+        return new PackedArcPoints(this, offset, size);
+    }
+
+}
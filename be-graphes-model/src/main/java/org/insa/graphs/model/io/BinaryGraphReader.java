@@ -2,19 +2,20 @@ package org.insa.graphs.model.io;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
 
 import org.insa.graphs.model.AccessRestrictions;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.LazyArcPoints;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
 import org.insa.graphs.model.Point;
 import org.insa.graphs.model.RoadInformation;
-import org.insa.graphs.model.AccessRestrictions.AccessMode;
-import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
 import org.insa.graphs.model.GraphStatistics.BoundingBox;
 import org.insa.graphs.model.RoadInformation.RoadType;
 
@@ -31,55 +32,28 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     // Length of the map id field (in bytes)
     protected static final int MAP_ID_FIELD_LENGTH = 32;
 
+    // Unit of the segment deltas, in micro-degrees (deltas are stored in 1/200000
+    // of degrees).
+    private static final int DELTA_UNIT = 5;
+
     // List of observers
     protected List<GraphReaderObserver> observers = new ArrayList<>();
 
+    // true if the points of the arcs should be decoded on first access.
+    private boolean lazyGeometry = false;
+
     /**
-     * Parse the given long value into a new instance of AccessRestrictions.
+     * Retrieve the instance of AccessRestrictions corresponding to the given long
+     * value. Instances are shared between descriptors with the same value.
      * 
      * @param access The value to parse.
      * 
-     * @return New instance of access restrictions parsed from the given value.
+     * @return Access restrictions corresponding to the given value.
+     * 
+     * @see AccessRestrictions#fromAccessWord(long)
      */
     protected static AccessRestrictions toAccessInformation(final long access) {
-
-        // See the following for more information:
-        // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
-
-        // The order of values inside this array is VERY IMPORTANT: For allRestrictions,
-        // the order correspond to the 4 bits value (i.e. FORBIDDEN is 0 or PRIVATE is
-        // 2) - UKNOWN is not included because value above 6 (FORESTRY) are all
-        // considered unknown.
-        final AccessRestriction[] allRestrictions = new AccessRestriction[] {
-                AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
-                AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
-                AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
-
-        // The order of values inside this array is VERY IMPORTANT: The order is such
-        // that each 4-bits group of the long value is processed in the correct order,
-        // i.e. FOOT is processed first (4 lowest bits), and so on.
-        final AccessMode[] allModes = new AccessMode[] { AccessMode.FOOT, null, AccessMode.BICYCLE,
-                AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL, AccessMode.MOTORCYCLE,
-                AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null, AccessMode.PUBLIC_TRANSPORT };
-
-        // fill maps...
-        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
-        long copyAccess = access;
-        for (AccessMode mode: allModes) {
-            if (mode == null) {
-                continue; // filling cells
-            }
-            int value = (int) (copyAccess & 0xf);
-            if (value < allRestrictions.length) {
-                restrictions.put(mode, allRestrictions[value]);
-            }
-            else {
-                restrictions.put(mode, AccessRestriction.UNKNOWN);
-            }
-            copyAccess = copyAccess >> 4;
-        }
-
-        return new AccessRestrictions(restrictions);
+        return AccessRestrictions.fromAccessWord(access);
     }
 
     /**
@@ -147,6 +121,42 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         observers.add(observer);
     }
 
+    /**
+     * <p>
+     * Enable or disable lazy decoding of the geometry of the arcs.
+     * </p>
+     * 
+     * <p>
+     * When enabled, the segments of the arcs are kept in their encoded form and
+     * {@link Arc#getPoints()} decodes them on first access (see
+     * {@link LazyArcPoints}). This is useful when the points are not needed (e.g.,
+     * when no drawing is involved) since it reduces both reading time and memory
+     * usage. Lazy decoding is disabled by default.
+     * </p>
+     * 
+     * @param lazyGeometry true to enable lazy decoding of the geometry.
+     */
+    public void setLazyGeometry(boolean lazyGeometry) {
+        this.lazyGeometry = lazyGeometry;
+    }
+
+    /**
+     * @return true if the geometry of the arcs is decoded on first access.
+     */
+    public boolean isLazyGeometry() {
+        return this.lazyGeometry;
+    }
+
+    /**
+     * @throws InterruptedIOException if the reading thread has been interrupted
+     *         (see {@link Thread#interrupt()}).
+     */
+    private static void checkInterruption() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("graph reading interrupted");
+        }
+    }
+
     @Override
     public Graph read() throws IOException {
 
@@ -179,14 +189,24 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         // Construct an array list with initial capacity of nbNodes.
         ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
 
+        // Coordinates of the nodes, for the compact graph.
+        float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+
+        // Coordinates of the nodes in micro-degrees, for the geometry of the arcs.
+        int[] microLongitudes = new int[nbNodes], microLatitudes = new int[nbNodes];
+
         // Read nodes.
         float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
                 maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
         observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
         for (int node = 0; node < nbNodes; ++node) {
+            checkInterruption();
+
             // Read longitude / latitude.
-            float longitude = ((float) dis.readInt()) / 1E6f;
-            float latitude = ((float) dis.readInt()) / 1E6f;
+            microLongitudes[node] = dis.readInt();
+            microLatitudes[node] = dis.readInt();
+            float longitude = PackedGeometry.toDegrees(microLongitudes[node]);
+            float latitude = PackedGeometry.toDegrees(microLatitudes[node]);
 
             // Update minimum / maximum.
             minLongitude = Math.min(longitude, minLongitude);
@@ -194,6 +214,9 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
             maxLongitude = Math.max(longitude, maxLongitude);
             maxLatitude = Math.max(latitude, maxLatitude);
 
+            longitudes[node] = longitude;
+            latitudes[node] = latitude;
+
             // Update information.
             nbSuccessors[node] = dis.readUnsignedByte();
             nbTotalSuccessors += nbSuccessors[node];
@@ -225,12 +248,23 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         // Check format.
         checkByteOrThrow(254);
 
+        // Compact graph, built with the same arcs as the nodes.
+        CompactGraph.Builder compactBuilder = new CompactGraph.Builder(longitudes, latitudes,
+                descs);
+
+        // Shared storage for the segments, packed or encoded (lazy geometry).
+        PackedGeometry geometry = lazyGeometry ? null : new PackedGeometry();
+        LazyArcPoints.DeltaBuffer deltaBuffer = lazyGeometry
+                ? new LazyArcPoints.DeltaBuffer(DELTA_UNIT)
+                : null;
+
         // Read successors and convert to arcs.
         float maxLength = 0;
         final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
         observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
         for (int node = 0; node < nbNodes; ++node) {
+            checkInterruption();
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
 
                 // Read target node number.
@@ -256,20 +290,27 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 int nbSegments = dis.readUnsignedShort();
 
                 // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
-
-                for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
-
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
-
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
+                List<Point> points;
+                if (lazyGeometry) {
+                    int offset = deltaBuffer.size();
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        deltaBuffer.add(dis.readShort(), dis.readShort());
+                    }
+                    points = new LazyArcPoints(microLongitudes[node], microLatitudes[node],
+                            microLongitudes[destNode], microLatitudes[destNode], deltaBuffer,
+                            offset, nbSegments);
+                }
+                else {
+                    int offset = geometry.add(microLongitudes[node], microLatitudes[node]);
+                    int lon = microLongitudes[node], lat = microLatitudes[node];
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        lon += DELTA_UNIT * dis.readShort();
+                        lat += DELTA_UNIT * dis.readShort();
+                        geometry.add(lon, lat);
+                    }
+                    geometry.add(microLongitudes[destNode], microLatitudes[destNode]);
+                    points = geometry.getPoints(offset, nbSegments + 2);
                 }
-
-                points.add(nodes.get(destNode).getPoint());
 
                 RoadInformation info = descs[descrNum];
                 Node orig = nodes.get(node);
@@ -277,6 +318,7 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
                 // Add successor to initial arc.
                 Arc arc = Node.linkNodes(orig, dest, length, info, points);
+                compactBuilder.addRoad(node, destNode, length, descrNum);
                 if (info.isOneWay()) {
                     nbOneWayRoad++;
                 }
@@ -287,6 +329,13 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         // Check format.
         checkByteOrThrow(253);
 
+        if (geometry != null) {
+            geometry.trim();
+        }
+        if (deltaBuffer != null) {
+            deltaBuffer.trim();
+        }
+
         observers.forEach((observer) -> observer.notifyEndReading());
 
         this.dis.close();
@@ -295,7 +344,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 new GraphStatistics(
                         new BoundingBox(new Point(minLongitude, maxLatitude),
                                 new Point(maxLongitude, minLatitude)),
-                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
+                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength),
+                compactBuilder.build());
     }
 
     /**
@@ -308,7 +358,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     private RoadInformation readRoadInformation() throws IOException {
         char type = (char) dis.readUnsignedByte();
         int x = dis.readUnsignedByte();
-        AccessRestrictions access = new AccessRestrictions();
+        AccessRestrictions access = AccessRestrictions
+                .fromAccessWord(AccessRestrictions.UNKNOWN_ACCESS);
         if (getCurrentVersion() >= 7) {
             access = toAccessInformation(dis.readLong());
         }
@@ -0,0 +1,239 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} that reads graph snapshots written by
+ * {@link BinaryGraphSnapshotWriter}.
+ * </p>
+ *
+ * <p>
+ * The arrays of the snapshot are mapped in memory (see
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)}) and used as is by
+ * the {@link CompactGraph} and the geometry of the graph, so they are neither
+ * parsed nor copied in the Java heap. The {@link Node} and {@link Arc} objects
+ * are created the first time they are accessed (see the lazy constructor of
+ * {@link Graph}), so observers are only notified of the descriptors, not of
+ * the nodes and arcs.
+ * </p>
+ *
+ * <p>
+ * Each section of the snapshot is mapped separately, so the file can be larger
+ * than 2 GB as long as each array is smaller.
+ * </p>
+ *
+ */
+public class BinaryGraphSnapshotReader implements GraphReader {
+
+    // Magic number and version of snapshot files.
+    protected static final int MAGIC_NUMBER = 0x47534E50;
+    protected static final int VERSION = 4;
+
+    // Size of the header (including statistics), before alignment.
+    protected static final int HEADER_SIZE = 4 + 4 + 8 + 8 + BinaryGraphReader.MAP_ID_FIELD_LENGTH
+            + 5 * 4 + 4 * 4 + 3 * 4 + 4;
+
+    /**
+     * Alignment (in bytes) of the sections of a snapshot file.
+     */
+    public static final int ALIGNMENT = 8;
+
+    /**
+     * Check if the given snapshot file exists and corresponds to the current
+     * version of the given source file.
+     *
+     * @param snapshotFile Snapshot file to check.
+     * @param sourceFile Source (original) file of the snapshot.
+     *
+     * @return true if the snapshot can be used instead of the source file.
+     */
+    public static boolean isUpToDate(File snapshotFile, File sourceFile) {
+        if (!snapshotFile.isFile() || !sourceFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(snapshotFile))) {
+            return dis.readInt() == MAGIC_NUMBER && dis.readInt() == VERSION
+                    && dis.readLong() == sourceFile.length()
+                    && dis.readLong() == sourceFile.lastModified();
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    // Snapshot file and its source file (may be null).
+    private final RandomAccessFile file;
+    private final File sourceFile;
+
+    // Position of the next section to map.
+    private long position;
+
+    /**
+     * Create a new BinaryGraphSnapshotReader for the given snapshot file.
+     *
+     * @param snapshotFile Snapshot file to read.
+     * @param sourceFile Source (original) file of the snapshot, checked against the
+     *        snapshot to detect outdated snapshots, or null to skip the check.
+     *
+     * @throws IOException if the snapshot file cannot be opened.
+     */
+    public BinaryGraphSnapshotReader(File snapshotFile, File sourceFile) throws IOException {
+        this.file = new RandomAccessFile(snapshotFile, "r");
+        this.sourceFile = sourceFile;
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Map the next section of the snapshot, and move to the next aligned position.
+     *
+     * @param size Size of the section, in bytes.
+     *
+     * @return A read-only buffer over the section.
+     *
+     * @throws IOException if the section is not in the file or cannot be mapped.
+     */
+    private ByteBuffer map(long size) throws IOException {
+        FileChannel channel = this.file.getChannel();
+        if (size > Integer.MAX_VALUE) {
+            throw new BadFormatException("snapshot section too large to be mapped: " + size);
+        }
+        if (size < 0 || this.position + size > channel.size()) {
+            throw new EOFException();
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+        this.position += size;
+        if (this.position % ALIGNMENT != 0) {
+            this.position += ALIGNMENT - this.position % ALIGNMENT;
+        }
+        return buffer;
+    }
+
+    /**
+     * Read a string written by {@link java.io.DataOutputStream#writeUTF(String)}.
+     */
+    private static String readUTF(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    @Override
+    public Graph read() throws IOException {
+        this.position = 0;
+
+        // Header.
+        ByteBuffer buffer = map(HEADER_SIZE);
+        int magicNumber = buffer.getInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        long sourceLength = buffer.getLong(), sourceLastModified = buffer.getLong();
+        if (this.sourceFile != null && (sourceLength != this.sourceFile.length()
+                || sourceLastModified != this.sourceFile.lastModified())) {
+            throw new OutdatedSnapshotException(this.sourceFile);
+        }
+        byte[] mapIdBytes = new byte[BinaryGraphReader.MAP_ID_FIELD_LENGTH];
+        buffer.get(mapIdBytes);
+        final String mapId = new String(mapIdBytes, "UTF-8").trim();
+        final int nbNodes = buffer.getInt();
+        final int nbArcs = buffer.getInt();
+        final int nbRoads = buffer.getInt();
+        final int nbDesc = buffer.getInt();
+        final int nbGeometryPoints = buffer.getInt();
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Statistics.
+        BoundingBox boundingBox = new BoundingBox(new Point(buffer.getFloat(), buffer.getFloat()),
+                new Point(buffer.getFloat(), buffer.getFloat()));
+        GraphStatistics statistics = new GraphStatistics(boundingBox, buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getFloat());
+
+        // Arrays (mapped).
+        final FloatBuffer longitudes = map(4L * nbNodes).asFloatBuffer();
+        final FloatBuffer latitudes = map(4L * nbNodes).asFloatBuffer();
+        final IntBuffer firstArc = map(4L * (nbNodes + 1)).asIntBuffer();
+        final IntBuffer destinations = map(4L * nbArcs).asIntBuffer();
+        final FloatBuffer lengths = map(4L * nbArcs).asFloatBuffer();
+        final ShortBuffer descriptorIndices = map(2L * nbArcs).asShortBuffer();
+        final IntBuffer arcRoads = map(4L * nbArcs).asIntBuffer();
+        final IntBuffer geometryOffsets = map(4L * (nbRoads + 1)).asIntBuffer();
+        final PackedGeometry geometry = new PackedGeometry(
+                map(8L * nbGeometryPoints).asIntBuffer());
+
+        // Road information.
+        buffer = map(this.file.getChannel().size() - this.position);
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        RoadType[] roadTypes = RoadType.values();
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            RoadType type = roadTypes[buffer.get()];
+            boolean oneWay = buffer.get() != 0;
+            int maxSpeed = buffer.getInt();
+            AccessRestrictions access = AccessRestrictions.fromAccessWord(buffer.getLong());
+            final RoadInformation roadinf = new RoadInformation(type, access, oneWay, maxSpeed,
+                    readUTF(buffer));
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        }
+        final String mapName = readUTF(buffer);
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        // Points of an arc: points of its road, reversed if the arc goes from the
+        // destination to the origin of the road.
+        return new Graph(mapId, mapName, statistics,
+                new CompactGraph(longitudes, latitudes, firstArc, destinations, lengths,
+                        descriptorIndices, descs),
+                (arc) -> {
+                    int road = arcRoads.get(arc), index = road < 0 ? ~road : road;
+                    int offset = geometryOffsets.get(index);
+                    ArcPoints points = geometry.getPoints(offset,
+                            geometryOffsets.get(index + 1) - offset);
+                    return road < 0 ? points.reverse() : points;
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.file.close();
+    }
+
+}
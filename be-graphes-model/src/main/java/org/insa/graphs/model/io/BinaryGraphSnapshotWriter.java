@@ -0,0 +1,274 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Writer for graph snapshots, i.e. already parsed graphs stored as flat arrays
+ * that can be read back with {@link BinaryGraphSnapshotReader}.
+ * </p>
+ *
+ * <p>
+ * A snapshot stores, for each arc, the road of the original file it comes from
+ * (to retrieve its points), so this writer must observe the {@link GraphReader}
+ * that reads the original graph (see
+ * {@link GraphReader#addObserver(GraphReaderObserver)}) before
+ * {@link #writeSnapshot(Graph, File)} is called. {@link GraphSnapshots} wraps
+ * the whole process.
+ * </p>
+ *
+ * <p>
+ * All the sections of the file are aligned on
+ * {@link BinaryGraphSnapshotReader#ALIGNMENT} bytes.
+ * </p>
+ *
+ */
+public class BinaryGraphSnapshotWriter extends BinaryWriter implements GraphReaderObserver {
+
+    // Road information in reading order.
+    private final List<RoadInformation> descriptors = new ArrayList<>();
+
+    // Roads (arcs as stored in the original file) in reading order.
+    private final List<Arc> roads = new ArrayList<>();
+
+    // Number of bytes written by the current snapshot.
+    private long position;
+
+    /**
+     * Create a new BinaryGraphSnapshotWriter that writes to the given output
+     * stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public BinaryGraphSnapshotWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    @Override
+    public void notifyStartReading(String mapId) {
+        this.descriptors.clear();
+        this.roads.clear();
+    }
+
+    @Override
+    public void notifyEndReading() {
+    }
+
+    @Override
+    public void notifyStartReadingNodes(int nNodes) {
+    }
+
+    @Override
+    public void notifyNewNodeRead(Node node) {
+    }
+
+    @Override
+    public void notifyStartReadingDescriptors(int nDesc) {
+    }
+
+    @Override
+    public void notifyNewDescriptorRead(RoadInformation desc) {
+        this.descriptors.add(desc);
+    }
+
+    @Override
+    public void notifyStartReadingArcs(int nArcs) {
+    }
+
+    @Override
+    public void notifyNewArcRead(Arc arc) {
+        this.roads.add(arc);
+    }
+
+    /**
+     * Write padding bytes until the output is aligned, the position is tracked
+     * here since {@link DataOutputStream#size()} overflows after 2 GB.
+     *
+     * @param sectionSize Size (in bytes) of the section that has just been
+     *        written.
+     *
+     * @throws IOException if an error occurs while writing to the stream.
+     */
+    private void endSection(long sectionSize) throws IOException {
+        this.position += sectionSize;
+        while (this.position % BinaryGraphSnapshotReader.ALIGNMENT != 0) {
+            dos.writeByte(0);
+            this.position += 1;
+        }
+    }
+
+    /**
+     * Write a snapshot of the given graph, which must be the graph read while this
+     * writer was observing the reader.
+     *
+     * @param graph Graph to write.
+     * @param sourceFile File from which the graph was read, used to invalidate
+     *        the snapshot when the file changes.
+     *
+     * @throws IOException if an error occurs while writing the snapshot.
+     * @throws IllegalStateException if no roads have been observed for the given
+     *         graph.
+     */
+    public void writeSnapshot(Graph graph, File sourceFile) throws IOException {
+        final CompactGraph compact = graph.getCompactGraph();
+        if (this.roads.isEmpty() && compact.getArcCount() > 0) {
+            throw new IllegalStateException(
+                    "no roads observed, the writer must observe the graph reader");
+        }
+
+        final Map<RoadInformation, Integer> descriptorIndices = new IdentityHashMap<>();
+        for (RoadInformation info: this.descriptors) {
+            descriptorIndices.put(info, descriptorIndices.size());
+        }
+
+        final int nbNodes = graph.size();
+        final int nbArcs = compact.getArcCount();
+        final int nbRoads = this.roads.size();
+        long nbGeometryPoints = 0;
+        for (Arc road: this.roads) {
+            nbGeometryPoints += road.getPoints().size();
+        }
+        if (nbGeometryPoints > Integer.MAX_VALUE / 2) {
+            throw new IOException("too many points for a snapshot: " + nbGeometryPoints);
+        }
+
+        // Road of each arc (complemented if the arc goes from the destination to
+        // the origin of the road), arcs of a node being in the order their roads
+        // were read (see Node#linkNodes).
+        final int[] arcRoads = new int[nbArcs];
+        final int[] next = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            next[node] = compact.getFirstArc(node);
+        }
+        for (int road = 0; road < nbRoads; ++road) {
+            Arc arc = this.roads.get(road);
+            int origin = arc.getOrigin().getId(), destination = arc.getDestination().getId();
+            arcRoads[checkArc(compact, next[origin]++, destination)] = road;
+            if (!arc.getRoadInformation().isOneWay()) {
+                arcRoads[checkArc(compact, next[destination]++, origin)] = ~road;
+            }
+        }
+
+        // Header.
+        this.position = 0;
+        dos.writeInt(BinaryGraphSnapshotReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryGraphSnapshotReader.VERSION);
+        dos.writeLong(sourceFile.length());
+        dos.writeLong(sourceFile.lastModified());
+        dos.write(Arrays.copyOf(graph.getMapId().getBytes("UTF-8"),
+                BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        dos.writeInt(nbNodes);
+        dos.writeInt(nbArcs);
+        dos.writeInt(nbRoads);
+        dos.writeInt(this.descriptors.size());
+        dos.writeInt((int) nbGeometryPoints);
+
+        // Statistics.
+        GraphStatistics statistics = graph.getGraphInformation();
+        dos.writeFloat(statistics.getBoundingBox().getTopLeftPoint().getLongitude());
+        dos.writeFloat(statistics.getBoundingBox().getTopLeftPoint().getLatitude());
+        dos.writeFloat(statistics.getBoundingBox().getBottomRightPoint().getLongitude());
+        dos.writeFloat(statistics.getBoundingBox().getBottomRightPoint().getLatitude());
+        dos.writeInt(statistics.getOneWayRoadCount());
+        dos.writeInt(statistics.getTwoWaysRoadCount());
+        dos.writeInt(statistics.getMaximumSpeed());
+        dos.writeFloat(statistics.getMaximumLength());
+        endSection(BinaryGraphSnapshotReader.HEADER_SIZE);
+
+        // Nodes.
+        for (int node = 0; node < nbNodes; ++node) {
+            dos.writeFloat(compact.getLongitude(node));
+        }
+        endSection(4L * nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            dos.writeFloat(compact.getLatitude(node));
+        }
+        endSection(4L * nbNodes);
+
+        // Compact graph.
+        for (int node = 0; node <= nbNodes; ++node) {
+            dos.writeInt(node < nbNodes ? compact.getFirstArc(node) : nbArcs);
+        }
+        endSection(4L * (nbNodes + 1));
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(compact.getDestination(arc));
+        }
+        endSection(4L * nbArcs);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeFloat(compact.getLength(arc));
+        }
+        endSection(4L * nbArcs);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeShort(descriptorIndices.get(compact.getRoadInformation(arc)));
+        }
+        endSection(2L * nbArcs);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(arcRoads[arc]);
+        }
+        endSection(4L * nbArcs);
+
+        // Geometry: offset of the points of each road, then points (micro-degrees).
+        int offset = 0;
+        for (Arc road: this.roads) {
+            dos.writeInt(offset);
+            offset += road.getPoints().size();
+        }
+        dos.writeInt(offset);
+        endSection(4L * (nbRoads + 1));
+        for (Arc road: this.roads) {
+            ArcPoints points = road.getPoints();
+            for (int i = 0; i < points.size(); ++i) {
+                dos.writeInt(points.getMicroLongitude(i));
+                dos.writeInt(points.getMicroLatitude(i));
+            }
+        }
+        endSection(8L * nbGeometryPoints);
+
+        // Road information.
+        for (RoadInformation info: this.descriptors) {
+            dos.writeByte(info.getType().ordinal());
+            dos.writeBoolean(info.isOneWay());
+            dos.writeInt(info.getMaximumSpeed());
+            dos.writeLong(info.getAccessRestrictions() == null
+                    ? AccessRestrictions.UNKNOWN_ACCESS
+                    : info.getAccessRestrictions().getAccessWord());
+            dos.writeUTF(info.getName() == null ? "" : info.getName());
+        }
+        dos.writeUTF(graph.getMapName());
+
+        dos.flush();
+    }
+
+    /**
+     * Check that the given arc of the compact graph goes to the given destination.
+     *
+     * @return The given arc.
+     *
+     * @throws IllegalStateException if the arc does not go to the destination,
+     *         i.e. the observed roads do not correspond to the graph.
+     */
+    private static int checkArc(CompactGraph compact, int arc, int destination) {
+        if (compact.getDestination(arc) != destination) {
+            throw new IllegalStateException(
+                    "observed roads do not match the arcs of the graph at arc " + arc);
+        }
+        return arc;
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.insa.graphs.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Utility class to read graphs through snapshots.
+ * </p>
+ *
+ * <p>
+ * The snapshot of a graph file is stored next to it (see
+ * {@link #getSnapshotFile(File)}). When the snapshot is up to date, the graph is
+ * read from it with a {@link BinaryGraphSnapshotReader}; otherwise, the graph
+ * is read from the original file with a {@link BinaryGraphReader} and a new
+ * snapshot is written, if possible.
+ * </p>
+ *
+ */
+public final class GraphSnapshots {
+
+    /**
+     * Extension of snapshot files, appended to the name of the graph file.
+     */
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private GraphSnapshots() {
+    }
+
+    /**
+     * @param graphFile Graph file.
+     *
+     * @return Snapshot file corresponding to the given graph file.
+     */
+    public static File getSnapshotFile(File graphFile) {
+        return new File(graphFile.getPath() + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Read the graph in the given file, using (and creating if necessary) its
+     * snapshot.
+     *
+     * @param graphFile Binary graph file to read.
+     * @param observers Observers to attach to the reader.
+     *
+     * @return The graph read.
+     *
+     * @throws IOException if an error occurs while reading the graph.
+     */
+    public static Graph readGraph(File graphFile, GraphReaderObserver... observers)
+            throws IOException {
+        File snapshotFile = getSnapshotFile(graphFile);
+        if (BinaryGraphSnapshotReader.isUpToDate(snapshotFile, graphFile)) {
+            try (GraphReader reader = new BinaryGraphSnapshotReader(snapshotFile, graphFile)) {
+                for (GraphReaderObserver observer: observers) {
+                    reader.addObserver(observer);
+                }
+                return reader.read();
+            }
+            catch (OutdatedSnapshotException e) {
+                // The file has been modified in-between, read the original file.
+            }
+        }
+
+        File temporaryFile;
+        try {
+            temporaryFile = File.createTempFile(graphFile.getName(), SNAPSHOT_EXTENSION,
+                    graphFile.getAbsoluteFile().getParentFile());
+        }
+        catch (IOException e) {
+            // The snapshot cannot be written (e.g. read-only directory), only read the
+            // original file.
+            try (GraphReader reader = new BinaryGraphReader(new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(graphFile))))) {
+                for (GraphReaderObserver observer: observers) {
+                    reader.addObserver(observer);
+                }
+                return reader.read();
+            }
+        }
+
+        Graph graph;
+        try {
+            try (BinaryGraphSnapshotWriter writer = new BinaryGraphSnapshotWriter(
+                    new DataOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(temporaryFile))))) {
+                try (GraphReader reader = new BinaryGraphReader(new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(graphFile))))) {
+                    reader.addObserver(writer);
+                    for (GraphReaderObserver observer: observers) {
+                        reader.addObserver(observer);
+                    }
+                    graph = reader.read();
+                }
+                writer.writeSnapshot(graph, graphFile);
+            }
+            try {
+                Files.move(temporaryFile.toPath(), snapshotFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e) {
+                // The old snapshot cannot be replaced (e.g. it is still mapped by a graph
+                // on some systems), the snapshot will be written next time.
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+        return graph;
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.insa.graphs.model.io;
+
+import java.io.File;
+
+/**
+ * Exception thrown when a graph snapshot does not correspond to the current
+ * version of the file it was created from.
+ *
+ */
+public class OutdatedSnapshotException extends BadFormatException {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    // Source file of the snapshot.
+    private final File sourceFile;
+
+    /**
+     * Create a new OutdatedSnapshotException for the given source file.
+     * 
+     * @param sourceFile Source file that has been modified since the snapshot
+     *        was created.
+     */
+    public OutdatedSnapshotException(File sourceFile) {
+        super("snapshot is outdated for " + sourceFile);
+        this.sourceFile = sourceFile;
+    }
+
+    /**
+     * @return Source file of the outdated snapshot.
+     */
+    public File getSourceFile() {
+        return sourceFile;
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMask;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.junit.Test;
+
+public class AccessRestrictionsTest {
+
+    // Restrictions by 4-bits value, as described in the binary graph format.
+    private static final AccessRestriction[] VALUES = new AccessRestriction[] {
+            AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+            AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
+            AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
+
+    // Modes by 4-bits group of the access word (null for unused groups).
+    private static final AccessMode[] MODES = new AccessMode[] { AccessMode.FOOT, null,
+            AccessMode.BICYCLE, AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL,
+            AccessMode.MOTORCYCLE, AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null,
+            AccessMode.PUBLIC_TRANSPORT };
+
+    @Test
+    public void testFromAccessWord() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            long word = random.nextLong();
+            AccessRestrictions access = AccessRestrictions.fromAccessWord(word);
+            assertEquals(word, access.getAccessWord());
+            for (int group = 0; group < MODES.length; ++group) {
+                if (MODES[group] != null) {
+                    int value = (int) ((word >> (4 * group)) & 0xf);
+                    assertEquals(value < VALUES.length ? VALUES[value] : AccessRestriction.UNKNOWN,
+                            access.getRestrictionFor(MODES[group]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedInstances() {
+        assertSame(AccessRestrictions.fromAccessWord(0x1234L),
+                AccessRestrictions.fromAccessWord(0x1234L));
+    }
+
+    @Test
+    public void testEnumMapConstructor() {
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        restrictions.put(AccessMode.FOOT, AccessRestriction.PRIVATE);
+        restrictions.put(AccessMode.MOTORCAR, AccessRestriction.FORBIDDEN);
+        restrictions.put(AccessMode.PUBLIC_TRANSPORT, AccessRestriction.ALLOWED);
+        AccessRestrictions access = new AccessRestrictions(restrictions);
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN),
+                    access.getRestrictionFor(mode));
+        }
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(AccessRestriction.UNKNOWN,
+                    new AccessRestrictions().getRestrictionFor(mode));
+        }
+    }
+
+    @Test
+    public void testAccessMask() {
+        EnumSet<AccessRestriction> open = EnumSet
+                .complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE));
+        AccessMask car = AccessMask.of(AccessMode.MOTORCAR, open);
+        AccessMask vehicles = AccessMask.of(AccessMode.VEHICLE,
+                AccessRestriction.ALLOWED_FOR_SOMETHING);
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            AccessRestrictions access = AccessRestrictions.fromAccessWord(random.nextLong());
+            assertEquals(access.isAllowedForAny(AccessMode.MOTORCAR, open), car.test(access));
+            assertEquals(
+                    access.areAllAllowedForAny(AccessMode.VEHICLE,
+                            AccessRestriction.ALLOWED_FOR_SOMETHING),
+                    vehicles.test(access));
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ArcPointsTest {
+
+    // Points used for tests.
+    private static List<Point> points;
+
+    // Same points, packed.
+    private static ArcPoints packed;
+
+    @BeforeClass
+    public static void initAll() {
+        points = Arrays.asList(new Point(1.25f, 43.5f), new Point(1.5f, 43.25f),
+                new Point(-0.75f, 44f), new Point(179.999f, -89.5f), new Point(-180f, 0f));
+        PackedGeometry geometry = new PackedGeometry();
+        geometry.add(0, 0);
+        for (Point point: points) {
+            geometry.add(PackedGeometry.toMicroDegrees(point.getLongitude()),
+                    PackedGeometry.toMicroDegrees(point.getLatitude()));
+        }
+        packed = geometry.getPoints(1, points.size());
+    }
+
+    /**
+     * Check that the given points are the expected ones, through both the cursor
+     * API and the list API.
+     */
+    private static void checkPoints(List<Point> expected, ArcPoints actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        int index = 0;
+        for (Point point: actual) {
+            assertEquals(expected.get(index).getLongitude(), point.getLongitude(), 1e-6);
+            assertEquals(expected.get(index).getLatitude(), point.getLatitude(), 1e-6);
+            ++index;
+        }
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.getLongitude(i), 1e-6);
+            assertEquals(expected.get(i).getLatitude(), actual.getLatitude(i), 1e-6);
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(), 1e-6);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 1e-6);
+            assertEquals(PackedGeometry.toMicroDegrees(expected.get(i).getLongitude()),
+                    actual.getMicroLongitude(i));
+            assertEquals(PackedGeometry.toMicroDegrees(expected.get(i).getLatitude()),
+                    actual.getMicroLatitude(i));
+        }
+    }
+
+    /**
+     * Check that accessing the given index of the given points fails.
+     */
+    private static void checkOutOfBounds(ArcPoints points, int index) {
+        try {
+            points.getLongitude(index);
+            throw new AssertionError("no exception for index " + index);
+        }
+        catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+        try {
+            points.getMicroLatitude(index);
+            throw new AssertionError("no exception for index " + index);
+        }
+        catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testOf() {
+        ArcPoints view = ArcPoints.of(points);
+        assertSame(points.get(2), view.get(2));
+        assertSame(view, ArcPoints.of(view));
+        assertSame(packed, ArcPoints.of(packed));
+        checkPoints(points, view);
+        checkPoints(Collections.<Point>emptyList(), ArcPoints.of(new ArrayList<>()));
+    }
+
+    @Test
+    public void testForward() {
+        checkPoints(points, packed);
+        checkOutOfBounds(packed, -1);
+        checkOutOfBounds(packed, packed.size());
+        checkOutOfBounds(ArcPoints.of(points), points.size());
+    }
+
+    @Test
+    public void testReversed() {
+        List<Point> expected = new ArrayList<>(points);
+        Collections.reverse(expected);
+        for (ArcPoints original: new ArcPoints[] { packed, ArcPoints.of(points) }) {
+            ArcPoints reversed = original.reverse();
+            checkPoints(expected, reversed);
+            assertEquals(original.getMicroLongitude(0),
+                    reversed.getMicroLongitude(reversed.size() - 1));
+            assertEquals(original.getMicroLatitude(original.size() - 1),
+                    reversed.getMicroLatitude(0));
+            assertSame(original, reversed.reverse());
+            checkOutOfBounds(reversed, -1);
+            checkOutOfBounds(reversed, reversed.size());
+        }
+        assertTrue(ArcPoints.of(new ArrayList<>()).reverse().isEmpty());
+    }
+
+    @Test
+    public void testMicroDegrees() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; ++i) {
+            int microDegrees = random.nextInt(360000001) - 180000000;
+            float degrees = PackedGeometry.toDegrees(microDegrees);
+            assertEquals(microDegrees / 1e6, degrees, 2 * Math.ulp(degrees));
+
+            // Conversion to degrees is not exact (float), so the round-trip may be off
+            // by the precision of the float.
+            assertEquals(microDegrees, PackedGeometry.toMicroDegrees(degrees),
+                    Math.ceil(2 * Math.ulp(degrees) * 1e6));
+        }
+        for (int microDegrees: new int[] { 0, 1, -1, 1000000, -180000000 }) {
+            assertEquals(microDegrees,
+                    PackedGeometry.toMicroDegrees(PackedGeometry.toDegrees(microDegrees)));
+        }
+    }
+
+}
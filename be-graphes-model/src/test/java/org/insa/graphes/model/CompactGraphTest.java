@@ -0,0 +1,143 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    // Compact graph built from the same roads as graph
+    private static CompactGraph built;
+
+    // List of nodes
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        RoadInformation oneWay = new RoadInformation(RoadType.UNCLASSIFIED, null, true, 36, ""),
+                twoWays = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 72, "");
+        RoadInformation[] descriptors = new RoadInformation[] { oneWay, twoWays };
+
+        // Create nodes
+        nodes = new Node[6];
+        float[] longitudes = new float[nodes.length], latitudes = new float[nodes.length];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, 2 * i));
+            longitudes[i] = i;
+            latitudes[i] = 2 * i;
+        }
+
+        // Roads: origin, destination, length, descriptor.
+        int[][] roads = new int[][] { { 0, 1, 10, 1 }, { 0, 2, 15, 1 }, { 0, 4, 15, 0 },
+                { 2, 1, 10, 1 }, { 2, 3, 20, 0 }, { 2, 3, 10, 0 }, { 3, 0, 15, 1 },
+                { 3, 4, 22, 0 }, { 4, 0, 10, 0 }, { 4, 4, 5, 1 } };
+
+        CompactGraph.Builder builder = new CompactGraph.Builder(longitudes, latitudes,
+                descriptors);
+        for (int[] road: roads) {
+            Node.linkNodes(nodes[road[0]], nodes[road[1]], road[2], descriptors[road[3]],
+                    new ArrayList<>());
+            builder.addRoad(road[0], road[1], road[2], road[3]);
+        }
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+        built = builder.build();
+    }
+
+    /**
+     * Check that the given compact graph has the same arcs, in the same order, as
+     * the graph.
+     */
+    private void checkSameArcs(CompactGraph compact) {
+        assertEquals(graph.size(), compact.size());
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            assertEquals(node.getNumberOfSuccessors(), compact.getNumberOfSuccessors(node.getId()));
+            assertEquals(node.getPoint().getLongitude(), compact.getLongitude(node.getId()), 1e-6);
+            assertEquals(node.getPoint().getLatitude(), compact.getLatitude(node.getId()), 1e-6);
+            int arcId = compact.getFirstArc(node.getId());
+            for (Arc arc: node.getSuccessors()) {
+                assertEquals(node.getId(), compact.getOrigin(arcId));
+                assertEquals(arc.getDestination().getId(), compact.getDestination(arcId));
+                assertEquals(arc.getLength(), compact.getLength(arcId), 1e-6);
+                assertSame(arc.getRoadInformation(), compact.getRoadInformation(arcId));
+                assertEquals(arc.getMinimumTravelTime(), compact.getMinimumTravelTime(arcId),
+                        1e-6);
+                ++arcId;
+                ++nbArcs;
+            }
+        }
+        assertEquals(nbArcs, compact.getArcCount());
+    }
+
+    @Test
+    public void testFromNodes() {
+        checkSameArcs(graph.getCompactGraph());
+    }
+
+    @Test
+    public void testBuilder() {
+        checkSameArcs(built);
+    }
+
+    @Test
+    public void testGetArc() {
+        CompactGraph compact = graph.getCompactGraph();
+        for (int arcId = 0; arcId < compact.getArcCount(); ++arcId) {
+            Arc arc = graph.getArc(arcId);
+            assertEquals(compact.getOrigin(arcId), arc.getOrigin().getId());
+            assertEquals(compact.getDestination(arcId), arc.getDestination().getId());
+        }
+    }
+
+    @Test
+    public void testInvalidOrigin() {
+        for (int arcId: new int[] { -1, built.getArcCount() }) {
+            try {
+                built.getOrigin(arcId);
+                throw new AssertionError("no exception for arc " + arcId);
+            }
+            catch (IndexOutOfBoundsException e) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testIncomingArcs() {
+        CompactGraph compact = graph.getCompactGraph();
+        int nbArcs = 0;
+        for (int node = 0; node < compact.size(); ++node) {
+            int previous = -1;
+            for (int index = compact.getFirstIncomingArc(node); index < compact
+                    .getFirstIncomingArc(node + 1); ++index) {
+                int arcId = compact.getIncomingArc(index);
+                assertEquals(node, compact.getDestination(arcId));
+                assertEquals(compact.getOrigin(arcId), compact.getIncomingOrigin(index));
+                assertTrue(arcId > previous);
+                previous = arcId;
+                ++nbArcs;
+            }
+        }
+        assertEquals(compact.getArcCount(), nbArcs);
+    }
+
+}
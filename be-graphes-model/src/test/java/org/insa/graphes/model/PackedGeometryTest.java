@@ -0,0 +1,136 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.IntBuffer;
+
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.PackedGeometry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PackedGeometryTest {
+
+    // Number of points of each arc.
+    private static final int[] SIZES = new int[] { 3, 2, 0, 5, 1 };
+
+    // Geometry containing the points of all arcs, and offset of the points of
+    // each arc.
+    private PackedGeometry geometry;
+    private int[] offsets;
+
+    /**
+     * @return Longitude (micro-degrees) of the given point of the given arc.
+     */
+    private static int longitude(int arc, int point) {
+        return 1000000 * arc + point;
+    }
+
+    /**
+     * @return Latitude (micro-degrees) of the given point of the given arc.
+     */
+    private static int latitude(int arc, int point) {
+        return -1000000 * arc - 10 * point;
+    }
+
+    @Before
+    public void initAll() {
+        geometry = new PackedGeometry();
+        offsets = new int[SIZES.length];
+        for (int arc = 0; arc < SIZES.length; ++arc) {
+            offsets[arc] = geometry.size();
+            for (int point = 0; point < SIZES[arc]; ++point) {
+                assertEquals(offsets[arc] + point,
+                        geometry.add(longitude(arc, point), latitude(arc, point)));
+            }
+        }
+    }
+
+    /**
+     * Check that the given geometry contains the points of all arcs at the right
+     * offsets.
+     */
+    private void checkArcs(PackedGeometry geometry) {
+        assertEquals(offsets[SIZES.length - 1] + SIZES[SIZES.length - 1], geometry.size());
+        for (int arc = 0; arc < SIZES.length; ++arc) {
+            ArcPoints points = geometry.getPoints(offsets[arc], SIZES[arc]);
+            assertEquals(SIZES[arc], points.size());
+            for (int point = 0; point < SIZES[arc]; ++point) {
+                int index = offsets[arc] + point;
+                assertEquals(longitude(arc, point), geometry.getMicroLongitude(index));
+                assertEquals(latitude(arc, point), geometry.getMicroLatitude(index));
+                assertEquals(longitude(arc, point), points.getMicroLongitude(point));
+                assertEquals(latitude(arc, point), points.getMicroLatitude(point));
+                assertEquals(PackedGeometry.toDegrees(longitude(arc, point)),
+                        points.getLongitude(point), 0);
+                assertEquals(PackedGeometry.toDegrees(latitude(arc, point)),
+                        points.getLatitude(point), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testOffsets() {
+        assertArrayEquals(new int[] { 0, 3, 5, 5, 10 }, offsets);
+        checkArcs(geometry);
+        assertTrue(geometry.getPoints(offsets[2], SIZES[2]).isEmpty());
+    }
+
+    @Test
+    public void testTrim() {
+        geometry.trim();
+        checkArcs(geometry);
+        int index = geometry.add(7, 8);
+        assertEquals(11, index);
+        assertEquals(7, geometry.getMicroLongitude(index));
+        assertEquals(8, geometry.getMicroLatitude(index));
+    }
+
+    @Test
+    public void testGrowth() {
+        PackedGeometry large = new PackedGeometry();
+        for (int i = 0; i < 5000; ++i) {
+            assertEquals(i, large.add(i, -i));
+        }
+        ArcPoints points = large.getPoints(4000, 1000);
+        for (int i = 0; i < points.size(); ++i) {
+            assertEquals(4000 + i, points.getMicroLongitude(i));
+            assertEquals(-4000 - i, points.getMicroLatitude(i));
+        }
+    }
+
+    @Test
+    public void testFromCoordinates() {
+        geometry.trim();
+        int[] coordinates = new int[2 * geometry.size()];
+        for (int i = 0; i < geometry.size(); ++i) {
+            coordinates[2 * i] = geometry.getMicroLongitude(i);
+            coordinates[2 * i + 1] = geometry.getMicroLatitude(i);
+        }
+        checkArcs(new PackedGeometry(coordinates));
+        checkArcs(new PackedGeometry(IntBuffer.wrap(coordinates)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        new PackedGeometry(IntBuffer.wrap(new int[4])).add(1, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRange() {
+        geometry.getPoints(offsets[4], SIZES[4] + 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNegativeOffset() {
+        geometry.getPoints(-1, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfView() {
+        geometry.getPoints(offsets[0], SIZES[0]).getMicroLongitude(SIZES[0]);
+    }
+
+}
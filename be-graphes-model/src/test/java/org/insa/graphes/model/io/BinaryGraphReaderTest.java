@@ -0,0 +1,97 @@
+package org.insa.graphes.model.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.LazyArcPoints;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+public class BinaryGraphReaderTest {
+
+    @Test
+    public void testRead() throws IOException {
+        Graph graph = TestMaps.read(TestMaps.generate("test", 100, 1), false);
+        assertEquals("test", graph.getMapId());
+        assertEquals(100, graph.size());
+    }
+
+    @Test
+    public void testLazyGeometry() throws IOException {
+        byte[] map = TestMaps.generate("test", 400, 2);
+        Graph eager = TestMaps.read(map, false), lazy = TestMaps.read(map, true);
+        assertEquals(eager.size(), lazy.size());
+
+        // Arcs of two-ways roads are compared in both directions, i.e. as the arc
+        // storing the points (origin with the smallest ID) and as its reverse.
+        int nbForward = 0, nbBackward = 0;
+        for (Node node: eager.getNodes()) {
+            Node lazyNode = lazy.get(node.getId());
+            assertEquals(node.getNumberOfSuccessors(), lazyNode.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), lazyArc = lazyNode.getSuccessors().get(i);
+                assertEquals(arc.getDestination(), lazyArc.getDestination());
+                if (!arc.getRoadInformation().isOneWay()) {
+                    if (arc.getOrigin().getId() < arc.getDestination().getId()) {
+                        nbForward++;
+                    }
+                    else {
+                        nbBackward++;
+                    }
+                }
+
+                ArcPoints points = arc.getPoints(), lazyPoints = lazyArc.getPoints();
+                assertEquals(points.size(), lazyPoints.size());
+                for (int j = 0; j < points.size(); ++j) {
+                    assertEquals(points.getMicroLongitude(j), lazyPoints.getMicroLongitude(j));
+                    assertEquals(points.getMicroLatitude(j), lazyPoints.getMicroLatitude(j));
+                    assertEquals(points.get(j).getLongitude(), lazyPoints.get(j).getLongitude(),
+                            0);
+                    assertEquals(points.get(j).getLatitude(), lazyPoints.get(j).getLatitude(),
+                            0);
+                }
+            }
+        }
+        assertTrue(nbForward > 0);
+        assertTrue(nbBackward > 0);
+    }
+
+    @Test
+    public void testLazyGeometryDecodedOnAccess() throws IOException {
+        Graph lazy = TestMaps.read(TestMaps.generate("test", 100, 3), true);
+        int nbLazy = 0;
+        for (Node node: lazy.getNodes()) {
+            for (Arc arc: node.getSuccessors()) {
+                // Reversed arcs share the points of the arc storing them.
+                if (arc.getPoints() instanceof LazyArcPoints) {
+                    LazyArcPoints points = (LazyArcPoints) arc.getPoints();
+                    assertFalse(points.isDecoded());
+                    points.get(points.size() - 1);
+                    assertTrue(points.isDecoded());
+                    nbLazy++;
+                }
+            }
+        }
+        assertTrue(nbLazy > 0);
+    }
+
+    @Test(expected = InterruptedIOException.class)
+    public void testInterruptedReading() throws IOException {
+        byte[] map = TestMaps.generate("test", 100, 1);
+        Thread.currentThread().interrupt();
+        try {
+            TestMaps.read(map, false);
+        }
+        finally {
+            Thread.interrupted();
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.insa.graphes.model.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ArcPoints;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.io.BinaryGraphSnapshotReader;
+import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.GraphSnapshots;
+import org.insa.graphs.model.io.OutdatedSnapshotException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphSnapshotsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Map file and its snapshot.
+    private File mapFile, snapshotFile;
+
+    @Before
+    public void initAll() throws IOException {
+        mapFile = writeMap("test", 200, 1);
+        snapshotFile = GraphSnapshots.getSnapshotFile(mapFile);
+    }
+
+    private File writeMap(String mapId, int nbNodes, long seed) throws IOException {
+        File file = new File(folder.getRoot(), "test.mapgr");
+        Files.write(file.toPath(), TestMaps.generate(mapId, nbNodes, seed));
+        return file;
+    }
+
+    private static void assertSamePoints(ArcPoints expected, ArcPoints actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.getMicroLongitude(i), actual.getMicroLongitude(i));
+            assertEquals(expected.getMicroLatitude(i), actual.getMicroLatitude(i));
+        }
+    }
+
+    private static void assertSameRoadInformation(RoadInformation expected,
+            RoadInformation actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.isOneWay(), actual.isOneWay());
+        assertEquals(expected.getMaximumSpeed(), actual.getMaximumSpeed());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAccessRestrictions().getAccessWord(),
+                actual.getAccessRestrictions().getAccessWord());
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getArcCount(),
+                actual.getGraphInformation().getArcCount());
+        assertEquals(expected.getGraphInformation().getMaximumSpeed(),
+                actual.getGraphInformation().getMaximumSpeed());
+
+        for (Node node: expected.getNodes()) {
+            Node other = actual.get(node.getId());
+            assertEquals(node.getId(), other.getId());
+            assertEquals(node.getPoint().getLongitude(), other.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), other.getPoint().getLatitude(), 0);
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), otherArc = other.getSuccessors().get(i);
+                assertEquals(arc.getClass(), otherArc.getClass());
+                assertSame(other, otherArc.getOrigin());
+                assertEquals(arc.getDestination().getId(), otherArc.getDestination().getId());
+                assertEquals(arc.getLength(), otherArc.getLength(), 0);
+                assertSameRoadInformation(arc.getRoadInformation(),
+                        otherArc.getRoadInformation());
+                assertSamePoints(arc.getPoints(), otherArc.getPoints());
+            }
+        }
+
+        CompactGraph compact = expected.getCompactGraph(),
+                otherCompact = actual.getCompactGraph();
+        assertEquals(compact.getArcCount(), otherCompact.getArcCount());
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(compact.getDestination(arc), otherCompact.getDestination(arc));
+            assertEquals(compact.getLength(arc), otherCompact.getLength(arc), 0);
+            assertSameRoadInformation(compact.getRoadInformation(arc),
+                    otherCompact.getRoadInformation(arc));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Graph original = GraphSnapshots.readGraph(mapFile);
+        assertTrue(snapshotFile.isFile());
+        assertTrue(BinaryGraphSnapshotReader.isUpToDate(snapshotFile, mapFile));
+
+        Graph snapshot = GraphSnapshots.readGraph(mapFile);
+        assertSameGraph(TestMaps.read(Files.readAllBytes(mapFile.toPath()), false), original);
+        assertSameGraph(original, snapshot);
+    }
+
+    @Test
+    public void testMapId() throws IOException {
+        for (String mapId: new String[] { "a", "fr31insa", "0123456789abcdef0123456789abcde" }) {
+            writeMap(mapId, 20, 2);
+            assertEquals(mapId, GraphSnapshots.readGraph(mapFile).getMapId());
+            assertEquals(mapId, GraphSnapshots.readGraph(mapFile).getMapId());
+        }
+    }
+
+    @Test
+    public void testLazyNodes() throws IOException {
+        GraphSnapshots.readGraph(mapFile);
+        Graph graph = GraphSnapshots.readGraph(mapFile);
+        assertSame(graph.get(42), graph.get(42));
+        for (int arc = 0; arc < graph.getCompactGraph().getArcCount(); ++arc) {
+            assertSame(graph.getArc(arc), graph.getArc(arc));
+            assertSame(graph.get(graph.getCompactGraph().getDestination(arc)),
+                    graph.getArc(arc).getDestination());
+        }
+    }
+
+    @Test
+    public void testInvalidationOnLength() throws IOException {
+        GraphSnapshots.readGraph(mapFile);
+        long lastModified = mapFile.lastModified();
+        writeMap("test", 300, 1);
+        assertTrue(mapFile.setLastModified(lastModified));
+        assertFalse(BinaryGraphSnapshotReader.isUpToDate(snapshotFile, mapFile));
+
+        Graph graph = GraphSnapshots.readGraph(mapFile);
+        assertEquals(300, graph.size());
+        assertTrue(BinaryGraphSnapshotReader.isUpToDate(snapshotFile, mapFile));
+        assertEquals(300, GraphSnapshots.readGraph(mapFile).size());
+    }
+
+    @Test
+    public void testInvalidationOnLastModified() throws IOException {
+        GraphSnapshots.readGraph(mapFile);
+        assertTrue(mapFile.setLastModified(mapFile.lastModified() + 10000));
+        assertFalse(BinaryGraphSnapshotReader.isUpToDate(snapshotFile, mapFile));
+
+        Graph expected = TestMaps.read(Files.readAllBytes(mapFile.toPath()), false);
+        assertSameGraph(expected, GraphSnapshots.readGraph(mapFile));
+        assertTrue(BinaryGraphSnapshotReader.isUpToDate(snapshotFile, mapFile));
+        assertSameGraph(expected, GraphSnapshots.readGraph(mapFile));
+    }
+
+    @Test(expected = OutdatedSnapshotException.class)
+    public void testOutdatedSnapshot() throws IOException {
+        GraphSnapshots.readGraph(mapFile);
+        assertTrue(mapFile.setLastModified(mapFile.lastModified() + 10000));
+        try (GraphReader reader = new BinaryGraphSnapshotReader(snapshotFile, mapFile)) {
+            reader.read();
+        }
+    }
+
+}
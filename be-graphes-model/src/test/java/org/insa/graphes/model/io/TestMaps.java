@@ -0,0 +1,127 @@
+package org.insa.graphes.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+/**
+ * Maps in the binary format read by {@link BinaryGraphReader}, generated for
+ * tests.
+ */
+public class TestMaps {
+
+    // Magic number and version of the generated maps.
+    private static final int MAGIC_NUMBER = 0x208BC3B3;
+    private static final int VERSION = 8;
+
+    // Number of road descriptors of the generated maps.
+    private static final int NB_DESCRIPTORS = 6;
+
+    /**
+     * Generate a map whose nodes are on a grid, connected to their right and upper
+     * neighbors by arcs with random descriptors (one-way or not) and random
+     * segments.
+     *
+     * @param mapId ID of the map.
+     * @param nbNodes Number of nodes of the map.
+     * @param seed Seed of the random generator.
+     *
+     * @return Content of the map file.
+     */
+    public static byte[] generate(String mapId, int nbNodes, long seed) {
+        Random random = new Random(seed);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.write(Arrays.copyOf(mapId.getBytes("UTF-8"), 32));
+            output.writeUTF("Map " + mapId);
+            output.writeInt(NB_DESCRIPTORS);
+            output.writeInt(nbNodes);
+
+            int side = (int) Math.ceil(Math.sqrt(nbNodes));
+            int[] longitudes = new int[nbNodes], latitudes = new int[nbNodes];
+            List<List<int[]>> successors = new ArrayList<>();
+            for (int node = 0; node < nbNodes; ++node) {
+                longitudes[node] = 1400000 + (node % side) * 1000 + random.nextInt(300);
+                latitudes[node] = 43500000 + (node / side) * 1000 + random.nextInt(300);
+                successors.add(new ArrayList<>());
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int next: new int[] { node + 1, node + side }) {
+                    if (next < nbNodes && (next != node + 1 || next % side != 0)) {
+                        successors.get(node)
+                                .add(new int[] { next, random.nextInt(NB_DESCRIPTORS) });
+                    }
+                }
+            }
+
+            for (int node = 0; node < nbNodes; ++node) {
+                output.writeInt(longitudes[node]);
+                output.writeInt(latitudes[node]);
+                output.writeByte(successors.get(node).size());
+            }
+            output.writeByte(255);
+
+            for (int descriptor = 0; descriptor < NB_DESCRIPTORS; ++descriptor) {
+                output.writeByte("abcdef".charAt(descriptor));
+                output.writeByte((descriptor % 2 == 0 ? 0x80 : 0) | (2 + 2 * descriptor));
+                output.writeLong(0x1111111111111111L * (descriptor + 1));
+                output.writeUTF("Road " + descriptor);
+            }
+            output.writeByte(254);
+
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int[] successor: successors.get(node)) {
+                    write24bits(output, successor[0]);
+                    write24bits(output, successor[1]);
+                    output.writeInt(150000 + random.nextInt(50000));
+                    int nbSegments = random.nextInt(4);
+                    output.writeShort(nbSegments);
+                    for (int segment = 0; segment < nbSegments; ++segment) {
+                        output.writeShort(random.nextInt(200) - 100);
+                        output.writeShort(random.nextInt(200) - 100);
+                    }
+                }
+            }
+            output.writeByte(253);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void write24bits(DataOutputStream output, int value) throws IOException {
+        output.writeShort(value >> 8);
+        output.writeByte(value & 0xff);
+    }
+
+    /**
+     * Read the given map.
+     *
+     * @param map Content of the map file.
+     * @param lazyGeometry true to decode the geometry of the arcs lazily.
+     *
+     * @return Graph of the map.
+     *
+     * @throws IOException if the map cannot be read.
+     */
+    public static Graph read(byte[] map, boolean lazyGeometry) throws IOException {
+        try (BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(map)))) {
+            reader.setLazyGeometry(lazyGeometry);
+            return reader.read();
+        }
+    }
+
+}